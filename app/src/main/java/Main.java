@@ -0,0 +1,1784 @@
+import javafx.animation.AnimationTimer;
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
+import javafx.application.Application;
+import javafx.application.Platform;
+import javafx.beans.property.BooleanProperty;
+import javafx.beans.property.SimpleBooleanProperty;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.Scene;
+import javafx.scene.chart.*;
+import javafx.scene.control.*;
+import javafx.scene.control.cell.CheckBoxListCell;
+import javafx.scene.layout.*;
+import javafx.stage.DirectoryChooser;
+import javafx.stage.FileChooser;
+import javafx.stage.Stage;
+import javafx.util.Duration;
+
+import dataviz.analysis.CategoryAggregator;
+import dataviz.analysis.CategoryStats;
+import dataviz.analysis.DataPreview;
+import dataviz.analysis.Summary;
+import dataviz.analysis.SummaryEngine;
+import dataviz.cache.ColumnCache;
+import dataviz.cache.DerivedCache;
+import dataviz.cache.MappedDataView;
+import dataviz.data.DataStore;
+import dataviz.data.DatasetCatalog;
+import dataviz.data.DataView;
+import dataviz.data.Extent;
+import dataviz.data.SeriesView;
+import dataviz.data.WindowView;
+import dataviz.export.ChartBuilder;
+import dataviz.export.ChartExporter;
+import dataviz.export.ExportFormat;
+import dataviz.generate.DataGenerator;
+import dataviz.generate.Profile;
+import dataviz.io.CsvOptions;
+import dataviz.io.CsvResult;
+import dataviz.io.ParallelCsvLoader;
+import dataviz.metrics.Metrics;
+import dataviz.metrics.MetricsWriter;
+import dataviz.metrics.StageTimer;
+import dataviz.paging.PageCache;
+import dataviz.paging.SegmentWriter;
+import dataviz.paging.SegmentedDataView;
+import dataviz.query.FilterExpression;
+import dataviz.query.FilteredView;
+import dataviz.query.Selection;
+import dataviz.query.SelectionCache;
+import dataviz.render.DensityRasterizer;
+import dataviz.sampling.Downsampler;
+import dataviz.sampling.LodPyramid;
+import dataviz.sampling.LttbDownsampler;
+import dataviz.sampling.M4Downsampler;
+import dataviz.sampling.RangeIndex;
+import dataviz.sampling.StrideDownsampler;
+import dataviz.sampling.TimeRollup;
+import dataviz.stream.StreamSource;
+import dataviz.stream.StreamWindow;
+import dataviz.stream.StreamingSession;
+import dataviz.task.TaskScheduler;
+import dataviz.ui.ChartZoomHandler;
+import dataviz.ui.Dashboard;
+import dataviz.ui.DataTable;
+import dataviz.ui.DistributionView;
+import dataviz.ui.DensityLayer;
+import dataviz.ui.FxDispatcher;
+import dataviz.ui.PulseMonitor;
+import dataviz.ui.PulseScheduler;
+import dataviz.ui.SeriesUpdate;
+import dataviz.ui.TimeAxis;
+
+import java.io.*;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+
+public class Main extends Application {
+
+    // Core components
+    private BorderPane rootPane;
+    private TabPane chartTabPane;
+    private VBox controlPanel;
+    private ProgressBar progressBar;
+    private Button cancelBtn;
+    private Label statusLabel;
+    private Label dataPreview;
+    private DataTable dataTable;
+    private Label dataCountLabel;
+
+    // Data management
+    private DataView source; // as generated, loaded or streamed
+    private DataView dataset; // what the charts show: the source, or the rows the filter selects
+    private FilterExpression filter;
+    // Room for a dashboard's panel filters; bitmaps of paged datasets count against their own budget
+    private final SelectionCache selections = new SelectionCache(16,
+            Math.max(1, Long.getLong("dataviz.selection.budget.mb", 64)) << 20);
+    private Label filterStatus;
+
+    // Every loaded or generated dataset; the active one is the source
+    private final DatasetCatalog catalog = new DatasetCatalog();
+    private DatasetCatalog.Entry activeEntry;
+    private ComboBox<DatasetCatalog.Entry> datasetCombo;
+    private CheckBox keepDatasetsCheck;
+    private Label catalogLabel;
+
+    // Out-of-core loads: pages of every paged dataset share one heap budget, at least a few pages per column
+    private final PageCache pageCache = new PageCache(Math.max(16, Long.getLong("dataviz.page.budget.mb", 256)) << 20);
+    private CheckBox pagedLoadCheck;
+    private boolean updatingDatasetControls;
+    // Further series drawn over the line and area charts, from any dataset in the catalog
+    private final ObservableList<SeriesRef> seriesChoices = FXCollections.observableArrayList();
+    private final Map<SeriesRef, BooleanProperty> overlaySelection = new HashMap<>();
+    private volatile Map<OverlayKey, Overlay> preparedOverlays = Map.of();
+    private TaskScheduler scheduler;
+    private volatile Downsampler downsampler = new M4Downsampler(); // read by dashboard panels on the CPU pool
+    private final CategoryAggregator aggregator = new CategoryAggregator(); // keeps the stream's blocks between frames
+    private SummaryEngine summaryEngine;
+    // Downsampled rows, indexes and aggregates by dataset version, so going back to a view skips the scans
+    private final DerivedCache derived =
+            new DerivedCache(Math.max(1, Long.getLong("dataviz.derived.cache.mb", 64)) << 20);
+
+    // Chart components
+    private LineChart<Number, Number> lineChart;
+    private AreaChart<Number, Number> areaChart;
+    private BarChart<String, Number> barChart;
+    private PieChart pieChart;
+    private ScatterChart<Number, Number> scatterChart;
+    private DistributionView distributionView;
+    private Tab lineTab, areaTab, barTab, pieTab, scatterTab, distributionTab, dataTab;
+    // Applied to every chart built so far, and to each one built later
+    private boolean chartsAnimated = true;
+    private boolean legendsVisible = true;
+    private double chartOpacity = 1;
+
+    // Series are kept across updates so their data nodes can be reused
+    private final XYChart.Series<Number, Number> lineSeries = new XYChart.Series<>();
+    private final XYChart.Series<Number, Number> areaSeries = new XYChart.Series<>();
+    private final XYChart.Series<String, Number> barSeries = new XYChart.Series<>();
+    private final Map<String, XYChart.Series<Number, Number>> scatterSeries = new LinkedHashMap<>();
+    private final Map<String, XYChart.Series<Number, Number>> lineOverlays = new LinkedHashMap<>();
+    private final Map<String, XYChart.Series<Number, Number>> areaOverlays = new LinkedHashMap<>();
+    private final PulseScheduler pulseScheduler = new PulseScheduler(8);
+    private final Set<Tab> staleTabs = new HashSet<>();
+    private volatile ChartFrame currentFrame; // read by the CPU pool to reuse its index
+
+    // High-density mode draws every row into a canvas instead of chart nodes, per tab
+    private DensityLayer lineDensity, areaDensity, scatterDensity;
+    private final Set<Tab> highDensityTabs = new HashSet<>();
+    private CheckBox densityCheck;
+
+    // Dashboard windows show the source dataset too, each panel filtered and zoomed on its own
+    private final List<Dashboard> dashboards = new ArrayList<>();
+    private final Dashboard.Views dashboardViews = new Dashboard.Views() {
+        @Override
+        public DataView filter(DataView base, FilterExpression expression) {
+            return selections.get(expression, base);
+        }
+
+        @Override
+        public int[] downsample(DataView data, long version, int width) {
+            return Main.this.downsample(data, version, downsampler, width);
+        }
+
+        @Override
+        public RangeIndex index(DataView data, long version) {
+            return Main.this.index(data, version);
+        }
+
+        @Override
+        public int[] query(RangeIndex index, long version, double lower, double upper, int width) {
+            return Main.this.query(index, version, lower, upper, width);
+        }
+
+        @Override
+        public CategoryStats categories(DataView data, long version) {
+            return derived.get(DerivedCache.Key.of(version, "categories"),
+                    () -> aggregator.update(data), CategoryStats::estimatedBytes);
+        }
+    };
+
+    private static final int EXPORT_WIDTH = 1200;
+    private static final int EXPORT_HEIGHT = 800;
+
+    // Generating or loading replaces the dataset, so a newer request supersedes an older one
+    private static final String DATASET = "dataset";
+
+    // Every hand-off to the FX thread goes through one dispatcher; these keys keep only the latest update
+    private FxDispatcher fx;
+    private static final String STATUS = "status";
+    private static final String PROGRESS = "progress";
+    private static final String CHARTS = "charts";
+
+    // Stage timings, shown in the status bar overlay and saved on request
+    private final Metrics metrics = new Metrics();
+    private PulseMonitor pulseMonitor;
+    private Timeline metricsRefresh;
+    private Label metricsLabel;
+    private Button saveMetricsBtn;
+
+    // Live streaming
+    private ToggleButton streamToggle;
+    private StreamingSession streamingSession;
+
+    // -Ddataviz.startup.exit=true prints the startup milestones and quits once the first chart is drawn
+    private static final boolean STARTUP_EXIT = Boolean.getBoolean("dataviz.startup.exit");
+    private boolean firstChartPending = true;
+
+    @Override
+    public void start(Stage primaryStage) {
+        fx = new FxDispatcher(metrics.stage("fx.batch"));
+        scheduler = new TaskScheduler(Runtime.getRuntime().availableProcessors(), fx);
+        summaryEngine = new SummaryEngine(scheduler.cpu());
+        dataset = new DataStore();
+        source = dataset;
+
+        initializeUI();
+
+        Scene scene = new Scene(rootPane, 1200, 800);
+        scene.getStylesheets().add(getClass().getResource("/style.css").toExternalForm());
+
+        pulseMonitor = new PulseMonitor(scene, metrics.stage("fx.pulse"), metrics.stage("fx.layout"));
+
+        primaryStage.setTitle("Advanced Data Visualization Tool");
+        primaryStage.setScene(scene);
+        primaryStage.setOnCloseRequest(e -> {
+            stopStreaming();
+            setMetricsOverlay(false);
+            new ArrayList<>(dashboards).forEach(Dashboard::close);
+            scheduler.shutdown();
+            catalog.entries().forEach(entry -> release(entry.data()));
+            Platform.exit();
+        });
+        primaryStage.show();
+
+        // The first pulse lays out and draws the window; sample data is only generated once it is out
+        new AnimationTimer() {
+            private int pulses;
+
+            @Override
+            public void handle(long now) {
+                if (++pulses < 2) return;
+                stop();
+                startupMilestone("first-frame");
+                generateSampleData();
+            }
+        }.start();
+    }
+
+    // Milliseconds from JVM start, kept as stage startup.<name>; printed for StartupBenchmark and CDS training
+    private void startupMilestone(String name) {
+        long millis = ManagementFactory.getRuntimeMXBean().getUptime();
+        metrics.stage("startup." + name).record(millis * 1_000_000L, -1);
+        if (STARTUP_EXIT) System.out.println("startup " + name + " " + millis + " ms");
+    }
+
+    private void initializeUI() {
+        rootPane = new BorderPane();
+        rootPane.getStyleClass().add("root-pane");
+
+        // Create control panel
+        createControlPanel();
+
+        // Create chart tabs
+        createChartTabs();
+
+        // Layout
+        ScrollPane controlScrollPane = new ScrollPane(controlPanel);
+        controlScrollPane.setFitToWidth(true);
+        rootPane.setLeft(controlScrollPane);
+        rootPane.setCenter(chartTabPane);
+        rootPane.setBottom(createStatusBar());
+    }
+
+    private void createControlPanel() {
+        controlPanel = new VBox(10);
+        controlPanel.getStyleClass().add("control-panel");
+        controlPanel.setPadding(new Insets(15));
+        controlPanel.setPrefWidth(250);
+
+        Label titleLabel = new Label("Data Controls");
+        titleLabel.getStyleClass().add("panel-title");
+
+        // Data generation controls
+        VBox dataGenGroup = createGroupBox("Data Generation");
+
+        Button generateBtn = new Button("Generate Sample Data");
+        generateBtn.getStyleClass().add("primary-button");
+        generateBtn.setMaxWidth(Double.MAX_VALUE);
+
+        ComboBox<String> dataTypeCombo = new ComboBox<>();
+        for (Profile profile : Profile.values()) {
+            dataTypeCombo.getItems().add(profile.label());
+        }
+        dataTypeCombo.setValue(Profile.LINEAR.label());
+        dataTypeCombo.setMaxWidth(Double.MAX_VALUE);
+
+        Spinner<Integer> dataSizeSpinner = new Spinner<>(100, 100_000_000, 1000, 100);
+        dataSizeSpinner.setEditable(true);
+        dataSizeSpinner.setMaxWidth(Double.MAX_VALUE);
+        Label sizeLabel = new Label("Dataset Size:");
+
+        Spinner<Integer> categorySpinner = new Spinner<>(1, 10_000, 5, 1);
+        categorySpinner.setEditable(true);
+        categorySpinner.setMaxWidth(Double.MAX_VALUE);
+
+        // The same seed always gives the same rows, whatever the core count
+        TextField seedField = new TextField("42");
+        seedField.setPromptText("Seed (blank = random)");
+
+        dataGenGroup.getChildren().addAll(
+                sizeLabel, dataSizeSpinner,
+                new Label("Data Type:"), dataTypeCombo,
+                new Label("Categories:"), categorySpinner,
+                new Label("Seed:"), seedField,
+                generateBtn
+        );
+
+        // File operations
+        VBox fileOpsGroup = createGroupBox("File Operations");
+
+        Button loadBtn = new Button("Load CSV Data");
+        loadBtn.getStyleClass().add("secondary-button");
+        loadBtn.setMaxWidth(Double.MAX_VALUE);
+
+        Button exportBtn = new Button("Export Charts");
+        exportBtn.getStyleClass().add("secondary-button");
+        exportBtn.setMaxWidth(Double.MAX_VALUE);
+
+        ComboBox<String> delimiterCombo = new ComboBox<>();
+        delimiterCombo.getItems().addAll("Comma", "Semicolon", "Tab", "Pipe");
+        delimiterCombo.setValue("Comma");
+        delimiterCombo.setMaxWidth(Double.MAX_VALUE);
+
+        TextField columnsField = new TextField("0,1,2");
+        columnsField.setPromptText("x,y[,category]");
+
+        TextField seriesColumnsField = new TextField();
+        seriesColumnsField.setPromptText("e.g. 3-42 or 3,5,7");
+
+        ComboBox<String> xFormatCombo = new ComboBox<>();
+        xFormatCombo.getItems().addAll("Auto", "Number", "Timestamp");
+        xFormatCombo.setValue("Auto");
+        xFormatCombo.setMaxWidth(Double.MAX_VALUE);
+        xFormatCombo.setTooltip(new Tooltip("Timestamp reads ISO-8601 dates and times or epoch milliseconds; "
+                + "Auto reads numbers and recognises ISO-8601 timestamps"));
+
+        pagedLoadCheck = new CheckBox("Page from disk (out-of-core)");
+        pagedLoadCheck.setTooltip(new Tooltip("Spill the rows to segment files and keep only "
+                + (pageCache.budgetBytes() >> 20) + " MB of them on the heap; files larger than a quarter "
+                + "of the heap are always loaded this way"));
+
+        fileOpsGroup.getChildren().addAll(
+                new Label("Delimiter:"), delimiterCombo,
+                new Label("Columns (x,y,category):"), columnsField,
+                new Label("More Series Columns:"), seriesColumnsField,
+                new Label("X Values:"), xFormatCombo,
+                pagedLoadCheck,
+                loadBtn, exportBtn
+        );
+
+        // Dataset catalog and overlays
+        VBox datasetGroup = createGroupBox("Datasets");
+
+        datasetCombo = new ComboBox<>();
+        datasetCombo.setMaxWidth(Double.MAX_VALUE);
+        keepDatasetsCheck = new CheckBox("Keep earlier datasets");
+        keepDatasetsCheck.setTooltip(new Tooltip("Add new data next to the current dataset instead of replacing it"));
+
+        ListView<SeriesRef> seriesList = new ListView<>(seriesChoices);
+        seriesList.setPrefHeight(140);
+        seriesList.setCellFactory(CheckBoxListCell.forListView(this::overlaySelected));
+
+        Button removeDatasetBtn = new Button("Remove Dataset");
+        removeDatasetBtn.getStyleClass().add("secondary-button");
+        removeDatasetBtn.setMaxWidth(Double.MAX_VALUE);
+        catalogLabel = new Label();
+        catalogLabel.getStyleClass().add("info-label");
+        catalogLabel.setWrapText(true);
+
+        datasetGroup.getChildren().addAll(
+                new Label("Active Dataset:"), datasetCombo,
+                keepDatasetsCheck,
+                new Label("Overlay Series (line and area):"), seriesList,
+                removeDatasetBtn, catalogLabel
+        );
+
+        // Live streaming
+        VBox streamGroup = createGroupBox("Live Stream");
+
+        TextField streamSourceField = new TextField("tcp://localhost:9000");
+        streamSourceField.setPromptText("tcp://host:port, pipe:/path or tail:/path");
+
+        Spinner<Integer> bufferSpinner = new Spinner<>(1_000, 10_000_000, 100_000, 10_000);
+        bufferSpinner.setMaxWidth(Double.MAX_VALUE);
+        Spinner<Integer> windowSpinner = new Spinner<>(0, 86_400, 60, 10);
+        windowSpinner.setMaxWidth(Double.MAX_VALUE);
+        Spinner<Integer> fpsSpinner = new Spinner<>(1, 60, 10, 1);
+        fpsSpinner.setMaxWidth(Double.MAX_VALUE);
+
+        streamToggle = new ToggleButton("Start Streaming");
+        streamToggle.getStyleClass().add("secondary-button");
+        streamToggle.setMaxWidth(Double.MAX_VALUE);
+
+        streamGroup.getChildren().addAll(
+                new Label("Source:"), streamSourceField,
+                new Label("Buffer Rows:"), bufferSpinner,
+                new Label("Window (x units, 0 = off):"), windowSpinner,
+                new Label("Frames per Second:"), fpsSpinner,
+                streamToggle
+        );
+
+        // Chart controls
+        VBox chartGroup = createGroupBox("Chart Controls");
+
+        CheckBox animationCheck = new CheckBox("Enable Animations");
+        animationCheck.setSelected(true);
+
+        CheckBox legendCheck = new CheckBox("Show Legends");
+        legendCheck.setSelected(true);
+
+        Slider opacitySlider = new Slider(0.1, 1.0, 0.8);
+        Label opacityLabel = new Label("Chart Opacity:");
+
+        ComboBox<String> samplingCombo = new ComboBox<>();
+        samplingCombo.getItems().addAll("M4 (min/max)", "LTTB", "Every n-th point");
+        samplingCombo.setValue("M4 (min/max)");
+        samplingCombo.setMaxWidth(Double.MAX_VALUE);
+
+        densityCheck = new CheckBox("High-density rendering (this tab)");
+
+        Button dashboardBtn = new Button("Open Dashboard");
+        dashboardBtn.getStyleClass().add("secondary-button");
+        dashboardBtn.setMaxWidth(Double.MAX_VALUE);
+        dashboardBtn.setTooltip(new Tooltip("A window of chart panels over the active dataset, "
+                + "each with its own chart type, filter and zoom"));
+
+        chartGroup.getChildren().addAll(
+                animationCheck, legendCheck,
+                opacityLabel, opacitySlider,
+                new Label("Downsampling:"), samplingCombo,
+                densityCheck,
+                dashboardBtn
+        );
+
+        // Data preview
+        VBox previewGroup = createGroupBox("Data Preview");
+        dataPreview = new Label();
+        dataPreview.setWrapText(true);
+        dataPreview.getStyleClass().add("data-preview");
+        Label browseHint = new Label("Every row is listed in the Data tab.");
+        browseHint.getStyleClass().add("info-label");
+        browseHint.setWrapText(true);
+
+        previewGroup.getChildren().addAll(dataPreview, browseHint);
+
+        // Row filter
+        VBox filterGroup = createGroupBox("Filter");
+        TextField filterField = new TextField();
+        filterField.setPromptText("category == \"Category 3\" && y > 100");
+        Button applyFilterBtn = new Button("Apply");
+        applyFilterBtn.getStyleClass().add("secondary-button");
+        Button clearFilterBtn = new Button("Clear");
+        clearFilterBtn.getStyleClass().add("secondary-button");
+        filterStatus = new Label("All rows shown");
+        filterStatus.getStyleClass().add("info-label");
+        filterStatus.setWrapText(true);
+
+        filterGroup.getChildren().addAll(filterField, new HBox(5, applyFilterBtn, clearFilterBtn), filterStatus);
+
+        controlPanel.getChildren().addAll(
+                titleLabel,
+                dataGenGroup,
+                fileOpsGroup,
+                datasetGroup,
+                filterGroup,
+                streamGroup,
+                chartGroup,
+                previewGroup
+        );
+
+        // Event handlers
+        filterField.setOnAction(e -> setFilter(filterField.getText()));
+        applyFilterBtn.setOnAction(e -> setFilter(filterField.getText()));
+        clearFilterBtn.setOnAction(e -> {
+            filterField.clear();
+            setFilter("");
+        });
+        generateBtn.setOnAction(e -> generateData(dataTypeCombo.getValue(), dataSizeSpinner.getValue(),
+                categorySpinner.getValue(), seedField.getText()));
+        loadBtn.setOnAction(e -> loadCSVData(delimiterCombo.getValue(), columnsField.getText(),
+                seriesColumnsField.getText(), xFormatCombo.getValue()));
+        datasetCombo.setOnAction(e -> {
+            if (!updatingDatasetControls && datasetCombo.getValue() != null) {
+                selectDataset(datasetCombo.getValue());
+            }
+        });
+        removeDatasetBtn.setOnAction(e -> removeActiveDataset());
+        exportBtn.setOnAction(e -> exportCharts());
+        streamToggle.setOnAction(e -> {
+            if (streamToggle.isSelected()) {
+                startStreaming(streamSourceField.getText(), bufferSpinner.getValue(), windowSpinner.getValue(),
+                        fpsSpinner.getValue(), delimiterCombo.getValue(), columnsField.getText());
+            } else {
+                stopStreaming();
+            }
+        });
+
+        animationCheck.setOnAction(e -> toggleAnimations(animationCheck.isSelected()));
+        legendCheck.setOnAction(e -> toggleLegends(legendCheck.isSelected()));
+        opacitySlider.valueProperty().addListener((obs, old, val) -> updateChartOpacity(val.doubleValue()));
+        samplingCombo.setOnAction(e -> setDownsampling(samplingCombo.getValue()));
+        dashboardBtn.setOnAction(e -> openDashboard());
+        densityCheck.setOnAction(e -> setHighDensity(chartTabPane.getSelectionModel().getSelectedItem(),
+                densityCheck.isSelected()));
+    }
+
+    private VBox createGroupBox(String title) {
+        VBox group = new VBox(8);
+        group.getStyleClass().add("group-box");
+
+        Label titleLabel = new Label(title);
+        titleLabel.getStyleClass().add("group-title");
+
+        VBox content = new VBox(5);
+        content.getStyleClass().add("group-content");
+
+        group.getChildren().addAll(titleLabel, content);
+        return content; // Return content box for adding children
+    }
+
+    private void createChartTabs() {
+        chartTabPane = new TabPane();
+        chartTabPane.getStyleClass().add("chart-tabs");
+
+        // Tabs start empty: each builds its chart the first time it is selected
+        lineTab = new Tab("Line Chart");
+        areaTab = new Tab("Area Chart");
+        barTab = new Tab("Bar Chart");
+        pieTab = new Tab("Pie Chart");
+        scatterTab = new Tab("Scatter Chart");
+        distributionTab = new Tab("Distribution");
+        dataTab = new Tab("Data");
+
+        chartTabPane.getTabs().addAll(lineTab, areaTab, barTab, pieTab, scatterTab, distributionTab, dataTab);
+        chartTabPane.getSelectionModel().selectedItemProperty().addListener((obs, old, tab) -> {
+            buildTab(tab);
+            densityCheck.setSelected(highDensityTabs.contains(tab));
+            densityCheck.setDisable(densityLayer(tab) == null);
+            renderTab(tab);
+        });
+        chartTabPane.getSelectionModel().selectFirst();
+        buildTab(chartTabPane.getSelectionModel().getSelectedItem());
+    }
+
+    // Startup only pays for the tab on screen; the others are built when first selected
+    private void buildTab(Tab tab) {
+        if (tab == null || tab.getContent() != null) return;
+        metrics.time("build." + tabStage(tab), () -> {
+            if (tab == lineTab) {
+                buildLineTab();
+            } else if (tab == areaTab) {
+                buildAreaTab();
+            } else if (tab == barTab) {
+                buildBarTab();
+            } else if (tab == pieTab) {
+                buildPieTab();
+            } else if (tab == scatterTab) {
+                buildScatterTab();
+            } else if (tab == distributionTab) {
+                buildDistributionTab();
+            } else if (tab == dataTab) {
+                dataTable = new DataTable(scheduler.cpu(), fx);
+                dataTab.setContent(dataTable);
+            }
+        });
+    }
+
+    private void buildLineTab() {
+        TimeAxis xAxis1 = new TimeAxis();
+        xAxis1.setTime(dataset.isXTime());
+        NumberAxis yAxis1 = new NumberAxis();
+        lineChart = new LineChart<>(xAxis1, yAxis1);
+        lineChart.setTitle("Line Chart Visualization");
+        lineChart.getStyleClass().add("chart");
+        applyChartSettings(lineChart);
+        installZoom(lineChart);
+
+        lineDensity = new DensityLayer(lineChart, scheduler.cpu(), fx);
+        ScrollPane lineScrollPane = new ScrollPane(new StackPane(lineChart, lineDensity));
+        lineScrollPane.setFitToWidth(true);
+        lineScrollPane.setFitToHeight(true);
+        lineTab.setContent(lineScrollPane);
+    }
+
+    private void buildAreaTab() {
+        TimeAxis xAxis2 = new TimeAxis();
+        xAxis2.setTime(dataset.isXTime());
+        NumberAxis yAxis2 = new NumberAxis();
+        areaChart = new AreaChart<>(xAxis2, yAxis2);
+        areaChart.setTitle("Area Chart Visualization");
+        areaChart.getStyleClass().add("chart");
+        applyChartSettings(areaChart);
+        installZoom(areaChart);
+
+        areaDensity = new DensityLayer(areaChart, scheduler.cpu(), fx);
+        ScrollPane areaScrollPane = new ScrollPane(new StackPane(areaChart, areaDensity));
+        areaScrollPane.setFitToWidth(true);
+        areaScrollPane.setFitToHeight(true);
+        areaTab.setContent(areaScrollPane);
+    }
+
+    private void buildBarTab() {
+        CategoryAxis xAxis3 = new CategoryAxis();
+        NumberAxis yAxis3 = new NumberAxis();
+        barChart = new BarChart<>(xAxis3, yAxis3);
+        barChart.setTitle("Bar Chart Visualization");
+        barChart.getStyleClass().add("chart");
+        applyChartSettings(barChart);
+
+        ScrollPane barScrollPane = new ScrollPane(barChart);
+        barScrollPane.setFitToWidth(true);
+        barScrollPane.setFitToHeight(true);
+        barTab.setContent(barScrollPane);
+    }
+
+    private void buildPieTab() {
+        pieChart = new PieChart();
+        pieChart.setTitle("Pie Chart Visualization");
+        pieChart.getStyleClass().add("chart");
+        applyChartSettings(pieChart);
+
+        ScrollPane pieScrollPane = new ScrollPane(pieChart);
+        pieScrollPane.setFitToWidth(true);
+        pieScrollPane.setFitToHeight(true);
+        pieTab.setContent(pieScrollPane);
+    }
+
+    private void buildScatterTab() {
+        TimeAxis xAxis5 = new TimeAxis();
+        xAxis5.setTime(dataset.isXTime());
+        NumberAxis yAxis5 = new NumberAxis();
+        scatterChart = new ScatterChart<>(xAxis5, yAxis5);
+        scatterChart.setTitle("Scatter Chart Visualization");
+        scatterChart.getStyleClass().add("chart");
+        applyChartSettings(scatterChart);
+        installZoom(scatterChart);
+
+        scatterDensity = new DensityLayer(scatterChart, scheduler.cpu(), fx);
+        ScrollPane scatterScrollPane = new ScrollPane(new StackPane(scatterChart, scatterDensity));
+        scatterScrollPane.setFitToWidth(true);
+        scatterScrollPane.setFitToHeight(true);
+        scatterTab.setContent(scatterScrollPane);
+    }
+
+    // Histogram of y with a box plot underneath
+    private void buildDistributionTab() {
+        distributionView = new DistributionView();
+        applyChartSettings(distributionView.chart());
+        distributionView.chart().setLegendVisible(false);
+        distributionView.setOnBinsChanged(() -> {
+            staleTabs.add(distributionTab);
+            renderTab(distributionTab);
+        });
+        distributionTab.setContent(distributionView);
+    }
+
+    // Charts built later start out with the settings the controls already show
+    private void applyChartSettings(Chart chart) {
+        chart.setAnimated(chartsAnimated);
+        chart.setLegendVisible(legendsVisible);
+        chart.setOpacity(chartOpacity);
+    }
+
+    // Charts of the tabs built so far
+    private List<Chart> builtCharts() {
+        List<Chart> charts = new ArrayList<>();
+        for (Chart chart : Arrays.asList(lineChart, areaChart, barChart, pieChart, scatterChart, histogram())) {
+            if (chart != null) charts.add(chart);
+        }
+        return charts;
+    }
+
+    private Chart histogram() {
+        return distributionView == null ? null : distributionView.chart();
+    }
+
+    private List<XYChart<Number, Number>> builtXyCharts() {
+        List<XYChart<Number, Number>> charts = new ArrayList<>();
+        for (XYChart<Number, Number> chart : Arrays.asList(lineChart, areaChart, scatterChart)) {
+            if (chart != null) charts.add(chart);
+        }
+        return charts;
+    }
+
+    private HBox createStatusBar() {
+        HBox statusBar = new HBox(10);
+        statusBar.getStyleClass().add("status-bar");
+        statusBar.setPadding(new Insets(5, 10, 5, 10));
+        statusBar.setAlignment(Pos.CENTER_LEFT);
+
+        statusLabel = new Label("Ready");
+        statusLabel.getStyleClass().add("status-label");
+
+        progressBar = new ProgressBar(0);
+        progressBar.setPrefWidth(200);
+        progressBar.setVisible(false);
+
+        cancelBtn = new Button("Cancel");
+        cancelBtn.visibleProperty().bind(progressBar.visibleProperty());
+        cancelBtn.managedProperty().bind(cancelBtn.visibleProperty());
+        cancelBtn.setOnAction(e -> {
+            if (scheduler.cancel(DATASET)) {
+                updateStatus("Cancelled", false);
+            }
+        });
+
+        metricsLabel = new Label();
+        metricsLabel.getStyleClass().add("metrics-label");
+        metricsLabel.setTooltip(new Tooltip());
+        metricsLabel.setVisible(false);
+        metricsLabel.managedProperty().bind(metricsLabel.visibleProperty());
+
+        Region spacer = new Region();
+        HBox.setHgrow(spacer, Priority.ALWAYS);
+
+        CheckBox metricsCheck = new CheckBox("Metrics");
+        metricsCheck.setOnAction(e -> setMetricsOverlay(metricsCheck.isSelected()));
+
+        saveMetricsBtn = new Button("Save Metrics");
+        saveMetricsBtn.visibleProperty().bind(metricsLabel.visibleProperty());
+        saveMetricsBtn.managedProperty().bind(saveMetricsBtn.visibleProperty());
+        saveMetricsBtn.setOnAction(e -> saveMetrics());
+
+        dataCountLabel = new Label("Data Points: " + dataset.size());
+        dataCountLabel.getStyleClass().add("info-label");
+
+        statusBar.getChildren().addAll(statusLabel, progressBar, cancelBtn, metricsLabel, spacer,
+                metricsCheck, saveMetricsBtn, dataCountLabel);
+        return statusBar;
+    }
+
+    // Wheel zooms, drag pans, double click resets; views are served from the LOD pyramid
+    private void installZoom(XYChart<Number, Number> chart) {
+        ChartZoomHandler.install(chart, new ChartZoomHandler.RangeListener() {
+            @Override
+            public void rangeChanged(double lower, double upper) {
+                renderVisibleRange(chart, lower, upper);
+            }
+
+            @Override
+            public void rangeReset() {
+                updateCharts();
+            }
+        });
+    }
+
+    private void renderVisibleRange(XYChart<Number, Number> chart, double lower, double upper) {
+        if (chart == lineChart && highDensityTabs.contains(lineTab)) {
+            renderDensity(lineTab, dataset, lower, upper);
+            return;
+        } else if (chart == areaChart && highDensityTabs.contains(areaTab)) {
+            renderDensity(areaTab, dataset, lower, upper);
+            return;
+        } else if (chart == scatterChart && highDensityTabs.contains(scatterTab)) {
+            renderDensity(scatterTab, dataset, lower, upper);
+            return;
+        }
+
+        ChartFrame frame = currentFrame;
+        if (frame == null || frame.data != dataset) return;
+        if (frame.index == null) {
+            indexWindow(frame, chart);
+            return;
+        }
+
+        DataView data = frame.data;
+        int[] rows = query(frame.index, frame.version, lower, upper, plotWidth());
+        String label = frame.label;
+        List<Overlay> overlays = frame.overlays;
+        if (chart == lineChart) {
+            updateLineChart(data, rows, label);
+            updateOverlays(lineChart, lineOverlays, overlays, lower, upper);
+        } else if (chart == areaChart) {
+            updateAreaChart(data, rows, label);
+            updateOverlays(areaChart, areaOverlays, overlays, lower, upper);
+        } else if (chart == scatterChart) {
+            updateScatterChart(data, rows);
+        }
+    }
+
+    // Builds a stream window's index once it is zoomed, then draws the range the axis shows by then
+    private void indexWindow(ChartFrame frame, XYChart<Number, Number> chart) {
+        if (!(frame.data instanceof WindowView) || frame.indexing || !LodPyramid.canIndex(frame.data)) return;
+        frame.indexing = true;
+        CompletableFuture.supplyAsync(() -> index(frame.data, frame.version), scheduler.cpu())
+                .whenComplete((index, error) -> fx.execute(() -> {
+                    frame.index = index;
+                    ValueAxis<Number> axis = (ValueAxis<Number>) chart.getXAxis();
+                    if (index != null && currentFrame == frame && !axis.isAutoRanging()) {
+                        renderVisibleRange(chart, axis.getLowerBound(), axis.getUpperBound());
+                    }
+                }));
+    }
+
+    private void generateData(String dataType, int size, int categories, String seedText) {
+        long seed;
+        try {
+            seed = seedText.isBlank() ? new Random().nextLong() : Long.parseLong(seedText.trim());
+        } catch (NumberFormatException e) {
+            updateStatus("Invalid seed: " + seedText, false);
+            return;
+        }
+        updateStatus("Generating " + dataType + " data...", true);
+
+        DataGenerator generator = new DataGenerator(Profile.fromLabel(dataType), seed, categories);
+        String name = String.format("%s, %,d rows, seed %d", dataType, size, seed);
+        scheduler.submit(DATASET, TaskScheduler.Kind.CPU, this::updateProgress,
+                progress -> {
+                    DataStore data = metrics.time("generate",
+                            () -> generator.generate(size, catalog.dictionary(), scheduler.cpu(), progress));
+                    catalog.shareStorage(data);
+                    return data;
+                },
+                data -> {
+                    addToCatalog(name, data);
+                    updateCharts();
+                    updateStatus("Data generation completed", false);
+                },
+                error -> updateStatus("Data generation failed", false));
+    }
+
+    private void generateSampleData() {
+        generateData(Profile.SINUSOIDAL.label(), 500, 5, "42");
+    }
+
+    private void loadCSVData(String delimiter, String columns, String seriesColumns, String xFormat) {
+        CsvOptions options;
+        try {
+            options = createCsvOptions(delimiter, columns).seriesColumns(parseColumnList(seriesColumns))
+                    .xFormat(switch (xFormat) {
+                        case "Number" -> CsvOptions.XFormat.NUMBER;
+                        case "Timestamp" -> CsvOptions.XFormat.TIME;
+                        default -> CsvOptions.XFormat.AUTO;
+                    });
+        } catch (IllegalArgumentException e) {
+            updateStatus("Invalid column mapping: " + e.getMessage(), false);
+            return;
+        }
+
+        FileChooser fileChooser = new FileChooser();
+        fileChooser.setTitle("Load CSV Data");
+        fileChooser.getExtensionFilters().add(
+                new FileChooser.ExtensionFilter("CSV Files", "*.csv")
+        );
+
+        File file = fileChooser.showOpenDialog(null);
+        if (file != null) {
+            loadCSVFile(file, options);
+        }
+    }
+
+    // "3-6, 9" -> 3, 4, 5, 6, 9
+    private static int[] parseColumnList(String text) {
+        List<Integer> columns = new ArrayList<>();
+        for (String part : text.split(",")) {
+            part = part.trim();
+            if (part.isEmpty()) continue;
+            int dash = part.indexOf('-', 1);
+            int first = Integer.parseInt((dash < 0 ? part : part.substring(0, dash)).trim());
+            int last = dash < 0 ? first : Integer.parseInt(part.substring(dash + 1).trim());
+            if (last < first) throw new IllegalArgumentException("Empty column range: " + part);
+            for (int c = first; c <= last; c++) {
+                columns.add(c);
+            }
+        }
+        return columns.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private CsvOptions createCsvOptions(String delimiter, String columns) {
+        char separator;
+        switch (delimiter) {
+            case "Semicolon":
+                separator = ';';
+                break;
+            case "Tab":
+                separator = '\t';
+                break;
+            case "Pipe":
+                separator = '|';
+                break;
+            default: // Comma
+                separator = ',';
+        }
+
+        String[] parts = columns.split(",");
+        if (parts.length < 2 || parts.length > 3) {
+            throw new IllegalArgumentException("Expected x,y[,category]: " + columns);
+        }
+        int xColumn = Integer.parseInt(parts[0].trim());
+        int yColumn = Integer.parseInt(parts[1].trim());
+        int categoryColumn = parts.length > 2 ? Integer.parseInt(parts[2].trim()) : -1;
+
+        return new CsvOptions()
+                .delimiter(separator)
+                .columns(xColumn, yColumn, categoryColumn);
+    }
+
+    private void loadCSVFile(File file, CsvOptions options) {
+        updateStatus("Loading CSV file...", true);
+        Path path = file.toPath();
+        ColumnCache cache = new ColumnCache(options);
+        boolean paged = pagedLoadCheck.isSelected() || file.length() > Runtime.getRuntime().maxMemory() / 4;
+
+        // The load waits on I/O, so it runs on a virtual thread and parses on the CPU pool
+        scheduler.submit(DATASET, TaskScheduler.Kind.IO, this::updateProgress, progress -> {
+            // A fresh sidecar is mapped instead of parsing the CSV again
+            MappedDataView cached = metrics.time("load.cache", () -> cache.open(path, catalog.dictionary()));
+            if (cached != null) {
+                return new LoadedCsv(cached, cached.size(), cached.skippedRows(), null);
+            }
+
+            if (paged) {
+                // The segment files already are a binary copy, so no sidecar is written
+                SegmentWriter writer = new SegmentWriter(spillDirectory(), catalog.dictionary(),
+                        options.seriesCount(), pageCache);
+                CsvResult result;
+                try {
+                    result = metrics.time("load.spill", () -> new ParallelCsvLoader(options, scheduler.cpu())
+                            .loadInOrder(path, writer, pageCache.budgetBytes(), progress));
+                } catch (Exception e) {
+                    writer.close();
+                    throw e;
+                }
+                return new LoadedCsv(writer.finish(), result.rows(), result.skippedRows(), null);
+            }
+
+            ColumnCache.SourceStamp stamp = ColumnCache.SourceStamp.of(path);
+            DataStore newData = new DataStore(catalog.dictionary(), options.seriesCount());
+            CsvResult result = metrics.time("load.parse",
+                    () -> new ParallelCsvLoader(options, scheduler.cpu()).load(path, newData, progress));
+            catalog.shareStorage(newData);
+            return new LoadedCsv(newData, result.rows(), result.skippedRows(), stamp);
+        }, loaded -> {
+            addToCatalog(file.getName(), loaded.data);
+            updateCharts();
+            String source = loaded.data.isPaged() ? " (paged from disk)" : loaded.stamp == null ? " (from cache)" : "";
+            if (loaded.skippedRows > 0) {
+                updateStatus(String.format("CSV data loaded%s: %,d rows, %,d invalid rows skipped",
+                        source, loaded.rows, loaded.skippedRows), false);
+            } else {
+                updateStatus(String.format("CSV data loaded%s: %,d rows", source, loaded.rows), false);
+            }
+
+            if (loaded.stamp != null) {
+                // Write the sidecar after the charts are up; a failure only costs the next load a parse
+                scheduler.io().submit(() -> {
+                    try {
+                        cache.write(path, loaded.stamp, loaded.data, loaded.skippedRows);
+                    } catch (IOException e) {
+                        updateStatus("Could not write cache file: " + e.getMessage(), false);
+                    }
+                });
+            }
+        }, error -> updateStatus("Failed to load CSV data: " + error.getMessage(), false));
+    }
+
+    // The charts switch to the new data, filtered, once updateCharts has prepared it
+    private void setDataset(DataView newData) {
+        source = newData;
+    }
+
+    // Replaces the active dataset unless earlier ones are kept for comparison
+    private void addToCatalog(String name, DataView data) {
+        DatasetCatalog.Entry replaced = keepDatasetsCheck.isSelected() ? null : activeEntry;
+        activeEntry = catalog.add(name, data, replaced);
+        if (replaced != null) release(replaced.data());
+        setDataset(data);
+        refreshDatasetControls();
+    }
+
+    // Paged datasets own their segment files
+    private static void release(DataView data) {
+        if (data instanceof SegmentedDataView paged) paged.close();
+    }
+
+    private static Path spillDirectory() {
+        return Path.of(System.getProperty("dataviz.spill.dir", System.getProperty("java.io.tmpdir")));
+    }
+
+    private void selectDataset(DatasetCatalog.Entry entry) {
+        if (entry == activeEntry) return;
+        stopStreaming();
+        activeEntry = entry;
+        setDataset(entry.data());
+        refreshDatasetControls();
+        updateCharts();
+    }
+
+    private void removeActiveDataset() {
+        if (activeEntry == null) return;
+        catalog.remove(activeEntry);
+        release(activeEntry.data());
+        List<DatasetCatalog.Entry> remaining = catalog.entries();
+        activeEntry = remaining.isEmpty() ? null : remaining.get(remaining.size() - 1);
+        setDataset(activeEntry != null ? activeEntry.data() : new DataStore());
+        refreshDatasetControls();
+        updateCharts();
+    }
+
+    private void refreshDatasetControls() {
+        List<DatasetCatalog.Entry> entries = catalog.entries();
+        updatingDatasetControls = true;
+        datasetCombo.getItems().setAll(entries);
+        datasetCombo.setValue(activeEntry);
+        updatingDatasetControls = false;
+
+        // Every series of every dataset except the one the active dataset already draws
+        List<SeriesRef> choices = new ArrayList<>();
+        for (DatasetCatalog.Entry entry : entries) {
+            for (int series = entry == activeEntry ? 1 : 0; series < entry.data().seriesCount(); series++) {
+                choices.add(new SeriesRef(entry, series));
+            }
+        }
+        overlaySelection.keySet().retainAll(choices);
+        seriesChoices.setAll(choices);
+        catalogLabel.setText(String.format("%d dataset%s, %.1f MB", entries.size(), entries.size() == 1 ? "" : "s",
+                catalog.estimatedBytes() / (1024.0 * 1024.0)));
+    }
+
+    private BooleanProperty overlaySelected(SeriesRef ref) {
+        return overlaySelection.computeIfAbsent(ref, k -> {
+            BooleanProperty selected = new SimpleBooleanProperty(false);
+            selected.addListener((obs, old, value) -> updateCharts());
+            return selected;
+        });
+    }
+
+    private List<SeriesRef> selectedOverlays() {
+        List<SeriesRef> selected = new ArrayList<>();
+        for (SeriesRef ref : seriesChoices) {
+            BooleanProperty property = overlaySelection.get(ref);
+            if (property != null && property.get()) selected.add(ref);
+        }
+        return selected;
+    }
+
+    private void setFilter(String text) {
+        FilterExpression parsed;
+        try {
+            parsed = text.isBlank() ? null : FilterExpression.parse(text);
+        } catch (IllegalArgumentException e) {
+            filterStatus.setText(e.getMessage());
+            return;
+        }
+        if (Objects.equals(parsed, filter)) return;
+        filter = parsed;
+        filterStatus.setText(parsed == null ? "All rows shown" : "Filtering...");
+        updateCharts();
+    }
+
+    private void startStreaming(String spec, int capacity, double window, int fps,
+                                String delimiter, String columns) {
+        stopStreaming();
+        // The stream replaces the dataset, so a pending load or generation must not land on top of it
+        scheduler.cancel(DATASET);
+        activeEntry = null;
+        refreshDatasetControls();
+
+        StreamSource source;
+        CsvOptions options;
+        try {
+            source = StreamSource.parse(spec);
+            options = createCsvOptions(delimiter, columns).header(source.follows());
+        } catch (IllegalArgumentException e) {
+            updateStatus("Invalid stream settings: " + e.getMessage(), false);
+            setStreamingControls(false);
+            return;
+        }
+
+        StreamingSession session = new StreamingSession(source, options, capacity, window, fps,
+                new StreamingSession.FrameListener() {
+                    @Override
+                    public void onFrame(StreamWindow window, StreamingSession s) {
+                        fx.execute(() -> {
+                            if (streamingSession != s) return;
+                            try {
+                                setDataset(window);
+                                // The next frame is only taken once this one is on screen
+                                updateCharts(s::frameRendered);
+                            } catch (RuntimeException e) {
+                                s.frameRendered(); // dropped, so the next frame is not held back
+                                updateStatus("Stream frame failed: " + e.getMessage(), false);
+                            }
+                        });
+                    }
+
+                    @Override
+                    public void onStopped(StreamingSession s, Exception error) {
+                        fx.execute(() -> {
+                            if (streamingSession != s) return;
+                            streamingSession = null;
+                            setStreamingControls(false);
+                            updateStatus(error == null ? "Stream ended" : "Stream failed: " + error.getMessage(), false);
+                        });
+                    }
+                });
+
+        try {
+            session.start();
+        } catch (IOException e) {
+            updateStatus("Could not open " + source + ": " + e.getMessage(), false);
+            setStreamingControls(false);
+            return;
+        }
+        streamingSession = session;
+        setStreamingControls(true);
+        updateStatus("Streaming from " + source, false);
+    }
+
+    private void stopStreaming() {
+        StreamingSession session = streamingSession;
+        if (session == null) return;
+        streamingSession = null;
+        session.close();
+        setStreamingControls(false);
+        updateStatus(String.format("Stream stopped: %,d rows received", session.rowsIngested()), false);
+    }
+
+    private void setStreamingControls(boolean streaming) {
+        streamToggle.setSelected(streaming);
+        streamToggle.setText(streaming ? "Stop Streaming" : "Start Streaming");
+    }
+
+    private void updateCharts() {
+        updateCharts(null);
+    }
+
+    // onApplied runs on the FX thread once the new frame has been handed to the charts, or has failed
+    private void updateCharts(Runnable onApplied) {
+        DataView base = source;
+        FilterExpression active = filter;
+        List<SeriesRef> overlayRefs = selectedOverlays();
+        // Overlays of the active dataset's own series share its rows, so the table shows them too
+        int[] tableSeries = overlayRefs.stream().filter(ref -> ref.entry().data() == base)
+                .mapToInt(SeriesRef::series).toArray();
+        String label = activeEntry != null ? activeEntry.name() + " / " + base.seriesName(0) : "Data Series";
+        String name = activeEntry != null ? activeEntry.name() : "";
+        Downsampler sampler = downsampler;
+        int width = plotWidth();
+
+        // Filter and downsample in the background; only node updates run on the FX thread
+        CompletableFuture.runAsync(() -> {
+            DataView data;
+            if (active == null) {
+                data = base;
+            } else {
+                // Cached per expression, so redraws with the same filter keep the same view
+                data = metrics.time("charts.filter", () -> selections.get(active, base));
+            }
+            // Taken before any scan: rows appended meanwhile give the next frame a new version
+            long version = data.version();
+            int[] rows = metrics.time("charts.downsample", () -> downsample(data, version, sampler, width));
+            CategoryStats stats = metrics.time("charts.aggregate", () -> derived.get(
+                    DerivedCache.Key.of(version, "categories"), () -> aggregator.update(data),
+                    CategoryStats::estimatedBytes));
+            Summary summary = metrics.time("charts.stats", () -> derived.get(
+                    DerivedCache.Key.of(version, "summary"), () -> summaryEngine.update(data),
+                    Summary::estimatedBytes));
+            ChartFrame previous = currentFrame;
+            RangeIndex index;
+            if (previous != null && previous.index != null && previous.data == data && previous.version == version) {
+                index = previous.index; // may be too large for the cache, but is still current
+            } else if (data instanceof WindowView) {
+                index = null; // the next window replaces this one within a frame, so it is indexed on a zoom
+            } else {
+                index = index(data, version); // null keeps the overview points when zooming
+            }
+            List<Overlay> overlays = prepareOverlays(overlayRefs, base, data, sampler, width);
+            fx.post(CHARTS, () -> {
+                if (base != source || active != filter) return; // superseded by newer data or another filter
+                dashboards.forEach(dashboard -> dashboard.setData(base, name));
+                dataset = data;
+                setTimeAxes(data.isXTime());
+                updateDataCount();
+                updateDataPreview(summary);
+                currentFrame = new ChartFrame(data, version, index, rows, stats, summary, label, overlays,
+                        tableSeries);
+                builtXyCharts().forEach(chart -> chart.getXAxis().setAutoRanging(true));
+
+                // Hidden tabs catch up when they are selected
+                staleTabs.addAll(chartTabPane.getTabs());
+                renderTab(chartTabPane.getSelectionModel().getSelectedItem());
+            });
+        }, scheduler.cpu()).whenComplete((ignored, error) -> {
+            if (error != null) {
+                Throwable cause = error.getCause() != null ? error.getCause() : error;
+                fx.execute(() -> updateStatus("Chart update failed: " + cause.getMessage(), false));
+            }
+            // A newer frame replaces this one if both are pending, but onApplied must still run
+            if (onApplied != null) fx.execute(onApplied);
+        });
+    }
+
+    private void renderTab(Tab tab) {
+        ChartFrame frame = currentFrame;
+        if (frame == null || !staleTabs.remove(tab)) return;
+
+        boolean density = highDensityTabs.contains(tab);
+        metrics.time(density ? "render.density" : "render." + tabStage(tab), () -> {
+            if (density) {
+                renderDensity(tab, frame.data, Double.NaN, Double.NaN);
+            } else if (tab == lineTab) {
+                updateLineChart(frame.data, frame.rows, frame.label);
+                updateOverlays(lineChart, lineOverlays, frame.overlays, Double.NaN, Double.NaN);
+            } else if (tab == areaTab) {
+                updateAreaChart(frame.data, frame.rows, frame.label);
+                updateOverlays(areaChart, areaOverlays, frame.overlays, Double.NaN, Double.NaN);
+            } else if (tab == barTab) {
+                updateBarChart(frame.stats);
+            } else if (tab == pieTab) {
+                updatePieChart(frame.stats);
+            } else if (tab == scatterTab) {
+                updateScatterChart(frame.data, frame.rows);
+            } else if (tab == distributionTab) {
+                distributionView.setSummary(frame.summary);
+            } else if (tab == dataTab) {
+                dataTable.setData(frame.data, frame.tableSeries);
+            }
+        });
+    }
+
+    private String tabStage(Tab tab) {
+        if (tab == lineTab) return "line";
+        if (tab == areaTab) return "area";
+        if (tab == barTab) return "bar";
+        if (tab == pieTab) return "pie";
+        if (tab == distributionTab) return "distribution";
+        if (tab == dataTab) return "table";
+        return "scatter";
+    }
+
+    // Series updates run a slice per pulse; the stage records the FX time of all slices together
+    private PulseScheduler.Job timed(String stage, PulseScheduler.Job job) {
+        StageTimer timer = metrics.stage(stage);
+        long[] spent = new long[2]; // nanos, allocated bytes
+        return deadline -> {
+            long start = System.nanoTime();
+            long startBytes = Metrics.allocatedBytes();
+            boolean finished = job.step(deadline);
+            spent[0] += System.nanoTime() - start;
+            spent[1] += Metrics.allocatedBytes() - startBytes;
+            if (finished) {
+                timer.record(spent[0], startBytes < 0 ? -1 : spent[1]);
+                if (firstChartPending) firstChartDrawn();
+            }
+            return finished;
+        };
+    }
+
+    // The sample data's series is in the chart; the next pulse draws it
+    private void firstChartDrawn() {
+        firstChartPending = false;
+        startupMilestone("first-chart");
+        if (STARTUP_EXIT) Platform.runLater(Platform::exit);
+    }
+
+    private DensityLayer densityLayer(Tab tab) {
+        if (tab == lineTab) return lineDensity;
+        if (tab == areaTab) return areaDensity;
+        if (tab == scatterTab) return scatterDensity;
+        return null;
+    }
+
+    private XYChart<Number, Number> xyChart(Tab tab) {
+        if (tab == lineTab) return lineChart;
+        if (tab == areaTab) return areaChart;
+        return scatterChart;
+    }
+
+    private void setHighDensity(Tab tab, boolean enabled) {
+        DensityLayer layer = densityLayer(tab);
+        if (layer == null || enabled == highDensityTabs.contains(tab)) return;
+
+        XYChart<Number, Number> chart = xyChart(tab);
+        if (enabled) {
+            highDensityTabs.add(tab);
+            // Drop the nodes; the layer draws every row instead
+            if (chart == scatterChart) {
+                scatterSeries.values().forEach(pulseScheduler::cancel);
+                scatterSeries.clear();
+            } else {
+                pulseScheduler.cancel(chart == lineChart ? lineSeries : areaSeries);
+                Map<String, XYChart.Series<Number, Number>> overlays = chart == lineChart ? lineOverlays : areaOverlays;
+                overlays.values().forEach(pulseScheduler::cancel);
+                overlays.clear();
+            }
+            chart.getData().clear();
+        } else {
+            highDensityTabs.remove(tab);
+            layer.clear();
+            chart.getXAxis().setAutoRanging(true);
+            chart.getYAxis().setAutoRanging(true);
+        }
+        staleTabs.add(tab);
+        renderTab(tab);
+    }
+
+    // NaN bounds mean the full x extent of the data
+    private void renderDensity(Tab tab, DataView data, double lower, double upper) {
+        DensityLayer layer = densityLayer(tab);
+        XYChart<Number, Number> chart = xyChart(tab);
+        Extent extent = data.extent();
+        if (data.isEmpty()) {
+            layer.clear();
+            return;
+        }
+
+        boolean absY = tab == areaTab;
+        if (Double.isNaN(lower)) {
+            lower = extent.minX();
+            upper = extent.maxX();
+        }
+        double yLower = absY ? 0 : extent.minY();
+        double yUpper = absY ? Math.max(Math.abs(extent.minY()), Math.abs(extent.maxY())) : extent.maxY();
+        if (upper <= lower) upper = lower + 1;
+        if (yUpper <= yLower) yUpper = yLower + 1;
+
+        // The axes frame exactly the window the layer draws
+        setAxisRange((ValueAxis<Number>) chart.getXAxis(), lower, upper);
+        setAxisRange((ValueAxis<Number>) chart.getYAxis(), yLower, yUpper);
+        layer.render(data, lower, upper, yLower, yUpper,
+                tab == scatterTab ? DensityRasterizer.Mode.POINTS : DensityRasterizer.Mode.LINES, absY);
+    }
+
+    // Datasets whose x is epoch milliseconds get calendar ticks and dates on the XY charts
+    private void setTimeAxes(boolean time) {
+        builtXyCharts().forEach(chart -> ((TimeAxis) chart.getXAxis()).setTime(time));
+    }
+
+    private static void setAxisRange(ValueAxis<Number> axis, double lower, double upper) {
+        axis.setAutoRanging(false);
+        axis.setLowerBound(lower);
+        axis.setUpperBound(upper);
+        if (axis instanceof NumberAxis numbers) numbers.setTickUnit((upper - lower) / 10); // a TimeAxis picks its own
+    }
+
+    private int plotWidth() {
+        double width = lineChart != null ? lineChart.getXAxis().getWidth() : 0;
+        if (width <= 0) {
+            width = chartTabPane.getWidth() - 100; // not laid out yet, estimate from the tab pane
+        }
+        return width > 0 ? (int) width : 1000;
+    }
+
+    private void updateLineChart(DataView data, int[] rows, String label) {
+        if (!lineChart.getData().contains(lineSeries)) {
+            lineChart.getData().add(lineSeries);
+        }
+        lineSeries.setName(label);
+
+        pulseScheduler.submit(lineSeries, timed("series.line", new SeriesUpdate(lineSeries, rows.length,
+                i -> data.x(rows[i]), i -> data.y(rows[i]))));
+    }
+
+    private void updateAreaChart(DataView data, int[] rows, String label) {
+        if (!areaChart.getData().contains(areaSeries)) {
+            areaChart.getData().add(areaSeries);
+        }
+        areaSeries.setName(label);
+
+        pulseScheduler.submit(areaSeries, timed("series.area", new SeriesUpdate(areaSeries, rows.length,
+                i -> data.x(rows[i]), i -> Math.abs(data.y(rows[i])))));
+    }
+
+    // NaN bounds draw the full downsampled overlay, otherwise the window is served from its pyramid
+    private void updateOverlays(XYChart<Number, Number> chart, Map<String, XYChart.Series<Number, Number>> shown,
+                                List<Overlay> overlays, double lower, double upper) {
+        boolean absY = chart == areaChart;
+        String stage = absY ? "series.area" : "series.line";
+        Set<String> present = new HashSet<>();
+        for (Overlay overlay : overlays) {
+            DataView view = overlay.view;
+            int[] rows = Double.isNaN(lower) || overlay.index == null
+                    ? overlay.rows : overlay.index.query(lower, upper, plotWidth());
+            present.add(overlay.label);
+            XYChart.Series<Number, Number> series = shown.computeIfAbsent(overlay.label, k -> {
+                XYChart.Series<Number, Number> created = new XYChart.Series<>();
+                created.setName(k);
+                chart.getData().add(created);
+                return created;
+            });
+            pulseScheduler.submit(series, timed(stage, new SeriesUpdate(series, rows.length,
+                    i -> view.x(rows[i]), absY ? i -> Math.abs(view.y(rows[i])) : i -> view.y(rows[i]))));
+        }
+
+        Iterator<Map.Entry<String, XYChart.Series<Number, Number>>> it = shown.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<String, XYChart.Series<Number, Number>> entry = it.next();
+            if (!present.contains(entry.getKey())) {
+                pulseScheduler.cancel(entry.getValue());
+                chart.getData().remove(entry.getValue());
+                it.remove();
+            }
+        }
+    }
+
+    private void updateBarChart(CategoryStats stats) {
+        if (!barChart.getData().contains(barSeries)) {
+            barSeries.setName("Category Data");
+            barChart.getData().add(barSeries);
+        }
+
+        // Reuse the bar of every category that is still present
+        Map<String, XYChart.Data<String, Number>> existing = new HashMap<>();
+        for (XYChart.Data<String, Number> bar : barSeries.getData()) {
+            existing.put(bar.getXValue(), bar);
+        }
+
+        for (int i = 0; i < stats.size(); i++) {
+            XYChart.Data<String, Number> bar = existing.remove(stats.name(i));
+            if (bar != null) {
+                bar.setYValue(stats.sum(i));
+            } else {
+                barSeries.getData().add(new XYChart.Data<>(stats.name(i), stats.sum(i)));
+            }
+        }
+        barSeries.getData().removeAll(existing.values());
+    }
+
+    private void updatePieChart(CategoryStats stats) {
+        Map<String, PieChart.Data> existing = new HashMap<>();
+        for (PieChart.Data slice : pieChart.getData()) {
+            existing.put(slice.getName(), slice);
+        }
+
+        for (int i = 0; i < stats.size(); i++) {
+            PieChart.Data slice = existing.remove(stats.name(i));
+            if (slice != null) {
+                slice.setPieValue(stats.absSum(i));
+            } else {
+                pieChart.getData().add(new PieChart.Data(stats.name(i), stats.absSum(i)));
+            }
+        }
+        pieChart.getData().removeAll(existing.values());
+    }
+
+    private void updateScatterChart(DataView data, int[] rows) {
+        // Split the selected rows by category id without boxing
+        int[] counts = new int[data.categoryCount()];
+        for (int row : rows) {
+            counts[data.categoryId(row)]++;
+        }
+        int[][] byCategory = new int[counts.length][];
+        for (int c = 0; c < counts.length; c++) {
+            byCategory[c] = new int[counts[c]];
+            counts[c] = 0;
+        }
+        for (int row : rows) {
+            int c = data.categoryId(row);
+            byCategory[c][counts[c]++] = row;
+        }
+
+        Set<String> present = new HashSet<>();
+        for (int c = 0; c < byCategory.length; c++) {
+            int[] categoryRows = byCategory[c];
+            if (categoryRows.length == 0) continue;
+
+            String name = data.categoryName(c);
+            present.add(name);
+            XYChart.Series<Number, Number> series = scatterSeries.computeIfAbsent(name, k -> {
+                XYChart.Series<Number, Number> created = new XYChart.Series<>();
+                created.setName(k);
+                scatterChart.getData().add(created);
+                return created;
+            });
+            pulseScheduler.submit(series, timed("series.scatter", new SeriesUpdate(series, categoryRows.length,
+                    i -> data.x(categoryRows[i]), i -> data.y(categoryRows[i]))));
+        }
+
+        Iterator<Map.Entry<String, XYChart.Series<Number, Number>>> it = scatterSeries.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<String, XYChart.Series<Number, Number>> entry = it.next();
+            if (!present.contains(entry.getKey())) {
+                pulseScheduler.cancel(entry.getValue());
+                scatterChart.getData().remove(entry.getValue());
+                it.remove();
+            }
+        }
+    }
+
+    private void updateDataCount() {
+        if (filter == null) {
+            dataCountLabel.setText(String.format("Data Points: %,d", dataset.size()));
+            filterStatus.setText("All rows shown");
+        } else {
+            dataCountLabel.setText(String.format("Data Points: %,d of %,d", dataset.size(), source.size()));
+            filterStatus.setText(String.format("%,d of %,d rows match %s", dataset.size(), source.size(), filter));
+        }
+    }
+
+    private void updateDataPreview(Summary summary) {
+        DataView data = dataset;
+        String preview = metrics.time("preview", () -> DataPreview.summary(data, data.estimatedBytes(), summary));
+        dataPreview.setText(preview);
+    }
+
+    // Runs on the CPU pool; views and pyramids are kept while the same overlay stays selected
+    private List<Overlay> prepareOverlays(List<SeriesRef> refs, DataView base, DataView data,
+                                          Downsampler sampler, int width) {
+        Map<OverlayKey, Overlay> previous = preparedOverlays;
+        Map<OverlayKey, Overlay> prepared = new HashMap<>();
+        List<Overlay> overlays = new ArrayList<>(refs.size());
+        for (SeriesRef ref : refs) {
+            DataView source = ref.entry().data();
+            // The filter selects rows of the active dataset, so only its own series follow it
+            Selection selection = source == base && data instanceof FilteredView filtered ? filtered.selection() : null;
+            OverlayKey key = new OverlayKey(source, ref.series(), selection);
+            Overlay overlay = previous.get(key);
+            DataView view;
+            RangeIndex index;
+            if (overlay != null) {
+                view = overlay.view;
+                index = overlay.index;
+            } else {
+                view = new SeriesView(source, ref.series());
+                if (selection != null) view = new FilteredView(view, selection);
+                index = LodPyramid.canIndex(view) ? buildIndex(view) : null;
+            }
+            DataView shown = view;
+            int[] rows = metrics.time("charts.downsample", () -> downsample(shown, shown.version(), sampler, width));
+            overlay = new Overlay(ref.toString(), view, index, rows);
+            prepared.put(key, overlay);
+            overlays.add(overlay);
+        }
+        preparedOverlays = prepared;
+        return overlays;
+    }
+
+    // Null when the data cannot be indexed
+    private RangeIndex index(DataView data, long version) {
+        if (!LodPyramid.canIndex(data)) return null;
+        return derived.get(DerivedCache.Key.of(version, data.isXTime() ? "rollup" : "lod"),
+                () -> buildIndex(data), RangeIndex::estimatedBytes);
+    }
+
+    private int[] query(RangeIndex index, long version, double lower, double upper, int width) {
+        return derived.get(new DerivedCache.Key(version, "lod.query", width, lower, upper),
+                () -> index.query(lower, upper, width), rows -> DerivedCache.intArrayBytes(rows.length));
+    }
+
+    // Time series zoom through calendar buckets, everything else through the LOD pyramid
+    private RangeIndex buildIndex(DataView data) {
+        if (data.isXTime()) {
+            return metrics.time("charts.rollup", () -> TimeRollup.build(data));
+        }
+        return metrics.time("charts.lod", () -> LodPyramid.build(data));
+    }
+
+    private int[] downsample(DataView data, long version, Downsampler sampler, int width) {
+        return derived.get(DerivedCache.Key.of(version, sampler.getClass().getSimpleName(), width),
+                () -> sampler.downsample(data, width), rows -> DerivedCache.intArrayBytes(rows.length));
+    }
+
+    private void exportCharts() {
+        ChartFrame frame = currentFrame;
+        if (frame == null) {
+            updateStatus("Nothing to export yet", false);
+            return;
+        }
+
+        DirectoryChooser chooser = new DirectoryChooser();
+        chooser.setTitle("Export Charts To");
+        File directory = chooser.showDialog(rootPane.getScene().getWindow());
+        if (directory == null) return;
+
+        updateStatus("Exporting charts...", true);
+        // Fresh off-screen charts, so hidden tabs and the live view are left alone;
+        // only layout and snapshots happen here, encoding runs on the CPU pool
+        new ChartExporter(scheduler.cpu())
+                .exportAll(ChartBuilder.build(frame.data, frame.rows, frame.stats), directory.toPath(), "",
+                        EnumSet.of(ExportFormat.PNG, ExportFormat.SVG), EXPORT_WIDTH, EXPORT_HEIGHT)
+                .whenComplete((files, error) -> fx.execute(() -> {
+                    if (error != null) {
+                        updateStatus("Export failed: " + (error.getCause() != null ? error.getCause() : error), false);
+                    } else {
+                        updateStatus("Exported " + files.size() + " files to " + directory, false);
+                    }
+                }));
+    }
+
+    private void setMetricsOverlay(boolean enabled) {
+        if (pulseMonitor == null) return;
+        metricsLabel.setVisible(enabled);
+        if (enabled) {
+            pulseMonitor.start();
+            if (metricsRefresh == null) {
+                metricsRefresh = new Timeline(new KeyFrame(Duration.seconds(1), e -> refreshMetricsOverlay()));
+                metricsRefresh.setCycleCount(Timeline.INDEFINITE);
+            }
+            refreshMetricsOverlay();
+            metricsRefresh.play();
+        } else {
+            pulseMonitor.stop();
+            if (metricsRefresh != null) metricsRefresh.stop();
+        }
+    }
+
+    private void refreshMetricsOverlay() {
+        StringBuilder overlay = new StringBuilder();
+        StringBuilder details = new StringBuilder("stage: last / p95 / max ms, allocated");
+        for (StageTimer.Snapshot stage : metrics.snapshot()) {
+            if (stage.count() == 0) continue;
+            if (stage.name().startsWith("fx.")) {
+                // Pulses never stop, so the tail says more than the last one
+                overlay.append(String.format("%s p95 %.1f ms  ", stage.name(), stage.p95Nanos() / 1e6));
+            } else if (stage.lastNanos() >= 1_000_000) {
+                overlay.append(String.format("%s %.0f ms  ", stage.name(), stage.lastNanos() / 1e6));
+            }
+            details.append(String.format("%n%s: %.1f / %.1f / %.1f, %,d KB", stage.name(), stage.lastNanos() / 1e6,
+                    stage.p95Nanos() / 1e6, stage.maxNanos() / 1e6, stage.allocatedBytes() / 1024));
+        }
+        if (derived.hits() + derived.misses() > 0) {
+            details.append(String.format("%nderived: %,d hits, %,d misses, %,d of %,d KB",
+                    derived.hits(), derived.misses(), derived.residentBytes() / 1024, derived.budgetBytes() / 1024));
+        }
+        if (pageCache.misses() > 0) {
+            details.append(String.format("%npages: %,d of %,d KB resident, %,d read, %,d evicted",
+                    pageCache.residentBytes() / 1024, pageCache.budgetBytes() / 1024, pageCache.misses(),
+                    pageCache.evictions()));
+        }
+        metricsLabel.setText(overlay.toString().trim());
+        metricsLabel.getTooltip().setText(details.toString());
+    }
+
+    private void saveMetrics() {
+        // Written to the working directory unless -Ddataviz.metrics.dir says otherwise
+        Path directory = Path.of(System.getProperty("dataviz.metrics.dir", "."));
+        try {
+            List<Path> files = MetricsWriter.write(metrics, directory);
+            updateStatus("Metrics saved to " + files.get(0).toAbsolutePath().getParent(), false);
+        } catch (IOException e) {
+            updateStatus("Could not save metrics: " + e.getMessage(), false);
+        }
+    }
+
+    private void setDownsampling(String mode) {
+        switch (mode) {
+            case "LTTB":
+                downsampler = new LttbDownsampler();
+                break;
+            case "Every n-th point":
+                downsampler = new StrideDownsampler();
+                break;
+            default: // M4 (min/max)
+                downsampler = new M4Downsampler();
+        }
+        updateCharts();
+        dashboards.forEach(Dashboard::refresh);
+    }
+
+    private void openDashboard() {
+        Dashboard dashboard = new Dashboard(dashboardViews, scheduler.cpu(), fx, metrics);
+        dashboard.setOnClosed(() -> dashboards.remove(dashboard));
+        dashboards.add(dashboard);
+        dashboard.show(rootPane.getScene().getWindow());
+        dashboard.setData(source, activeEntry != null ? activeEntry.name() : "");
+    }
+
+    private void toggleAnimations(boolean enable) {
+        chartsAnimated = enable;
+        builtCharts().forEach(chart -> chart.setAnimated(enable));
+    }
+
+    private void toggleLegends(boolean show) {
+        legendsVisible = show;
+        for (Chart chart : builtCharts()) {
+            if (chart != histogram()) chart.setLegendVisible(show); // one series, nothing to tell apart
+        }
+    }
+
+    private void updateChartOpacity(double opacity) {
+        chartOpacity = opacity;
+        builtCharts().forEach(chart -> chart.setOpacity(opacity));
+    }
+
+    // Safe from any thread, as is updateProgress; only the latest of each reaches the FX thread
+    private void updateStatus(String message, boolean showProgress) {
+        fx.post(STATUS, () -> {
+            statusLabel.setText(message);
+            progressBar.setVisible(showProgress);
+            if (!showProgress) {
+                progressBar.setProgress(0);
+            }
+        });
+    }
+
+    private void updateProgress(long current, long total) {
+        fx.post(PROGRESS, () -> {
+            if (total > 0) {
+                progressBar.setProgress((double) current / total);
+            } else {
+                progressBar.setProgress(-1); // Indeterminate
+            }
+        });
+    }
+
+    // Everything the charts need for one dataset, computed off the FX thread
+    private static class ChartFrame {
+        final DataView data;
+        final long version; // of data when the frame was computed
+        RangeIndex index; // null when the data cannot be indexed, or until a stream window is zoomed
+        boolean indexing; // FX thread: a stream window's index is being built
+        final int[] rows;
+        final CategoryStats stats;
+        final Summary summary;
+        final String label;
+        final List<Overlay> overlays;
+        final int[] tableSeries; // further series of data shown as table columns
+
+        ChartFrame(DataView data, long version, RangeIndex index, int[] rows, CategoryStats stats, Summary summary,
+                   String label, List<Overlay> overlays, int[] tableSeries) {
+            this.data = data;
+            this.version = version;
+            this.index = index;
+            this.rows = rows;
+            this.stats = stats;
+            this.summary = summary;
+            this.label = label;
+            this.overlays = overlays;
+            this.tableSeries = tableSeries;
+        }
+    }
+
+    // One series of a catalog dataset, as offered in the overlay list
+    private record SeriesRef(DatasetCatalog.Entry entry, int series) {
+        @Override
+        public String toString() {
+            return entry.name() + " / " + entry.data().seriesName(series);
+        }
+    }
+
+    private record OverlayKey(DataView data, int series, Selection selection) {
+    }
+
+    // An extra series drawn over the line and area charts
+    private static class Overlay {
+        final String label;
+        final DataView view;
+        final RangeIndex index; // null for paged data whose x is not sorted
+        final int[] rows;
+
+        Overlay(String label, DataView view, RangeIndex index, int[] rows) {
+            this.label = label;
+            this.view = view;
+            this.index = index;
+            this.rows = rows;
+        }
+    }
+
+    private static class LoadedCsv {
+        final DataView data;
+        final long rows;
+        final long skippedRows;
+        final ColumnCache.SourceStamp stamp; // set only when the file had to be parsed
+
+        LoadedCsv(DataView data, long rows, long skippedRows, ColumnCache.SourceStamp stamp) {
+            this.data = data;
+            this.rows = rows;
+            this.skippedRows = skippedRows;
+            this.stamp = stamp;
+        }
+    }
+
+    public static void main(String[] args) {
+        launch(args);
+    }
+}
+
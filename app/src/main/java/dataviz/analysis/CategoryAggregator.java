@@ -0,0 +1,130 @@
+package dataviz.analysis;
+
+import dataviz.data.DataView;
+import dataviz.data.WindowView;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Computes count, sum, absolute sum, min, max and mean of y per category in
+ * a single pass over primitive columns, indexed by category id.
+ *
+ * <p>A {@link WindowView} is aggregated per block of {@value #BLOCK_ROWS}
+ * rows of its sequence, and the blocks a window covers whole are kept and
+ * merged again for the next window onto the same sequence. A live stream's
+ * next frame therefore scans only the blocks appended since and the partial
+ * blocks at either end; blocks that fall out of the window are dropped.
+ * Any other dataset is scanned whole.
+ */
+public final class CategoryAggregator {
+
+    static final int BLOCK_SHIFT = 12;
+    static final int BLOCK_ROWS = 1 << BLOCK_SHIFT;
+
+    private Object sequence;
+    private final Map<Long, Partial> blocks = new HashMap<>(); // whole blocks of the sequence, by index
+
+    public synchronized CategoryStats update(DataView data) {
+        Partial total = new Partial(data.categoryCount());
+        if (!(data instanceof WindowView window)) {
+            total.scan(data, 0, data.size());
+            return total.snapshot(data);
+        }
+
+        if (window.sequence() != sequence) {
+            sequence = window.sequence();
+            blocks.clear();
+        }
+        long first = window.firstRow();
+        long end = first + window.size();
+        blocks.keySet().removeIf(block -> block << BLOCK_SHIFT < first);
+
+        for (long block = first >>> BLOCK_SHIFT; block << BLOCK_SHIFT < end; block++) {
+            long blockStart = block << BLOCK_SHIFT;
+            long blockEnd = blockStart + BLOCK_ROWS;
+            if (blockStart < first || blockEnd > end) {
+                total.scan(window, (int) (Math.max(first, blockStart) - first), (int) (Math.min(end, blockEnd) - first));
+                continue;
+            }
+            Partial whole = blocks.get(block);
+            if (whole == null) {
+                whole = new Partial(window.categoryCount());
+                whole.scan(window, (int) (blockStart - first), (int) (blockEnd - first));
+                blocks.put(block, whole);
+            }
+            total.merge(whole);
+        }
+        return total.snapshot(window);
+    }
+
+    // Per-category accumulators over some rows, indexed by category id
+    private static final class Partial {
+        final long[] count;
+        final double[] sum;
+        final double[] absSum;
+        final double[] min;
+        final double[] max;
+
+        Partial(int categories) {
+            count = new long[categories];
+            sum = new double[categories];
+            absSum = new double[categories];
+            min = new double[categories];
+            max = new double[categories];
+            Arrays.fill(min, Double.POSITIVE_INFINITY);
+            Arrays.fill(max, Double.NEGATIVE_INFINITY);
+        }
+
+        void scan(DataView data, int from, int to) {
+            for (int i = from; i < to; i++) {
+                int c = data.categoryId(i);
+                double y = data.y(i);
+                count[c]++;
+                sum[c] += y;
+                absSum[c] += Math.abs(y);
+                if (y < min[c]) min[c] = y;
+                if (y > max[c]) max[c] = y;
+            }
+        }
+
+        // other was sized when the dictionary may have held fewer categories
+        void merge(Partial other) {
+            for (int c = 0; c < other.count.length; c++) {
+                if (other.count[c] == 0) continue;
+                count[c] += other.count[c];
+                sum[c] += other.sum[c];
+                absSum[c] += other.absSum[c];
+                min[c] = Math.min(min[c], other.min[c]);
+                max[c] = Math.max(max[c], other.max[c]);
+            }
+        }
+
+        CategoryStats snapshot(DataView data) {
+            int present = 0;
+            for (long c : count) {
+                if (c > 0) present++;
+            }
+
+            String[] names = new String[present];
+            long[] counts = new long[present];
+            double[] sums = new double[present];
+            double[] absSums = new double[present];
+            double[] mins = new double[present];
+            double[] maxs = new double[present];
+            int k = 0;
+            for (int c = 0; c < count.length; c++) {
+                if (count[c] == 0) continue;
+                names[k] = data.categoryName(c);
+                counts[k] = count[c];
+                sums[k] = sum[c];
+                absSums[k] = absSum[c];
+                mins[k] = min[c];
+                maxs[k] = max[c];
+                k++;
+            }
+            return new CategoryStats(names, counts, sums, absSums, mins, maxs);
+        }
+    }
+}
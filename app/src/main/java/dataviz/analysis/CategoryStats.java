@@ -0,0 +1,41 @@
+package dataviz.analysis;
+
+/**
+ * Immutable per-category summary: one entry per category that has rows,
+ * in dictionary order.
+ */
+public final class CategoryStats {
+
+    public static final CategoryStats EMPTY = new CategoryStats(
+            new String[0], new long[0], new double[0], new double[0], new double[0], new double[0]);
+
+    private final String[] names;
+    private final long[] count;
+    private final double[] sum;
+    private final double[] absSum;
+    private final double[] min;
+    private final double[] max;
+
+    CategoryStats(String[] names, long[] count, double[] sum, double[] absSum, double[] min, double[] max) {
+        this.names = names;
+        this.count = count;
+        this.sum = sum;
+        this.absSum = absSum;
+        this.min = min;
+        this.max = max;
+    }
+
+    public int size() { return names.length; }
+    public String name(int i) { return names[i]; }
+    public long count(int i) { return count[i]; }
+    public double sum(int i) { return sum[i]; }
+    public double absSum(int i) { return absSum[i]; }
+    public double min(int i) { return min[i]; }
+    public double max(int i) { return max[i]; }
+    public double mean(int i) { return sum[i] / count[i]; }
+
+    /** Heap of the arrays; the names are shared with the dictionary. */
+    public long estimatedBytes() {
+        return (long) names.length * (Integer.BYTES + Long.BYTES + 4 * Double.BYTES);
+    }
+}
@@ -0,0 +1,46 @@
+package dataviz.analysis;
+
+import dataviz.data.DataView;
+import dataviz.data.Extent;
+
+import java.time.Instant;
+
+/**
+ * Text describing a dataset: a short summary, optionally followed by the
+ * distribution of y.
+ */
+public final class DataPreview {
+
+    private DataPreview() {
+    }
+
+    public static String summary(DataView data, long estimatedBytes) {
+        String text = "Dataset Summary:\n"
+                + "Total Points: " + data.size() + "\n"
+                + "Categories: " + data.categoryCount() + "\n"
+                + String.format("Memory: %.1f MB", estimatedBytes / (1024.0 * 1024.0));
+        if (data.isXTime() && !data.isEmpty()) {
+            Extent extent = data.extent();
+            text += "\nFrom: " + Instant.ofEpochMilli((long) extent.minX())
+                    + "\nTo: " + Instant.ofEpochMilli((long) extent.maxX());
+        }
+        return text;
+    }
+
+    /** The summary followed by the distribution of y. */
+    public static String summary(DataView data, long estimatedBytes, Summary stats) {
+        StringBuilder text = new StringBuilder(summary(data, estimatedBytes));
+        if (stats.count() > 0) {
+            text.append(String.format("%n%nY Distribution (%s):", data.seriesName(0)))
+                    .append(String.format("%nMean: %.4g  Std Dev: %.4g", stats.mean(), stats.stdDev()))
+                    .append(String.format("%nMin: %.4g  Max: %.4g", stats.min(), stats.max()))
+                    .append(String.format("%nQuartiles: %.4g / %.4g / %.4g",
+                            stats.quantile(0.25), stats.median(), stats.quantile(0.75)))
+                    .append(String.format("%nP1: %.4g  P99: %.4g", stats.quantile(0.01), stats.quantile(0.99)));
+        }
+        if (stats.missing() > 0) {
+            text.append(String.format("%nMissing or infinite: %,d", stats.missing()));
+        }
+        return text.toString();
+    }
+}
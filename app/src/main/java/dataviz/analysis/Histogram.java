@@ -0,0 +1,34 @@
+package dataviz.analysis;
+
+/**
+ * Immutable histogram of equal-width bins: bin i covers
+ * [{@code lower(i)}, {@code upper(i)}), the last one also its upper edge.
+ */
+public final class Histogram {
+
+    public static final Histogram EMPTY = new Histogram(0, 0, new long[0]);
+
+    private final double lower;
+    private final double binWidth;
+    private final long[] counts;
+
+    Histogram(double lower, double binWidth, long[] counts) {
+        this.lower = lower;
+        this.binWidth = binWidth;
+        this.counts = counts;
+    }
+
+    public int size() { return counts.length; }
+    public double lower(int i) { return lower + i * binWidth; }
+    public double upper(int i) { return lower + (i + 1) * binWidth; }
+    public long count(int i) { return counts[i]; }
+    public double binWidth() { return binWidth; }
+
+    public long maxCount() {
+        long max = 0;
+        for (long count : counts) {
+            max = Math.max(max, count);
+        }
+        return max;
+    }
+}
@@ -0,0 +1,207 @@
+package dataviz.analysis;
+
+import dataviz.data.IndexSort;
+
+import java.util.Arrays;
+
+/**
+ * KLL quantile sketch over doubles: a stack of compactors where an item on
+ * level h stands for 2^h inputs. A level that outgrows its capacity is
+ * sorted and every other item, starting at a random offset, moves up a
+ * level. Capacities shrink geometrically below the top level, so about
+ * {@code 3k} items are kept whatever the input size, with a rank error of
+ * roughly 1.7% at {@code k = 200}.
+ *
+ * <p>Sketches of disjoint inputs merge into a sketch of their union, which
+ * is what lets every fork-join chunk keep its own. The coin flips come from
+ * the seed, so the same chunks merged in the same order give the same
+ * sketch. NaN is ignored. Not thread-safe.
+ */
+public final class QuantileSketch {
+
+    public static final int DEFAULT_K = 200;
+    private static final int MIN_CAPACITY = 8;
+
+    private final int k;
+    private double[][] levels = new double[1][MIN_CAPACITY];
+    private int[] sizes = new int[1];
+    private int[] capacities;
+    private int totalCapacity;
+    private int retained;
+    private long count;
+    private long coin;
+
+    public QuantileSketch(long seed) {
+        this(DEFAULT_K, seed);
+    }
+
+    public QuantileSketch(int k, long seed) {
+        if (k < MIN_CAPACITY) throw new IllegalArgumentException("k must be at least " + MIN_CAPACITY + ": " + k);
+        this.k = k;
+        this.coin = seed | 1; // xorshift state must not be zero
+        resize();
+    }
+
+    public long count() {
+        return count;
+    }
+
+    public void add(double value) {
+        if (Double.isNaN(value)) return;
+        append(0, value);
+        count++;
+        if (++retained > totalCapacity) compress();
+    }
+
+    /** Folds {@code other} into this sketch; {@code other} is left as it was. */
+    public void merge(QuantileSketch other) {
+        if (other.count == 0) return;
+        for (int i = 0; i < other.sizes[0]; i++) {
+            append(0, other.levels[0][i]);
+        }
+        for (int h = 1; h < other.sizes.length; h++) {
+            mergeInto(h, other.levels[h], other.sizes[h]);
+        }
+        retained += other.retained;
+        count += other.count;
+        while (retained > totalCapacity) {
+            compress();
+        }
+    }
+
+    /**
+     * The retained items in ascending order, each with the number of inputs
+     * at or below it, for answering quantile queries without the sketch.
+     */
+    public Sorted sorted() {
+        double[] values = new double[retained];
+        int[] levelOf = new int[retained];
+        int n = 0;
+        for (int h = 0; h < sizes.length; h++) {
+            for (int i = 0; i < sizes[h]; i++) {
+                values[n] = levels[h][i];
+                levelOf[n++] = h;
+            }
+        }
+        int[] order = IndexSort.sort(values);
+        long[] cumulative = new long[n];
+        long total = 0;
+        for (int i = 0; i < n; i++) {
+            total += 1L << levelOf[order[i]];
+            cumulative[i] = total;
+        }
+        return new Sorted(values, cumulative);
+    }
+
+    private void append(int level, double value) {
+        ensureLevel(level);
+        double[] items = levels[level];
+        if (sizes[level] == items.length) {
+            items = levels[level] = Arrays.copyOf(items, items.length * 2);
+        }
+        items[sizes[level]++] = value;
+    }
+
+    // Merges a sorted run into a sorted level, from the back, so the level is not copied
+    private void mergeInto(int level, double[] run, int length) {
+        ensureLevel(level);
+        int size = sizes[level];
+        double[] items = levels[level];
+        if (items.length < size + length) {
+            items = levels[level] = Arrays.copyOf(items, Math.max(items.length * 2, size + length));
+        }
+        int i = size - 1;
+        int j = length - 1;
+        for (int k = size + length - 1; j >= 0; k--) {
+            items[k] = i >= 0 && items[i] > run[j] ? items[i--] : run[j--];
+        }
+        sizes[level] = size + length;
+    }
+
+    private void ensureLevel(int level) {
+        if (level < sizes.length) return;
+        levels = Arrays.copyOf(levels, level + 1);
+        levels[level] = new double[MIN_CAPACITY];
+        sizes = Arrays.copyOf(sizes, level + 1);
+        resize();
+    }
+
+    // Level capacities depend on the number of levels, so they change only when one is added
+    private void resize() {
+        capacities = new int[sizes.length];
+        totalCapacity = 0;
+        for (int h = 0; h < sizes.length; h++) {
+            int depth = sizes.length - 1 - h;
+            capacities[h] = Math.max(MIN_CAPACITY, (int) Math.ceil(k * Math.pow(2.0 / 3.0, depth)));
+            totalCapacity += capacities[h];
+        }
+    }
+
+    // Compacts the lowest level that is at or over its capacity. Levels above
+    // the first are kept sorted, so only the first is ever sorted here.
+    private void compress() {
+        int level = 0;
+        while (level < sizes.length - 1 && sizes[level] < capacities[level]) {
+            level++;
+        }
+        double[] items = levels[level];
+        int size = sizes[level];
+        if (level == 0) Arrays.sort(items, 0, size);
+
+        // The smallest item stays behind when the count is odd, so the promoted pairs cover an even count
+        int start = size & 1;
+        int promoted = (size - start) / 2;
+        double[] run = new double[promoted];
+        for (int i = 0, j = start + flip(); i < promoted; i++, j += 2) {
+            run[i] = items[j];
+        }
+        sizes[level] = start;
+        retained -= promoted;
+        mergeInto(level + 1, run, promoted);
+    }
+
+    private int flip() {
+        coin ^= coin << 13;
+        coin ^= coin >>> 7;
+        coin ^= coin << 17;
+        return (int) (coin >>> 63);
+    }
+
+    /** Sorted items of a sketch with cumulative weights; immutable. */
+    public static final class Sorted {
+
+        private final double[] values;
+        private final long[] cumulative;
+
+        Sorted(double[] values, long[] cumulative) {
+            this.values = values;
+            this.cumulative = cumulative;
+        }
+
+        public boolean isEmpty() {
+            return values.length == 0;
+        }
+
+        public long estimatedBytes() {
+            return (long) values.length * (Double.BYTES + Long.BYTES);
+        }
+
+        /** Value at normalised rank {@code q} in [0, 1]; NaN when nothing was added. */
+        public double quantile(double q) {
+            if (values.length == 0) return Double.NaN;
+            long total = cumulative[cumulative.length - 1];
+            long rank = (long) Math.ceil(Math.max(0, Math.min(1, q)) * total);
+            int lo = 0;
+            int hi = values.length - 1;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (cumulative[mid] < rank) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            return values[lo];
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package dataviz.analysis;
+
+/**
+ * Immutable distribution summary of one value column: moments, exact
+ * extremes, sketched quantiles and a fine histogram that coarser ones are
+ * cut from without another pass. Rows whose value is NaN or infinite are
+ * counted as missing and left out of everything else.
+ *
+ * <p>The fine histogram has {@code FINE_BINS} equal bins over the y range
+ * of the dataset's extent, which is [min, max] unless rows changed between
+ * reading the extent and scanning them.
+ * That number has many divisors, so a histogram of any divisor of it is
+ * exact; other bin counts are rounded to the nearest divisor.
+ */
+public final class Summary {
+
+    /** 2^3 * 3^2 * 5 * 7, so 10, 12, 20, 30, 40, 60 ... bins are all exact. */
+    public static final int FINE_BINS = 2520;
+    static final int MAX_BINS = 210;
+
+    public static final Summary EMPTY = new Summary(0, 0, Double.NaN, Double.NaN, Double.NaN, Double.NaN,
+            new QuantileSketch(0).sorted(), 0, 0, new long[FINE_BINS]);
+
+    private final long count;
+    private final long missing;
+    private final double mean;
+    private final double m2; // sum of squared deviations from the mean
+    private final double min;
+    private final double max;
+    private final QuantileSketch.Sorted quantiles;
+    private final double binLower;
+    private final double binUpper;
+    private final long[] fineCounts;
+
+    Summary(long count, long missing, double mean, double m2, double min, double max,
+            QuantileSketch.Sorted quantiles, double binLower, double binUpper, long[] fineCounts) {
+        this.count = count;
+        this.missing = missing;
+        this.mean = mean;
+        this.m2 = m2;
+        this.min = min;
+        this.max = max;
+        this.quantiles = quantiles;
+        this.binLower = binLower;
+        this.binUpper = binUpper;
+        this.fineCounts = fineCounts;
+    }
+
+    public long count() { return count; }
+    public long missing() { return missing; }
+    public double mean() { return mean; }
+    public double min() { return min; }
+    public double max() { return max; }
+
+    /** Sample variance; NaN below two values. */
+    public double variance() {
+        return count > 1 ? m2 / (count - 1) : Double.NaN;
+    }
+
+    public double stdDev() {
+        return Math.sqrt(variance());
+    }
+
+    /** Approximate value at normalised rank {@code q}; exact at 0 and 1. */
+    public double quantile(double q) {
+        if (count == 0) return Double.NaN;
+        if (q <= 0) return min;
+        if (q >= 1) return max;
+        // The sketch can be off by a little, but never past the true extremes
+        return Math.max(min, Math.min(max, quantiles.quantile(q)));
+    }
+
+    public double median() {
+        return quantile(0.5);
+    }
+
+    /** Heap of the sketched quantiles and the fine histogram. */
+    public long estimatedBytes() {
+        return quantiles.estimatedBytes() + (long) fineCounts.length * Long.BYTES;
+    }
+
+    /** Freedman-Diaconis bin count, or Sturges' when the interquartile range is zero. */
+    public int autoBins() {
+        if (count < 2 || max <= min) return 1;
+        double iqr = quantile(0.75) - quantile(0.25);
+        double bins = iqr > 0
+                ? (max - min) / (2 * iqr / Math.cbrt(count))
+                : Math.log(count) / Math.log(2) + 1;
+        return (int) Math.max(1, Math.min(MAX_BINS, Math.ceil(bins)));
+    }
+
+    public Histogram histogram() {
+        return histogram(autoBins());
+    }
+
+    /** About {@code bins} equal bins; see the class comment. */
+    public Histogram histogram(int bins) {
+        if (count == 0) return Histogram.EMPTY;
+        if (binUpper <= binLower) return new Histogram(binLower, 0, new long[] {count});
+
+        int size = nearestDivisor(Math.max(1, Math.min(FINE_BINS, bins)));
+        int span = FINE_BINS / size;
+        long[] counts = new long[size];
+        for (int i = 0; i < FINE_BINS; i++) {
+            counts[i / span] += fineCounts[i];
+        }
+        return new Histogram(binLower, (binUpper - binLower) / size, counts);
+    }
+
+    private static int nearestDivisor(int bins) {
+        for (int distance = 0; ; distance++) {
+            if (FINE_BINS % (bins + distance) == 0) return bins + distance;
+            if (bins - distance > 0 && FINE_BINS % (bins - distance) == 0) return bins - distance;
+        }
+    }
+}
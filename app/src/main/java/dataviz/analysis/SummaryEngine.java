@@ -0,0 +1,155 @@
+package dataviz.analysis;
+
+import dataviz.data.DataView;
+import dataviz.data.Extent;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Computes the {@link Summary} of y in one fork-join pass. Rows are cut
+ * into fixed chunks, each scanned into a partial result (Welford moments,
+ * extremes, fine histogram counts and a quantile sketch), and partials are
+ * merged pairwise up the task tree. Chunk bounds and the merge order do not
+ * depend on the pool, so a dataset gives the same summary at any thread
+ * count. The last result is kept until the dataset or its size changes.
+ */
+public final class SummaryEngine {
+
+    private static final int CHUNK_ROWS = 1 << 20;
+
+    private final ForkJoinPool pool;
+    private DataView source;
+    private int summarizedRows;
+    private Summary snapshot = Summary.EMPTY;
+
+    public SummaryEngine(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    public synchronized Summary update(DataView data) {
+        if (data != source || data.size() != summarizedRows) {
+            source = data;
+            summarizedRows = data.size();
+            snapshot = summarize(data, pool);
+        }
+        return snapshot;
+    }
+
+    public static Summary summarize(DataView data, ForkJoinPool pool) {
+        int size = data.size();
+        Extent extent = data.extent();
+        if (size == 0 || extent == Extent.EMPTY) return Summary.EMPTY;
+
+        double lower = extent.minY();
+        double upper = extent.maxY();
+        int chunks = (int) (((long) size + CHUNK_ROWS - 1) / CHUNK_ROWS);
+        Partial total = pool.invoke(new ChunkTask(data, lower, upper, 0, chunks));
+        if (total.count == 0) return Summary.EMPTY;
+        return new Summary(total.count, total.missing, total.mean, total.m2, total.min, total.max,
+                total.sketch.sorted(), lower, upper, total.fineCounts);
+    }
+
+    private static final class Partial {
+        final long[] fineCounts = new long[Summary.FINE_BINS];
+        final QuantileSketch sketch;
+        long count;
+        long missing;
+        double mean;
+        double m2;
+        double min = Double.POSITIVE_INFINITY;
+        double max = Double.NEGATIVE_INFINITY;
+
+        Partial(long seed) {
+            sketch = new QuantileSketch(seed);
+        }
+
+        // Chan et al.'s pairwise update, so merged moments match a single pass
+        void merge(Partial other) {
+            long n = count + other.count;
+            if (other.count > 0) {
+                double delta = other.mean - mean;
+                mean += delta * other.count / n;
+                m2 += other.m2 + delta * delta * count * other.count / n;
+            }
+            count = n;
+            missing += other.missing;
+            min = Math.min(min, other.min);
+            max = Math.max(max, other.max);
+            for (int i = 0; i < fineCounts.length; i++) {
+                fineCounts[i] += other.fineCounts[i];
+            }
+            sketch.merge(other.sketch);
+        }
+    }
+
+    @SuppressWarnings("serial") // fork-join tasks are Serializable only by inheritance
+    private static final class ChunkTask extends RecursiveTask<Partial> {
+        private final DataView data;
+        private final double lower;
+        private final double upper;
+        private final int firstChunk;
+        private final int endChunk;
+
+        ChunkTask(DataView data, double lower, double upper, int firstChunk, int endChunk) {
+            this.data = data;
+            this.lower = lower;
+            this.upper = upper;
+            this.firstChunk = firstChunk;
+            this.endChunk = endChunk;
+        }
+
+        @Override
+        protected Partial compute() {
+            if (endChunk - firstChunk > 1) {
+                int middle = (firstChunk + endChunk) >>> 1;
+                ChunkTask left = new ChunkTask(data, lower, upper, firstChunk, middle);
+                left.fork();
+                Partial right = new ChunkTask(data, lower, upper, middle, endChunk).compute();
+                Partial result = left.join();
+                result.merge(right);
+                return result;
+            }
+            return scan();
+        }
+
+        private Partial scan() {
+            Partial partial = new Partial((firstChunk + 1) * 0x9E3779B97F4A7C15L);
+            int start = firstChunk * CHUNK_ROWS;
+            int end = (int) Math.min(data.size(), (long) start + CHUNK_ROWS);
+            double scale = upper > lower ? Summary.FINE_BINS / (upper - lower) : 0;
+            long[] bins = partial.fineCounts;
+            QuantileSketch sketch = partial.sketch;
+            long count = 0;
+            double mean = 0;
+            double m2 = 0;
+            double min = Double.POSITIVE_INFINITY;
+            double max = Double.NEGATIVE_INFINITY;
+
+            for (int i = start; i < end; i++) {
+                double y = data.y(i);
+                if (!Double.isFinite(y)) {
+                    partial.missing++;
+                    continue;
+                }
+                count++;
+                double delta = y - mean;
+                mean += delta / count;
+                m2 += delta * (y - mean);
+                if (y < min) min = y;
+                if (y > max) max = y;
+                // Clamped, since rows may have changed after the extent was read
+                int bin = (int) ((y - lower) * scale);
+                bins[Math.max(0, Math.min(Summary.FINE_BINS - 1, bin))]++;
+                sketch.add(y);
+            }
+
+            partial.count = count;
+            partial.mean = mean;
+            partial.m2 = m2;
+            partial.min = min;
+            partial.max = max;
+            return partial;
+        }
+    }
+}
@@ -0,0 +1,356 @@
+package dataviz.cache;
+
+import dataviz.data.CategoryDictionary;
+import dataviz.data.DataView;
+import dataviz.data.Extent;
+import dataviz.io.CsvOptions;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.zip.CRC32C;
+
+/**
+ * Binary sidecar next to a CSV file ({@code data.csv.dvc}) holding the parsed
+ * columns, so a later load of the same file can map them instead of parsing.
+ *
+ * <p>Layout, little-endian, columns 8-byte aligned:
+ * <pre>
+ *   header      magic, version, rows, source stamp, skipped rows, x/y
+ *               min/max, category id min/max, x-sorted and x-time flags,
+ *               series count, section offsets, CSV options, series names
+ *   dictionary  count, then (length, UTF-8 bytes) per category
+ *   x, series   rows doubles each, one column per series
+ *   category    rows ints
+ *   trailer     CRC32C of the header and dictionary, then one per column,
+ *               padded to 8 bytes
+ * </pre>
+ * A sidecar is stale when the source stamp or the CSV options differ; it is
+ * corrupt when its length or any checksum is wrong. Either way {@link #open}
+ * returns null and the caller parses and rewrites it. The header is checked
+ * first, so a stale sidecar is rejected without reading its columns; the
+ * columns are then read once in sequence to verify them, which runs at disk
+ * or memory speed, far below the cost of the parse it replaces.
+ *
+ * <p>Stored category ids are those of the dictionary the data was parsed
+ * into. On open, the stored names are interned into the caller's dictionary
+ * and the ids translated where they differ, so a mapped dataset and a freshly
+ * parsed one agree on every category.
+ */
+public final class ColumnCache {
+
+    public static final String SUFFIX = ".dvc";
+
+    private static final long MAGIC = 0x31304C4F43435644L; // "DVCCOL01"
+    private static final int VERSION = 5; // 2 added the x-time flag, 3 the series, the sample and the header checksum, 4 column checksums, 5 NaN x unsorted
+    private static final int FIXED_HEADER = 128;
+
+    private static final int WRITE_BUFFER = 1 << 20;
+    private static final int SAMPLE_BYTES = 64 << 10;
+
+    /**
+     * Size, modification time and a CRC32C of the first and last
+     * {@value #SAMPLE_BYTES} bytes of a source file, taken before it is parsed.
+     * The sample catches an edit that keeps the size and restores the mtime;
+     * an edit in the middle of a large file that does both goes unnoticed.
+     */
+    public record SourceStamp(long size, long modifiedMillis, long sample) {
+        public static SourceStamp of(Path file) throws IOException {
+            BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+            CRC32C crc = new CRC32C();
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                long size = channel.size();
+                ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(SAMPLE_BYTES, size));
+                readFully(channel, buffer, 0);
+                crc.update(buffer.flip());
+                if (size > SAMPLE_BYTES) {
+                    long tail = Math.max(SAMPLE_BYTES, size - SAMPLE_BYTES);
+                    buffer.clear().limit((int) (size - tail));
+                    readFully(channel, buffer, tail);
+                    crc.update(buffer.flip());
+                }
+            }
+            return new SourceStamp(attributes.size(), attributes.lastModifiedTime().toMillis(), crc.getValue());
+        }
+    }
+
+    private final String options;
+    private final int seriesCount;
+
+    public ColumnCache(CsvOptions options) {
+        this.options = options.toString();
+        this.seriesCount = options.seriesCount();
+    }
+
+    public static Path sidecarFor(Path source) {
+        return source.resolveSibling(source.getFileName() + SUFFIX);
+    }
+
+    /**
+     * Maps the sidecar of {@code source}, or returns null when there is none or
+     * it is stale. A corrupt sidecar is deleted. Categories are interned into
+     * {@code dictionary}, normally the catalog's.
+     */
+    public MappedDataView open(Path source, CategoryDictionary dictionary) throws IOException {
+        Path sidecar = sidecarFor(source);
+        SourceStamp stamp = SourceStamp.of(source);
+        try (FileChannel channel = FileChannel.open(sidecar, StandardOpenOption.READ)) {
+            long length = channel.size();
+            if (length < FIXED_HEADER + trailerBytes(1)) return discard(sidecar);
+
+            ByteBuffer header = ByteBuffer.allocate(FIXED_HEADER).order(ByteOrder.LITTLE_ENDIAN);
+            readFully(channel, header, 0);
+            header.flip();
+            if (header.getLong() != MAGIC || header.getInt() != VERSION) return discard(sidecar);
+            int rows = header.getInt();
+            long sourceSize = header.getLong();
+            long sourceModified = header.getLong();
+            long sourceSample = header.getLong();
+            long skippedRows = header.getLong();
+            double minX = header.getDouble(), maxX = header.getDouble();
+            double minY = header.getDouble(), maxY = header.getDouble();
+            int minCategory = header.getInt();
+            int maxCategory = header.getInt();
+            boolean xSorted = header.get() != 0;
+            boolean xTime = header.get() != 0;
+            header.position(92);
+            int series = header.getInt();
+            long dictionaryOffset = header.getLong();
+            long xOffset = header.getLong();
+            long categoryOffset = header.getLong();
+
+            if (sourceSize != stamp.size() || sourceModified != stamp.modifiedMillis()
+                    || sourceSample != stamp.sample()) {
+                return null; // stale
+            }
+            if (rows < 0 || series < 1 || categoryOffset != xOffset + (long) rows * Double.BYTES * (1 + series)
+                    || categoryOffset + (long) rows * Integer.BYTES + trailerBytes(series) != length
+                    || xOffset < dictionaryOffset || dictionaryOffset < FIXED_HEADER
+                    || xOffset - FIXED_HEADER > Integer.MAX_VALUE) {
+                return discard(sidecar);
+            }
+
+            ByteBuffer meta = ByteBuffer.allocate((int) (xOffset - FIXED_HEADER)).order(ByteOrder.LITTLE_ENDIAN);
+            readFully(channel, meta, FIXED_HEADER);
+            meta.flip();
+            ByteBuffer trailer = ByteBuffer.allocate(trailerBytes(series)).order(ByteOrder.LITTLE_ENDIAN);
+            readFully(channel, trailer, length - trailer.capacity());
+            if (!metaMatches(header, meta, trailer)) return discard(sidecar);
+
+            String storedOptions = readString(meta);
+            if (series != seriesCount || !storedOptions.equals(options)) return null; // parsed differently
+            if (!columnsMatch(channel, xOffset, rows, series, trailer)) return discard(sidecar);
+            String[] seriesNames = new String[series];
+            for (int s = 0; s < series; s++) {
+                seriesNames[s] = readString(meta);
+            }
+
+            meta.position((int) (dictionaryOffset - FIXED_HEADER));
+            int[] categoryIds = remap(meta, dictionary, rows == 0 ? 0 : minCategory, rows == 0 ? -1 : maxCategory);
+            Extent extent = rows == 0 ? Extent.EMPTY : new Extent(minX, maxX, minY, maxY, xSorted);
+            return new MappedDataView(channel, rows, xOffset, seriesNames, categoryOffset, dictionary, categoryIds,
+                    extent, xTime, skippedRows);
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (RuntimeException e) {
+            // Garbage offsets or lengths in a damaged header
+            return discard(sidecar);
+        }
+    }
+
+    /**
+     * Writes the sidecar for {@code source}. The file is written under a
+     * temporary name and moved into place, so readers never see half of it.
+     */
+    public void write(Path source, SourceStamp stamp, DataView data, long skippedRows) throws IOException {
+        if (data.seriesCount() != seriesCount) {
+            throw new IllegalArgumentException("Data has " + data.seriesCount() + " series, options read " + seriesCount);
+        }
+        Path sidecar = sidecarFor(source);
+        Path temporary = sidecar.resolveSibling(sidecar.getFileName() + ".tmp");
+        int rows = data.size();
+        Extent extent = data.extent();
+
+        byte[] optionBytes = options.getBytes(StandardCharsets.UTF_8);
+        byte[][] seriesNames = new byte[seriesCount][];
+        long seriesNameBytes = 0;
+        for (int s = 0; s < seriesCount; s++) {
+            seriesNames[s] = data.seriesName(s).getBytes(StandardCharsets.UTF_8);
+            seriesNameBytes += Integer.BYTES + seriesNames[s].length;
+        }
+        int categories = data.categoryCount();
+        byte[][] names = new byte[categories][];
+        long dictionaryBytes = Integer.BYTES;
+        for (int c = 0; c < categories; c++) {
+            names[c] = data.categoryName(c).getBytes(StandardCharsets.UTF_8);
+            dictionaryBytes += Integer.BYTES + names[c].length;
+        }
+        int minCategory = Integer.MAX_VALUE, maxCategory = Integer.MIN_VALUE;
+        for (int i = 0; i < rows; i++) {
+            int c = data.categoryId(i);
+            if (c < minCategory) minCategory = c;
+            if (c > maxCategory) maxCategory = c;
+        }
+
+        long dictionaryOffset = FIXED_HEADER + Integer.BYTES + optionBytes.length + seriesNameBytes;
+        long xOffset = align(dictionaryOffset + dictionaryBytes);
+        long categoryOffset = xOffset + (long) rows * Double.BYTES * (1 + seriesCount);
+
+        CRC32C crc = new CRC32C();
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(WRITE_BUFFER).order(ByteOrder.LITTLE_ENDIAN);
+            buffer.putLong(MAGIC).putInt(VERSION).putInt(rows);
+            buffer.putLong(stamp.size()).putLong(stamp.modifiedMillis()).putLong(stamp.sample());
+            buffer.putLong(skippedRows);
+            buffer.putDouble(extent.minX()).putDouble(extent.maxX());
+            buffer.putDouble(extent.minY()).putDouble(extent.maxY());
+            buffer.putInt(rows == 0 ? 0 : minCategory).putInt(rows == 0 ? 0 : maxCategory);
+            buffer.put((byte) (extent.isXSorted() ? 1 : 0));
+            buffer.put((byte) (data.isXTime() ? 1 : 0));
+            pad(buffer, 92);
+            buffer.putInt(seriesCount);
+            buffer.putLong(dictionaryOffset).putLong(xOffset).putLong(categoryOffset);
+            pad(buffer, FIXED_HEADER);
+
+            buffer.putInt(optionBytes.length).put(optionBytes);
+            for (byte[] name : seriesNames) {
+                if (buffer.remaining() < Integer.BYTES + name.length) flush(channel, buffer, crc);
+                buffer.putInt(name.length).put(name);
+            }
+            buffer.putInt(categories);
+            for (byte[] name : names) {
+                if (buffer.remaining() < Integer.BYTES + name.length) flush(channel, buffer, crc);
+                buffer.putInt(name.length).put(name);
+            }
+            if (buffer.remaining() < Double.BYTES) flush(channel, buffer, crc);
+            while (channel.position() + buffer.position() < xOffset) buffer.put((byte) 0);
+            flush(channel, buffer, crc);
+            int[] checksums = new int[2 + seriesCount + 1];
+            checksums[0] = (int) crc.getValue();
+
+            // Each column is flushed at its end, so every flush belongs to one checksum
+            for (int c = 0; c <= seriesCount; c++) {
+                crc.reset();
+                for (int i = 0; i < rows; i++) {
+                    if (buffer.remaining() < Double.BYTES) flush(channel, buffer, crc);
+                    buffer.putDouble(c == 0 ? data.x(i) : data.value(c - 1, i));
+                }
+                flush(channel, buffer, crc);
+                checksums[1 + c] = (int) crc.getValue();
+            }
+            crc.reset();
+            for (int i = 0; i < rows; i++) {
+                if (buffer.remaining() < Integer.BYTES) flush(channel, buffer, crc);
+                buffer.putInt(data.categoryId(i));
+            }
+            flush(channel, buffer, crc);
+            checksums[checksums.length - 1] = (int) crc.getValue();
+
+            for (int checksum : checksums) buffer.putInt(checksum);
+            pad(buffer, trailerBytes(seriesCount));
+            buffer.flip();
+            while (buffer.hasRemaining()) channel.write(buffer);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temporary);
+            throw e;
+        }
+        Files.move(temporary, sidecar, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Interns the stored names of ids {@code min..max}, the ones rows use, and
+     * returns the id in {@code dictionary} of each stored id, or null when
+     * every one of them is unchanged.
+     */
+    private static int[] remap(ByteBuffer meta, CategoryDictionary dictionary, int min, int max) {
+        int categories = meta.getInt();
+        if (min < 0 || max >= categories) throw new IllegalStateException("Category ids out of range");
+        int[] ids = new int[max + 1];
+        boolean identity = true;
+        for (int c = 0; c <= max; c++) {
+            String name = readString(meta);
+            if (c < min) continue;
+            ids[c] = dictionary.intern(name);
+            identity &= ids[c] == c;
+        }
+        return identity ? null : ids;
+    }
+
+    // A checksum for the header and dictionary, x, each series and the categories
+    private static int trailerBytes(int series) {
+        return (int) align((long) Integer.BYTES * (3 + series));
+    }
+
+    private static boolean metaMatches(ByteBuffer header, ByteBuffer meta, ByteBuffer trailer) {
+        CRC32C crc = new CRC32C();
+        crc.update(header.array(), 0, header.limit());
+        crc.update(meta.array(), 0, meta.limit());
+        return trailer.getInt(0) == (int) crc.getValue();
+    }
+
+    // The columns are contiguous from x, so one sequential read checks them all
+    private static boolean columnsMatch(FileChannel channel, long xOffset, int rows, int series, ByteBuffer trailer)
+            throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(WRITE_BUFFER);
+        CRC32C crc = new CRC32C();
+        long position = xOffset;
+        for (int section = 0; section <= series + 1; section++) {
+            long end = position + (long) rows * (section <= series ? Double.BYTES : Integer.BYTES);
+            crc.reset();
+            while (position < end) {
+                buffer.clear().limit((int) Math.min(buffer.capacity(), end - position));
+                readFully(channel, buffer, position);
+                position += buffer.position();
+                crc.update(buffer.flip());
+            }
+            if (trailer.getInt(Integer.BYTES * (1 + section)) != (int) crc.getValue()) return false;
+        }
+        return true;
+    }
+
+    private static void flush(FileChannel channel, ByteBuffer buffer, CRC32C crc) throws IOException {
+        crc.update(buffer.duplicate().flip());
+        flush(channel, buffer);
+    }
+
+    private static void flush(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) channel.write(buffer);
+        buffer.clear();
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position + buffer.position());
+            if (read < 0) throw new IOException("Truncated cache file");
+        }
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void pad(ByteBuffer buffer, int position) {
+        while (buffer.position() < position) buffer.put((byte) 0);
+    }
+
+    private static long align(long offset) {
+        return (offset + Double.BYTES - 1) & -Double.BYTES;
+    }
+
+    private static MappedDataView discard(Path sidecar) throws IOException {
+        Files.deleteIfExists(sidecar);
+        return null;
+    }
+}
@@ -0,0 +1,115 @@
+package dataviz.cache;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+
+/**
+ * Results derived from a dataset (downsampled rows, indexes, aggregates,
+ * transformed columns) kept in memory under the dataset's version stamp,
+ * so a view that was already shown is served without touching the rows.
+ * Entries are weighed by their estimated size and the least recently used
+ * are dropped once the total exceeds the budget; an entry larger than the
+ * whole budget is returned but not kept.
+ *
+ * <p>A stale entry can never be returned: a mutated dataset has a new
+ * version, so old entries just age out. Values are computed outside the
+ * lock, so two threads asking for the same missing key may both compute
+ * it; the later result wins.
+ */
+public final class DerivedCache {
+
+    /**
+     * What an entry was derived from and how. {@code lower} and {@code upper}
+     * bound the x range, NaN for the full range; {@code width} is the pixel
+     * width, 0 where it does not apply.
+     */
+    public record Key(long version, String transform, int width, double lower, double upper) {
+
+        public static Key of(long version, String transform) {
+            return new Key(version, transform, 0, Double.NaN, Double.NaN);
+        }
+
+        public static Key of(long version, String transform, int width) {
+            return new Key(version, transform, width, Double.NaN, Double.NaN);
+        }
+    }
+
+    private record Entry(Object value, long bytes) {
+    }
+
+    private final long budgetBytes;
+    private final Map<Key, Entry> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private long residentBytes;
+    private long hits;
+    private long misses;
+
+    public DerivedCache(long budgetBytes) {
+        if (budgetBytes <= 0) throw new IllegalArgumentException("budget must be positive: " + budgetBytes);
+        this.budgetBytes = budgetBytes;
+    }
+
+    /** The value under {@code key}, computing and keeping it if it is missing. */
+    @SuppressWarnings("unchecked")
+    public <T> T get(Key key, Supplier<? extends T> compute, ToLongFunction<? super T> sizeOf) {
+        synchronized (this) {
+            Entry entry = entries.get(key);
+            if (entry != null) {
+                hits++;
+                return (T) entry.value;
+            }
+            misses++;
+        }
+
+        T value = compute.get();
+        long bytes = sizeOf.applyAsLong(value);
+        if (bytes > budgetBytes) return value;
+        synchronized (this) {
+            Entry previous = entries.put(key, new Entry(value, bytes));
+            if (previous != null) residentBytes -= previous.bytes;
+            residentBytes += bytes;
+            var it = entries.values().iterator();
+            while (residentBytes > budgetBytes && it.hasNext()) {
+                residentBytes -= it.next().bytes;
+                it.remove();
+            }
+        }
+        return value;
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        residentBytes = 0;
+    }
+
+    public long budgetBytes() {
+        return budgetBytes;
+    }
+
+    public synchronized long residentBytes() {
+        return residentBytes;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long hits() {
+        return hits;
+    }
+
+    public synchronized long misses() {
+        return misses;
+    }
+
+    /** Heap of an {@code int[]} of the given length, for size estimates. */
+    public static long intArrayBytes(int length) {
+        return 16 + 4L * length;
+    }
+
+    /** Heap of a {@code double[]} of the given length, for size estimates. */
+    public static long doubleArrayBytes(int length) {
+        return 16 + 8L * length;
+    }
+}
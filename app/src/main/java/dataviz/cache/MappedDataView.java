@@ -0,0 +1,156 @@
+package dataviz.cache;
+
+import dataviz.data.CategoryDictionary;
+import dataviz.data.DataVersion;
+import dataviz.data.DataView;
+import dataviz.data.Extent;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Read-only dataset whose columns live in a memory-mapped cache file. Pages
+ * are read in by the OS on first touch, so opening costs nothing per row and
+ * the data never enters the Java heap. Columns are mapped in 1 GB segments,
+ * since a single mapping is limited to 2 GB. Category ids are those of a
+ * shared dictionary; stored ids that differ from them are translated on read.
+ */
+public final class MappedDataView implements DataView {
+
+    private static final int SEGMENT_SHIFT = 30;
+
+    private final int size;
+    private final DoubleBuffer[] xs;
+    private final DoubleBuffer[][] series; // series 0 is y
+    private final String[] seriesNames;
+    private final IntBuffer[] categories;
+    private final CategoryDictionary dictionary;
+    private final int[] categoryIds; // stored id -> dictionary id, null when they are the same
+    private final Extent extent;
+    private final boolean xTime;
+    private final long skippedRows;
+    private final long mappedBytes;
+    private final long version = DataVersion.next(); // read-only, so one stamp for its lifetime
+
+    // The series columns follow x back to back
+    MappedDataView(FileChannel channel, int size, long xOffset, String[] seriesNames, long categoryOffset,
+                   CategoryDictionary dictionary, int[] categoryIds, Extent extent, boolean xTime,
+                   long skippedRows) throws IOException {
+        this.size = size;
+        this.xs = mapDoubles(channel, xOffset, size);
+        this.series = new DoubleBuffer[seriesNames.length][];
+        for (int s = 0; s < series.length; s++) {
+            series[s] = mapDoubles(channel, xOffset + (s + 1L) * size * Double.BYTES, size);
+        }
+        this.seriesNames = seriesNames;
+        this.categories = mapInts(channel, categoryOffset, size);
+        this.dictionary = dictionary;
+        this.categoryIds = categoryIds;
+        this.extent = extent;
+        this.xTime = xTime;
+        this.skippedRows = skippedRows;
+        this.mappedBytes = (long) size * ((1 + seriesNames.length) * Double.BYTES + Integer.BYTES);
+    }
+
+    private static DoubleBuffer[] mapDoubles(FileChannel channel, long offset, int count) throws IOException {
+        int perSegment = 1 << (SEGMENT_SHIFT - 3);
+        DoubleBuffer[] segments = new DoubleBuffer[Math.max(1, (count + perSegment - 1) / perSegment)];
+        for (int s = 0; s < segments.length; s++) {
+            int length = Math.min(perSegment, count - s * perSegment);
+            segments[s] = channel.map(FileChannel.MapMode.READ_ONLY, offset + ((long) s << SEGMENT_SHIFT),
+                    (long) Math.max(0, length) * Double.BYTES).order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer();
+        }
+        return segments;
+    }
+
+    private static IntBuffer[] mapInts(FileChannel channel, long offset, int count) throws IOException {
+        int perSegment = 1 << (SEGMENT_SHIFT - 2);
+        IntBuffer[] segments = new IntBuffer[Math.max(1, (count + perSegment - 1) / perSegment)];
+        for (int s = 0; s < segments.length; s++) {
+            int length = Math.min(perSegment, count - s * perSegment);
+            segments[s] = channel.map(FileChannel.MapMode.READ_ONLY, offset + ((long) s << SEGMENT_SHIFT),
+                    (long) Math.max(0, length) * Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+        }
+        return segments;
+    }
+
+    public CategoryDictionary dictionary() {
+        return dictionary;
+    }
+
+    /** Rows the original CSV load rejected. */
+    public long skippedRows() {
+        return skippedRows;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public double x(int row) {
+        return xs[row >>> (SEGMENT_SHIFT - 3)].get(row & ((1 << (SEGMENT_SHIFT - 3)) - 1));
+    }
+
+    @Override
+    public double y(int row) {
+        return value(0, row);
+    }
+
+    @Override
+    public int seriesCount() {
+        return series.length;
+    }
+
+    @Override
+    public String seriesName(int series) {
+        return seriesNames[series];
+    }
+
+    @Override
+    public double value(int series, int row) {
+        return this.series[series][row >>> (SEGMENT_SHIFT - 3)].get(row & ((1 << (SEGMENT_SHIFT - 3)) - 1));
+    }
+
+    @Override
+    public int categoryId(int row) {
+        int stored = categories[row >>> (SEGMENT_SHIFT - 2)].get(row & ((1 << (SEGMENT_SHIFT - 2)) - 1));
+        return categoryIds == null ? stored : categoryIds[stored];
+    }
+
+    @Override
+    public String categoryName(int categoryId) {
+        return dictionary.name(categoryId);
+    }
+
+    @Override
+    public int categoryCount() {
+        return dictionary.size();
+    }
+
+    @Override
+    public boolean isXTime() {
+        return xTime;
+    }
+
+    @Override
+    public long version() {
+        return version;
+    }
+
+    // Stored in the cache header, so no scan is needed
+    @Override
+    public Extent extent() {
+        return extent;
+    }
+
+    @Override
+    public long estimatedBytes() {
+        long remapBytes = categoryIds == null ? 0 : (long) categoryIds.length * Integer.BYTES;
+        return mappedBytes + remapBytes + dictionary.estimatedBytes();
+    }
+}
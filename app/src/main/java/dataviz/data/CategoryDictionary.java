@@ -0,0 +1,48 @@
+package dataviz.data;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Dictionary encoding for category labels: every distinct label is stored
+ * once and rows only keep its int id. Thread-safe, so a streaming producer
+ * can intern new labels while snapshots of the same data are on screen.
+ */
+public final class CategoryDictionary {
+
+    private final Map<String, Integer> ids = new HashMap<>();
+    private final List<String> names = new ArrayList<>();
+
+    public synchronized int intern(String name) {
+        Integer id = ids.get(name);
+        if (id == null) {
+            id = names.size();
+            ids.put(name, id);
+            names.add(name);
+        }
+        return id;
+    }
+
+    public synchronized int idOf(String name) {
+        Integer id = ids.get(name);
+        return id == null ? -1 : id;
+    }
+
+    public synchronized String name(int id) {
+        return names.get(id);
+    }
+
+    public synchronized int size() {
+        return names.size();
+    }
+
+    public synchronized long estimatedBytes() {
+        long bytes = 0;
+        for (String name : names) {
+            bytes += 56 + name.length(); // String + backing array + map entry, roughly
+        }
+        return bytes;
+    }
+}
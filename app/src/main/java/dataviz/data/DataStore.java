@@ -0,0 +1,239 @@
+package dataviz.data;
+
+/**
+ * Columnar dataset: x and one or more value series as primitive
+ * {@code double} columns and the category as a dictionary-encoded
+ * {@code int} column. The first series is {@link #y}.
+ */
+public final class DataStore implements DataView, RowSink {
+
+    /** Rows per column chunk; ranges aligned to it never share a chunk array. */
+    public static final int CHUNK_ROWS = DoubleColumn.CHUNK_SIZE;
+
+    private DoubleColumn xs = new DoubleColumn(); // may be shared with an identical store, see shareX
+    private final DoubleColumn[] series;
+    private final String[] seriesNames;
+    private boolean xTime;
+    private final IntColumn categories = new IntColumn();
+    private final CategoryDictionary dictionary;
+    private Extent extent; // cached, reset by every mutation
+    private long version;  // 0 until asked for, reset by every mutation
+
+    public DataStore() {
+        this(new CategoryDictionary());
+    }
+
+    public DataStore(CategoryDictionary dictionary) {
+        this(dictionary, 1);
+    }
+
+    public DataStore(CategoryDictionary dictionary, int seriesCount) {
+        if (seriesCount < 1) throw new IllegalArgumentException("at least one series is required");
+        this.dictionary = dictionary;
+        this.series = new DoubleColumn[seriesCount];
+        this.seriesNames = new String[seriesCount];
+        for (int s = 0; s < seriesCount; s++) {
+            series[s] = new DoubleColumn();
+            seriesNames[s] = s == 0 ? "y" : "y" + (s + 1);
+        }
+    }
+
+    public void add(double x, double y, String category) {
+        add(x, y, dictionary.intern(category));
+    }
+
+    @Override
+    public void add(double x, double y, int categoryId) {
+        xs.add(x);
+        series[0].add(y);
+        for (int s = 1; s < series.length; s++) {
+            series[s].add(Double.NaN);
+        }
+        categories.add(categoryId);
+        extent = null;
+        version = 0;
+    }
+
+    @Override
+    public void add(double x, double[] values, int categoryId) {
+        xs.add(x);
+        for (int s = 0; s < series.length; s++) {
+            series[s].add(s < values.length ? values[s] : Double.NaN);
+        }
+        categories.add(categoryId);
+        extent = null;
+        version = 0;
+    }
+
+    /**
+     * Appends {@code rows} zeroed rows and returns the index of the first one.
+     * Disjoint row ranges can then be filled from several threads with
+     * {@link #set}, and further series with {@link #setValue}.
+     */
+    public int grow(int rows) {
+        int first = size();
+        xs.grow(rows);
+        for (DoubleColumn column : series) {
+            column.grow(rows);
+        }
+        categories.grow(rows);
+        extent = null;
+        version = 0;
+        return first;
+    }
+
+    public void set(int row, double x, double y, int categoryId) {
+        xs.set(row, x);
+        series[0].set(row, y);
+        for (int s = 1; s < series.length; s++) {
+            series[s].set(row, Double.NaN);
+        }
+        categories.set(row, categoryId);
+        if (extent != null) extent = null; // avoid contending on the fields when filled in parallel
+        if (version != 0) version = 0;
+    }
+
+    public void setCategoryId(int row, int categoryId) {
+        categories.set(row, categoryId);
+        if (version != 0) version = 0;
+    }
+
+    public void setValue(int series, int row, double value) {
+        this.series[series].set(row, value);
+        if (series == 0 && extent != null) extent = null;
+        if (version != 0) version = 0;
+    }
+
+    /** Drops every row from {@code rows} on, such as the unused end of a {@link #grow}. */
+    public void truncate(int rows) {
+        xs.truncate(rows);
+        for (DoubleColumn column : series) {
+            column.truncate(rows);
+        }
+        categories.truncate(rows);
+        extent = null;
+        version = 0;
+    }
+
+    @Override
+    public long remainingRows() {
+        return Integer.MAX_VALUE - size();
+    }
+
+    @Override
+    public void setSeriesName(int series, String name) {
+        seriesNames[series] = name;
+    }
+
+    @Override
+    public void setXTime(boolean time) {
+        xTime = time;
+    }
+
+    /**
+     * Makes this store read x from {@code other}'s column when the two hold
+     * exactly the same x values, so the values are kept once. Neither store
+     * may be appended to afterwards. Returns whether the column is shared.
+     */
+    public boolean shareX(DataStore other) {
+        if (xs == other.xs) return true;
+        if (!xs.contentEquals(other.xs)) return false;
+        xs = other.xs;
+        return true;
+    }
+
+    public boolean sharesX(DataStore other) {
+        return xs == other.xs;
+    }
+
+    /** Heap held by the x column alone. */
+    public long xEstimatedBytes() {
+        return xs.estimatedBytes();
+    }
+
+    @Override
+    public CategoryDictionary dictionary() {
+        return dictionary;
+    }
+
+    @Override
+    public int size() {
+        return xs.size();
+    }
+
+    @Override
+    public double x(int row) {
+        return xs.get(row);
+    }
+
+    @Override
+    public double y(int row) {
+        return series[0].get(row);
+    }
+
+    @Override
+    public int seriesCount() {
+        return series.length;
+    }
+
+    @Override
+    public String seriesName(int series) {
+        return seriesNames[series];
+    }
+
+    @Override
+    public boolean isXTime() {
+        return xTime;
+    }
+
+    @Override
+    public double value(int series, int row) {
+        return this.series[series].get(row);
+    }
+
+    @Override
+    public int categoryId(int row) {
+        return categories.get(row);
+    }
+
+    @Override
+    public String categoryName(int categoryId) {
+        return dictionary.name(categoryId);
+    }
+
+    @Override
+    public int categoryCount() {
+        return dictionary.size();
+    }
+
+    // Stamped lazily, so filling a store does not draw a stamp per row
+    @Override
+    public long version() {
+        long result = version;
+        if (result == 0) {
+            result = DataVersion.next();
+            version = result;
+        }
+        return result;
+    }
+
+    @Override
+    public Extent extent() {
+        Extent result = extent;
+        if (result == null) {
+            result = Extent.of(this);
+            extent = result;
+        }
+        return result;
+    }
+
+    // Heap held by the columns and the dictionary, for the preview panel
+    @Override
+    public long estimatedBytes() {
+        long bytes = xs.estimatedBytes() + categories.estimatedBytes() + dictionary.estimatedBytes();
+        for (DoubleColumn column : series) {
+            bytes += column.estimatedBytes();
+        }
+        return bytes;
+    }
+}
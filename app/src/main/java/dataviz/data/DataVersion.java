@@ -0,0 +1,32 @@
+package dataviz.data;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Version stamps for {@link DataView#version}. Stamps come from one
+ * process-wide counter, so a stamp identifies both the dataset and the
+ * state it was in; no two datasets ever share one.
+ *
+ * <p>An instance tracks the version of a view over another dataset: it
+ * hands out a fresh stamp whenever the source's version has moved on.
+ */
+public final class DataVersion {
+
+    private static final AtomicLong NEXT = new AtomicLong();
+
+    private long sourceVersion = -1;
+    private long version;
+
+    public static long next() {
+        return NEXT.incrementAndGet();
+    }
+
+    /** This view's version while its source is at {@code sourceVersion}. */
+    public synchronized long of(long sourceVersion) {
+        if (sourceVersion != this.sourceVersion) {
+            this.sourceVersion = sourceVersion;
+            version = next();
+        }
+        return version;
+    }
+}
@@ -0,0 +1,72 @@
+package dataviz.data;
+
+/**
+ * Read-only access to a columnar dataset. Charts, the preview and the
+ * aggregations only ever see a dataset through this interface.
+ */
+public interface DataView {
+
+    int size();
+
+    double x(int row);
+
+    double y(int row);
+
+    int categoryId(int row);
+
+    String categoryName(int categoryId);
+
+    int categoryCount();
+
+    /**
+     * Stamp of the current contents, from {@link DataVersion}: it changes with
+     * every mutation and is never shared with another dataset, so results
+     * derived from a dataset can be cached under it.
+     */
+    long version();
+
+    /** Number of value columns; {@link #y} is the first of them. */
+    default int seriesCount() {
+        return 1;
+    }
+
+    default String seriesName(int series) {
+        return "y";
+    }
+
+    /** Value of column {@code series} at {@code row}; series 0 is {@link #y}. */
+    default double value(int series, int row) {
+        return y(row);
+    }
+
+    /** True when x holds epoch milliseconds, UTC, rather than plain numbers. */
+    default boolean isXTime() {
+        return false;
+    }
+
+    default String category(int row) {
+        return categoryName(categoryId(row));
+    }
+
+    default boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * True when rows are paged in from disk on demand, so structures with an
+     * entry per row should not be built over the dataset.
+     */
+    default boolean isPaged() {
+        return false;
+    }
+
+    /** Approximate bytes the dataset occupies, on or off the heap. */
+    default long estimatedBytes() {
+        return (long) size() * (2 * Double.BYTES + Integer.BYTES);
+    }
+
+    // Implementations that can cache this should override it
+    default Extent extent() {
+        return Extent.of(this);
+    }
+}
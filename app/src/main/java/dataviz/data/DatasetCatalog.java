@@ -0,0 +1,100 @@
+package dataviz.data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The datasets loaded or generated in this session. Stores created for the
+ * catalog intern their categories into its one {@link #dictionary()}, and
+ * a store whose x values match those of a store already in the catalog
+ * reads them from that store's column instead of keeping a copy. Datasets
+ * must not change once they are in the catalog.
+ */
+public final class DatasetCatalog {
+
+    public record Entry(String name, DataView data) {
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+
+    private final CategoryDictionary dictionary = new CategoryDictionary();
+    private final List<Entry> entries = new ArrayList<>();
+
+    public CategoryDictionary dictionary() {
+        return dictionary;
+    }
+
+    /**
+     * Points {@code data}'s x column at an identical one already in the
+     * catalog, if there is one. Scans the columns, so call it off the FX
+     * thread, before the dataset is shown or added.
+     */
+    public void shareStorage(DataView data) {
+        if (!(data instanceof DataStore store)) return;
+        for (Entry entry : entries()) {
+            // Cheap checks first; the full comparison only runs for a likely match
+            if (entry.data() instanceof DataStore other && other.size() == store.size() && !store.isEmpty()
+                    && other.x(0) == store.x(0) && other.x(other.size() - 1) == store.x(store.size() - 1)
+                    && store.shareX(other)) {
+                return;
+            }
+        }
+    }
+
+    /** Adds {@code data}, replacing {@code replaced} if that is in the catalog; names are made unique. */
+    public synchronized Entry add(String name, DataView data, Entry replaced) {
+        int index = replaced != null ? entries.indexOf(replaced) : -1;
+        if (index >= 0) entries.remove(index);
+        Entry entry = new Entry(uniqueName(name), data);
+        if (index >= 0) {
+            entries.add(index, entry);
+        } else {
+            entries.add(entry);
+        }
+        return entry;
+    }
+
+    public synchronized void remove(Entry entry) {
+        entries.remove(entry);
+    }
+
+    public synchronized List<Entry> entries() {
+        return List.copyOf(entries);
+    }
+
+    /** Bytes held by all datasets, counting a shared x column once. */
+    public synchronized long estimatedBytes() {
+        long bytes = 0;
+        List<DataStore> counted = new ArrayList<>();
+        for (Entry entry : entries) {
+            bytes += entry.data().estimatedBytes();
+            if (entry.data() instanceof DataStore store) {
+                for (DataStore other : counted) {
+                    if (store.sharesX(other)) {
+                        bytes -= store.xEstimatedBytes();
+                        break;
+                    }
+                }
+                counted.add(store);
+            }
+        }
+        return bytes;
+    }
+
+    private String uniqueName(String name) {
+        String candidate = name;
+        for (int n = 2; nameTaken(candidate); n++) {
+            candidate = name + " (" + n + ")";
+        }
+        return candidate;
+    }
+
+    private boolean nameTaken(String name) {
+        for (Entry entry : entries) {
+            if (entry.name().equals(name)) return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,98 @@
+package dataviz.data;
+
+import java.util.Arrays;
+
+/**
+ * Growable {@code double} column stored in fixed-size chunks, so growth
+ * never copies the values that are already there.
+ */
+public final class DoubleColumn {
+
+    static final int CHUNK_SHIFT = 16;
+    static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+    static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    private double[][] chunks = new double[4][];
+    private int size;
+
+    public void add(double value) {
+        int chunk = size >>> CHUNK_SHIFT;
+        if (chunk == chunks.length) {
+            chunks = Arrays.copyOf(chunks, chunks.length * 2);
+        }
+        if (chunks[chunk] == null) {
+            chunks[chunk] = new double[CHUNK_SIZE];
+        }
+        chunks[chunk][size & CHUNK_MASK] = value;
+        size++;
+    }
+
+    // Extends the column by count zeroed values; disjoint ranges may then be set concurrently
+    public void grow(int count) {
+        if (count <= 0) return;
+        long newSize = (long) size + count;
+        if (newSize > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Column cannot hold " + newSize + " values");
+        }
+        int lastChunk = (int) ((newSize - 1) >>> CHUNK_SHIFT);
+        if (lastChunk >= chunks.length) {
+            chunks = Arrays.copyOf(chunks, Math.max(chunks.length * 2, lastChunk + 1));
+        }
+        for (int c = size >>> CHUNK_SHIFT; c <= lastChunk; c++) {
+            if (chunks[c] == null) {
+                chunks[c] = new double[CHUNK_SIZE];
+            }
+        }
+        size = (int) newSize;
+    }
+
+    // Drops the values from size on; the chunks past it are released and the rest re-zeroed for grow
+    public void truncate(int size) {
+        if (size < 0 || size > this.size) {
+            throw new IllegalArgumentException("Cannot truncate " + this.size + " values to " + size);
+        }
+        int keep = (size + CHUNK_MASK) >>> CHUNK_SHIFT;
+        if (keep > 0) {
+            Arrays.fill(chunks[keep - 1], size - ((keep - 1) << CHUNK_SHIFT), CHUNK_SIZE, 0);
+        }
+        Arrays.fill(chunks, keep, chunks.length, null);
+        this.size = size;
+    }
+
+    public void set(int index, double value) {
+        chunks[index >>> CHUNK_SHIFT][index & CHUNK_MASK] = value;
+    }
+
+    public double get(int index) {
+        return chunks[index >>> CHUNK_SHIFT][index & CHUNK_MASK];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    boolean contentEquals(DoubleColumn other) {
+        if (other == this) return true;
+        if (other.size != size) return false;
+        for (int c = 0, n = (size + CHUNK_MASK) >>> CHUNK_SHIFT; c < n; c++) {
+            int length = Math.min(CHUNK_SIZE, size - (c << CHUNK_SHIFT));
+            // Bitwise, so NaN equals NaN
+            for (int i = 0; i < length; i++) {
+                if (Double.doubleToLongBits(chunks[c][i]) != Double.doubleToLongBits(other.chunks[c][i])) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    long estimatedBytes() {
+        long allocated = 0;
+        for (double[] chunk : chunks) {
+            if (chunk != null) {
+                allocated += 16 + (long) chunk.length * Double.BYTES;
+            }
+        }
+        return allocated + 16 + (long) chunks.length * 4;
+    }
+}
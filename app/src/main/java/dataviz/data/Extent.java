@@ -0,0 +1,66 @@
+package dataviz.data;
+
+/**
+ * Bounds of the finite x and y values of a dataset, and whether x never
+ * decreases from one row to the next. A NaN x counts as out of order, since
+ * the binary searches that sorted x allows cannot step over it.
+ */
+public final class Extent {
+
+    public static final Extent EMPTY = new Extent(0, 0, 0, 0, true);
+
+    private final double minX;
+    private final double maxX;
+    private final double minY;
+    private final double maxY;
+    private final boolean xSorted;
+
+    public Extent(double minX, double maxX, double minY, double maxY, boolean xSorted) {
+        this.minX = minX;
+        this.maxX = maxX;
+        this.minY = minY;
+        this.maxY = maxY;
+        this.xSorted = xSorted;
+    }
+
+    public static Extent of(DataView data) {
+        Builder builder = new Builder();
+        for (int i = 0, n = data.size(); i < n; i++) {
+            builder.add(data.x(i), data.y(i));
+        }
+        return builder.build();
+    }
+
+    /** Accumulates the extent of rows added in order, for writers that see every row once. */
+    public static final class Builder {
+        private double minX = Double.POSITIVE_INFINITY, maxX = Double.NEGATIVE_INFINITY;
+        private double minY = Double.POSITIVE_INFINITY, maxY = Double.NEGATIVE_INFINITY;
+        private boolean sorted = true;
+        private double previousX = Double.NEGATIVE_INFINITY;
+
+        public void add(double x, double y) {
+            if (!(x >= previousX)) sorted = false;
+            previousX = x;
+            if (Double.isFinite(x)) {
+                if (x < minX) minX = x;
+                if (x > maxX) maxX = x;
+            }
+            if (Double.isFinite(y)) {
+                if (y < minY) minY = y;
+                if (y > maxY) maxY = y;
+            }
+        }
+
+        public Extent build() {
+            if (minX > maxX) return EMPTY;
+            if (minY > maxY) return new Extent(minX, maxX, 0, 0, sorted);
+            return new Extent(minX, maxX, minY, maxY, sorted);
+        }
+    }
+
+    public double minX() { return minX; }
+    public double maxX() { return maxX; }
+    public double minY() { return minY; }
+    public double maxY() { return maxY; }
+    public boolean isXSorted() { return xSorted; }
+}
@@ -0,0 +1,92 @@
+package dataviz.data;
+
+/**
+ * Sorts row indices by a primitive key without boxing: the result is a
+ * permutation, the data itself is never copied or moved. NaN keys sort last.
+ */
+public final class IndexSort {
+
+    private static final int INSERTION_THRESHOLD = 24;
+
+    private IndexSort() {
+    }
+
+    /** Returns the row order that sorts {@code keys} ascending. Reorders {@code keys} in place. */
+    public static int[] sort(double[] keys) {
+        int[] order = new int[keys.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        quickSort(keys, order, 0, keys.length - 1);
+        return order;
+    }
+
+    /**
+     * Reorders {@code rows} so their keys ascend; {@code keys[i]} is the key
+     * of {@code rows[i]}. Both arrays are reordered in place.
+     */
+    public static void sortRows(int[] rows, double[] keys) {
+        if (rows.length != keys.length) throw new IllegalArgumentException("one key per row expected");
+        quickSort(keys, rows, 0, rows.length - 1);
+    }
+
+    private static void quickSort(double[] keys, int[] order, int lo, int hi) {
+        while (hi - lo > INSERTION_THRESHOLD) {
+            int mid = (lo + hi) >>> 1;
+            if (less(keys[mid], keys[lo])) swap(keys, order, mid, lo);
+            if (less(keys[hi], keys[lo])) swap(keys, order, hi, lo);
+            if (less(keys[hi], keys[mid])) swap(keys, order, hi, mid);
+            double pivot = keys[mid];
+
+            int i = lo;
+            int j = hi;
+            while (i <= j) {
+                while (less(keys[i], pivot)) i++;
+                while (less(pivot, keys[j])) j--;
+                if (i <= j) {
+                    swap(keys, order, i, j);
+                    i++;
+                    j--;
+                }
+            }
+
+            // Recurse into the smaller half to bound the stack depth
+            if (j - lo < hi - i) {
+                quickSort(keys, order, lo, j);
+                lo = i;
+            } else {
+                quickSort(keys, order, i, hi);
+                hi = j;
+            }
+        }
+        insertionSort(keys, order, lo, hi);
+    }
+
+    private static void insertionSort(double[] keys, int[] order, int lo, int hi) {
+        for (int i = lo + 1; i <= hi; i++) {
+            double key = keys[i];
+            int row = order[i];
+            int j = i - 1;
+            while (j >= lo && less(key, keys[j])) {
+                keys[j + 1] = keys[j];
+                order[j + 1] = order[j];
+                j--;
+            }
+            keys[j + 1] = key;
+            order[j + 1] = row;
+        }
+    }
+
+    private static boolean less(double a, double b) {
+        return Double.compare(a, b) < 0;
+    }
+
+    private static void swap(double[] keys, int[] order, int i, int j) {
+        double k = keys[i];
+        keys[i] = keys[j];
+        keys[j] = k;
+        int o = order[i];
+        order[i] = order[j];
+        order[j] = o;
+    }
+}
@@ -0,0 +1,82 @@
+package dataviz.data;
+
+import java.util.Arrays;
+
+/**
+ * Growable {@code int} column stored in fixed-size chunks, so growth
+ * never copies the values that are already there.
+ */
+public final class IntColumn {
+
+    private static final int CHUNK_SHIFT = DoubleColumn.CHUNK_SHIFT;
+    private static final int CHUNK_SIZE = DoubleColumn.CHUNK_SIZE;
+    private static final int CHUNK_MASK = DoubleColumn.CHUNK_MASK;
+
+    private int[][] chunks = new int[4][];
+    private int size;
+
+    public void add(int value) {
+        int chunk = size >>> CHUNK_SHIFT;
+        if (chunk == chunks.length) {
+            chunks = Arrays.copyOf(chunks, chunks.length * 2);
+        }
+        if (chunks[chunk] == null) {
+            chunks[chunk] = new int[CHUNK_SIZE];
+        }
+        chunks[chunk][size & CHUNK_MASK] = value;
+        size++;
+    }
+
+    // Extends the column by count zeroed values; disjoint ranges may then be set concurrently
+    public void grow(int count) {
+        if (count <= 0) return;
+        long newSize = (long) size + count;
+        if (newSize > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Column cannot hold " + newSize + " values");
+        }
+        int lastChunk = (int) ((newSize - 1) >>> CHUNK_SHIFT);
+        if (lastChunk >= chunks.length) {
+            chunks = Arrays.copyOf(chunks, Math.max(chunks.length * 2, lastChunk + 1));
+        }
+        for (int c = size >>> CHUNK_SHIFT; c <= lastChunk; c++) {
+            if (chunks[c] == null) {
+                chunks[c] = new int[CHUNK_SIZE];
+            }
+        }
+        size = (int) newSize;
+    }
+
+    public void truncate(int size) {
+        if (size < 0 || size > this.size) {
+            throw new IllegalArgumentException("Cannot truncate " + this.size + " values to " + size);
+        }
+        int keep = (size + CHUNK_MASK) >>> CHUNK_SHIFT;
+        if (keep > 0) {
+            Arrays.fill(chunks[keep - 1], size - ((keep - 1) << CHUNK_SHIFT), CHUNK_SIZE, 0);
+        }
+        Arrays.fill(chunks, keep, chunks.length, null);
+        this.size = size;
+    }
+
+    public void set(int index, int value) {
+        chunks[index >>> CHUNK_SHIFT][index & CHUNK_MASK] = value;
+    }
+
+    public int get(int index) {
+        return chunks[index >>> CHUNK_SHIFT][index & CHUNK_MASK];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    long estimatedBytes() {
+        long allocated = 0;
+        for (int[] chunk : chunks) {
+            if (chunk != null) {
+                allocated += 16 + (long) chunk.length * Integer.BYTES;
+            }
+        }
+        return allocated + 16 + (long) chunks.length * 4;
+    }
+}
@@ -0,0 +1,35 @@
+package dataviz.data;
+
+/**
+ * Destination for rows produced by the loaders and generators. Category ids
+ * must come from the sink's own dictionary.
+ */
+public interface RowSink {
+
+    void add(double x, double y, int categoryId);
+
+    /** Adds a row with one value per series; sinks with a single series keep {@code values[0]}. */
+    default void add(double x, double[] values, int categoryId) {
+        add(x, values[0], categoryId);
+    }
+
+    /** Rows the sink can still take, so a loader can refuse a file that will not fit before reading it. */
+    default long remainingRows() {
+        return Integer.MAX_VALUE;
+    }
+
+    /** Number of values {@link #add(double, double[], int)} takes. */
+    default int seriesCount() {
+        return 1;
+    }
+
+    /** Names series {@code series}; sinks that keep no names ignore it. */
+    default void setSeriesName(int series, String name) {
+    }
+
+    /** Marks x as epoch milliseconds; sinks that keep no such mark ignore it. */
+    default void setXTime(boolean time) {
+    }
+
+    CategoryDictionary dictionary();
+}
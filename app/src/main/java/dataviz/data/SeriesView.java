@@ -0,0 +1,113 @@
+package dataviz.data;
+
+/**
+ * One series of a multi-series dataset as a dataset of its own: x and the
+ * categories come from the source, y is the chosen series. Nothing is
+ * copied.
+ */
+public final class SeriesView implements DataView {
+
+    private final DataView source;
+    private final int series;
+    private volatile Extent extent;
+    private final DataVersion version = new DataVersion();
+
+    public SeriesView(DataView source, int series) {
+        if (series < 0 || series >= source.seriesCount()) {
+            throw new IllegalArgumentException("No series " + series + " in a dataset with " + source.seriesCount());
+        }
+        this.source = source;
+        this.series = series;
+    }
+
+    public DataView source() {
+        return source;
+    }
+
+    public int series() {
+        return series;
+    }
+
+    @Override
+    public int size() {
+        return source.size();
+    }
+
+    @Override
+    public double x(int row) {
+        return source.x(row);
+    }
+
+    @Override
+    public double y(int row) {
+        return source.value(series, row);
+    }
+
+    /** The chosen series is the view's only one, series 0. */
+    @Override
+    public int seriesCount() {
+        return 1;
+    }
+
+    @Override
+    public String seriesName(int series) {
+        checkSeries(series);
+        return source.seriesName(this.series);
+    }
+
+    @Override
+    public double value(int series, int row) {
+        checkSeries(series);
+        return source.value(this.series, row);
+    }
+
+    @Override
+    public int categoryId(int row) {
+        return source.categoryId(row);
+    }
+
+    @Override
+    public String categoryName(int categoryId) {
+        return source.categoryName(categoryId);
+    }
+
+    @Override
+    public int categoryCount() {
+        return source.categoryCount();
+    }
+
+    @Override
+    public long version() {
+        return version.of(source.version());
+    }
+
+    @Override
+    public boolean isXTime() {
+        return source.isXTime();
+    }
+
+    @Override
+    public boolean isPaged() {
+        return source.isPaged();
+    }
+
+    /** Nothing of its own; the columns belong to the source. */
+    @Override
+    public long estimatedBytes() {
+        return 0;
+    }
+
+    private static void checkSeries(int series) {
+        if (series != 0) throw new IndexOutOfBoundsException("No series " + series + " in a single-series view");
+    }
+
+    @Override
+    public Extent extent() {
+        Extent e = extent;
+        if (e == null) {
+            e = Extent.of(this);
+            extent = e;
+        }
+        return e;
+    }
+}
@@ -0,0 +1,18 @@
+package dataviz.data;
+
+/**
+ * A dataset that is a window onto an append-only row sequence, such as the
+ * rows a live stream still keeps: row {@code i} is row
+ * {@code firstRow() + i} of the sequence, and a row of the sequence never
+ * changes once written. Windows onto the same sequence share
+ * {@link #sequence()}, so results over the rows two windows have in
+ * common can be carried from one to the next.
+ */
+public interface WindowView extends DataView {
+
+    /** Identifies the sequence; the same object for every window onto it. */
+    Object sequence();
+
+    /** Position of row 0 in the sequence. */
+    long firstRow();
+}
@@ -0,0 +1,124 @@
+package dataviz.export;
+
+import dataviz.analysis.CategoryStats;
+import dataviz.data.DataView;
+import dataviz.ui.TimeAxis;
+import javafx.scene.chart.AreaChart;
+import javafx.scene.chart.BarChart;
+import javafx.scene.chart.CategoryAxis;
+import javafx.scene.chart.Chart;
+import javafx.scene.chart.LineChart;
+import javafx.scene.chart.NumberAxis;
+import javafx.scene.chart.PieChart;
+import javafx.scene.chart.ScatterChart;
+import javafx.scene.chart.XYChart;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Builds the five chart types off screen, with the same titles and series as
+ * the application's tabs, for export. Animation is off so a single layout
+ * pass leaves every chart ready to snapshot. Must run on the FX thread.
+ */
+public final class ChartBuilder {
+
+    private ChartBuilder() {
+    }
+
+    /**
+     * Returns the charts keyed by a short name usable in file names, in tab
+     * order. {@code rows} are the (downsampled) rows the XY charts plot.
+     */
+    public static Map<String, Chart> build(DataView data, int[] rows, CategoryStats stats) {
+        Map<String, Chart> charts = new LinkedHashMap<>();
+        charts.put("line", line(data, rows));
+        charts.put("area", area(data, rows));
+        charts.put("bar", bar(stats));
+        charts.put("pie", pie(stats));
+        charts.put("scatter", scatter(data, rows));
+        return charts;
+    }
+
+    public static LineChart<Number, Number> line(DataView data, int[] rows) {
+        LineChart<Number, Number> chart = new LineChart<>(xAxis(data), new NumberAxis());
+        chart.setCreateSymbols(false);
+        chart.getData().add(series("Data Series", data, rows, false));
+        return style(chart, "Line Chart Visualization");
+    }
+
+    public static AreaChart<Number, Number> area(DataView data, int[] rows) {
+        AreaChart<Number, Number> chart = new AreaChart<>(xAxis(data), new NumberAxis());
+        chart.setCreateSymbols(false);
+        chart.getData().add(series("Area Data", data, rows, true));
+        return style(chart, "Area Chart Visualization");
+    }
+
+    public static ScatterChart<Number, Number> scatter(DataView data, int[] rows) {
+        ScatterChart<Number, Number> chart = new ScatterChart<>(xAxis(data), new NumberAxis());
+        List<XYChart.Series<Number, Number>> byCategory = new ArrayList<>();
+        for (int c = 0; c < data.categoryCount(); c++) {
+            byCategory.add(null);
+        }
+        for (int row : rows) {
+            int c = data.categoryId(row);
+            XYChart.Series<Number, Number> series = byCategory.get(c);
+            if (series == null) {
+                series = new XYChart.Series<>();
+                series.setName(data.categoryName(c));
+                byCategory.set(c, series);
+            }
+            series.getData().add(new XYChart.Data<>(data.x(row), data.y(row)));
+        }
+        for (XYChart.Series<Number, Number> series : byCategory) {
+            if (series != null) chart.getData().add(series);
+        }
+        return style(chart, "Scatter Chart Visualization");
+    }
+
+    public static BarChart<String, Number> bar(CategoryStats stats) {
+        BarChart<String, Number> chart = new BarChart<>(new CategoryAxis(), new NumberAxis());
+        XYChart.Series<String, Number> series = new XYChart.Series<>();
+        series.setName("Category Data");
+        for (int i = 0; i < stats.size(); i++) {
+            series.getData().add(new XYChart.Data<>(stats.name(i), stats.sum(i)));
+        }
+        chart.getData().add(series);
+        return style(chart, "Bar Chart Visualization");
+    }
+
+    public static PieChart pie(CategoryStats stats) {
+        PieChart chart = new PieChart();
+        for (int i = 0; i < stats.size(); i++) {
+            chart.getData().add(new PieChart.Data(stats.name(i), stats.absSum(i)));
+        }
+        return style(chart, "Pie Chart Visualization");
+    }
+
+    private static TimeAxis xAxis(DataView data) {
+        TimeAxis axis = new TimeAxis();
+        axis.setTime(data.isXTime());
+        return axis;
+    }
+
+    private static XYChart.Series<Number, Number> series(String name, DataView data, int[] rows, boolean absY) {
+        XYChart.Series<Number, Number> series = new XYChart.Series<>();
+        series.setName(name);
+        List<XYChart.Data<Number, Number>> points = new ArrayList<>(rows.length);
+        for (int row : rows) {
+            double y = data.y(row);
+            points.add(new XYChart.Data<>(data.x(row), absY ? Math.abs(y) : y));
+        }
+        series.getData().setAll(points);
+        return series;
+    }
+
+    private static <C extends Chart> C style(C chart, String title) {
+        chart.setTitle(title);
+        chart.setAnimated(false);
+        chart.getStyleClass().add("chart");
+        return chart;
+    }
+}
@@ -0,0 +1,115 @@
+package dataviz.export;
+
+import javafx.scene.Scene;
+import javafx.scene.SnapshotParameters;
+import javafx.scene.chart.Chart;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
+import javafx.scene.paint.Color;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Writes charts to PNG or SVG files. Layout and snapshots have to happen on
+ * the FX thread, so that part is kept to copying pixels or positions out of
+ * the chart; encoding and file I/O run on the given executor, several files
+ * at a time.
+ */
+public final class ChartExporter {
+
+    public static final String STYLESHEET = "/style.css";
+
+    private final Executor encoders;
+
+    public ChartExporter(Executor encoders) {
+        this.encoders = encoders;
+    }
+
+    /**
+     * Exports every chart in every format to {@code directory}, named
+     * {@code <prefix><key>.<extension>}. Charts that are not in a scene are
+     * laid out off screen at the given size. Must be called on the FX thread.
+     */
+    public CompletableFuture<List<Path>> exportAll(Map<String, ? extends Chart> charts, Path directory, String prefix,
+                                                   Collection<ExportFormat> formats, int width, int height) {
+        List<CompletableFuture<Path>> files = new ArrayList<>();
+        for (Map.Entry<String, ? extends Chart> entry : charts.entrySet()) {
+            for (ExportFormat format : formats) {
+                Path file = directory.resolve(prefix + entry.getKey() + "." + format.extension());
+                files.add(export(entry.getValue(), file, format, width, height));
+            }
+        }
+        return CompletableFuture.allOf(files.toArray(new CompletableFuture<?>[0]))
+                .thenApply(done -> files.stream().map(CompletableFuture::join).toList());
+    }
+
+    /** Exports one chart. Must be called on the FX thread. */
+    public CompletableFuture<Path> export(Chart chart, Path file, ExportFormat format, int width, int height) {
+        layout(chart, width, height);
+
+        if (format == ExportFormat.SVG) {
+            SvgChart svg = SvgChart.capture(chart);
+            return CompletableFuture.supplyAsync(() -> {
+                createParent(file);
+                try {
+                    svg.write(file);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                return file;
+            }, encoders);
+        }
+
+        SnapshotParameters parameters = new SnapshotParameters();
+        parameters.setFill(Color.WHITE);
+        WritableImage image = chart.snapshot(parameters, null);
+        int w = (int) image.getWidth();
+        int h = (int) image.getHeight();
+        int[] argb = new int[w * h];
+        image.getPixelReader().getPixels(0, 0, w, h, PixelFormat.getIntArgbInstance(), argb, 0, w);
+
+        return CompletableFuture.supplyAsync(() -> {
+            createParent(file);
+            try {
+                PngEncoder.write(argb, w, h, file);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return file;
+        }, encoders);
+    }
+
+    private static void layout(Chart chart, int width, int height) {
+        if (chart.getScene() == null) {
+            Scene scene = new Scene(chart, width, height);
+            scene.getStylesheets().add(ChartExporter.class.getResource(STYLESHEET).toExternalForm());
+        }
+        if (chart.getParent() == null) {
+            chart.resize(width, height);
+        }
+        // Axis ranges and tick labels can ask for another pass
+        for (int pass = 0; pass < 3; pass++) {
+            chart.applyCss();
+            chart.layout();
+            if (!chart.isNeedsLayout()) break;
+        }
+    }
+
+    private static void createParent(Path file) {
+        try {
+            Path parent = file.toAbsolutePath().getParent();
+            if (parent != null) Files.createDirectories(parent);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package dataviz.export;
+
+/**
+ * File formats the chart exporter writes.
+ */
+public enum ExportFormat {
+    /** Raster snapshot of the chart as laid out. */
+    PNG("png"),
+    /** Vector drawing rebuilt from the chart's axes and data. */
+    SVG("svg");
+
+    private final String extension;
+
+    ExportFormat(String extension) {
+        this.extension = extension;
+    }
+
+    public String extension() {
+        return extension;
+    }
+}
@@ -0,0 +1,180 @@
+package dataviz.export;
+
+import dataviz.analysis.CategoryAggregator;
+import dataviz.analysis.CategoryStats;
+import dataviz.data.DataStore;
+import dataviz.generate.DataGenerator;
+import dataviz.generate.Profile;
+import dataviz.io.CsvOptions;
+import dataviz.io.ParallelCsvLoader;
+import dataviz.io.ProgressListener;
+import dataviz.sampling.M4Downsampler;
+import javafx.application.Platform;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Supplier;
+
+/**
+ * Command-line batch export: renders the five charts for each input without
+ * opening a window. Inputs are prepared and files encoded in parallel; only
+ * chart layout and snapshots run on the FX thread.
+ *
+ * <pre>
+ * HeadlessExport --out DIR [--format png,svg] [--size 1200x800] [--threads N] [--delimiter C] INPUT...
+ *   INPUT  a CSV file (x,y,category with a header line) or gen:PROFILE:ROWS[:SEED]
+ * </pre>
+ *
+ * On a machine without a display, run with Monocle:
+ * {@code -Dglass.platform=Monocle -Dmonocle.platform=Headless -Dprism.order=sw}
+ * (the {@code headless} Maven profile does this).
+ */
+public final class HeadlessExport {
+
+    private record Prepared(String name, DataStore data, int[] rows, CategoryStats stats) { }
+
+    private HeadlessExport() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        System.setProperty("java.awt.headless", "true");
+
+        Path out = null;
+        Set<ExportFormat> formats = EnumSet.of(ExportFormat.PNG);
+        int width = 1200, height = 800;
+        int threads = Runtime.getRuntime().availableProcessors();
+        char delimiter = ',';
+        List<String> inputs = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--out" -> out = Paths.get(args[++i]);
+                case "--format" -> {
+                    formats = EnumSet.noneOf(ExportFormat.class);
+                    for (String format : args[++i].split(",")) {
+                        formats.add(ExportFormat.valueOf(format.trim().toUpperCase(Locale.ROOT)));
+                    }
+                }
+                case "--size" -> {
+                    String[] size = args[++i].toLowerCase(Locale.ROOT).split("x");
+                    width = Integer.parseInt(size[0]);
+                    height = Integer.parseInt(size[1]);
+                }
+                case "--threads" -> threads = Integer.parseInt(args[++i]);
+                case "--delimiter" -> delimiter = args[++i].equals("\\t") ? '\t' : args[i].charAt(0);
+                case "--help", "-h" -> {
+                    usage();
+                    return;
+                }
+                default -> inputs.add(args[i]);
+            }
+        }
+        if (out == null || inputs.isEmpty()) {
+            usage();
+            System.exit(2);
+        }
+
+        CsvOptions options = new CsvOptions().delimiter(delimiter).header(true).columns(0, 1, 2);
+        ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, threads));
+        ChartExporter exporter = new ChartExporter(pool);
+        Platform.setImplicitExit(false);
+        Platform.startup(() -> { });
+
+        int exitCode = 0;
+        try {
+            List<CompletableFuture<List<Path>>> jobs = new ArrayList<>();
+            for (String input : inputs) {
+                Path directory = out;
+                Set<ExportFormat> chosen = formats;
+                int w = width, h = height;
+                jobs.add(CompletableFuture.supplyAsync(() -> prepare(input, options, w), pool)
+                        .thenCompose(prepared -> onFxThread(() -> exporter.exportAll(
+                                ChartBuilder.build(prepared.data, prepared.rows, prepared.stats),
+                                directory, prepared.name + "-", chosen, w, h))));
+            }
+            for (int i = 0; i < jobs.size(); i++) {
+                try {
+                    for (Path file : jobs.get(i).join()) {
+                        System.out.println(file);
+                    }
+                } catch (RuntimeException e) {
+                    Throwable cause = e.getCause() != null ? e.getCause() : e;
+                    System.err.println(inputs.get(i) + ": " + cause);
+                    exitCode = 1;
+                }
+            }
+        } finally {
+            pool.shutdown();
+            Platform.exit();
+        }
+        System.exit(exitCode);
+    }
+
+    private static Prepared prepare(String input, CsvOptions options, int width) {
+        DataStore data;
+        String name;
+        if (input.startsWith("gen:")) {
+            String[] parts = input.split(":");
+            Profile profile = profile(parts[1]);
+            int rows = Integer.parseInt(parts[2]);
+            long seed = parts.length > 3 ? Long.parseLong(parts[3]) : 42;
+            data = new DataGenerator(profile, seed, 5).generate(rows, ForkJoinPool.commonPool(), ProgressListener.NONE);
+            name = profile.name().toLowerCase(Locale.ROOT) + "-" + rows + "-" + seed;
+        } else {
+            Path file = Paths.get(input);
+            data = new DataStore();
+            try {
+                new ParallelCsvLoader(options, ForkJoinPool.commonPool()).load(file, data, ProgressListener.NONE);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            String fileName = file.getFileName().toString();
+            int dot = fileName.lastIndexOf('.');
+            name = dot > 0 ? fileName.substring(0, dot) : fileName;
+        }
+        int[] rows = new M4Downsampler().downsample(data, width);
+        CategoryStats stats = new CategoryAggregator().update(data);
+        return new Prepared(name, data, rows, stats);
+    }
+
+    private static Profile profile(String text) {
+        for (Profile profile : Profile.values()) {
+            if (profile.name().equalsIgnoreCase(text) || profile.label().equalsIgnoreCase(text)) return profile;
+        }
+        throw new IllegalArgumentException("Unknown profile: " + text);
+    }
+
+    private static <T> CompletableFuture<T> onFxThread(Supplier<CompletableFuture<T>> work) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        Platform.runLater(() -> {
+            try {
+                work.get().whenComplete((value, error) -> {
+                    if (error != null) {
+                        result.completeExceptionally(error);
+                    } else {
+                        result.complete(value);
+                    }
+                });
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+            }
+        });
+        return result;
+    }
+
+    private static void usage() {
+        System.err.println("Usage: HeadlessExport --out DIR [--format png,svg] [--size WxH] [--threads N]"
+                + " [--delimiter C] INPUT...");
+        System.err.println("  INPUT is a CSV file (x,y,category with a header) or gen:PROFILE:ROWS[:SEED]");
+    }
+}
@@ -0,0 +1,24 @@
+package dataviz.export;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Writes ARGB pixels copied out of a JavaFX snapshot as a PNG file. Uses
+ * only ImageIO, so it runs on any thread and needs no Swing bridge.
+ */
+final class PngEncoder {
+
+    private PngEncoder() {
+    }
+
+    static void write(int[] argb, int width, int height, Path file) throws IOException {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        image.setRGB(0, 0, width, height, argb, 0, width);
+        if (!ImageIO.write(image, "png", file.toFile())) {
+            throw new IOException("No PNG writer available");
+        }
+    }
+}
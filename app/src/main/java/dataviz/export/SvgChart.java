@@ -0,0 +1,286 @@
+package dataviz.export;
+
+import javafx.geometry.Bounds;
+import javafx.geometry.Point2D;
+import javafx.scene.Node;
+import javafx.scene.chart.AreaChart;
+import javafx.scene.chart.Axis;
+import javafx.scene.chart.Chart;
+import javafx.scene.chart.PieChart;
+import javafx.scene.chart.ScatterChart;
+import javafx.scene.chart.ValueAxis;
+import javafx.scene.chart.XYChart;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Vector copy of a laid-out chart. {@link #capture} reads positions from the
+ * chart's axes and data nodes on the FX thread into plain arrays;
+ * {@link #write} turns them into SVG text on any thread.
+ */
+final class SvgChart {
+
+    // default-color0..4 from style.css
+    private static final String[] PALETTE = {"#2f80ed", "#27ae60", "#9b51e0", "#f2994a", "#eb5757"};
+
+    private enum Kind { LINE, AREA, POINTS }
+
+    private record Series(Kind kind, String name, double[] xs, double[] ys, double baseline) { }
+
+    private record Box(double x, double y, double width, double height) { }
+
+    private record Tick(double x1, double y1, double x2, double y2, String label, double labelX, double labelY,
+                        String anchor) { }
+
+    private record Slice(String name, double start, double extent) { }
+
+    private final double width;
+    private final double height;
+    private final String title;
+    private Box plot;
+    private final List<Tick> ticks = new ArrayList<>();
+    private final List<Series> series = new ArrayList<>();
+    private final List<Box> bars = new ArrayList<>();
+    private final List<Slice> slices = new ArrayList<>();
+    private double pieX, pieY, pieRadius;
+
+    private SvgChart(double width, double height, String title) {
+        this.width = width;
+        this.height = height;
+        this.title = title;
+    }
+
+    /** Reads everything needed from a chart that has been laid out. FX thread only. */
+    static SvgChart capture(Chart chart) {
+        SvgChart svg = new SvgChart(chart.getWidth(), chart.getHeight(), chart.getTitle());
+        if (chart instanceof XYChart<?, ?> xy) {
+            svg.captureXY(chart, xy);
+        } else if (chart instanceof PieChart pie) {
+            svg.capturePie(chart, pie);
+        }
+        return svg;
+    }
+
+    private void captureXY(Chart chart, XYChart<?, ?> xy) {
+        Node background = chart.lookup(".chart-plot-background");
+        if (background != null) plot = box(chart, background);
+
+        Axis<?> xAxis = xy.getXAxis();
+        Axis<?> yAxis = xy.getYAxis();
+        Point2D xOrigin = toChart(chart, xAxis, 0, 0);
+        Point2D yOrigin = toChart(chart, yAxis, 0, 0);
+        for (Axis.TickMark<?> tick : xAxis.getTickMarks()) {
+            double x = xOrigin.getX() + tick.getPosition();
+            ticks.add(new Tick(x, xOrigin.getY(), x, xOrigin.getY() + 5, tick.getLabel(),
+                    x, xOrigin.getY() + 18, "middle"));
+        }
+        for (Axis.TickMark<?> tick : yAxis.getTickMarks()) {
+            double y = yOrigin.getY() + tick.getPosition();
+            double right = yOrigin.getX() + yAxis.getWidth();
+            ticks.add(new Tick(right - 5, y, right, y, tick.getLabel(), right - 8, y + 4, "end"));
+        }
+
+        // X is a TimeAxis, y a NumberAxis; both value axes over numbers
+        if (xAxis instanceof ValueAxis<?> xValues && yAxis instanceof ValueAxis<?> yValues) {
+            @SuppressWarnings("unchecked") ValueAxis<Number> xNumbers = (ValueAxis<Number>) xValues;
+            @SuppressWarnings("unchecked") ValueAxis<Number> yNumbers = (ValueAxis<Number>) yValues;
+            Kind kind = chart instanceof ScatterChart ? Kind.POINTS : chart instanceof AreaChart ? Kind.AREA : Kind.LINE;
+            double zero = Math.max(yNumbers.getLowerBound(), Math.min(yNumbers.getUpperBound(), 0));
+            double baseline = yOrigin.getY() + yNumbers.getDisplayPosition(zero);
+            for (XYChart.Series<?, ?> s : xy.getData()) {
+                int n = s.getData().size();
+                double[] xs = new double[n];
+                double[] ys = new double[n];
+                for (int i = 0; i < n; i++) {
+                    XYChart.Data<?, ?> point = s.getData().get(i);
+                    xs[i] = xOrigin.getX() + xNumbers.getDisplayPosition(((Number) point.getXValue()).doubleValue());
+                    ys[i] = yOrigin.getY() + yNumbers.getDisplayPosition(((Number) point.getYValue()).doubleValue());
+                }
+                series.add(new Series(kind, s.getName(), xs, ys, baseline));
+            }
+        } else {
+            // Bar chart: take the bars as laid out
+            for (XYChart.Series<?, ?> s : xy.getData()) {
+                for (XYChart.Data<?, ?> point : s.getData()) {
+                    if (point.getNode() != null) bars.add(box(chart, point.getNode()));
+                }
+            }
+        }
+    }
+
+    private void capturePie(Chart chart, PieChart pie) {
+        double total = 0;
+        for (PieChart.Data data : pie.getData()) {
+            total += Math.abs(data.getPieValue());
+        }
+        double minX = Double.POSITIVE_INFINITY, minY = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY, maxY = Double.NEGATIVE_INFINITY;
+        double angle = pie.getStartAngle();
+        for (PieChart.Data data : pie.getData()) {
+            double extent = total > 0 ? 360 * Math.abs(data.getPieValue()) / total : 0;
+            slices.add(new Slice(data.getName(), angle, pie.isClockwise() ? -extent : extent));
+            angle += pie.isClockwise() ? -extent : extent;
+            if (data.getNode() != null) {
+                Box box = box(chart, data.getNode());
+                minX = Math.min(minX, box.x);
+                minY = Math.min(minY, box.y);
+                maxX = Math.max(maxX, box.x + box.width);
+                maxY = Math.max(maxY, box.y + box.height);
+            }
+        }
+        // Together the slices cover the whole disc
+        if (minX <= maxX) {
+            pieX = (minX + maxX) / 2;
+            pieY = (minY + maxY) / 2;
+            pieRadius = Math.max(maxX - minX, maxY - minY) / 2;
+        }
+    }
+
+    private static Box box(Chart chart, Node node) {
+        Bounds bounds = chart.sceneToLocal(node.localToScene(node.getLayoutBounds()));
+        return new Box(bounds.getMinX(), bounds.getMinY(), bounds.getWidth(), bounds.getHeight());
+    }
+
+    private static Point2D toChart(Chart chart, Node node, double x, double y) {
+        return chart.sceneToLocal(node.localToScene(x, y));
+    }
+
+    void write(Path file) throws IOException {
+        try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            out.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+            out.write("<svg xmlns=\"http://www.w3.org/2000/svg\" width=\"" + num(width) + "\" height=\""
+                    + num(height) + "\" viewBox=\"0 0 " + num(width) + " " + num(height)
+                    + "\" font-family=\"Segoe UI, Roboto, sans-serif\">\n");
+            out.write("<rect width=\"100%\" height=\"100%\" fill=\"#ffffff\"/>\n");
+            if (title != null && !title.isEmpty()) {
+                out.write("<text x=\"" + num(width / 2) + "\" y=\"28\" text-anchor=\"middle\" font-size=\"16\""
+                        + " font-weight=\"bold\" fill=\"#333333\">" + escape(title) + "</text>\n");
+            }
+            writeAxes(out);
+            writeSeries(out);
+            writeBars(out);
+            writeSlices(out);
+            out.write("</svg>\n");
+        }
+    }
+
+    private void writeAxes(BufferedWriter out) throws IOException {
+        if (plot == null) return;
+        out.write("<g stroke=\"rgba(0,0,0,0.1)\" stroke-width=\"1\">\n");
+        for (Tick tick : ticks) {
+            // Grid line through the plot for every tick
+            if (tick.x1 == tick.x2) {
+                line(out, tick.x1, plot.y, tick.x1, plot.y + plot.height);
+            } else {
+                line(out, plot.x, tick.y1, plot.x + plot.width, tick.y1);
+            }
+        }
+        out.write("</g>\n<g stroke=\"#999999\" stroke-width=\"1\">\n");
+        line(out, plot.x, plot.y + plot.height, plot.x + plot.width, plot.y + plot.height);
+        line(out, plot.x, plot.y, plot.x, plot.y + plot.height);
+        for (Tick tick : ticks) {
+            line(out, tick.x1, tick.y1, tick.x2, tick.y2);
+        }
+        out.write("</g>\n<g font-size=\"11\" fill=\"#444444\">\n");
+        for (Tick tick : ticks) {
+            if (tick.label == null) continue;
+            out.write("<text x=\"" + num(tick.labelX) + "\" y=\"" + num(tick.labelY) + "\" text-anchor=\""
+                    + tick.anchor + "\">" + escape(tick.label) + "</text>\n");
+        }
+        out.write("</g>\n");
+    }
+
+    private void writeSeries(BufferedWriter out) throws IOException {
+        for (int s = 0; s < series.size(); s++) {
+            Series current = series.get(s);
+            String color = PALETTE[s % PALETTE.length];
+            if (current.kind == Kind.POINTS) {
+                out.write("<g fill=\"" + color + "\">\n");
+                for (int i = 0; i < current.xs.length; i++) {
+                    out.write("<circle cx=\"" + num(current.xs[i]) + "\" cy=\"" + num(current.ys[i]) + "\" r=\"3\"/>\n");
+                }
+                out.write("</g>\n");
+                continue;
+            }
+            if (current.xs.length == 0) continue;
+
+            StringBuilder points = new StringBuilder(current.xs.length * 14);
+            for (int i = 0; i < current.xs.length; i++) {
+                points.append(num(current.xs[i])).append(',').append(num(current.ys[i])).append(' ');
+            }
+            if (current.kind == Kind.AREA) {
+                String baseline = num(current.baseline);
+                out.write("<polygon fill=\"" + color + "\" fill-opacity=\"0.3\" stroke=\"none\" points=\""
+                        + num(current.xs[0]) + "," + baseline + " " + points
+                        + num(current.xs[current.xs.length - 1]) + "," + baseline + "\"/>\n");
+            }
+            out.write("<polyline fill=\"none\" stroke=\"" + color + "\" stroke-width=\"2\" points=\""
+                    + points + "\"/>\n");
+        }
+    }
+
+    private void writeBars(BufferedWriter out) throws IOException {
+        if (bars.isEmpty()) return;
+        out.write("<g fill=\"" + PALETTE[0] + "\">\n");
+        for (Box bar : bars) {
+            out.write("<rect x=\"" + num(bar.x) + "\" y=\"" + num(bar.y) + "\" width=\"" + num(bar.width)
+                    + "\" height=\"" + num(bar.height) + "\"/>\n");
+        }
+        out.write("</g>\n");
+    }
+
+    private void writeSlices(BufferedWriter out) throws IOException {
+        if (pieRadius <= 0) return;
+        for (int i = 0; i < slices.size(); i++) {
+            Slice slice = slices.get(i);
+            String color = PALETTE[i % PALETTE.length];
+            if (Math.abs(slice.extent) >= 359.999) {
+                out.write("<circle cx=\"" + num(pieX) + "\" cy=\"" + num(pieY) + "\" r=\"" + num(pieRadius)
+                        + "\" fill=\"" + color + "\"/>\n");
+                continue;
+            }
+            // Angles run counter-clockwise from 3 o'clock; SVG y points down
+            double a0 = Math.toRadians(slice.start);
+            double a1 = Math.toRadians(slice.start + slice.extent);
+            double x0 = pieX + pieRadius * Math.cos(a0), y0 = pieY - pieRadius * Math.sin(a0);
+            double x1 = pieX + pieRadius * Math.cos(a1), y1 = pieY - pieRadius * Math.sin(a1);
+            int large = Math.abs(slice.extent) > 180 ? 1 : 0;
+            int sweep = slice.extent < 0 ? 1 : 0;
+            out.write("<path fill=\"" + color + "\" stroke=\"#ffffff\" d=\"M" + num(pieX) + "," + num(pieY)
+                    + " L" + num(x0) + "," + num(y0) + " A" + num(pieRadius) + "," + num(pieRadius)
+                    + " 0 " + large + " " + sweep + " " + num(x1) + "," + num(y1) + " Z\"><title>"
+                    + escape(slice.name) + "</title></path>\n");
+        }
+    }
+
+    private static void line(BufferedWriter out, double x1, double y1, double x2, double y2) throws IOException {
+        out.write("<line x1=\"" + num(x1) + "\" y1=\"" + num(y1) + "\" x2=\"" + num(x2) + "\" y2=\"" + num(y2) + "\"/>\n");
+    }
+
+    // One decimal is below what any viewer can show and keeps files small
+    private static String num(double value) {
+        long tenths = Math.round(value * 10);
+        return tenths % 10 == 0 ? Long.toString(tenths / 10) : Double.toString(tenths / 10.0);
+    }
+
+    private static String escape(String text) {
+        StringBuilder escaped = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '<' -> escaped.append("&lt;");
+                case '>' -> escaped.append("&gt;");
+                case '&' -> escaped.append("&amp;");
+                case '"' -> escaped.append("&quot;");
+                default -> escaped.append(c);
+            }
+        }
+        return escaped.toString();
+    }
+}
@@ -0,0 +1,105 @@
+package dataviz.generate;
+
+import dataviz.data.CategoryDictionary;
+import dataviz.data.DataStore;
+import dataviz.io.ProgressListener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fills a {@link DataStore} with synthetic rows on a fork-join pool. Rows
+ * are cut into chunks aligned with the store's column chunks, and every
+ * chunk draws from its own generator seeded from the base seed and the chunk
+ * number, so the result for a given seed is the same at any thread count.
+ * Each chunk first checks the progress listener for cancellation.
+ */
+public final class DataGenerator {
+
+    private final Profile profile;
+    private final long seed;
+    private final int categories;
+
+    public DataGenerator(Profile profile, long seed, int categories) {
+        if (categories < 1) throw new IllegalArgumentException("categories must be at least 1");
+        this.profile = profile;
+        this.seed = seed;
+        this.categories = categories;
+    }
+
+    /** Generates {@code rows} rows into a new store; progress is reported in rows. */
+    public DataStore generate(int rows, ForkJoinPool pool, ProgressListener progress) {
+        return generate(rows, new CategoryDictionary(), pool, progress);
+    }
+
+    /** As {@link #generate(int, ForkJoinPool, ProgressListener)}, interning categories into {@code dictionary}. */
+    public DataStore generate(int rows, CategoryDictionary dictionary, ForkJoinPool pool, ProgressListener progress) {
+        DataStore store = new DataStore(dictionary);
+        int[] categoryIds = new int[categories];
+        for (int c = 0; c < categories; c++) {
+            categoryIds[c] = store.dictionary().intern("Category " + (c + 1));
+        }
+        store.grow(rows);
+
+        AtomicLong done = new AtomicLong();
+        List<ChunkTask> chunks = new ArrayList<>();
+        for (int start = 0; start < rows; start += DataStore.CHUNK_ROWS) {
+            int end = (int) Math.min(rows, (long) start + DataStore.CHUNK_ROWS);
+            chunks.add(new ChunkTask(store, categoryIds, start, end, done, rows, progress));
+        }
+        pool.invoke(new RecursiveAction() {
+            @Override
+            protected void compute() {
+                invokeAll(chunks);
+            }
+        });
+        return store;
+    }
+
+    // Seeds of neighbouring chunks must not give overlapping SplittableRandom streams
+    static long chunkSeed(long seed, int chunk) {
+        long z = seed + (chunk + 1) * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    @SuppressWarnings("serial") // never serialized, like any task kept inside its pool
+    private final class ChunkTask extends RecursiveAction {
+        private final DataStore store;
+        private final int[] categoryIds;
+        private final int start;
+        private final int end;
+        private final AtomicLong done;
+        private final long total;
+        private final ProgressListener progress;
+
+        ChunkTask(DataStore store, int[] categoryIds, int start, int end, AtomicLong done, long total,
+                  ProgressListener progress) {
+            this.store = store;
+            this.categoryIds = categoryIds;
+            this.start = start;
+            this.end = end;
+            this.done = done;
+            this.total = total;
+            this.progress = progress;
+        }
+
+        @Override
+        protected void compute() {
+            progress.checkCancelled();
+            SplittableRandom random = new SplittableRandom(chunkSeed(seed, start / DataStore.CHUNK_ROWS));
+            int category = start % categories;
+            for (int row = start; row < end; row++) {
+                double x = row;
+                store.set(row, x, profile.y(x, random), categoryIds[category]);
+                if (++category == categories) category = 0;
+            }
+            progress.progress(done.addAndGet(end - start), total);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package dataviz.generate;
+
+import java.util.SplittableRandom;
+
+/**
+ * Shapes of synthetic y values, as offered in the Data Generation panel.
+ */
+public enum Profile {
+    LINEAR("Linear") {
+        @Override
+        double y(double x, SplittableRandom random) {
+            return 2 * x + random.nextGaussian() * 10;
+        }
+    },
+    EXPONENTIAL("Exponential") {
+        @Override
+        double y(double x, SplittableRandom random) {
+            return Math.exp(x / 100.0) + random.nextGaussian() * 5;
+        }
+    },
+    SINUSOIDAL("Sinusoidal") {
+        @Override
+        double y(double x, SplittableRandom random) {
+            return 100 * Math.sin(x / 50.0) + random.nextGaussian() * 10;
+        }
+    },
+    RANDOM("Random") {
+        @Override
+        double y(double x, SplittableRandom random) {
+            return random.nextGaussian() * 100;
+        }
+    },
+    LARGE_DATASET("Large Dataset") {
+        @Override
+        double y(double x, SplittableRandom random) {
+            return random.nextGaussian() * 50 + Math.sin(x / 100.0) * 30;
+        }
+    };
+
+    private final String label;
+
+    Profile(String label) {
+        this.label = label;
+    }
+
+    public String label() {
+        return label;
+    }
+
+    abstract double y(double x, SplittableRandom random);
+
+    /** The profile with the given label; unknown labels fall back to {@link #RANDOM}. */
+    public static Profile fromLabel(String label) {
+        for (Profile profile : values()) {
+            if (profile.label.equals(label)) return profile;
+        }
+        return RANDOM;
+    }
+}
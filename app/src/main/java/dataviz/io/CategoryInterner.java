@@ -0,0 +1,73 @@
+package dataviz.io;
+
+import dataviz.data.CategoryDictionary;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Maps raw category bytes to dictionary ids. Only the first occurrence of a
+ * label decodes it into a String; repeats are matched on the bytes.
+ */
+final class CategoryInterner {
+
+    private final CategoryDictionary dictionary;
+    private byte[][] keys = new byte[64][];
+    private int[] hashes = new int[64];
+    private int[] ids = new int[64];
+    private int count;
+
+    CategoryInterner(CategoryDictionary dictionary) {
+        this.dictionary = dictionary;
+    }
+
+    int intern(byte[] bytes, int length) {
+        int hash = hash(bytes, length);
+        int mask = keys.length - 1;
+        int slot = hash & mask;
+        while (keys[slot] != null) {
+            if (hashes[slot] == hash
+                    && Arrays.equals(keys[slot], 0, keys[slot].length, bytes, 0, length)) {
+                return ids[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        int id = dictionary.intern(new String(bytes, 0, length, StandardCharsets.UTF_8));
+        keys[slot] = Arrays.copyOf(bytes, length);
+        hashes[slot] = hash;
+        ids[slot] = id;
+        if (++count * 2 > keys.length) {
+            rehash();
+        }
+        return id;
+    }
+
+    private void rehash() {
+        byte[][] oldKeys = keys;
+        int[] oldHashes = hashes;
+        int[] oldIds = ids;
+        keys = new byte[oldKeys.length * 2][];
+        hashes = new int[keys.length];
+        ids = new int[keys.length];
+        int mask = keys.length - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] == null) continue;
+            int slot = oldHashes[i] & mask;
+            while (keys[slot] != null) {
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = oldKeys[i];
+            hashes[slot] = oldHashes[i];
+            ids[slot] = oldIds[i];
+        }
+    }
+
+    private static int hash(byte[] bytes, int length) {
+        int h = 1;
+        for (int i = 0; i < length; i++) {
+            h = 31 * h + bytes[i];
+        }
+        return h ^ (h >>> 16);
+    }
+}
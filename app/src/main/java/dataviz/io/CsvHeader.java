@@ -0,0 +1,70 @@
+package dataviz.io;
+
+import dataviz.data.RowSink;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads the header line of a CSV file, for naming the series a loader
+ * reads. Only used once per file, so unlike the row parser it decodes
+ * to strings.
+ */
+final class CsvHeader {
+
+    private static final int MAX_HEADER_BYTES = 1 << 20;
+
+    private CsvHeader() {
+    }
+
+    /** Names the target's series after their header fields, or "column N" without a header. */
+    static void nameSeries(FileChannel channel, CsvOptions options, RowSink target) throws IOException {
+        List<String> fields = options.header() ? fields(channel, options) : List.of();
+        for (int s = 0; s < target.seriesCount(); s++) {
+            int column = options.seriesColumn(s);
+            String name = column < fields.size() ? fields.get(column).strip() : "";
+            target.setSeriesName(s, name.isEmpty() ? "column " + (column + 1) : name);
+        }
+    }
+
+    static List<String> fields(FileChannel channel, CsvOptions options) throws IOException {
+        ByteBuffer buf = ByteBuffer.allocate((int) Math.min(MAX_HEADER_BYTES, channel.size()));
+        while (buf.hasRemaining() && channel.read(buf, buf.position()) > 0) {
+            // read until full or end of file
+        }
+        int end = CsvRangeReader.indexOf(buf, (byte) '\n', 0, buf.position());
+        String line = new String(buf.array(), 0, end >= 0 ? end : buf.position(), StandardCharsets.UTF_8);
+
+        char delimiter = (char) options.delimiter();
+        char quote = (char) options.quote();
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == quote && i + 1 < line.length() && line.charAt(i + 1) == quote) {
+                    field.append(quote);
+                    i++;
+                } else if (c == quote) {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == quote) {
+                quoted = true;
+            } else if (c == delimiter) {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c != '\r') {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
@@ -0,0 +1,114 @@
+package dataviz.io;
+
+import java.util.Arrays;
+
+/**
+ * Layout of a CSV file: delimiter, quoting, header and which columns hold
+ * x, y and the category. A category column of -1 means every row gets the
+ * default category. Further value columns can be read as extra series
+ * after y.
+ */
+public final class CsvOptions {
+
+    /**
+     * How the x column is read. {@code TIME} takes ISO-8601 timestamps or
+     * epoch milliseconds; {@code AUTO} reads numbers and falls back to
+     * ISO-8601 timestamps for fields that are not numbers.
+     */
+    public enum XFormat { AUTO, NUMBER, TIME }
+
+    private byte delimiter = ',';
+    private byte quote = '"';
+    private boolean header = true;
+    private int xColumn = 0;
+    private XFormat xFormat = XFormat.AUTO;
+    private int yColumn = 1;
+    private int categoryColumn = 2;
+    private int[] seriesColumns = new int[0];
+    private String defaultCategory = "Data";
+
+    public CsvOptions delimiter(char delimiter) {
+        this.delimiter = asciiByte(delimiter);
+        return this;
+    }
+
+    public CsvOptions quote(char quote) {
+        this.quote = asciiByte(quote);
+        return this;
+    }
+
+    public CsvOptions header(boolean header) {
+        this.header = header;
+        return this;
+    }
+
+    public CsvOptions columns(int xColumn, int yColumn, int categoryColumn) {
+        if (xColumn < 0 || yColumn < 0 || categoryColumn < -1) {
+            throw new IllegalArgumentException("Invalid column mapping: "
+                    + xColumn + ", " + yColumn + ", " + categoryColumn);
+        }
+        this.xColumn = xColumn;
+        this.yColumn = yColumn;
+        this.categoryColumn = categoryColumn;
+        return this;
+    }
+
+    public CsvOptions xFormat(XFormat xFormat) {
+        this.xFormat = xFormat;
+        return this;
+    }
+
+    /** Columns read as series 2, 3, ... next to y; empty or missing values become NaN. */
+    public CsvOptions seriesColumns(int... columns) {
+        for (int i = 0; i < columns.length; i++) {
+            if (columns[i] < 0 || columns[i] == yColumn) {
+                throw new IllegalArgumentException("Invalid series column: " + columns[i]);
+            }
+            for (int j = 0; j < i; j++) {
+                if (columns[j] == columns[i]) {
+                    throw new IllegalArgumentException("Series column listed twice: " + columns[i]);
+                }
+            }
+        }
+        this.seriesColumns = columns.clone();
+        return this;
+    }
+
+    public CsvOptions defaultCategory(String defaultCategory) {
+        this.defaultCategory = defaultCategory;
+        return this;
+    }
+
+    public byte delimiter() { return delimiter; }
+    public byte quote() { return quote; }
+    public boolean header() { return header; }
+    public int xColumn() { return xColumn; }
+    public XFormat xFormat() { return xFormat; }
+    public int yColumn() { return yColumn; }
+    public int categoryColumn() { return categoryColumn; }
+    public String defaultCategory() { return defaultCategory; }
+    public int[] seriesColumns() { return seriesColumns.clone(); }
+    public int seriesCount() { return 1 + seriesColumns.length; }
+
+    /** File column of each series; series 0 is y. */
+    int seriesColumn(int series) {
+        return series == 0 ? yColumn : seriesColumns[series - 1];
+    }
+
+    /** Canonical form of every setting; two options parse a file the same way iff these are equal. */
+    @Override
+    public String toString() {
+        return "delimiter=" + delimiter + ";quote=" + quote + ";header=" + header
+                + ";columns=" + xColumn + "," + yColumn + "," + categoryColumn
+                + ";defaultCategory=" + defaultCategory
+                + (xFormat != XFormat.AUTO ? ";x=" + xFormat : "")
+                + (seriesColumns.length > 0 ? ";series=" + Arrays.toString(seriesColumns) : "");
+    }
+
+    private static byte asciiByte(char c) {
+        if (c == '\n' || c == '\r' || c > 0x7F) {
+            throw new IllegalArgumentException("Unsupported CSV separator: " + (int) c);
+        }
+        return (byte) c;
+    }
+}
@@ -0,0 +1,36 @@
+package dataviz.io;
+
+import dataviz.data.RowSink;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Streaming CSV loader built on memory-mapped {@link FileChannel} windows.
+ * Rows go straight into a {@link RowSink}; no per-line or per-field objects
+ * are created along the way.
+ */
+public final class CsvParser {
+
+    private final CsvOptions options;
+
+    public CsvParser(CsvOptions options) {
+        this.options = options;
+    }
+
+    public CsvResult parse(Path file, RowSink sink, ProgressListener progress) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long[] done = {0};
+            CsvRangeReader reader = new CsvRangeReader(options, sink);
+            reader.read(channel, 0, size, options.header(), delta -> {
+                progress.checkCancelled();
+                done[0] += delta;
+                progress.progress(done[0], size);
+            });
+            return new CsvResult(reader.rows(), reader.skippedRows(), size);
+        }
+    }
+}
@@ -0,0 +1,305 @@
+package dataviz.io;
+
+import dataviz.data.RowSink;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+import java.util.function.LongConsumer;
+
+/**
+ * Parses one byte range of a CSV file into a sink. The range is read through
+ * memory-mapped windows and scanned byte by byte; numbers and timestamps
+ * are parsed in place and categories are interned from their bytes.
+ * Timestamps are stored in x as epoch milliseconds, which a double holds
+ * exactly, and the sink is told its x is time once the first one is read.
+ *
+ * Records end at '\n', also inside quotes: a quoted field may contain the
+ * delimiter and doubled quotes but not a line break. That is what lets the
+ * parallel loader split a file at any newline.
+ */
+final class CsvRangeReader {
+
+    static final int WINDOW = 64 << 20;
+    private static final int MAX_WINDOW = Integer.MAX_VALUE - 8; // the largest buffer that can be mapped
+    private static final int PROGRESS_STEP = 4 << 20;
+
+    private final CsvOptions options;
+    private final RowSink sink;
+    private final DoubleParser numbers = new DoubleParser();
+    private final TimestampParser timestamps = new TimestampParser();
+    private boolean timeSeen; // a timestamp was read, so AUTO tries timestamps first
+    private boolean xParsed;  // whether the last parseX() read a valid x
+    private final CategoryInterner categories;
+    private int defaultCategory = -1;
+    private final int lastColumn;
+    private final int[] seriesOfColumn; // series read from each column up to lastColumn, or -1
+    private final double[] values;
+    private byte[] scratch = new byte[256];
+
+    private long rows;
+    private long skippedRows;
+
+    CsvRangeReader(CsvOptions options, RowSink sink) {
+        this.options = options;
+        this.sink = sink;
+        this.categories = new CategoryInterner(sink.dictionary());
+        int last = Math.max(options.xColumn(), options.categoryColumn());
+        for (int s = 0; s < options.seriesCount(); s++) {
+            last = Math.max(last, options.seriesColumn(s));
+        }
+        this.lastColumn = last;
+        this.seriesOfColumn = new int[last + 1];
+        Arrays.fill(seriesOfColumn, -1);
+        for (int s = 0; s < options.seriesCount(); s++) {
+            seriesOfColumn[options.seriesColumn(s)] = s;
+        }
+        this.values = new double[options.seriesCount()];
+    }
+
+    long rows() {
+        return rows;
+    }
+
+    long skippedRows() {
+        return skippedRows;
+    }
+
+    /**
+     * Parses [start, end). {@code start} must be at the beginning of a line;
+     * {@code bytesConsumed} receives byte deltas as parsing advances.
+     */
+    void read(FileChannel channel, long start, long end, boolean skipFirstLine,
+              LongConsumer bytesConsumed) throws IOException {
+        long position = start;
+        int window = WINDOW;
+        boolean skipLine = skipFirstLine;
+
+        while (position < end) {
+            int length = (int) Math.min(window, end - position);
+            MappedByteBuffer buf = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+            boolean lastWindow = position + length >= end;
+
+            int limit = length;
+            if (!lastWindow) {
+                limit = lastIndexOf(buf, (byte) '\n', length) + 1;
+                if (limit == 0) {
+                    // A single line longer than the window: retry with a bigger one
+                    if (window == MAX_WINDOW) {
+                        throw new IOException("Line at byte " + position + " is longer than " + MAX_WINDOW + " bytes");
+                    }
+                    window = (int) Math.min((long) window * 2, MAX_WINDOW);
+                    continue;
+                }
+            }
+
+            int p = 0;
+            if (skipLine) {
+                p = indexOf(buf, (byte) '\n', 0, limit) + 1;
+                if (p == 0) p = limit;
+                skipLine = false;
+            }
+
+            int reported = 0;
+            while (p < limit) {
+                p = readRecord(buf, p, limit);
+                if (p - reported >= PROGRESS_STEP) {
+                    bytesConsumed.accept(p - reported);
+                    reported = p;
+                }
+            }
+            bytesConsumed.accept(limit - reported);
+            position += limit;
+        }
+    }
+
+    // Parses every record in [from, limit); limit should be just past a '\n'
+    void readLines(ByteBuffer buf, int from, int limit) {
+        int p = from;
+        while (p < limit) {
+            p = readRecord(buf, p, limit);
+        }
+    }
+
+    // Returns the index just past the record's line break
+    private int readRecord(ByteBuffer buf, int start, int limit) {
+        final byte delimiter = options.delimiter();
+        final byte quote = options.quote();
+        final int xColumn = options.xColumn();
+        final int categoryColumn = options.categoryColumn();
+        final double[] values = this.values;
+        if (values.length > 1) {
+            Arrays.fill(values, 1, values.length, Double.NaN); // extra series missing from a short line
+        }
+
+        double x = 0;
+        boolean xValid = false;
+        boolean yValid = false;
+        int categoryStart = -1;
+        int categoryEnd = -1;
+        boolean categoryEscaped = false;
+        boolean blank = true;
+
+        int p = start;
+        int column = 0;
+        while (true) {
+            while (p < limit && isBlank(buf.get(p), delimiter)) p++;
+
+            int fieldStart;
+            int fieldEnd;
+            boolean escapedQuotes = false;
+            byte b;
+            if (p < limit && buf.get(p) == quote) {
+                fieldStart = ++p;
+                while (p < limit && (b = buf.get(p)) != '\n') {
+                    if (b == quote) {
+                        if (p + 1 < limit && buf.get(p + 1) == quote) {
+                            escapedQuotes = true;
+                            p += 2;
+                            continue;
+                        }
+                        break;
+                    }
+                    p++;
+                }
+                fieldEnd = p;
+                while (p < limit && (b = buf.get(p)) != delimiter && b != '\n') p++;
+                blank = false;
+            } else {
+                fieldStart = p;
+                while (p < limit && (b = buf.get(p)) != delimiter && b != '\n') p++;
+                fieldEnd = p;
+                while (fieldEnd > fieldStart && isBlank(buf.get(fieldEnd - 1), delimiter)) fieldEnd--;
+                if (fieldEnd > fieldStart || p < limit && buf.get(p) == delimiter) blank = false;
+            }
+
+            if (column <= lastColumn) {
+                if (column == xColumn) {
+                    x = parseX(buf, fieldStart, fieldEnd);
+                    xValid = xParsed;
+                }
+                int series = seriesOfColumn[column];
+                if (series == 0) {
+                    values[0] = numbers.parse(buf, fieldStart, fieldEnd);
+                    yValid = numbers.valid();
+                } else if (series > 0) {
+                    double value = numbers.parse(buf, fieldStart, fieldEnd);
+                    values[series] = numbers.valid() ? value : Double.NaN;
+                }
+                if (column == categoryColumn) {
+                    categoryStart = fieldStart;
+                    categoryEnd = fieldEnd;
+                    categoryEscaped = escapedQuotes;
+                }
+            }
+            column++;
+
+            if (p >= limit) {
+                p = limit;
+                break;
+            }
+            if (buf.get(p) == '\n') {
+                p++;
+                break;
+            }
+            p++; // delimiter
+        }
+
+        if (xValid && yValid) {
+            int category = categoryEnd > categoryStart
+                    ? internCategory(buf, categoryStart, categoryEnd, quote, categoryEscaped)
+                    : defaultCategory();
+            if (values.length == 1) {
+                sink.add(x, values[0], category);
+            } else {
+                sink.add(x, values, category);
+            }
+            rows++;
+        } else if (!blank) {
+            skippedRows++;
+        }
+        return p;
+    }
+
+    private double parseX(ByteBuffer buf, int start, int end) {
+        CsvOptions.XFormat format = options.xFormat();
+        if (format == CsvOptions.XFormat.NUMBER || format == CsvOptions.XFormat.AUTO && !timeSeen) {
+            double x = numbers.parse(buf, start, end);
+            xParsed = numbers.valid();
+            if (xParsed || format == CsvOptions.XFormat.NUMBER) return x;
+        }
+        long millis = timestamps.parse(buf, start, end);
+        xParsed = timestamps.valid();
+        if (!xParsed && format == CsvOptions.XFormat.AUTO) {
+            double x = numbers.parse(buf, start, end); // a number after the timestamps
+            xParsed = numbers.valid();
+            return x;
+        }
+        if (xParsed && !timeSeen) {
+            timeSeen = true;
+            sink.setXTime(true);
+        }
+        return millis;
+    }
+
+    private int defaultCategory() {
+        if (defaultCategory < 0) {
+            defaultCategory = sink.dictionary().intern(options.defaultCategory());
+        }
+        return defaultCategory;
+    }
+
+    private int internCategory(ByteBuffer buf, int start, int end, byte quote, boolean escapedQuotes) {
+        int length = end - start;
+        if (scratch.length < length) {
+            scratch = new byte[Math.max(length, scratch.length * 2)];
+        }
+        int n = 0;
+        for (int i = start; i < end; i++) {
+            byte b = buf.get(i);
+            scratch[n++] = b;
+            if (escapedQuotes && b == quote) i++; // "" -> "
+        }
+        return categories.intern(scratch, n);
+    }
+
+    // Padding around a field, never the delimiter itself: trimming a tab in a TSV file would drop empty fields
+    private static boolean isBlank(byte b, byte delimiter) {
+        return b != delimiter && (b == ' ' || b == '\t' || b == '\r');
+    }
+
+    /**
+     * Lines in [start, end), counting a last line without a break. As records
+     * end at '\n', this bounds the rows the range can yield.
+     */
+    static long countLines(FileChannel channel, long start, long end) throws IOException {
+        long lines = 0;
+        byte last = '\n';
+        for (long position = start; position < end; ) {
+            int length = (int) Math.min(WINDOW, end - position);
+            MappedByteBuffer buf = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+            for (int i = 0; i < length; i++) {
+                if (buf.get(i) == '\n') lines++;
+            }
+            last = buf.get(length - 1);
+            position += length;
+        }
+        return last == '\n' ? lines : lines + 1;
+    }
+
+    static int indexOf(ByteBuffer buf, byte value, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (buf.get(i) == value) return i;
+        }
+        return -1;
+    }
+
+    static int lastIndexOf(ByteBuffer buf, byte value, int to) {
+        for (int i = to - 1; i >= 0; i--) {
+            if (buf.get(i) == value) return i;
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,21 @@
+package dataviz.io;
+
+/**
+ * Outcome of a CSV load: rows accepted, rows rejected and bytes scanned.
+ */
+public final class CsvResult {
+
+    private final long rows;
+    private final long skippedRows;
+    private final long bytes;
+
+    public CsvResult(long rows, long skippedRows, long bytes) {
+        this.rows = rows;
+        this.skippedRows = skippedRows;
+        this.bytes = bytes;
+    }
+
+    public long rows() { return rows; }
+    public long skippedRows() { return skippedRows; }
+    public long bytes() { return bytes; }
+}
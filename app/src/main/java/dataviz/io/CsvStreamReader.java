@@ -0,0 +1,68 @@
+package dataviz.io;
+
+import dataviz.data.RowSink;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+
+/**
+ * Incremental CSV parsing for data that arrives over time: a socket, a pipe
+ * or a file that keeps growing. Bytes are read into one reusable buffer,
+ * complete lines are parsed in place and a trailing partial line is kept
+ * for the next read.
+ */
+public final class CsvStreamReader {
+
+    private final CsvRangeReader reader;
+    private ByteBuffer buffer = ByteBuffer.allocate(1 << 20);
+    private boolean skipHeader;
+
+    public CsvStreamReader(CsvOptions options, RowSink sink) {
+        this.reader = new CsvRangeReader(options, sink);
+        this.skipHeader = options.header();
+    }
+
+    /** Reads once from the channel; returns the byte count, 0 if nothing was ready or -1 at end of stream. */
+    public int readFrom(ReadableByteChannel channel) throws IOException {
+        if (!buffer.hasRemaining()) {
+            // A single line filled the whole buffer
+            ByteBuffer larger = ByteBuffer.allocate(buffer.capacity() * 2);
+            buffer.flip();
+            larger.put(buffer);
+            buffer = larger;
+        }
+
+        int read = channel.read(buffer);
+        if (read <= 0) return read;
+
+        buffer.flip();
+        int limit = CsvRangeReader.lastIndexOf(buffer, (byte) '\n', buffer.limit()) + 1;
+        int from = 0;
+        if (skipHeader && limit > 0) {
+            from = CsvRangeReader.indexOf(buffer, (byte) '\n', 0, limit) + 1;
+            skipHeader = false;
+        }
+        reader.readLines(buffer, from, limit);
+        buffer.position(limit);
+        buffer.compact();
+        return read;
+    }
+
+    /** Parses whatever is left after the last line break, once the stream has ended. */
+    public void finish() {
+        buffer.flip();
+        if (buffer.hasRemaining() && !skipHeader) {
+            reader.readLines(buffer, 0, buffer.limit());
+        }
+        buffer.clear();
+    }
+
+    public long rows() {
+        return reader.rows();
+    }
+
+    public long skippedRows() {
+        return reader.skippedRows();
+    }
+}
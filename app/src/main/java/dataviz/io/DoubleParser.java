@@ -0,0 +1,221 @@
+package dataviz.io;
+
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Parses a decimal number straight from a byte range without creating a
+ * String. Short mantissas take the exact Clinger fast path, everything else
+ * goes through the Eisel-Lemire algorithm; the rare inputs it cannot decide
+ * (subnormals, exact halfway cases) fall back to {@link Double#parseDouble}.
+ * Not thread-safe: use one instance per parsing thread.
+ */
+final class DoubleParser {
+
+    private static final double[] POW10 = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+    private static final long MAX_EXACT_MANTISSA = 1L << 53;
+    private static final int MAX_DIGITS = 18;
+
+    // 128-bit mantissas of 10^q, rounded down, for q in [MIN_POWER, MAX_POWER]
+    private static final int MIN_POWER = -348;
+    private static final int MAX_POWER = 347;
+    private static final long[] POWERS_HI = new long[MAX_POWER - MIN_POWER + 1];
+    private static final long[] POWERS_LO = new long[MAX_POWER - MIN_POWER + 1];
+
+    static {
+        BigInteger ten = BigInteger.TEN;
+        for (int q = MIN_POWER; q <= MAX_POWER; q++) {
+            BigInteger m;
+            if (q >= 0) {
+                m = ten.pow(q);
+                int shift = m.bitLength() - 128;
+                m = shift > 0 ? m.shiftRight(shift) : m.shiftLeft(-shift);
+            } else {
+                BigInteger d = ten.pow(-q);
+                m = BigInteger.ONE.shiftLeft(d.bitLength() + 127).divide(d);
+            }
+            POWERS_HI[q - MIN_POWER] = m.shiftRight(64).longValue();
+            POWERS_LO[q - MIN_POWER] = m.longValue();
+        }
+    }
+
+    private boolean valid;
+    private byte[] fallback = new byte[64];
+
+    // Whether the last call to parse() consumed a well-formed number
+    boolean valid() {
+        return valid;
+    }
+
+    double parse(ByteBuffer buf, int start, int end) {
+        valid = false;
+        int p = start;
+        if (p >= end) return 0;
+
+        boolean negative = false;
+        byte c = buf.get(p);
+        if (c == '-' || c == '+') {
+            negative = c == '-';
+            p++;
+        }
+
+        long mantissa = 0;
+        int digits = 0;
+        int exponent = 0;
+        boolean truncated = false;
+        boolean anyDigit = false;
+
+        while (p < end && (c = buf.get(p)) >= '0' && c <= '9') {
+            anyDigit = true;
+            if (digits < MAX_DIGITS) {
+                mantissa = mantissa * 10 + (c - '0');
+                if (mantissa != 0) digits++;
+            } else {
+                exponent++;
+                truncated |= c != '0';
+            }
+            p++;
+        }
+
+        if (p < end && buf.get(p) == '.') {
+            p++;
+            while (p < end && (c = buf.get(p)) >= '0' && c <= '9') {
+                anyDigit = true;
+                if (digits < MAX_DIGITS) {
+                    mantissa = mantissa * 10 + (c - '0');
+                    if (mantissa != 0) digits++;
+                    exponent--;
+                } else {
+                    truncated |= c != '0';
+                }
+                p++;
+            }
+        }
+
+        if (!anyDigit) {
+            return parseSpecial(buf, p, end, negative);
+        }
+
+        if (p < end && ((c = buf.get(p)) == 'e' || c == 'E')) {
+            p++;
+            boolean negativeExponent = false;
+            if (p < end && ((c = buf.get(p)) == '-' || c == '+')) {
+                negativeExponent = c == '-';
+                p++;
+            }
+            int e = 0;
+            boolean anyExponentDigit = false;
+            while (p < end && (c = buf.get(p)) >= '0' && c <= '9') {
+                if (e < 100_000) e = e * 10 + (c - '0');
+                anyExponentDigit = true;
+                p++;
+            }
+            if (!anyExponentDigit) return 0;
+            exponent += negativeExponent ? -e : e;
+        }
+
+        if (p != end) return 0; // trailing garbage
+
+        valid = true;
+        double value;
+        if (mantissa == 0) {
+            value = 0;
+        } else if (!truncated && mantissa <= MAX_EXACT_MANTISSA && exponent >= -22 && exponent <= 22) {
+            value = exponent < 0 ? mantissa / POW10[-exponent] : mantissa * POW10[exponent];
+        } else if (exponent > MAX_POWER) {
+            value = Double.POSITIVE_INFINITY;
+        } else if (exponent < MIN_POWER) {
+            value = 0;
+        } else {
+            value = eiselLemire(mantissa, exponent);
+            // Dropped digits put the true value between m and m + 1
+            if (truncated && value != eiselLemire(mantissa + 1, exponent)) {
+                value = Double.NaN;
+            }
+            if (Double.isNaN(value)) {
+                return parseFallback(buf, start, end);
+            }
+        }
+        return negative ? -value : value;
+    }
+
+    // Returns NaN when the result cannot be decided from the 128-bit product
+    private static double eiselLemire(long mantissa, int power) {
+        int index = power - MIN_POWER;
+        int leadingZeros = Long.numberOfLeadingZeros(mantissa);
+        long man = mantissa << leadingZeros;
+        long exponent2 = ((217706L * power) >> 16) + 64 + 1023 - leadingZeros;
+
+        long hi = Math.unsignedMultiplyHigh(man, POWERS_HI[index]);
+        long lo = man * POWERS_HI[index];
+
+        if ((hi & 0x1FF) == 0x1FF && Long.compareUnsigned(lo + man, man) < 0) {
+            long tailHi = Math.unsignedMultiplyHigh(man, POWERS_LO[index]);
+            long tailLo = man * POWERS_LO[index];
+            long mergedHi = hi;
+            long mergedLo = lo + tailHi;
+            if (Long.compareUnsigned(mergedLo, lo) < 0) mergedHi++;
+            if ((mergedHi & 0x1FF) == 0x1FF && mergedLo + 1 == 0
+                    && Long.compareUnsigned(tailLo + man, man) < 0) {
+                return Double.NaN;
+            }
+            hi = mergedHi;
+            lo = mergedLo;
+        }
+
+        long msb = hi >>> 63;
+        long bits = hi >>> (msb + 9);
+        exponent2 -= 1 ^ msb;
+
+        if (lo == 0 && (hi & 0x1FF) == 0 && (bits & 3) == 1) {
+            return Double.NaN; // exactly halfway
+        }
+
+        bits += bits & 1;
+        bits >>>= 1;
+        if ((bits >>> 53) > 0) {
+            bits >>>= 1;
+            exponent2++;
+        }
+        if (exponent2 < 1 || exponent2 > 0x7FE) {
+            return Double.NaN; // subnormal or overflow
+        }
+        return Double.longBitsToDouble(exponent2 << 52 | bits & 0x000F_FFFF_FFFF_FFFFL);
+    }
+
+    private double parseFallback(ByteBuffer buf, int start, int end) {
+        int length = end - start;
+        if (fallback.length < length) {
+            fallback = new byte[length];
+        }
+        for (int i = 0; i < length; i++) {
+            fallback[i] = buf.get(start + i);
+        }
+        return Double.parseDouble(new String(fallback, 0, length, StandardCharsets.ISO_8859_1));
+    }
+
+    // "NaN" and "Infinity" are accepted by Double.parseDouble, so keep accepting them
+    private double parseSpecial(ByteBuffer buf, int p, int end, boolean negative) {
+        if (matches(buf, p, end, "NaN")) {
+            valid = true;
+            return Double.NaN;
+        }
+        if (matches(buf, p, end, "Infinity")) {
+            valid = true;
+            return negative ? Double.NEGATIVE_INFINITY : Double.POSITIVE_INFINITY;
+        }
+        return 0;
+    }
+
+    private static boolean matches(ByteBuffer buf, int p, int end, String word) {
+        if (end - p != word.length()) return false;
+        for (int i = 0; i < word.length(); i++) {
+            if (buf.get(p + i) != word.charAt(i)) return false;
+        }
+        return true;
+    }
+}
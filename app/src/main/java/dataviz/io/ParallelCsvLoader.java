@@ -0,0 +1,405 @@
+package dataviz.io;
+
+import dataviz.data.CategoryDictionary;
+import dataviz.data.DataStore;
+import dataviz.data.RowSink;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongConsumer;
+
+/**
+ * Loads a CSV file on a fork-join pool. The file is cut at line boundaries
+ * into chunks whose lines are counted first; the target grows once by that
+ * many rows and the chunks are parsed in parallel straight into their ranges
+ * of it, so parsed rows are never held twice. Lines that yield no row leave
+ * a gap at the end of their chunk's range, which is closed afterwards in
+ * file order. The target must have one series per series of the options;
+ * they are named from the header.
+ *
+ * <p>{@link #loadInOrder} is for files larger than the heap: chunks are
+ * parsed a wave at a time and appended to a sink in file order, so only one
+ * wave of parsed rows is ever held.
+ */
+public final class ParallelCsvLoader {
+
+    private static final long MIN_CHUNK_BYTES = 8L << 20;
+    private static final int CHUNKS_PER_THREAD = 4;
+
+    private final CsvOptions options;
+    private final ForkJoinPool pool;
+
+    public ParallelCsvLoader(CsvOptions options, ForkJoinPool pool) {
+        this.options = options;
+        this.pool = pool;
+    }
+
+    public CsvResult load(Path file, DataStore target, ProgressListener progress) throws IOException {
+        if (target.seriesCount() != options.seriesCount()) {
+            throw new IllegalArgumentException("Target has " + target.seriesCount() + " series, options read "
+                    + options.seriesCount());
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            CsvHeader.nameSeries(channel, options, target);
+            long[] bounds = splitAtLines(channel, size, (int) Math.min((long) pool.getParallelism() * CHUNKS_PER_THREAD,
+                    Math.max(1, size / MIN_CHUNK_BYTES)));
+            AtomicLong done = new AtomicLong();
+
+            // Small files are not worth the extra copy
+            if (bounds.length == 2) {
+                CsvRangeReader reader = new CsvRangeReader(options, target);
+                reader.read(channel, 0, size, options.header(),
+                        delta -> report(progress, done.addAndGet(delta), size));
+                return new CsvResult(reader.rows(), reader.skippedRows(), size);
+            }
+
+            List<LineCountTask> counts = new ArrayList<>();
+            for (int i = 0; i + 1 < bounds.length; i++) {
+                counts.add(new LineCountTask(channel, bounds[i], bounds[i + 1]));
+            }
+            runAll(counts);
+            progress.checkCancelled();
+
+            // A row per line, less the header
+            long[] lines = new long[counts.size()];
+            long capacity = 0;
+            for (int i = 0; i < lines.length; i++) {
+                lines[i] = counts.get(i).lines;
+                if (i == 0 && options.header()) lines[i] = Math.max(0, lines[i] - 1);
+                capacity += lines[i];
+            }
+            if (capacity > Integer.MAX_VALUE - target.size()) {
+                throw new IllegalStateException("Dataset cannot hold " + capacity + " more rows");
+            }
+
+            int first = target.grow((int) capacity);
+            boolean loaded = false;
+            try {
+                List<ChunkTask<RangeSink>> chunks = new ArrayList<>();
+                int offset = first;
+                for (int i = 0; i < lines.length; i++) {
+                    int rows = (int) lines[i];
+                    chunks.add(new ChunkTask<>(channel, bounds[i], bounds[i + 1], i == 0 && options.header(),
+                            new RangeSink(target, offset, rows),
+                            delta -> report(progress, done.addAndGet(delta), size)));
+                    offset += rows;
+                }
+                runAll(chunks);
+                progress.checkCancelled();
+
+                // Chunks before the first gap are only remapped in place; those after it move down, in order
+                long skipped = 0;
+                int row = first;
+                List<PlaceTask> inPlace = new ArrayList<>();
+                List<PlaceTask> moved = new ArrayList<>();
+                for (ChunkTask<RangeSink> chunk : chunks) {
+                    RangeSink sink = chunk.sink;
+                    skipped += chunk.skippedRows;
+                    if (sink.xTime) target.setXTime(true);
+                    PlaceTask place = new PlaceTask(target, sink.start, row, sink.rows(),
+                            remap(sink.dictionary(), target));
+                    (row == sink.start ? inPlace : moved).add(place);
+                    row += sink.rows();
+                }
+                runAll(inPlace);
+                for (PlaceTask place : moved) {
+                    place.invoke();
+                }
+                target.truncate(row);
+                loaded = true;
+
+                return new CsvResult(target.size(), skipped, size);
+            } finally {
+                if (!loaded) target.truncate(first);
+            }
+        }
+    }
+
+    /**
+     * Loads {@code file} into {@code target}, which sees the rows in file order
+     * from the calling thread. Chunks are sized so that one wave of them, one
+     * chunk per pool thread, holds about {@code bufferBytes} of parsed rows.
+     * A file whose row count, estimated from the lines of the first chunk,
+     * exceeds what the target can still take is refused before any row is
+     * added.
+     */
+    public CsvResult loadInOrder(Path file, RowSink target, long bufferBytes, ProgressListener progress)
+            throws IOException {
+        if (target.seriesCount() != options.seriesCount()) {
+            throw new IllegalArgumentException("Target has " + target.seriesCount() + " series, options read "
+                    + options.seriesCount());
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            CsvHeader.nameSeries(channel, options, target);
+            int parallelism = pool.getParallelism();
+            // A parsed row takes about as many bytes as its text, plus the slack of a growing column
+            long chunkBytes = Math.max(MIN_CHUNK_BYTES, bufferBytes / (2L * parallelism));
+            long[] bounds = splitAtLines(channel, size, (int) Math.min(Integer.MAX_VALUE - 1, size / chunkBytes + 1));
+            AtomicLong done = new AtomicLong();
+
+            // The first chunk is read again right away, so counting its lines costs little
+            long sampleLines = CsvRangeReader.countLines(channel, 0, bounds[1]);
+            long estimate = (long) ((double) sampleLines * size / Math.max(1, bounds[1]));
+            if (estimate > target.remainingRows()) {
+                throw new IllegalArgumentException(String.format(
+                        "%s has about %,d rows, more than the %,d the dataset can take", file.getFileName(),
+                        estimate, target.remainingRows()));
+            }
+
+            long rows = 0;
+            long skipped = 0;
+            double[] values = new double[options.seriesCount()];
+            for (int first = 0; first + 1 < bounds.length; first += parallelism) {
+                List<ChunkTask<DataStore>> wave = new ArrayList<>();
+                for (int i = first; i < Math.min(first + parallelism, bounds.length - 1); i++) {
+                    wave.add(new ChunkTask<>(channel, bounds[i], bounds[i + 1], i == 0 && options.header(),
+                            new DataStore(new CategoryDictionary(), options.seriesCount()),
+                            delta -> report(progress, done.addAndGet(delta), size)));
+                }
+                runAll(wave);
+                progress.checkCancelled();
+
+                for (ChunkTask<DataStore> chunk : wave) {
+                    DataStore parsed = chunk.sink;
+                    if (parsed.isXTime()) target.setXTime(true);
+                    int[] categoryIds = remap(parsed.dictionary(), target);
+                    for (int i = 0, n = parsed.size(); i < n; i++) {
+                        for (int s = 0; s < values.length; s++) {
+                            values[s] = parsed.value(s, i);
+                        }
+                        target.add(parsed.x(i), values, categoryIds[parsed.categoryId(i)]);
+                    }
+                    rows += parsed.size();
+                    skipped += chunk.skippedRows;
+                }
+            }
+            return new CsvResult(rows, skipped, size);
+        }
+    }
+
+    // Called every few MB of input, so a cancelled load stops promptly
+    private static void report(ProgressListener progress, long done, long total) {
+        progress.checkCancelled();
+        progress.progress(done, total);
+    }
+
+    private void runAll(List<? extends ForkJoinTask<?>> tasks) throws IOException {
+        try {
+            pool.invoke(new RecursiveAction() {
+                @Override
+                protected void compute() {
+                    invokeAll(tasks);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    // Chunk boundaries, each just past a '\n', starting at 0 and ending at size
+    private static long[] splitAtLines(FileChannel channel, long size, int chunks) throws IOException {
+        List<Long> bounds = new ArrayList<>();
+        bounds.add(0L);
+        ByteBuffer probe = ByteBuffer.allocate(64 * 1024);
+        for (int i = 1; i < chunks; i++) {
+            long from = Math.max(size * i / chunks, bounds.get(bounds.size() - 1));
+            long next = nextLineStart(channel, from, size, probe);
+            if (next > bounds.get(bounds.size() - 1) && next < size) {
+                bounds.add(next);
+            }
+        }
+        bounds.add(size);
+
+        long[] result = new long[bounds.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = bounds.get(i);
+        }
+        return result;
+    }
+
+    private static long nextLineStart(FileChannel channel, long from, long size, ByteBuffer probe) throws IOException {
+        long position = from;
+        while (position < size) {
+            probe.clear();
+            int read = channel.read(probe, position);
+            if (read <= 0) break;
+            int index = CsvRangeReader.indexOf(probe, (byte) '\n', 0, read);
+            if (index >= 0) {
+                return position + index + 1;
+            }
+            position += read;
+        }
+        return size;
+    }
+
+    private static int[] remap(CategoryDictionary source, RowSink target) {
+        int[] ids = new int[source.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = target.dictionary().intern(source.name(i));
+        }
+        return ids;
+    }
+
+    // ForkJoinTask is Serializable, but these tasks never leave the pool
+    @SuppressWarnings("serial")
+    private static final class LineCountTask extends RecursiveAction {
+        private final FileChannel channel;
+        private final long start;
+        private final long end;
+        long lines;
+
+        LineCountTask(FileChannel channel, long start, long end) {
+            this.channel = channel;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected void compute() {
+            try {
+                lines = CsvRangeReader.countLines(channel, start, end);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    @SuppressWarnings("serial")
+    private final class ChunkTask<S extends RowSink> extends RecursiveAction {
+        private final FileChannel channel;
+        private final long start;
+        private final long end;
+        private final boolean skipHeader;
+        private final LongConsumer bytesConsumed;
+        final S sink;
+        long skippedRows;
+
+        ChunkTask(FileChannel channel, long start, long end, boolean skipHeader, S sink,
+                  LongConsumer bytesConsumed) {
+            this.channel = channel;
+            this.start = start;
+            this.end = end;
+            this.skipHeader = skipHeader;
+            this.sink = sink;
+            this.bytesConsumed = bytesConsumed;
+        }
+
+        @Override
+        protected void compute() {
+            CsvRangeReader reader = new CsvRangeReader(options, sink);
+            try {
+                reader.read(channel, start, end, skipHeader, bytesConsumed);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            skippedRows = reader.skippedRows();
+        }
+    }
+
+    /**
+     * Writes a chunk's rows into its range of the target from the range's
+     * start. Categories go into a dictionary of the chunk's own, so the
+     * target's ids are assigned in file order afterwards.
+     */
+    private static final class RangeSink implements RowSink {
+        private final DataStore target;
+        private final CategoryDictionary dictionary = new CategoryDictionary();
+        final int start;
+        private final int end;
+        private int next;
+        boolean xTime;
+
+        RangeSink(DataStore target, int start, int rows) {
+            this.target = target;
+            this.start = start;
+            this.end = start + rows;
+            this.next = start;
+        }
+
+        int rows() {
+            return next - start;
+        }
+
+        @Override
+        public void add(double x, double y, int categoryId) {
+            target.set(claim(), x, y, categoryId);
+        }
+
+        @Override
+        public void add(double x, double[] values, int categoryId) {
+            int row = claim();
+            target.set(row, x, values[0], categoryId);
+            for (int s = 1; s < values.length; s++) {
+                target.setValue(s, row, values[s]);
+            }
+        }
+
+        private int claim() {
+            if (next == end) throw new IllegalStateException("Chunk yielded more rows than it has lines");
+            return next++;
+        }
+
+        @Override
+        public int seriesCount() {
+            return target.seriesCount();
+        }
+
+        @Override
+        public void setXTime(boolean time) {
+            xTime = time;
+        }
+
+        @Override
+        public CategoryDictionary dictionary() {
+            return dictionary;
+        }
+    }
+
+    // Moves a chunk's rows from its range down to their final place, mapping the categories into the target's ids
+    @SuppressWarnings("serial")
+    private static final class PlaceTask extends RecursiveAction {
+        private final DataStore target;
+        private final int from;
+        private final int to;
+        private final int rows;
+        private final int[] categoryIds;
+
+        PlaceTask(DataStore target, int from, int to, int rows, int[] categoryIds) {
+            this.target = target;
+            this.from = from;
+            this.to = to;
+            this.rows = rows;
+            this.categoryIds = categoryIds;
+        }
+
+        @Override
+        protected void compute() {
+            if (from == to) {
+                for (int row = from, n = from + rows; row < n; row++) {
+                    target.setCategoryId(row, categoryIds[target.categoryId(row)]);
+                }
+                return;
+            }
+            // Forward, as the rows only move down
+            for (int i = 0; i < rows; i++) {
+                int source = from + i;
+                target.set(to + i, target.x(source), target.y(source), categoryIds[target.categoryId(source)]);
+                for (int s = 1; s < target.seriesCount(); s++) {
+                    target.setValue(s, to + i, target.value(s, source));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package dataviz.io;
+
+import java.util.concurrent.CancellationException;
+
+/**
+ * Receives byte-based progress from the loaders. Called from the loading
+ * thread, so implementations must hand off to the FX thread themselves.
+ *
+ * <p>The listener is also how long-running work learns it is no longer
+ * wanted: loaders and generators poll {@link #checkCancelled} between units
+ * of work and stop with a {@link CancellationException}.
+ */
+@FunctionalInterface
+public interface ProgressListener {
+
+    ProgressListener NONE = (done, total) -> { };
+
+    void progress(long bytesDone, long totalBytes);
+
+    default boolean isCancelled() {
+        return false;
+    }
+
+    default void checkCancelled() {
+        if (isCancelled()) throw new CancellationException();
+    }
+}
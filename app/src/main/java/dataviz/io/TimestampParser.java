@@ -0,0 +1,146 @@
+package dataviz.io;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Parses a timestamp straight from a byte range into epoch milliseconds,
+ * without creating a String. Accepts ISO-8601 dates and date-times,
+ * {@code 2024-03-01}, {@code 2024-03-01T12:30}, {@code 2024-03-01 12:30:15.250}
+ * and so on, with an optional {@code Z} or {@code ±hh[:mm]} offset; times
+ * without an offset are taken as UTC. A plain integer is read as epoch
+ * milliseconds. Fractions finer than a millisecond are truncated.
+ * Not thread-safe: use one instance per parsing thread.
+ */
+final class TimestampParser {
+
+    private static final long MILLIS_PER_DAY = 86_400_000L;
+    private static final int MAX_DIGITS = 18;
+
+    private boolean valid;
+
+    // Whether the last call to parse() consumed a well-formed timestamp
+    boolean valid() {
+        return valid;
+    }
+
+    long parse(ByteBuffer buf, int start, int end) {
+        valid = false;
+        if (start >= end) return 0;
+
+        // yyyy-MM-dd has its first '-' at index 4; anything else must be epoch millis
+        if (end - start >= 10 && buf.get(start + 4) == '-') {
+            return parseIso(buf, start, end);
+        }
+
+        int p = start;
+        boolean negative = false;
+        byte c = buf.get(p);
+        if (c == '-' || c == '+') {
+            negative = c == '-';
+            p++;
+        }
+        if (p == end || end - p > MAX_DIGITS) return 0;
+        long millis = 0;
+        for (; p < end; p++) {
+            c = buf.get(p);
+            if (c < '0' || c > '9') return 0;
+            millis = millis * 10 + (c - '0');
+        }
+        valid = true;
+        return negative ? -millis : millis;
+    }
+
+    private long parseIso(ByteBuffer buf, int start, int end) {
+        int year = digits(buf, start, 4);
+        int month = digits(buf, start + 5, 2);
+        int day = digits(buf, start + 8, 2);
+        if (year < 0 || month < 1 || month > 12 || buf.get(start + 7) != '-'
+                || day < 1 || day > daysInMonth(year, month)) {
+            return 0;
+        }
+        long millis = daysFromCivil(year, month, day) * MILLIS_PER_DAY;
+
+        int p = start + 10;
+        if (p < end) {
+            byte separator = buf.get(p);
+            if ((separator != 'T' && separator != ' ') || end - p < 6) return 0;
+            int hour = digits(buf, p + 1, 2);
+            int minute = digits(buf, p + 4, 2);
+            if (hour < 0 || hour > 23 || buf.get(p + 3) != ':' || minute < 0 || minute > 59) return 0;
+            millis += (hour * 60L + minute) * 60_000L;
+            p += 6;
+
+            if (p < end && buf.get(p) == ':') {
+                if (end - p < 3) return 0;
+                int second = digits(buf, p + 1, 2);
+                if (second < 0 || second > 59) return 0;
+                millis += second * 1000L;
+                p += 3;
+
+                if (p < end && (buf.get(p) == '.' || buf.get(p) == ',')) {
+                    p++;
+                    int fractionStart = p;
+                    int scale = 100;
+                    byte c;
+                    while (p < end && (c = buf.get(p)) >= '0' && c <= '9') {
+                        millis += (c - '0') * scale;
+                        scale /= 10;
+                        p++;
+                    }
+                    if (p == fractionStart) return 0;
+                }
+            }
+
+            if (p < end) {
+                byte zone = buf.get(p);
+                if (zone == 'Z' || zone == 'z') {
+                    p++;
+                } else if (zone == '+' || zone == '-') {
+                    int offsetHours = end - p >= 3 ? digits(buf, p + 1, 2) : -1;
+                    if (offsetHours < 0 || offsetHours > 18) return 0;
+                    p += 3;
+                    int offsetMinutes = 0;
+                    if (p < end) {
+                        if (buf.get(p) == ':') p++;
+                        offsetMinutes = end - p >= 2 ? digits(buf, p, 2) : -1;
+                        if (offsetMinutes < 0 || offsetMinutes > 59) return 0;
+                        p += 2;
+                    }
+                    long offset = (offsetHours * 60L + offsetMinutes) * 60_000L;
+                    millis += zone == '+' ? -offset : offset;
+                }
+                if (p != end) return 0;
+            }
+        }
+        valid = true;
+        return millis;
+    }
+
+    // Value of count decimal digits at p, or -1 if any of them is not a digit
+    private static int digits(ByteBuffer buf, int p, int count) {
+        int value = 0;
+        for (int i = 0; i < count; i++) {
+            byte c = buf.get(p + i);
+            if (c < '0' || c > '9') return -1;
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    private static int daysInMonth(int year, int month) {
+        if (month == 2) {
+            return (year % 4 == 0 && year % 100 != 0) || year % 400 == 0 ? 29 : 28;
+        }
+        return month == 4 || month == 6 || month == 9 || month == 11 ? 30 : 31;
+    }
+
+    // Days since 1970-01-01 in the proleptic Gregorian calendar (H. Hinnant's days_from_civil)
+    static long daysFromCivil(int year, int month, int day) {
+        int y = month <= 2 ? year - 1 : year;
+        int era = Math.floorDiv(y, 400);
+        int yearOfEra = y - era * 400;
+        int dayOfYear = (153 * (month + (month > 2 ? -3 : 9)) + 2) / 5 + day - 1;
+        int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146_097L + dayOfEra - 719_468;
+    }
+}
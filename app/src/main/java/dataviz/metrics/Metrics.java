@@ -0,0 +1,81 @@
+package dataviz.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Named stage timers for the loading and rendering pipeline. Stages are
+ * created on first use and kept in name order, which is also the order
+ * they are shown and exported in.
+ */
+public final class Metrics {
+
+    private static final com.sun.management.ThreadMXBean THREADS = allocationBean();
+
+    private final Map<String, StageTimer> stages = new ConcurrentSkipListMap<>();
+
+    /** Work timed by {@link #time(String, Timed)}; may throw what the timed code throws. */
+    @FunctionalInterface
+    public interface Timed<T, E extends Exception> {
+        T get() throws E;
+    }
+
+    /** Work without a result, timed by {@link #time(String, TimedAction)}. */
+    @FunctionalInterface
+    public interface TimedAction<E extends Exception> {
+        void run() throws E;
+    }
+
+    public StageTimer stage(String name) {
+        return stages.computeIfAbsent(name, StageTimer::new);
+    }
+
+    /** Runs {@code work} as one timed run of {@code name} and returns its result. */
+    public <T, E extends Exception> T time(String name, Timed<T, E> work) throws E {
+        Span span = stage(name).start();
+        try {
+            return work.get();
+        } finally {
+            span.close();
+        }
+    }
+
+    /** Runs {@code work} as one timed run of {@code name}. */
+    public <E extends Exception> void time(String name, TimedAction<E> work) throws E {
+        Span span = stage(name).start();
+        try {
+            work.run();
+        } finally {
+            span.close();
+        }
+    }
+
+    public List<StageTimer.Snapshot> snapshot() {
+        List<StageTimer.Snapshot> result = new ArrayList<>(stages.size());
+        for (StageTimer stage : stages.values()) {
+            result.add(stage.snapshot());
+        }
+        return result;
+    }
+
+    /**
+     * Bytes allocated so far by the calling thread, or -1 where the JVM
+     * cannot tell (including on virtual threads). Work the stage hands to
+     * other threads is not included.
+     */
+    public static long allocatedBytes() {
+        return THREADS != null ? THREADS.getCurrentThreadAllocatedBytes() : -1;
+    }
+
+    private static com.sun.management.ThreadMXBean allocationBean() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean bean
+                && bean.isThreadAllocatedMemorySupported()) {
+            bean.setThreadAllocatedMemoryEnabled(true);
+            return bean;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,102 @@
+package dataviz.metrics;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Writes stage snapshots as JSON and in the Prometheus text format. The
+ * {@code .prom} file suits the node exporter's textfile collector; the JSON
+ * keeps the raw nanosecond values for scripts.
+ */
+public final class MetricsWriter {
+
+    public static final String JSON_FILE = "dataviz-metrics.json";
+    public static final String PROMETHEUS_FILE = "dataviz-metrics.prom";
+
+    private MetricsWriter() {
+    }
+
+    /** Writes both files into {@code directory}, each replaced atomically. */
+    public static List<Path> write(Metrics metrics, Path directory) throws IOException {
+        List<StageTimer.Snapshot> stages = metrics.snapshot();
+        long now = System.currentTimeMillis();
+        List<Path> files = new ArrayList<>(2);
+        files.add(replace(directory.resolve(JSON_FILE), json(stages, now)));
+        files.add(replace(directory.resolve(PROMETHEUS_FILE), prometheus(stages)));
+        return files;
+    }
+
+    public static String json(List<StageTimer.Snapshot> stages, long timestampMillis) {
+        StringBuilder out = new StringBuilder(256 + stages.size() * 256);
+        out.append("{\n  \"timestamp\": ").append(timestampMillis).append(",\n  \"stages\": [");
+        for (int i = 0; i < stages.size(); i++) {
+            StageTimer.Snapshot s = stages.get(i);
+            out.append(i == 0 ? "\n" : ",\n")
+                    .append("    {\"name\": \"").append(escapeJson(s.name())).append('"')
+                    .append(", \"count\": ").append(s.count())
+                    .append(", \"totalNanos\": ").append(s.totalNanos())
+                    .append(", \"lastNanos\": ").append(s.lastNanos())
+                    .append(", \"maxNanos\": ").append(s.maxNanos())
+                    .append(", \"p50Nanos\": ").append(s.p50Nanos())
+                    .append(", \"p95Nanos\": ").append(s.p95Nanos())
+                    .append(", \"p99Nanos\": ").append(s.p99Nanos())
+                    .append(", \"allocatedBytes\": ").append(s.allocatedBytes())
+                    .append(", \"lastAllocatedBytes\": ").append(s.lastAllocatedBytes())
+                    .append('}');
+        }
+        return out.append("\n  ]\n}\n").toString();
+    }
+
+    public static String prometheus(List<StageTimer.Snapshot> stages) {
+        StringBuilder out = new StringBuilder(512 + stages.size() * 512);
+        out.append("# HELP dataviz_stage_seconds Time spent in each pipeline stage.\n")
+                .append("# TYPE dataviz_stage_seconds summary\n");
+        for (StageTimer.Snapshot s : stages) {
+            String stage = "stage=\"" + escapeLabel(s.name()) + '"';
+            sample(out, "dataviz_stage_seconds{" + stage + ",quantile=\"0.5\"}", seconds(s.p50Nanos()));
+            sample(out, "dataviz_stage_seconds{" + stage + ",quantile=\"0.95\"}", seconds(s.p95Nanos()));
+            sample(out, "dataviz_stage_seconds{" + stage + ",quantile=\"0.99\"}", seconds(s.p99Nanos()));
+            sample(out, "dataviz_stage_seconds_sum{" + stage + "}", seconds(s.totalNanos()));
+            out.append("dataviz_stage_seconds_count{").append(stage).append("} ").append(s.count()).append('\n');
+        }
+        out.append("# HELP dataviz_stage_max_seconds Longest single run of each stage.\n")
+                .append("# TYPE dataviz_stage_max_seconds gauge\n");
+        for (StageTimer.Snapshot s : stages) {
+            sample(out, "dataviz_stage_max_seconds{stage=\"" + escapeLabel(s.name()) + "\"}", seconds(s.maxNanos()));
+        }
+        out.append("# HELP dataviz_stage_allocated_bytes_total Bytes allocated by the thread running each stage.\n")
+                .append("# TYPE dataviz_stage_allocated_bytes_total counter\n");
+        for (StageTimer.Snapshot s : stages) {
+            out.append("dataviz_stage_allocated_bytes_total{stage=\"").append(escapeLabel(s.name())).append("\"} ")
+                    .append(s.allocatedBytes()).append('\n');
+        }
+        return out.toString();
+    }
+
+    private static void sample(StringBuilder out, String series, double value) {
+        out.append(series).append(' ').append(String.format(Locale.ROOT, "%.9f", value)).append('\n');
+    }
+
+    private static double seconds(long nanos) {
+        return nanos / 1e9;
+    }
+
+    private static String escapeJson(String s) {
+        return s.replace("\\", "\\\\").replace("\"", "\\\"");
+    }
+
+    private static String escapeLabel(String s) {
+        return s.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    private static Path replace(Path file, String content) throws IOException {
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        Files.writeString(tmp, content);
+        return Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
@@ -0,0 +1,19 @@
+package dataviz.metrics;
+
+/** One timed run of a stage, recorded when closed. */
+final class Span implements AutoCloseable {
+
+    private final StageTimer stage;
+    private final long startNanos = System.nanoTime();
+    private final long startBytes = Metrics.allocatedBytes();
+
+    Span(StageTimer stage) {
+        this.stage = stage;
+    }
+
+    @Override
+    public void close() {
+        long bytes = startBytes < 0 ? -1 : Metrics.allocatedBytes() - startBytes;
+        stage.record(System.nanoTime() - startNanos, bytes);
+    }
+}
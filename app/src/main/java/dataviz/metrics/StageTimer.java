@@ -0,0 +1,64 @@
+package dataviz.metrics;
+
+import java.util.Arrays;
+
+/**
+ * Durations and allocation of one pipeline stage. Totals cover every run;
+ * percentiles cover the most recent {@value #WINDOW} runs, enough to see a
+ * regression without keeping an unbounded history.
+ */
+public final class StageTimer {
+
+    static final int WINDOW = 512;
+
+    public record Snapshot(String name, long count, long totalNanos, long lastNanos, long maxNanos,
+                           long p50Nanos, long p95Nanos, long p99Nanos,
+                           long allocatedBytes, long lastAllocatedBytes) {
+    }
+
+    private final String name;
+    private final long[] recent = new long[WINDOW];
+    private long count;
+    private long totalNanos;
+    private long lastNanos;
+    private long maxNanos;
+    private long allocatedBytes;
+    private long lastAllocatedBytes = -1;
+
+    StageTimer(String name) {
+        this.name = name;
+    }
+
+    public String name() {
+        return name;
+    }
+
+    // Spans are only opened by Metrics.time, which always closes them
+    Span start() {
+        return new Span(this);
+    }
+
+    /** Records one run; {@code bytes} is negative when the allocation is unknown. */
+    public synchronized void record(long nanos, long bytes) {
+        recent[(int) (count % WINDOW)] = nanos;
+        count++;
+        totalNanos += nanos;
+        lastNanos = nanos;
+        maxNanos = Math.max(maxNanos, nanos);
+        lastAllocatedBytes = bytes;
+        if (bytes > 0) allocatedBytes += bytes;
+    }
+
+    public synchronized Snapshot snapshot() {
+        long[] sorted = Arrays.copyOf(recent, (int) Math.min(count, WINDOW));
+        Arrays.sort(sorted);
+        return new Snapshot(name, count, totalNanos, lastNanos, maxNanos,
+                percentile(sorted, 0.50), percentile(sorted, 0.95), percentile(sorted, 0.99),
+                allocatedBytes, lastAllocatedBytes);
+    }
+
+    private static long percentile(long[] sorted, double p) {
+        if (sorted.length == 0) return 0;
+        return sorted[(int) Math.min(sorted.length - 1, Math.ceil(p * sorted.length) - 1)];
+    }
+}
@@ -0,0 +1,35 @@
+package dataviz.paging;
+
+/**
+ * One column slice of a paged dataset, copied onto the heap. Exactly one of
+ * {@link #doubles} and {@link #ints} is set.
+ */
+final class Page {
+
+    final SegmentedDataView owner;
+    final int column;
+    final int index;
+    final double[] doubles;
+    final int[] ints;
+    final long bytes;
+    // Set on use, cleared by the clock hand; a racy flag is good enough for eviction order
+    boolean referenced = true;
+
+    Page(SegmentedDataView owner, int column, int index, double[] doubles) {
+        this.owner = owner;
+        this.column = column;
+        this.index = index;
+        this.doubles = doubles;
+        this.ints = null;
+        this.bytes = (long) doubles.length * Double.BYTES;
+    }
+
+    Page(SegmentedDataView owner, int column, int index, int[] ints) {
+        this.owner = owner;
+        this.column = column;
+        this.index = index;
+        this.doubles = null;
+        this.ints = ints;
+        this.bytes = (long) ints.length * Integer.BYTES;
+    }
+}
@@ -0,0 +1,91 @@
+package dataviz.paging;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Heap budget shared by every paged dataset. Column pages are copied out of
+ * the mapped segments on first use and evicted in approximate LRU order
+ * (a clock sweep over the resident pages), so a scan over any number of
+ * rows never holds more than the budget, give or take the pages being read
+ * at that moment.
+ */
+public final class PageCache {
+
+    private final long budgetBytes;
+    private final List<Page> resident = new ArrayList<>();
+    private int hand;
+    private long residentBytes;
+    private long misses;
+    private long evictions;
+
+    public PageCache(long budgetBytes) {
+        if (budgetBytes <= 0) throw new IllegalArgumentException("budget must be positive: " + budgetBytes);
+        this.budgetBytes = budgetBytes;
+    }
+
+    public long budgetBytes() {
+        return budgetBytes;
+    }
+
+    public synchronized long residentBytes() {
+        return residentBytes;
+    }
+
+    /** Pages read from a segment because they were not resident. */
+    public synchronized long misses() {
+        return misses;
+    }
+
+    public synchronized long evictions() {
+        return evictions;
+    }
+
+    // The copy runs outside the lock so threads scanning different pages read in parallel
+    Page load(SegmentedDataView view, int column, int index) {
+        Page page = view.readPage(column, index);
+        synchronized (this) {
+            Page existing = view.page(column, index);
+            if (existing != null) return existing; // another thread got there first
+            while (residentBytes + page.bytes > budgetBytes && !resident.isEmpty()) {
+                evictOne();
+            }
+            resident.add(page);
+            residentBytes += page.bytes;
+            misses++;
+            view.install(page);
+        }
+        return page;
+    }
+
+    /** Drops every resident page of {@code view}. */
+    synchronized void release(SegmentedDataView view) {
+        for (int i = resident.size() - 1; i >= 0; i--) {
+            if (resident.get(i).owner == view) remove(i);
+        }
+    }
+
+    private void evictOne() {
+        while (true) {
+            if (hand >= resident.size()) hand = 0;
+            Page page = resident.get(hand);
+            if (page.referenced) {
+                page.referenced = false;
+                hand++;
+            } else {
+                remove(hand);
+                evictions++;
+                return;
+            }
+        }
+    }
+
+    // Order does not matter to the clock, so the last page fills the gap
+    private void remove(int i) {
+        Page page = resident.get(i);
+        Page last = resident.remove(resident.size() - 1);
+        if (i < resident.size()) resident.set(i, last);
+        residentBytes -= page.bytes;
+        page.owner.uninstall(page);
+    }
+}
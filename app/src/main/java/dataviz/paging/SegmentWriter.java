@@ -0,0 +1,183 @@
+package dataviz.paging;
+
+import dataviz.data.CategoryDictionary;
+import dataviz.data.Extent;
+import dataviz.data.RowSink;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Sink that spills rows straight into memory-mapped segment files in a
+ * fresh directory, so nothing but the dictionary grows on the heap. Rows
+ * must be added from one thread, in order; {@link #finish} turns the files
+ * into a {@link SegmentedDataView}. Closing an unfinished writer deletes
+ * what it wrote.
+ *
+ * <p>Rows are indexed by int, like every dataset, so a writer takes at
+ * most {@link #MAX_ROWS} rows: whole segments up to 2^31 - 1.
+ */
+public final class SegmentWriter implements RowSink, Closeable {
+
+    public static final int MAX_ROWS = Integer.MAX_VALUE & -SegmentedDataView.SEGMENT_ROWS;
+
+    private final PageCache cache;
+    private final Path directory;
+    private final CategoryDictionary dictionary;
+    private final String[] seriesNames;
+    private boolean xTime;
+    private final long segmentBytes;
+    private final List<Path> files = new ArrayList<>();
+    private final List<ByteBuffer> segments = new ArrayList<>();
+    private final Extent.Builder extent = new Extent.Builder();
+    private DoubleBuffer[] columns; // x, then one per series, of the segment being filled
+    private IntBuffer categories;
+    private int rowInSegment = SegmentedDataView.SEGMENT_ROWS;
+    private int size;
+    private boolean finished;
+
+    public SegmentWriter(Path parent, CategoryDictionary dictionary, int seriesCount, PageCache cache)
+            throws IOException {
+        if (seriesCount < 1) throw new IllegalArgumentException("at least one series is required");
+        this.segmentBytes = SegmentedDataView.segmentBytes(seriesCount);
+        if (segmentBytes > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Too many series for a paged dataset: " + seriesCount);
+        }
+        this.cache = cache;
+        this.dictionary = dictionary;
+        this.seriesNames = new String[seriesCount];
+        for (int s = 0; s < seriesCount; s++) {
+            seriesNames[s] = s == 0 ? "y" : "y" + (s + 1);
+        }
+        Files.createDirectories(parent);
+        this.directory = Files.createTempDirectory(parent, "dataviz-segments-");
+        directory.toFile().deleteOnExit(); // registered first, so it goes after the files
+    }
+
+    public Path directory() {
+        return directory;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void add(double x, double y, int categoryId) {
+        DoubleBuffer[] target = next();
+        target[0].put(rowInSegment, x);
+        target[1].put(rowInSegment, y);
+        for (int s = 2; s < target.length; s++) {
+            target[s].put(rowInSegment, Double.NaN);
+        }
+        end(x, y, categoryId);
+    }
+
+    @Override
+    public void add(double x, double[] values, int categoryId) {
+        DoubleBuffer[] target = next();
+        target[0].put(rowInSegment, x);
+        for (int s = 1; s < target.length; s++) {
+            target[s].put(rowInSegment, values[s - 1]);
+        }
+        end(x, values[0], categoryId);
+    }
+
+    @Override
+    public int seriesCount() {
+        return seriesNames.length;
+    }
+
+    @Override
+    public long remainingRows() {
+        return MAX_ROWS - size;
+    }
+
+    @Override
+    public void setSeriesName(int series, String name) {
+        seriesNames[series] = name;
+    }
+
+    @Override
+    public void setXTime(boolean time) {
+        xTime = time;
+    }
+
+    @Override
+    public CategoryDictionary dictionary() {
+        return dictionary;
+    }
+
+    /** The rows written so far as a dataset; the writer takes no more rows. */
+    public SegmentedDataView finish() {
+        if (finished) throw new IllegalStateException("already finished");
+        finished = true;
+        columns = null;
+        categories = null;
+        return new SegmentedDataView(cache, directory, files, segments, size, seriesNames, xTime, dictionary,
+                extent.build());
+    }
+
+    @Override
+    public void close() {
+        if (finished) return;
+        finished = true;
+        columns = null;
+        categories = null;
+        SegmentedDataView.deleteAll(directory, files);
+    }
+
+    private DoubleBuffer[] next() {
+        if (finished) throw new IllegalStateException("writer is finished");
+        if (rowInSegment == SegmentedDataView.SEGMENT_ROWS) {
+            if (size == MAX_ROWS) {
+                throw new IllegalStateException("A paged dataset holds at most " + MAX_ROWS + " rows");
+            }
+            openSegment();
+        }
+        return columns;
+    }
+
+    private void end(double x, double y, int categoryId) {
+        categories.put(rowInSegment, categoryId);
+        extent.add(x, y);
+        rowInSegment++;
+        size++;
+    }
+
+    // The mapping extends the file; untouched tails of the last segment stay sparse
+    private void openSegment() {
+        Path file = directory.resolve(String.format("segment-%05d.bin", files.size()));
+        ByteBuffer segment;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            file.toFile().deleteOnExit();
+            files.add(file);
+            segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        segments.add(segment);
+
+        int rows = SegmentedDataView.SEGMENT_ROWS;
+        columns = new DoubleBuffer[seriesNames.length + 1];
+        for (int c = 0; c < columns.length; c++) {
+            columns[c] = segment.slice(c * rows * Double.BYTES, rows * Double.BYTES)
+                    .order(ByteOrder.nativeOrder()).asDoubleBuffer();
+        }
+        categories = segment.slice(columns.length * rows * Double.BYTES, rows * Integer.BYTES)
+                .order(ByteOrder.nativeOrder()).asIntBuffer();
+        rowInSegment = 0;
+    }
+}
@@ -0,0 +1,221 @@
+package dataviz.paging;
+
+import dataviz.data.CategoryDictionary;
+import dataviz.data.DataVersion;
+import dataviz.data.DataView;
+import dataviz.data.Extent;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Dataset spilled to memory-mapped segment files by a {@link SegmentWriter}.
+ * Rows are read through column pages held by a {@link PageCache}, so the heap
+ * only ever holds the pages in the cache's budget, whatever the row count.
+ *
+ * <p>Each segment file holds {@code SEGMENT_ROWS} rows: x, then one double
+ * column per series, then the category ids, each column at a fixed offset.
+ * Column 0 is x, columns 1 to {@code seriesCount} the series and the last
+ * one the categories.
+ */
+public final class SegmentedDataView implements DataView, Closeable {
+
+    static final int SEGMENT_SHIFT = 22;
+    static final int SEGMENT_ROWS = 1 << SEGMENT_SHIFT;
+    static final int PAGE_SHIFT = 16;
+    static final int PAGE_ROWS = 1 << PAGE_SHIFT;
+    private static final int PAGE_MASK = PAGE_ROWS - 1;
+    private static final int PAGES_PER_SEGMENT_SHIFT = SEGMENT_SHIFT - PAGE_SHIFT;
+
+    private final PageCache cache;
+    private final Path directory;
+    private final List<Path> files;
+    private final int size;
+    private final String[] seriesNames;
+    private final boolean xTime;
+    private final CategoryDictionary dictionary;
+    private final Extent extent;
+    private final DoubleBuffer[][] doubleColumns; // [segment][column]
+    private final IntBuffer[] categories;         // [segment]
+    private final Page[][] pages;                 // [column][page], written under the cache's lock
+    private final long version = DataVersion.next(); // read-only, so one stamp for its lifetime
+
+    SegmentedDataView(PageCache cache, Path directory, List<Path> files, List<ByteBuffer> segments, int size,
+                      String[] seriesNames, boolean xTime, CategoryDictionary dictionary, Extent extent) {
+        this.cache = cache;
+        this.directory = directory;
+        this.files = List.copyOf(files);
+        this.size = size;
+        this.seriesNames = seriesNames.clone();
+        this.xTime = xTime;
+        this.dictionary = dictionary;
+        this.extent = extent;
+
+        int columns = seriesNames.length + 1;
+        this.doubleColumns = new DoubleBuffer[segments.size()][columns];
+        this.categories = new IntBuffer[segments.size()];
+        for (int s = 0; s < segments.size(); s++) {
+            ByteBuffer segment = segments.get(s);
+            for (int c = 0; c < columns; c++) {
+                doubleColumns[s][c] = segment.slice(c * SEGMENT_ROWS * Double.BYTES, SEGMENT_ROWS * Double.BYTES)
+                        .order(ByteOrder.nativeOrder()).asDoubleBuffer();
+            }
+            categories[s] = segment.slice(columns * SEGMENT_ROWS * Double.BYTES, SEGMENT_ROWS * Integer.BYTES)
+                    .order(ByteOrder.nativeOrder()).asIntBuffer();
+        }
+        this.pages = new Page[columns + 1][(int) (((long) size + PAGE_ROWS - 1) >>> PAGE_SHIFT)];
+    }
+
+    static long segmentBytes(int seriesCount) {
+        return (long) SEGMENT_ROWS * ((seriesCount + 1) * Double.BYTES + Integer.BYTES);
+    }
+
+    public CategoryDictionary dictionary() {
+        return dictionary;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public double x(int row) {
+        return doubles(0, row)[row & PAGE_MASK];
+    }
+
+    @Override
+    public double y(int row) {
+        return doubles(1, row)[row & PAGE_MASK];
+    }
+
+    @Override
+    public int seriesCount() {
+        return seriesNames.length;
+    }
+
+    @Override
+    public String seriesName(int series) {
+        return seriesNames[series];
+    }
+
+    @Override
+    public boolean isXTime() {
+        return xTime;
+    }
+
+    @Override
+    public double value(int series, int row) {
+        return doubles(series + 1, row)[row & PAGE_MASK];
+    }
+
+    @Override
+    public int categoryId(int row) {
+        return pageOf(pages.length - 1, row).ints[row & PAGE_MASK];
+    }
+
+    @Override
+    public String categoryName(int categoryId) {
+        return dictionary.name(categoryId);
+    }
+
+    @Override
+    public int categoryCount() {
+        return dictionary.size();
+    }
+
+    @Override
+    public long version() {
+        return version;
+    }
+
+    @Override
+    public boolean isPaged() {
+        return true;
+    }
+
+    // Tracked while the rows were written, so no scan is needed
+    @Override
+    public Extent extent() {
+        return extent;
+    }
+
+    /** Bytes of the segment files; the heap side is bounded by the page cache. */
+    @Override
+    public long estimatedBytes() {
+        return (long) size * ((seriesNames.length + 1) * Double.BYTES + Integer.BYTES) + dictionary.estimatedBytes();
+    }
+
+    /**
+     * Drops the resident pages and deletes the segment files. Mappings stay
+     * valid until they are collected, so readers that still hold the view
+     * keep working where the platform allows deleting mapped files.
+     */
+    @Override
+    public void close() {
+        cache.release(this);
+        deleteAll(directory, files);
+    }
+
+    static void deleteAll(Path directory, List<Path> files) {
+        for (Path file : files) {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                // Still mapped on platforms that forbid that; removed on exit instead
+            }
+        }
+        try {
+            Files.deleteIfExists(directory);
+        } catch (IOException e) {
+            // as above
+        }
+    }
+
+    private double[] doubles(int column, int row) {
+        return pageOf(column, row).doubles;
+    }
+
+    private Page pageOf(int column, int row) {
+        int index = row >>> PAGE_SHIFT;
+        Page page = pages[column][index];
+        if (page == null) return cache.load(this, column, index);
+        if (!page.referenced) page.referenced = true;
+        return page;
+    }
+
+    // Resident page or null, for the cache
+    Page page(int column, int index) {
+        return pages[column][index];
+    }
+
+    void install(Page page) {
+        pages[page.column][page.index] = page;
+    }
+
+    void uninstall(Page page) {
+        if (pages[page.column][page.index] == page) pages[page.column][page.index] = null;
+    }
+
+    // Absolute bulk reads, so concurrent loads never share a buffer position
+    Page readPage(int column, int index) {
+        int segment = index >>> PAGES_PER_SEGMENT_SHIFT;
+        int start = (index << PAGE_SHIFT) & (SEGMENT_ROWS - 1);
+        int length = Math.min(PAGE_ROWS, size - (index << PAGE_SHIFT));
+        if (column == pages.length - 1) {
+            int[] ints = new int[length];
+            categories[segment].get(start, ints, 0, length);
+            return new Page(this, column, index, ints);
+        }
+        double[] doubles = new double[length];
+        doubleColumns[segment][column].get(start, doubles, 0, length);
+        return new Page(this, column, index, doubles);
+    }
+}
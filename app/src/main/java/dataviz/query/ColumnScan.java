@@ -0,0 +1,73 @@
+package dataviz.query;
+
+import dataviz.data.DataView;
+
+import java.util.stream.IntStream;
+
+/**
+ * Evaluates a per-row test over a whole column into a {@link Selection}.
+ * Rows are tested 64 at a time into one bitmap word, without branching on
+ * the outcome, and blocks of words are scanned in parallel on the pool the
+ * caller runs in.
+ */
+final class ColumnScan {
+
+    /** Words per parallel block: 64K rows. */
+    private static final int BLOCK_WORDS = 1024;
+
+    interface DoubleTest {
+        boolean test(double value);
+    }
+
+    interface IntTest {
+        boolean test(int value);
+    }
+
+    enum Column { X, Y }
+
+    private ColumnScan() {
+    }
+
+    static Selection doubles(DataView data, Column column, DoubleTest test) {
+        int size = data.size();
+        long[] words = new long[Selection.wordCount(size)];
+        boolean x = column == Column.X;
+        blocks(words.length).forEach(block -> {
+            int endWord = Math.min(words.length, (block + 1) * BLOCK_WORDS);
+            for (int w = block * BLOCK_WORDS; w < endWord; w++) {
+                int first = w << 6;
+                int count = Math.min(64, size - first);
+                long bits = 0;
+                for (int b = 0; b < count; b++) {
+                    double value = x ? data.x(first + b) : data.y(first + b);
+                    bits |= (test.test(value) ? 1L : 0L) << b;
+                }
+                words[w] = bits;
+            }
+        });
+        return new Selection(size, words);
+    }
+
+    static Selection categories(DataView data, IntTest test) {
+        int size = data.size();
+        long[] words = new long[Selection.wordCount(size)];
+        blocks(words.length).forEach(block -> {
+            int endWord = Math.min(words.length, (block + 1) * BLOCK_WORDS);
+            for (int w = block * BLOCK_WORDS; w < endWord; w++) {
+                int first = w << 6;
+                int count = Math.min(64, size - first);
+                long bits = 0;
+                for (int b = 0; b < count; b++) {
+                    bits |= (test.test(data.categoryId(first + b)) ? 1L : 0L) << b;
+                }
+                words[w] = bits;
+            }
+        });
+        return new Selection(size, words);
+    }
+
+    private static IntStream blocks(int words) {
+        IntStream blocks = IntStream.range(0, (words + BLOCK_WORDS - 1) / BLOCK_WORDS);
+        return words > BLOCK_WORDS ? blocks.parallel() : blocks;
+    }
+}
@@ -0,0 +1,387 @@
+package dataviz.query;
+
+import dataviz.data.DataView;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * A compiled row filter such as
+ * {@code category == "Category 3" && y > 100 && x in [1e5, 2e5]}.
+ *
+ * <p>Comparisons are on {@code x}, {@code y} (with {@code == != < <= > >=}
+ * and a number, or {@code in [low, high]}, both ends included) and on
+ * {@code category} (with {@code ==} or {@code !=} and a quoted name, or
+ * {@code in ["a", "b"]}). They combine with {@code &&}, {@code ||},
+ * {@code !} and parentheses. Each comparison is a scan over one column
+ * into a {@link Selection}; the combinators merge the bitmaps. NaN values
+ * never match a comparison, negated or not: {@code !} leaves out the rows
+ * whose x or y is NaN when the expression it negates compares that column.
+ */
+public final class FilterExpression {
+
+    private final Node root;
+    private final String canonical;
+
+    private FilterExpression(Node root) {
+        this.root = root;
+        this.canonical = root.toString();
+    }
+
+    /** Parses {@code text}; throws IllegalArgumentException describing the first error. */
+    public static FilterExpression parse(String text) {
+        return new FilterExpression(new Parser(text).parse());
+    }
+
+    /** The rows of category {@code name}, as {@code category == "name"} would parse. */
+    public static FilterExpression category(String name) {
+        return new FilterExpression(new CategoryIn(List.of(name), false));
+    }
+
+    public Selection select(DataView data) {
+        return root.evaluate(data);
+    }
+
+    /** Normalised text: expressions that differ only in spacing or number format are equal. */
+    @Override
+    public String toString() {
+        return canonical;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof FilterExpression other && canonical.equals(other.canonical);
+    }
+
+    @Override
+    public int hashCode() {
+        return canonical.hashCode();
+    }
+
+    private interface Node {
+        Selection evaluate(DataView data);
+
+        /** Whether the node compares {@code column} anywhere below it. */
+        boolean reads(ColumnScan.Column column);
+    }
+
+    private enum Op {
+        EQ("=="), NE("!="), LT("<"), LE("<="), GT(">"), GE(">=");
+
+        final String symbol;
+
+        Op(String symbol) {
+            this.symbol = symbol;
+        }
+    }
+
+    private record Compare(ColumnScan.Column column, Op op, double value) implements Node {
+        @Override
+        public Selection evaluate(DataView data) {
+            double v = value;
+            ColumnScan.DoubleTest test = switch (op) {
+                case EQ -> d -> d == v;
+                case NE -> d -> d != v && d == d; // NaN matches nothing
+                case LT -> d -> d < v;
+                case LE -> d -> d <= v;
+                case GT -> d -> d > v;
+                case GE -> d -> d >= v;
+            };
+            return ColumnScan.doubles(data, column, test);
+        }
+
+        @Override
+        public boolean reads(ColumnScan.Column column) {
+            return this.column == column;
+        }
+
+        @Override
+        public String toString() {
+            return column.name().toLowerCase(Locale.ROOT) + " " + op.symbol + " " + value;
+        }
+    }
+
+    private record Range(ColumnScan.Column column, double low, double high) implements Node {
+        @Override
+        public Selection evaluate(DataView data) {
+            return ColumnScan.doubles(data, column, d -> d >= low && d <= high);
+        }
+
+        @Override
+        public boolean reads(ColumnScan.Column column) {
+            return this.column == column;
+        }
+
+        @Override
+        public String toString() {
+            return column.name().toLowerCase(Locale.ROOT) + " in [" + low + ", " + high + "]";
+        }
+    }
+
+    private record CategoryIn(List<String> names, boolean negate) implements Node {
+        @Override
+        public Selection evaluate(DataView data) {
+            // Names are resolved to ids once; the scan only compares ints
+            Set<String> wanted = new HashSet<>(names);
+            boolean[] match = new boolean[data.categoryCount()];
+            for (int c = 0; c < match.length; c++) {
+                match[c] = wanted.contains(data.categoryName(c)) != negate;
+            }
+            return ColumnScan.categories(data, id -> match[id]);
+        }
+
+        @Override
+        public boolean reads(ColumnScan.Column column) {
+            return false;
+        }
+
+        @Override
+        public String toString() {
+            if (names.size() == 1) {
+                return "category " + (negate ? "!=" : "==") + " " + quote(names.get(0));
+            }
+            List<String> quoted = new ArrayList<>(names.size());
+            for (String name : names) quoted.add(quote(name));
+            return (negate ? "!(" : "") + "category in [" + String.join(", ", quoted) + "]" + (negate ? ")" : "");
+        }
+    }
+
+    private record And(Node left, Node right) implements Node {
+        @Override
+        public Selection evaluate(DataView data) {
+            return left.evaluate(data).and(right.evaluate(data));
+        }
+
+        @Override
+        public boolean reads(ColumnScan.Column column) {
+            return left.reads(column) || right.reads(column);
+        }
+
+        @Override
+        public String toString() {
+            return "(" + left + " && " + right + ")";
+        }
+    }
+
+    private record Or(Node left, Node right) implements Node {
+        @Override
+        public Selection evaluate(DataView data) {
+            return left.evaluate(data).or(right.evaluate(data));
+        }
+
+        @Override
+        public boolean reads(ColumnScan.Column column) {
+            return left.reads(column) || right.reads(column);
+        }
+
+        @Override
+        public String toString() {
+            return "(" + left + " || " + right + ")";
+        }
+    }
+
+    private record Not(Node operand) implements Node {
+        @Override
+        public Selection evaluate(DataView data) {
+            Selection selected = operand.evaluate(data).not();
+            // The complement holds the NaN rows no comparison matched; they stay unmatched
+            for (ColumnScan.Column column : ColumnScan.Column.values()) {
+                if (operand.reads(column)) {
+                    selected = selected.and(ColumnScan.doubles(data, column, d -> d == d));
+                }
+            }
+            return selected;
+        }
+
+        @Override
+        public boolean reads(ColumnScan.Column column) {
+            return operand.reads(column);
+        }
+
+        @Override
+        public String toString() {
+            // And and Or already print their own parentheses
+            return operand instanceof And || operand instanceof Or ? "!" + operand : "!(" + operand + ")";
+        }
+    }
+
+    private static String quote(String s) {
+        return '"' + s.replace("\\", "\\\\").replace("\"", "\\\"") + '"';
+    }
+
+    // Recursive descent straight over the characters; the language is too small for a separate lexer
+    private static final class Parser {
+        private final String text;
+        private int pos;
+
+        Parser(String text) {
+            this.text = text;
+        }
+
+        Node parse() {
+            Node node = or();
+            skipSpace();
+            if (pos < text.length()) throw error("Unexpected '" + text.charAt(pos) + "'");
+            return node;
+        }
+
+        private Node or() {
+            Node node = and();
+            while (accept("||")) {
+                node = new Or(node, and());
+            }
+            return node;
+        }
+
+        private Node and() {
+            Node node = unary();
+            while (accept("&&")) {
+                node = new And(node, unary());
+            }
+            return node;
+        }
+
+        private Node unary() {
+            skipSpace();
+            if (peek("!") && !peek("!=")) {
+                pos++;
+                return new Not(unary());
+            }
+            if (accept("(")) {
+                Node node = or();
+                expect(")");
+                return node;
+            }
+            return comparison();
+        }
+
+        private Node comparison() {
+            skipSpace();
+            int start = pos;
+            String field = word();
+            switch (field) {
+                case "x":
+                    return numeric(ColumnScan.Column.X);
+                case "y":
+                    return numeric(ColumnScan.Column.Y);
+                case "category":
+                    return category();
+                default:
+                    pos = start;
+                    throw error(field.isEmpty() ? "Expected x, y or category" : "Unknown column '" + field + "'");
+            }
+        }
+
+        private Node numeric(ColumnScan.Column column) {
+            if (acceptWord("in")) {
+                expect("[");
+                double low = number();
+                expect(",");
+                double high = number();
+                expect("]");
+                return new Range(column, low, high);
+            }
+            Op op = operator();
+            return new Compare(column, op, number());
+        }
+
+        private Node category() {
+            if (acceptWord("in")) {
+                expect("[");
+                List<String> names = new ArrayList<>();
+                do {
+                    names.add(string());
+                } while (accept(","));
+                expect("]");
+                return new CategoryIn(List.copyOf(names), false);
+            }
+            int start = pos;
+            Op op = operator();
+            if (op != Op.EQ && op != Op.NE) {
+                pos = start;
+                throw error("category only supports ==, != and in");
+            }
+            return new CategoryIn(List.of(string()), op == Op.NE);
+        }
+
+        private Op operator() {
+            for (String symbol : new String[] {"==", "!=", "<=", ">=", "<", ">"}) {
+                if (accept(symbol)) {
+                    for (Op op : Op.values()) {
+                        if (op.symbol.equals(symbol)) return op;
+                    }
+                }
+            }
+            throw error("Expected a comparison operator");
+        }
+
+        private double number() {
+            skipSpace();
+            int start = pos;
+            while (pos < text.length() && "+-.0123456789eE".indexOf(text.charAt(pos)) >= 0) pos++;
+            try {
+                return Double.parseDouble(text.substring(start, pos));
+            } catch (NumberFormatException e) {
+                pos = start;
+                throw error("Expected a number");
+            }
+        }
+
+        private String string() {
+            skipSpace();
+            if (pos >= text.length() || text.charAt(pos) != '"') throw error("Expected a quoted category name");
+            StringBuilder s = new StringBuilder();
+            pos++;
+            while (pos < text.length() && text.charAt(pos) != '"') {
+                char c = text.charAt(pos++);
+                if (c == '\\' && pos < text.length()) c = text.charAt(pos++);
+                s.append(c);
+            }
+            if (pos >= text.length()) throw error("Unterminated string");
+            pos++;
+            return s.toString();
+        }
+
+        private String word() {
+            int start = pos;
+            while (pos < text.length() && Character.isLetter(text.charAt(pos))) pos++;
+            return text.substring(start, pos);
+        }
+
+        private boolean acceptWord(String word) {
+            skipSpace();
+            int start = pos;
+            if (word().equals(word)) return true;
+            pos = start;
+            return false;
+        }
+
+        private boolean accept(String symbol) {
+            skipSpace();
+            if (peek(symbol)) {
+                pos += symbol.length();
+                return true;
+            }
+            return false;
+        }
+
+        private void expect(String symbol) {
+            if (!accept(symbol)) throw error("Expected '" + symbol + "'");
+        }
+
+        private boolean peek(String symbol) {
+            return text.startsWith(symbol, pos);
+        }
+
+        private void skipSpace() {
+            while (pos < text.length() && Character.isWhitespace(text.charAt(pos))) pos++;
+        }
+
+        private IllegalArgumentException error(String message) {
+            return new IllegalArgumentException(message + " at position " + (pos + 1));
+        }
+    }
+}
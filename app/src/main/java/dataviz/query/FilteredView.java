@@ -0,0 +1,135 @@
+package dataviz.query;
+
+import dataviz.data.DataVersion;
+import dataviz.data.DataView;
+import dataviz.data.Extent;
+
+/**
+ * The rows of a dataset that a {@link Selection} contains, seen as a
+ * dataset of their own. Only the selected row indices are stored; columns
+ * and categories are read through from the underlying dataset.
+ *
+ * <p>Over a paged dataset, whose selected rows could outnumber what the heap
+ * holds, no row array is made: a row is found by walking the bitmap from a
+ * rank index with an entry per 1024 rows.
+ */
+public final class FilteredView implements DataView {
+
+    private final DataView source;
+    private final Selection selection;
+    private final int[] rows;  // null over a paged dataset
+    private final int[] ranks; // set instead of rows
+    private final int size;
+    private volatile Extent extent;
+    private final DataVersion version = new DataVersion();
+
+    public FilteredView(DataView source, Selection selection) {
+        if (selection.size() != source.size()) {
+            throw new IllegalArgumentException("selection was made for " + selection.size()
+                    + " rows, dataset has " + source.size());
+        }
+        this.source = source;
+        this.selection = selection;
+        if (source.isPaged()) {
+            this.rows = null;
+            this.ranks = selection.ranks();
+            this.size = selection.cardinality();
+        } else {
+            this.rows = selection.rows();
+            this.ranks = null;
+            this.size = rows.length;
+        }
+    }
+
+    public DataView source() {
+        return source;
+    }
+
+    public Selection selection() {
+        return selection;
+    }
+
+    /** Row of the underlying dataset that {@code row} of this view shows. */
+    public int sourceRow(int row) {
+        if (rows != null) return rows[row];
+        if (row >= size) throw new IndexOutOfBoundsException(row);
+        return selection.select(ranks, row);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public double x(int row) {
+        return source.x(sourceRow(row));
+    }
+
+    @Override
+    public double y(int row) {
+        return source.y(sourceRow(row));
+    }
+
+    @Override
+    public int seriesCount() {
+        return source.seriesCount();
+    }
+
+    @Override
+    public String seriesName(int series) {
+        return source.seriesName(series);
+    }
+
+    @Override
+    public double value(int series, int row) {
+        return source.value(series, sourceRow(row));
+    }
+
+    @Override
+    public int categoryId(int row) {
+        return source.categoryId(sourceRow(row));
+    }
+
+    @Override
+    public String categoryName(int categoryId) {
+        return source.categoryName(categoryId);
+    }
+
+    @Override
+    public int categoryCount() {
+        return source.categoryCount();
+    }
+
+    @Override
+    public long version() {
+        return version.of(source.version());
+    }
+
+    @Override
+    public boolean isXTime() {
+        return source.isXTime();
+    }
+
+    @Override
+    public boolean isPaged() {
+        return source.isPaged();
+    }
+
+    /** The index and bitmap only; the columns belong to the source. */
+    @Override
+    public long estimatedBytes() {
+        int[] index = rows != null ? rows : ranks;
+        return (long) index.length * Integer.BYTES + selection.estimatedBytes();
+    }
+
+    @Override
+    public Extent extent() {
+        Extent e = extent;
+        if (e == null) {
+            e = Extent.of(this);
+            extent = e;
+        }
+        return e;
+    }
+}
@@ -0,0 +1,144 @@
+package dataviz.query;
+
+import java.util.Arrays;
+
+/**
+ * A set of row indices of one dataset, stored as a bitmap with one bit per
+ * row. Combining selections works a 64-bit word at a time.
+ */
+public final class Selection {
+
+    /** Words per entry of a {@link #ranks} index: 1024 rows. */
+    static final int RANK_WORDS = 16;
+
+    private final int size;
+    private final long[] words;
+
+    Selection(int size, long[] words) {
+        this.size = size;
+        this.words = words;
+    }
+
+    public static Selection none(int size) {
+        return new Selection(size, new long[wordCount(size)]);
+    }
+
+    public static Selection all(int size) {
+        long[] words = new long[wordCount(size)];
+        Arrays.fill(words, -1L);
+        return new Selection(size, trimmed(size, words));
+    }
+
+    static int wordCount(int size) {
+        return (size + 63) >>> 6;
+    }
+
+    /** Number of rows of the dataset the selection was made for. */
+    public int size() {
+        return size;
+    }
+
+    public boolean contains(int row) {
+        return (words[row >>> 6] & (1L << row)) != 0;
+    }
+
+    public int cardinality() {
+        int count = 0;
+        for (long word : words) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    /** The selected rows in ascending order. */
+    public int[] rows() {
+        int[] rows = new int[cardinality()];
+        int n = 0;
+        for (int w = 0; w < words.length; w++) {
+            long word = words[w];
+            while (word != 0) {
+                rows[n++] = (w << 6) + Long.numberOfTrailingZeros(word);
+                word &= word - 1;
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Selected rows before each block of {@link #RANK_WORDS} words. With
+     * {@link #select} it finds a selected row by its rank while holding an
+     * int per 1024 rows rather than one per selected row.
+     */
+    int[] ranks() {
+        int[] ranks = new int[(words.length + RANK_WORDS - 1) / RANK_WORDS];
+        int count = 0;
+        for (int w = 0; w < words.length; w++) {
+            if (w % RANK_WORDS == 0) ranks[w / RANK_WORDS] = count;
+            count += Long.bitCount(words[w]);
+        }
+        return ranks;
+    }
+
+    /** The {@code k}-th selected row, counting from 0, given this selection's {@link #ranks}. */
+    int select(int[] ranks, int k) {
+        if (k < 0 || ranks.length == 0) throw new IndexOutOfBoundsException(k);
+        // The last block with at most k rows before it holds the row
+        int low = 0;
+        int high = ranks.length - 1;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (ranks[mid] <= k) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        int remaining = k - ranks[low];
+        for (int w = low * RANK_WORDS; w < words.length; w++) {
+            long word = words[w];
+            int count = Long.bitCount(word);
+            if (remaining < count) {
+                for (; remaining > 0; remaining--) word &= word - 1;
+                return (w << 6) + Long.numberOfTrailingZeros(word);
+            }
+            remaining -= count;
+        }
+        throw new IndexOutOfBoundsException(k);
+    }
+
+    public Selection and(Selection other) {
+        long[] result = new long[words.length];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = words[i] & other.words[i];
+        }
+        return new Selection(size, result);
+    }
+
+    public Selection or(Selection other) {
+        long[] result = new long[words.length];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = words[i] | other.words[i];
+        }
+        return new Selection(size, result);
+    }
+
+    public Selection not() {
+        long[] result = new long[words.length];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = ~words[i];
+        }
+        return new Selection(size, trimmed(size, result));
+    }
+
+    public long estimatedBytes() {
+        return (long) words.length * Long.BYTES;
+    }
+
+    // Bits past the last row must stay clear for cardinality and rows()
+    private static long[] trimmed(int size, long[] words) {
+        if ((size & 63) != 0) {
+            words[words.length - 1] &= (1L << size) - 1;
+        }
+        return words;
+    }
+}
@@ -0,0 +1,70 @@
+package dataviz.query;
+
+import dataviz.data.DataView;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Filtered views of one dataset, keyed by expression, so switching back to
+ * an earlier filter or redrawing with the same one does not scan again.
+ * The cache follows the dataset it was last asked about: a different
+ * dataset empties it. The least recently used entries are dropped beyond
+ * {@code capacity} entries or {@code budgetBytes} of bitmaps and row
+ * indexes, which grow with the dataset's row count; a view larger than the
+ * whole budget is returned but not kept. Views are made outside the lock,
+ * so callers asking for different filters at once, such as the panels of a
+ * dashboard, scan in parallel; of two racing on the same filter, the first
+ * view is kept.
+ */
+public final class SelectionCache {
+
+    private final int capacity;
+    private final long budgetBytes;
+    private DataView source;
+    private final Map<FilterExpression, FilteredView> views = new LinkedHashMap<>(16, 0.75f, true);
+    private long residentBytes;
+
+    public SelectionCache(int capacity, long budgetBytes) {
+        if (capacity <= 0 || budgetBytes <= 0) {
+            throw new IllegalArgumentException("capacity and budget must be positive: " + capacity + ", " + budgetBytes);
+        }
+        this.capacity = capacity;
+        this.budgetBytes = budgetBytes;
+    }
+
+    public FilteredView get(FilterExpression filter, DataView data) {
+        synchronized (this) {
+            if (data != source) {
+                views.clear();
+                residentBytes = 0;
+                source = data;
+            }
+            FilteredView view = views.get(filter);
+            if (view != null) return view;
+        }
+        FilteredView view = new FilteredView(data, filter.select(data));
+        long bytes = view.estimatedBytes();
+        synchronized (this) {
+            if (data != source || bytes > budgetBytes) return view; // moved on to another dataset, or too large
+            FilteredView raced = views.putIfAbsent(filter, view);
+            if (raced != null) return raced;
+            residentBytes += bytes;
+            Iterator<FilteredView> it = views.values().iterator();
+            while ((residentBytes > budgetBytes || views.size() > capacity) && it.hasNext()) {
+                residentBytes -= it.next().estimatedBytes();
+                it.remove();
+            }
+            return view;
+        }
+    }
+
+    public synchronized long residentBytes() {
+        return residentBytes;
+    }
+
+    public synchronized int size() {
+        return views.size();
+    }
+}
@@ -0,0 +1,176 @@
+package dataviz.render;
+
+import dataviz.data.DataView;
+
+import java.util.Arrays;
+
+/**
+ * Rasterises rows straight into a per-pixel hit count, then maps the counts
+ * to colours, so overlapping points show up as density instead of
+ * overdraw. Cost is one pass over the rows and one over the pixels; nothing
+ * is allocated per row. Line segments are added as vertical spans per pixel
+ * column through a difference buffer, so a dense, noisy series costs about
+ * the same as a scatter of the same rows. Not thread-safe.
+ */
+public final class DensityRasterizer {
+
+    public enum Mode {
+        /** One hit per row, for scatter plots. */
+        POINTS,
+        /** Consecutive rows joined by line segments, for line and area plots. */
+        LINES
+    }
+
+    private final int width;
+    private final int height;
+    private final int[] counts;
+    private int[] spans; // column-major differences, height + 1 per column
+    private boolean spansPending;
+    private int maxCount;
+
+    public DensityRasterizer(int width, int height) {
+        this.width = Math.max(1, width);
+        this.height = Math.max(1, height);
+        this.counts = new int[this.width * this.height];
+    }
+
+    public int width() {
+        return width;
+    }
+
+    public int height() {
+        return height;
+    }
+
+    public int maxCount() {
+        resolveSpans();
+        return maxCount;
+    }
+
+    public void clear() {
+        Arrays.fill(counts, 0);
+        if (spans != null) Arrays.fill(spans, 0);
+        spansPending = false;
+        maxCount = 0;
+    }
+
+    /**
+     * Adds rows [from, to) for the data window [xLower, xUpper] x [yLower, yUpper].
+     * With {@code absY} the magnitude of y is drawn, as the area chart does.
+     */
+    public void accumulate(DataView data, int from, int to, double xLower, double xUpper,
+                           double yLower, double yUpper, Mode mode, boolean absY) {
+        double sx = xUpper > xLower ? (width - 1) / (xUpper - xLower) : 0;
+        double sy = yUpper > yLower ? (height - 1) / (yUpper - yLower) : 0;
+        if (mode == Mode.LINES && spans == null) spans = new int[width * (height + 1)];
+
+        double previousPx = Double.NaN;
+        double previousPy = Double.NaN;
+        for (int i = from; i < to; i++) {
+            double y = data.y(i);
+            if (absY) y = Math.abs(y);
+            double px = (data.x(i) - xLower) * sx;
+            double py = (height - 1) - (y - yLower) * sy; // screen y grows downwards
+
+            if (mode == Mode.POINTS) {
+                plot(px, py);
+            } else if (!Double.isNaN(previousPx)) {
+                segment(previousPx, previousPy, px, py);
+            }
+            previousPx = px;
+            previousPy = py;
+        }
+    }
+
+    private void plot(double px, double py) {
+        if (!(px >= 0 && px < width && py >= 0 && py < height)) return; // also rejects NaN
+        int index = (int) py * width + (int) px;
+        int count = ++counts[index];
+        if (count > maxCount) maxCount = count;
+    }
+
+    // Splits the segment at column boundaries and adds one vertical span per column
+    private void segment(double x0, double y0, double x1, double y1) {
+        if (Double.isNaN(x0) || Double.isNaN(y0) || Double.isNaN(x1) || Double.isNaN(y1)) return;
+        if (x1 < x0) {
+            double t = x0; x0 = x1; x1 = t;
+            t = y0; y0 = y1; y1 = t;
+        }
+        if (x1 < 0 || x0 >= width) return;
+        if (y0 < 0 && y1 < 0 || y0 >= height && y1 >= height) return;
+
+        double slope = x1 > x0 ? (y1 - y0) / (x1 - x0) : 0;
+        int first = (int) Math.max(0, x0);
+        int last = (int) Math.min(width - 1, x1);
+        for (int column = first; column <= last; column++) {
+            double left = Math.max(x0, column);
+            double right = Math.min(x1, column + 1);
+            double ya = x1 > x0 ? y0 + (left - x0) * slope : y0;
+            double yb = x1 > x0 ? y0 + (right - x0) * slope : y1;
+            span(column, Math.min(ya, yb), Math.max(ya, yb));
+        }
+    }
+
+    private void span(int column, double top, double bottom) {
+        if (bottom < 0 || top >= height) return;
+        int from = (int) Math.max(0, top);
+        int to = (int) Math.min(height - 1, bottom);
+        int base = column * (height + 1);
+        spans[base + from]++;
+        spans[base + to + 1]--;
+        spansPending = true;
+    }
+
+    private void resolveSpans() {
+        if (!spansPending) return;
+        for (int column = 0; column < width; column++) {
+            int base = column * (height + 1);
+            int run = 0;
+            for (int y = 0; y < height; y++) {
+                run += spans[base + y];
+                spans[base + y] = 0;
+                if (run != 0) {
+                    int count = counts[y * width + column] += run;
+                    if (count > maxCount) maxCount = count;
+                }
+            }
+            spans[base + height] = 0;
+        }
+        spansPending = false;
+    }
+
+    /**
+     * Colours every pixel by log-scaled density, from {@code lowArgb} at a
+     * single hit to {@code highArgb} at the densest pixel. Empty pixels are
+     * transparent. Returns non-premultiplied ARGB, row by row.
+     */
+    public int[] colorize(int lowArgb, int highArgb, int[] out) {
+        resolveSpans();
+        int[] argb = out != null && out.length >= counts.length ? out : new int[counts.length];
+        double scale = maxCount > 1 ? 1.0 / Math.log1p(maxCount) : 0;
+        int[] ramp = new int[256];
+        for (int level = 0; level < ramp.length; level++) {
+            double t = level / 255.0;
+            int alpha = (int) (90 + 165 * t);
+            ramp[level] = alpha << 24 | lerpRgb(lowArgb, highArgb, t);
+        }
+
+        for (int i = 0; i < counts.length; i++) {
+            int count = counts[i];
+            if (count == 0) {
+                argb[i] = 0;
+            } else {
+                int level = scale == 0 ? 255 : (int) (Math.log1p(count) * scale * 255);
+                argb[i] = ramp[Math.min(255, level)];
+            }
+        }
+        return argb;
+    }
+
+    private static int lerpRgb(int a, int b, double t) {
+        int r = (int) (((a >> 16) & 0xFF) + (((b >> 16) & 0xFF) - ((a >> 16) & 0xFF)) * t);
+        int g = (int) (((a >> 8) & 0xFF) + (((b >> 8) & 0xFF) - ((a >> 8) & 0xFF)) * t);
+        int bl = (int) ((a & 0xFF) + ((b & 0xFF) - (a & 0xFF)) * t);
+        return r << 16 | g << 8 | bl;
+    }
+}
@@ -0,0 +1,28 @@
+package dataviz.sampling;
+
+import dataviz.data.DataView;
+
+import java.util.Arrays;
+
+/**
+ * Reduces a row range to the rows worth drawing at a given pixel width.
+ * Implementations write the selected row indices, in ascending x order for
+ * x-sorted data, and must not allocate per input row.
+ */
+public interface Downsampler {
+
+    /** Upper bound on the rows {@link #downsample} selects for this width. */
+    int maxPoints(int pixelWidth);
+
+    /**
+     * Selects rows from [from, to) into {@code out}, which must hold at least
+     * {@link #maxPoints} entries, and returns how many were written.
+     */
+    int downsample(DataView data, int from, int to, int pixelWidth, int[] out);
+
+    default int[] downsample(DataView data, int pixelWidth) {
+        int[] out = new int[Math.min(maxPoints(pixelWidth), data.size())];
+        int count = downsample(data, 0, data.size(), pixelWidth, out);
+        return count == out.length ? out : Arrays.copyOf(out, count);
+    }
+}
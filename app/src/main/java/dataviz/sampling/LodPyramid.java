@@ -0,0 +1,240 @@
+package dataviz.sampling;
+
+import dataviz.data.DataView;
+import dataviz.data.IndexSort;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Level-of-detail index over x-sorted rows. Level k splits the rows into
+ * buckets of {@code BASE_ROWS << k} consecutive rows (in x order) and keeps
+ * min, max, sum and count of y per bucket. A visible x range is answered
+ * with a binary search plus the min and max row of each bucket at the
+ * coarsest level that still gives about one bucket per pixel, so the cost
+ * is O(log n + width) no matter how many rows the range covers.
+ *
+ * Unsorted data is indexed through a sort permutation built once.
+ * Paged datasets start from coarser buckets, so the index stays within
+ * {@code MAX_PAGED_BUCKETS} base buckets however many rows there are; they
+ * can only be indexed when x is sorted, since the permutation would need
+ * heap for every row.
+ */
+public final class LodPyramid implements RangeIndex {
+
+    public static final int BASE_ROWS = 64;
+    private static final int MAX_PAGED_BUCKETS = 1 << 20;
+
+    private final DataView data;
+    private final int[] order;     // rank -> row, null when x is already sorted
+    private final double[] sortedX; // x by rank, null when x is already sorted
+    private final Level[] levels;
+
+    private static final class Level {
+        final int bucketRows;
+        final double[] min;
+        final double[] max;
+        final double[] sum;
+        final int[] count;
+        final int[] minRank;
+        final int[] maxRank;
+
+        Level(int bucketRows, int buckets) {
+            this.bucketRows = bucketRows;
+            this.min = new double[buckets];
+            this.max = new double[buckets];
+            this.sum = new double[buckets];
+            this.count = new int[buckets];
+            this.minRank = new int[buckets];
+            this.maxRank = new int[buckets];
+        }
+
+        int buckets() {
+            return count.length;
+        }
+    }
+
+    private LodPyramid(DataView data, int[] order, double[] sortedX, Level[] levels) {
+        this.data = data;
+        this.order = order;
+        this.sortedX = sortedX;
+        this.levels = levels;
+    }
+
+    public static boolean canIndex(DataView data) {
+        return !data.isPaged() || data.extent().isXSorted();
+    }
+
+    public static LodPyramid build(DataView data) {
+        if (!canIndex(data)) throw new IllegalArgumentException("paged data with unsorted x cannot be indexed");
+        int n = data.size();
+        int baseRows = BASE_ROWS;
+        while (data.isPaged() && (long) baseRows * MAX_PAGED_BUCKETS < n) {
+            baseRows <<= 1;
+        }
+        int[] order = null;
+        double[] sortedX = null;
+        if (!data.extent().isXSorted()) {
+            sortedX = new double[n];
+            for (int i = 0; i < n; i++) sortedX[i] = data.x(i);
+            order = IndexSort.sort(sortedX);
+        }
+
+        List<Level> levels = new ArrayList<>();
+        Level base = new Level(baseRows, (int) Math.max(1, ((long) n + baseRows - 1) / baseRows));
+        for (int b = 0; b < base.buckets(); b++) {
+            int start = b * baseRows;
+            int end = (int) Math.min(n, (long) start + baseRows);
+            double min = Double.POSITIVE_INFINITY;
+            double max = Double.NEGATIVE_INFINITY;
+            double sum = 0;
+            int count = 0;
+            int minRank = start;
+            int maxRank = start;
+            for (int rank = start; rank < end; rank++) {
+                double y = data.y(order == null ? rank : order[rank]);
+                if (Double.isNaN(y)) continue;
+                if (y < min) { min = y; minRank = rank; }
+                if (y > max) { max = y; maxRank = rank; }
+                sum += y;
+                count++;
+            }
+            base.min[b] = min;
+            base.max[b] = max;
+            base.sum[b] = sum;
+            base.count[b] = count;
+            base.minRank[b] = minRank;
+            base.maxRank[b] = maxRank;
+        }
+        levels.add(base);
+
+        Level previous = base;
+        while (previous.buckets() > 1) {
+            int bucketRows = (int) Math.min(Integer.MAX_VALUE, previous.bucketRows * 2L);
+            Level next = new Level(bucketRows, (previous.buckets() + 1) / 2);
+            for (int b = 0; b < next.buckets(); b++) {
+                int left = 2 * b;
+                int right = Math.min(left + 1, previous.buckets() - 1);
+                boolean useRightMin = right != left && previous.min[right] < previous.min[left];
+                boolean useRightMax = right != left && previous.max[right] > previous.max[left];
+                next.min[b] = previous.min[useRightMin ? right : left];
+                next.minRank[b] = previous.minRank[useRightMin ? right : left];
+                next.max[b] = previous.max[useRightMax ? right : left];
+                next.maxRank[b] = previous.maxRank[useRightMax ? right : left];
+                next.sum[b] = previous.sum[left] + (right != left ? previous.sum[right] : 0);
+                next.count[b] = previous.count[left] + (right != left ? previous.count[right] : 0);
+            }
+            levels.add(next);
+            previous = next;
+        }
+
+        return new LodPyramid(data, order, sortedX, levels.toArray(new Level[0]));
+    }
+
+    @Override
+    public DataView data() {
+        return data;
+    }
+
+    public int levelCount() {
+        return levels.length;
+    }
+
+    @Override
+    public long estimatedBytes() {
+        long bytes = 0;
+        if (order != null) bytes += (long) order.length * Integer.BYTES + (long) sortedX.length * Double.BYTES;
+        for (Level level : levels) {
+            bytes += (long) level.buckets() * (3 * Double.BYTES + 3 * Integer.BYTES);
+        }
+        return bytes;
+    }
+
+    /** Upper bound on the rows {@link #query} returns for this width. */
+    public int maxPoints(int pixelWidth) {
+        return 2 * Math.max(1, pixelWidth) + 4;
+    }
+
+    @Override
+    public int[] query(double lower, double upper, int pixelWidth) {
+        int[] out = new int[maxPoints(pixelWidth)];
+        int count = query(lower, upper, pixelWidth, out);
+        return count == out.length ? out : Arrays.copyOf(out, count);
+    }
+
+    public int query(double lower, double upper, int pixelWidth, int[] out) {
+        int n = data.size();
+        int lo = Math.max(0, lowerBound(lower) - 1);
+        int hi = Math.min(n, upperBound(upper) + 1);
+        int span = hi - lo;
+        if (span <= 0) return 0;
+
+        int width = Math.max(1, pixelWidth);
+        int count = 0;
+        if (span <= 2 * width) {
+            for (int rank = lo; rank < hi; rank++) {
+                out[count++] = row(rank);
+            }
+            return count;
+        }
+
+        Level level = levels[levels.length - 1];
+        for (Level candidate : levels) {
+            if ((long) candidate.bucketRows * width >= span) {
+                level = candidate;
+                break;
+            }
+        }
+
+        int first = lo / level.bucketRows;
+        int last = (hi - 1) / level.bucketRows;
+        for (int b = first; b <= last; b++) {
+            if (level.count[b] == 0) continue;
+            int a = Math.min(level.minRank[b], level.maxRank[b]);
+            int c = Math.max(level.minRank[b], level.maxRank[b]);
+            out[count++] = row(a);
+            if (c != a) out[count++] = row(c);
+        }
+        return count;
+    }
+
+    /** Mean of y over the bucket containing {@code rank} at {@code level}. */
+    public double mean(int level, int rank) {
+        Level l = levels[level];
+        int b = rank / l.bucketRows;
+        return l.count[b] == 0 ? Double.NaN : l.sum[b] / l.count[b];
+    }
+
+    private int row(int rank) {
+        return order == null ? rank : order[rank];
+    }
+
+    private double xAt(int rank) {
+        return sortedX == null ? data.x(rank) : sortedX[rank];
+    }
+
+    // First rank with x >= value
+    private int lowerBound(double value) {
+        int lo = 0;
+        int hi = data.size();
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (xAt(mid) < value) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    // First rank with x > value
+    private int upperBound(double value) {
+        int lo = 0;
+        int hi = data.size();
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (xAt(mid) <= value) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+}
@@ -0,0 +1,76 @@
+package dataviz.sampling;
+
+import dataviz.data.DataView;
+
+/**
+ * Largest-Triangle-Three-Buckets: splits the rows into equal-count buckets
+ * and keeps, per bucket, the row forming the largest triangle with the
+ * previously kept row and the next bucket's centroid. Best suited to
+ * x-sorted data; keeps two rows per pixel column.
+ */
+public final class LttbDownsampler implements Downsampler {
+
+    @Override
+    public int maxPoints(int pixelWidth) {
+        return Math.max(3, 2 * pixelWidth);
+    }
+
+    @Override
+    public int downsample(DataView data, int from, int to, int pixelWidth, int[] out) {
+        int n = to - from;
+        int threshold = maxPoints(pixelWidth);
+        if (n <= threshold) {
+            for (int i = 0; i < n; i++) out[i] = from + i;
+            return n;
+        }
+
+        double bucketSize = (double) (n - 2) / (threshold - 2);
+        int count = 0;
+        int selected = from;
+        out[count++] = selected;
+
+        for (int bucket = 0; bucket < threshold - 2; bucket++) {
+            int rangeStart = from + (int) (bucket * bucketSize) + 1;
+            int rangeEnd = from + (int) ((bucket + 1) * bucketSize) + 1;
+
+            // Centroid of the next bucket (the last row for the final bucket)
+            int nextStart = rangeEnd;
+            int nextEnd = Math.min(from + (int) ((bucket + 2) * bucketSize) + 1, to);
+            double avgX = 0;
+            double avgY = 0;
+            int avgCount = 0;
+            for (int i = nextStart; i < nextEnd; i++) {
+                double y = data.y(i);
+                if (Double.isNaN(y)) continue;
+                avgX += data.x(i);
+                avgY += y;
+                avgCount++;
+            }
+            if (avgCount > 0) {
+                avgX /= avgCount;
+                avgY /= avgCount;
+            } else {
+                avgX = data.x(to - 1);
+                avgY = data.y(to - 1);
+            }
+
+            double ax = data.x(selected);
+            double ay = data.y(selected);
+            double maxArea = -1;
+            int maxIndex = rangeStart;
+            for (int i = rangeStart; i < rangeEnd; i++) {
+                double area = Math.abs((ax - avgX) * (data.y(i) - ay) - (ax - data.x(i)) * (avgY - ay));
+                if (area > maxArea) {
+                    maxArea = area;
+                    maxIndex = i;
+                }
+            }
+
+            selected = maxIndex;
+            out[count++] = selected;
+        }
+
+        out[count++] = to - 1;
+        return count;
+    }
+}
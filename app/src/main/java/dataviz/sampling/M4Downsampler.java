@@ -0,0 +1,106 @@
+package dataviz.sampling;
+
+import dataviz.data.DataView;
+import dataviz.data.Extent;
+
+import java.util.Arrays;
+
+/**
+ * M4 aggregation: for every pixel column keeps the first, last, minimum
+ * and maximum row, which reproduces the rasterised line exactly. Rows with
+ * a NaN y still count as first or last, where they mark a gap, but never as
+ * an extreme. One pass over the rows; the only allocations are arrays of
+ * pixel width.
+ */
+public final class M4Downsampler implements Downsampler {
+
+    @Override
+    public int maxPoints(int pixelWidth) {
+        return 4 * Math.max(1, pixelWidth);
+    }
+
+    @Override
+    public int downsample(DataView data, int from, int to, int pixelWidth, int[] out) {
+        int n = to - from;
+        int width = Math.max(1, pixelWidth);
+        if (n <= maxPoints(width)) {
+            for (int i = 0; i < n; i++) out[i] = from + i;
+            return n;
+        }
+
+        double minX;
+        double maxX;
+        Extent extent = data.extent();
+        if (from == 0 && to == data.size()) {
+            minX = extent.minX();
+            maxX = extent.maxX();
+        } else if (extent.isXSorted()) {
+            minX = data.x(from);
+            maxX = data.x(to - 1);
+        } else {
+            minX = extent.minX();
+            maxX = extent.maxX();
+        }
+        double scale = maxX > minX ? width / (maxX - minX) : 0;
+
+        int[] first = new int[width];
+        int[] last = new int[width];
+        int[] min = new int[width];
+        int[] max = new int[width];
+        double[] minY = new double[width];
+        double[] maxY = new double[width];
+        Arrays.fill(first, -1);
+        Arrays.fill(min, -1);
+
+        for (int i = from; i < to; i++) {
+            double x = data.x(i);
+            if (!Double.isFinite(x)) continue;
+            int column = (int) ((x - minX) * scale);
+            if (column < 0) column = 0;
+            else if (column >= width) column = width - 1;
+
+            if (first[column] < 0) first[column] = i;
+            last[column] = i;
+            double y = data.y(i);
+            if (Double.isNaN(y)) continue;
+            if (min[column] < 0) {
+                min[column] = i;
+                max[column] = i;
+                minY[column] = y;
+                maxY[column] = y;
+            } else if (y < minY[column]) {
+                min[column] = i;
+                minY[column] = y;
+            } else if (y > maxY[column]) {
+                max[column] = i;
+                maxY[column] = y;
+            }
+        }
+
+        int count = 0;
+        for (int column = 0; column < width; column++) {
+            if (first[column] < 0) continue;
+            // A column of only NaN y has no extremes; its first row stands in
+            int low = min[column] < 0 ? first[column] : min[column];
+            int high = min[column] < 0 ? first[column] : max[column];
+            count = emitSorted(out, count, first[column], low, high, last[column]);
+        }
+        return count;
+    }
+
+    // Writes the four indices in ascending order without duplicates
+    private static int emitSorted(int[] out, int count, int a, int b, int c, int d) {
+        int t;
+        if (a > b) { t = a; a = b; b = t; }
+        if (c > d) { t = c; c = d; d = t; }
+        if (a > c) { t = a; a = c; c = t; }
+        if (b > d) { t = b; b = d; d = t; }
+        if (b > c) { t = b; b = c; c = t; }
+
+        out[count++] = a;
+        if (b != a) out[count++] = b;
+        if (c != b) out[count++] = c;
+        if (d != c) out[count++] = d;
+        return count;
+    }
+}
@@ -0,0 +1,22 @@
+package dataviz.sampling;
+
+import dataviz.data.DataView;
+
+/**
+ * Index that answers a visible x range with the rows worth drawing, without
+ * visiting every row in the range, so zooming and panning cost about the
+ * same at any zoom level.
+ */
+public interface RangeIndex {
+
+    DataView data();
+
+    /**
+     * Rows to draw for x in [lower, upper] at the given pixel width, in x
+     * order. One row beyond each end is included so lines reach the edges.
+     */
+    int[] query(double lower, double upper, int pixelWidth);
+
+    /** Heap held by the index itself, not counting the data it indexes. */
+    long estimatedBytes();
+}
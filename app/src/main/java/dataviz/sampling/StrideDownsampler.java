@@ -0,0 +1,27 @@
+package dataviz.sampling;
+
+import dataviz.data.DataView;
+
+/**
+ * Keeps every n-th row. Cheapest option, but it can skip spikes entirely;
+ * kept for comparison with the min/max-preserving samplers.
+ */
+public final class StrideDownsampler implements Downsampler {
+
+    @Override
+    public int maxPoints(int pixelWidth) {
+        return Math.max(1, pixelWidth);
+    }
+
+    @Override
+    public int downsample(DataView data, int from, int to, int pixelWidth, int[] out) {
+        int n = to - from;
+        int limit = maxPoints(pixelWidth);
+        int step = Math.max(1, (n + limit - 1) / limit);
+        int count = 0;
+        for (int i = from; i < to; i += step) {
+            out[count++] = i;
+        }
+        return count;
+    }
+}
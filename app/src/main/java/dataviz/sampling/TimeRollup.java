@@ -0,0 +1,333 @@
+package dataviz.sampling;
+
+import dataviz.data.DataView;
+import dataviz.data.Extent;
+import dataviz.data.IndexSort;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Calendar rollup of a dataset whose x is epoch milliseconds: y is
+ * pre-aggregated into second, minute, hour and day buckets (UTC) with
+ * count, sum, min and max, and the rows holding each bucket's extremes.
+ * A visible range is drawn from the coarsest level that still has a bucket
+ * per pixel, as the min and max row of each bucket, or of each run of
+ * buckets when there are more buckets than pixels. A month at one-second
+ * resolution is so drawn from its 43,200 minutes or 720 hours, never from
+ * its 2.6 million rows.
+ *
+ * <p>Levels with fewer than {@code MIN_ROWS_PER_BUCKET} rows per bucket
+ * are not kept, since the rows themselves are as cheap to group. All
+ * levels are filled in one pass over the rows. As in {@link LodPyramid},
+ * unsorted data is indexed through a sort permutation, which paged data
+ * cannot afford.
+ */
+public final class TimeRollup implements RangeIndex {
+
+    public enum Unit {
+        SECOND(1_000L), MINUTE(60_000L), HOUR(3_600_000L), DAY(86_400_000L);
+
+        private final long millis;
+
+        Unit(long millis) {
+            this.millis = millis;
+        }
+
+        public long millis() {
+            return millis;
+        }
+    }
+
+    private static final int MIN_ROWS_PER_BUCKET = 4;
+    // Ranges with more rows per pixel than this are drawn from the finest level even if it is coarser than a pixel
+    private static final int MAX_GROUPED_ROWS_PER_PIXEL = 64;
+
+    private final DataView data;
+    private final int[] order;      // rank -> row, null when x is already sorted
+    private final double[] sortedX; // x by rank, null when x is already sorted
+    private final Level[] levels;   // by unit ordinal, null where not kept
+
+    private static final class Level {
+        final Unit unit;
+        int buckets;
+        long[] start;
+        int[] firstRank; // one more entry than buckets, ending with the row count
+        int[] count;
+        double[] sum;
+        double[] min;
+        double[] max;
+        int[] minRank;
+        int[] maxRank;
+
+        Level(Unit unit, int capacity) {
+            this.unit = unit;
+            this.start = new long[capacity];
+            this.firstRank = new int[capacity + 1];
+            this.count = new int[capacity];
+            this.sum = new double[capacity];
+            this.min = new double[capacity];
+            this.max = new double[capacity];
+            this.minRank = new int[capacity];
+            this.maxRank = new int[capacity];
+        }
+
+        // False once the level has more buckets than it may keep
+        boolean open(long bucketStart, int rank) {
+            if (buckets == count.length) return false;
+            int b = buckets++;
+            start[b] = bucketStart;
+            firstRank[b] = rank;
+            min[b] = Double.POSITIVE_INFINITY;
+            max[b] = Double.NEGATIVE_INFINITY;
+            minRank[b] = rank;
+            maxRank[b] = rank;
+            return true;
+        }
+
+        void add(double y, int rank) {
+            if (Double.isNaN(y)) return;
+            int b = buckets - 1;
+            count[b]++;
+            sum[b] += y;
+            if (y < min[b]) { min[b] = y; minRank[b] = rank; }
+            if (y > max[b]) { max[b] = y; maxRank[b] = rank; }
+        }
+
+        void trim(int rows) {
+            start = Arrays.copyOf(start, buckets);
+            firstRank = Arrays.copyOf(firstRank, buckets + 1);
+            firstRank[buckets] = rows;
+            count = Arrays.copyOf(count, buckets);
+            sum = Arrays.copyOf(sum, buckets);
+            min = Arrays.copyOf(min, buckets);
+            max = Arrays.copyOf(max, buckets);
+            minRank = Arrays.copyOf(minRank, buckets);
+            maxRank = Arrays.copyOf(maxRank, buckets);
+        }
+
+        // Bucket holding rank
+        int bucketOf(int rank) {
+            int lo = 0;
+            int hi = buckets - 1;
+            while (lo < hi) {
+                int mid = (lo + hi + 1) >>> 1;
+                if (firstRank[mid] <= rank) lo = mid;
+                else hi = mid - 1;
+            }
+            return lo;
+        }
+    }
+
+    private TimeRollup(DataView data, int[] order, double[] sortedX, Level[] levels) {
+        this.data = data;
+        this.order = order;
+        this.sortedX = sortedX;
+        this.levels = levels;
+    }
+
+    public static TimeRollup build(DataView data) {
+        if (!LodPyramid.canIndex(data)) {
+            throw new IllegalArgumentException("paged data with unsorted x cannot be indexed");
+        }
+        int n = data.size();
+        int[] order = null;
+        double[] sortedX = null;
+        Extent extent = data.extent();
+        if (!extent.isXSorted()) {
+            sortedX = new double[n];
+            for (int i = 0; i < n; i++) sortedX[i] = data.x(i);
+            order = IndexSort.sort(sortedX);
+        }
+
+        Unit[] units = Unit.values();
+        Level[] levels = new Level[units.length];
+        for (Unit unit : units) {
+            // Sorted x bounds the buckets by the span; the row count bounds the ones worth keeping
+            long span = Math.floorDiv((long) extent.maxX(), unit.millis)
+                    - Math.floorDiv((long) extent.minX(), unit.millis) + 1;
+            int capacity = (int) Math.min(n / MIN_ROWS_PER_BUCKET, span);
+            if (capacity > 0) levels[unit.ordinal()] = new Level(unit, capacity);
+        }
+
+        long[] keys = new long[units.length];
+        for (int rank = 0; rank < n; rank++) {
+            int row = order == null ? rank : order[rank];
+            double x = sortedX == null ? data.x(rank) : sortedX[rank];
+            double y = data.y(row);
+            boolean finite = Double.isFinite(x);
+            for (int u = 0; u < levels.length; u++) {
+                Level level = levels[u];
+                if (level == null) continue;
+                // Rows without a finite x stay in the bucket before them
+                long key = finite ? Math.floorDiv((long) x, level.unit.millis) : keys[u];
+                if (level.buckets == 0 || key != keys[u]) {
+                    if (!level.open(key * level.unit.millis, rank)) {
+                        levels[u] = null;
+                        continue;
+                    }
+                    keys[u] = key;
+                }
+                level.add(y, rank);
+            }
+        }
+        for (Level level : levels) {
+            if (level != null) level.trim(n);
+        }
+        return new TimeRollup(data, order, sortedX, levels);
+    }
+
+    @Override
+    public DataView data() {
+        return data;
+    }
+
+    /** Units with a level kept, finest first. */
+    public List<Unit> units() {
+        List<Unit> units = new ArrayList<>();
+        for (Level level : levels) {
+            if (level != null) units.add(level.unit);
+        }
+        return units;
+    }
+
+    public int bucketCount(Unit unit) {
+        return level(unit).buckets;
+    }
+
+    /** Epoch milliseconds at which the bucket starts. */
+    public long bucketStart(Unit unit, int bucket) {
+        return level(unit).start[bucket];
+    }
+
+    /** Rows in the bucket whose y is not NaN. */
+    public int count(Unit unit, int bucket) {
+        return level(unit).count[bucket];
+    }
+
+    public double min(Unit unit, int bucket) {
+        return level(unit).min[bucket];
+    }
+
+    public double max(Unit unit, int bucket) {
+        return level(unit).max[bucket];
+    }
+
+    public double mean(Unit unit, int bucket) {
+        Level level = level(unit);
+        return level.count[bucket] == 0 ? Double.NaN : level.sum[bucket] / level.count[bucket];
+    }
+
+    private Level level(Unit unit) {
+        Level level = levels[unit.ordinal()];
+        if (level == null) throw new IllegalArgumentException("No " + unit + " level is kept");
+        return level;
+    }
+
+    @Override
+    public long estimatedBytes() {
+        long bytes = 0;
+        if (order != null) bytes += (long) order.length * Integer.BYTES + (long) sortedX.length * Double.BYTES;
+        for (Level level : levels) {
+            if (level != null) bytes += (long) level.buckets * (4 * Double.BYTES + 4 * Integer.BYTES);
+        }
+        return bytes;
+    }
+
+    @Override
+    public int[] query(double lower, double upper, int pixelWidth) {
+        int n = data.size();
+        int lo = Math.max(0, lowerBound(lower) - 1);
+        int hi = Math.min(n, upperBound(upper) + 1);
+        int span = hi - lo;
+        if (span <= 0) return new int[0];
+
+        int width = Math.max(1, pixelWidth);
+        if (span <= 2 * width) {
+            int[] out = new int[span];
+            for (int i = 0; i < span; i++) out[i] = row(lo + i);
+            return out;
+        }
+
+        Level level = levelFor(lo, hi, width);
+        int first = level != null ? level.bucketOf(lo) : lo;
+        int last = level != null ? level.bucketOf(hi - 1) : hi - 1;
+        int units = last - first + 1;
+        int group = (units + width - 1) / width;
+        int[] out = new int[2 * ((units + group - 1) / group)];
+        int count = 0;
+        for (int from = first; from <= last; from += group) {
+            int to = Math.min(last + 1, from + group);
+            double min = Double.POSITIVE_INFINITY;
+            double max = Double.NEGATIVE_INFINITY;
+            int minRank = -1;
+            int maxRank = -1;
+            if (level != null) {
+                for (int b = from; b < to; b++) {
+                    if (level.count[b] == 0) continue;
+                    if (level.min[b] < min) { min = level.min[b]; minRank = level.minRank[b]; }
+                    if (level.max[b] > max) { max = level.max[b]; maxRank = level.maxRank[b]; }
+                }
+            } else {
+                for (int rank = from; rank < to; rank++) {
+                    double y = data.y(row(rank));
+                    if (y < min) { min = y; minRank = rank; }
+                    if (y > max) { max = y; maxRank = rank; }
+                }
+            }
+            if (minRank < 0) continue;
+            int a = Math.min(minRank, maxRank);
+            int c = Math.max(minRank, maxRank);
+            out[count++] = row(a);
+            if (c != a) out[count++] = row(c);
+        }
+        return count == out.length ? out : Arrays.copyOf(out, count);
+    }
+
+    // The coarsest level with a bucket per pixel over [lo, hi); null to group the rows themselves
+    private Level levelFor(int lo, int hi, int width) {
+        Level chosen = null;
+        Level finest = null;
+        for (Level level : levels) {
+            if (level == null) continue;
+            if (finest == null) finest = level;
+            if (level.bucketOf(hi - 1) - level.bucketOf(lo) + 1 < width) break;
+            chosen = level;
+        }
+        if (chosen == null && (long) (hi - lo) > (long) MAX_GROUPED_ROWS_PER_PIXEL * width) return finest;
+        return chosen;
+    }
+
+    private int row(int rank) {
+        return order == null ? rank : order[rank];
+    }
+
+    private double xAt(int rank) {
+        return sortedX == null ? data.x(rank) : sortedX[rank];
+    }
+
+    // First rank with x >= value
+    private int lowerBound(double value) {
+        int lo = 0;
+        int hi = data.size();
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (xAt(mid) < value) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    // First rank with x > value
+    private int upperBound(double value) {
+        int lo = 0;
+        int hi = data.size();
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (xAt(mid) <= value) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+}
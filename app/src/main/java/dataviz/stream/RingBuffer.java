@@ -0,0 +1,191 @@
+package dataviz.stream;
+
+import dataviz.data.CategoryDictionary;
+import dataviz.data.RowSink;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounded primitive buffer for live data. The newest rows win: once
+ * {@code capacity} rows are live the oldest one is dropped for each new
+ * row, and with a window set, rows whose x is more than {@code window}
+ * behind the newest x are dropped as well.
+ *
+ * <p>Rows are appended into fixed-size chunks that are never written again
+ * once full, and a chunk is let go once all its rows are dropped, so at
+ * most {@code capacity} rows and a chunk of slack are held. A
+ * {@link #snapshot()} is a {@link StreamWindow} over the live rows that
+ * keeps its own references to their chunks: taking one copies no rows, and
+ * it stays valid however far the buffer moves on.
+ *
+ * <p>Rows added since the last snapshot count as pending. Once
+ * {@code maxPendingRows} are pending, {@link #add} blocks until the renderer
+ * takes a snapshot, which is how a slow UI pushes back on the producer.
+ */
+public final class RingBuffer implements RowSink {
+
+    static final int CHUNK_SHIFT = 12;
+    static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+    static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    private final int capacity;
+    // Chunk n of the row sequence is held at slot n % slots, until all its rows are dropped
+    private final double[][] xChunks;
+    private final double[][] yChunks;
+    private final int[][] categoryChunks;
+    private final CategoryDictionary dictionary;
+    private final double window;
+    private final int maxPendingRows;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition drained = lock.newCondition();
+    private long written;
+    private int size;
+    private int pending;
+    private long blockedNanos;
+    private boolean closed;
+    private volatile boolean xTime;
+
+    /**
+     * @param window x-distance kept behind the newest row, or 0 to keep
+     *               whatever fits in the capacity
+     */
+    public RingBuffer(int capacity, double window, int maxPendingRows) {
+        if (capacity < 1) throw new IllegalArgumentException("capacity must be positive");
+        this.capacity = capacity;
+        // Enough for every chunk live rows can span, plus the one being filled
+        int slots = (capacity + CHUNK_MASK) / CHUNK_SIZE + 1;
+        this.xChunks = new double[slots][];
+        this.yChunks = new double[slots][];
+        this.categoryChunks = new int[slots][];
+        this.dictionary = new CategoryDictionary();
+        this.window = window;
+        this.maxPendingRows = maxPendingRows;
+    }
+
+    @Override
+    public void add(double x, double y, int categoryId) {
+        lock.lock();
+        try {
+            if (pending >= maxPendingRows && !closed) {
+                long start = System.nanoTime();
+                while (pending >= maxPendingRows && !closed) {
+                    try {
+                        drained.await(100, TimeUnit.MILLISECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                }
+                blockedNanos += System.nanoTime() - start;
+            }
+
+            int offset = (int) (written & CHUNK_MASK);
+            int slot = slot(written);
+            if (offset == 0) {
+                // A fresh chunk: snapshots may still read the one this slot held before
+                xChunks[slot] = new double[CHUNK_SIZE];
+                yChunks[slot] = new double[CHUNK_SIZE];
+                categoryChunks[slot] = new int[CHUNK_SIZE];
+            }
+            xChunks[slot][offset] = x;
+            yChunks[slot][offset] = y;
+            categoryChunks[slot][offset] = categoryId;
+            written++;
+            if (size < capacity) size++;
+            pending++;
+
+            if (window > 0) {
+                while (size > 1 && x(written - size) < x - window) {
+                    size--;
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public CategoryDictionary dictionary() {
+        return dictionary;
+    }
+
+    // The oldest rows make room for new ones
+    @Override
+    public long remainingRows() {
+        return Long.MAX_VALUE;
+    }
+
+    @Override
+    public void setXTime(boolean time) {
+        xTime = time;
+    }
+
+    /**
+     * The live rows, oldest first, as a window that later rows leave
+     * untouched. Releases a blocked producer.
+     */
+    public StreamWindow snapshot() {
+        lock.lock();
+        try {
+            long first = written - size;
+            long firstChunk = first >>> CHUNK_SHIFT;
+            int chunks = size == 0 ? 0 : (int) (((written - 1) >>> CHUNK_SHIFT) - firstChunk + 1);
+            double[][] xs = new double[chunks][];
+            double[][] ys = new double[chunks][];
+            int[][] categories = new int[chunks][];
+            for (int c = 0; c < chunks; c++) {
+                int slot = slot((firstChunk + c) << CHUNK_SHIFT);
+                xs[c] = xChunks[slot];
+                ys[c] = yChunks[slot];
+                categories[c] = categoryChunks[slot];
+            }
+            pending = 0;
+            drained.signalAll();
+            return new StreamWindow(this, first, (int) (first & CHUNK_MASK), size, xs, ys, categories,
+                    dictionary, xTime);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Total rows ever added; changes whenever there is something new to draw. */
+    public long written() {
+        lock.lock();
+        try {
+            return written;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long blockedNanos() {
+        lock.lock();
+        try {
+            return blockedNanos;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Stops blocking producers for good. */
+    public void close() {
+        lock.lock();
+        try {
+            closed = true;
+            drained.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private int slot(long row) {
+        return (int) ((row >>> CHUNK_SHIFT) % xChunks.length);
+    }
+
+    private double x(long row) {
+        return xChunks[slot(row)][(int) (row & CHUNK_MASK)];
+    }
+}
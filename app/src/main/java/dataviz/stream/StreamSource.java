@@ -0,0 +1,85 @@
+package dataviz.stream;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Where live rows come from. Written as
+ * {@code tcp://host:port} for a local socket,
+ * {@code pipe:/path} for a named pipe, or
+ * {@code tail:/path} (or a bare path) for a file that keeps growing.
+ */
+public final class StreamSource {
+
+    public enum Kind { SOCKET, PIPE, TAIL }
+
+    private final Kind kind;
+    private final String host;
+    private final int port;
+    private final Path path;
+
+    private StreamSource(Kind kind, String host, int port, Path path) {
+        this.kind = kind;
+        this.host = host;
+        this.port = port;
+        this.path = path;
+    }
+
+    public static StreamSource parse(String spec) {
+        String value = spec.trim();
+        if (value.startsWith("tcp://")) {
+            String address = value.substring("tcp://".length());
+            int colon = address.lastIndexOf(':');
+            if (colon <= 0) {
+                throw new IllegalArgumentException("Expected tcp://host:port: " + spec);
+            }
+            return new StreamSource(Kind.SOCKET, address.substring(0, colon),
+                    Integer.parseInt(address.substring(colon + 1)), null);
+        }
+        if (value.startsWith("pipe:")) {
+            return new StreamSource(Kind.PIPE, null, -1, Paths.get(value.substring("pipe:".length())));
+        }
+        if (value.startsWith("tail:")) {
+            value = value.substring("tail:".length());
+        }
+        if (value.isEmpty()) {
+            throw new IllegalArgumentException("No stream source given");
+        }
+        return new StreamSource(Kind.TAIL, null, -1, Paths.get(value));
+    }
+
+    public static StreamSource socket(String host, int port) {
+        return new StreamSource(Kind.SOCKET, host, port, null);
+    }
+
+    public Kind kind() {
+        return kind;
+    }
+
+    /** A tailed file is never finished: end of file only means "no data yet". */
+    public boolean follows() {
+        return kind == Kind.TAIL;
+    }
+
+    public ReadableByteChannel open() throws IOException {
+        switch (kind) {
+            case SOCKET:
+                return SocketChannel.open(new InetSocketAddress(host, port));
+            case PIPE:
+            case TAIL:
+            default:
+                return FileChannel.open(path, StandardOpenOption.READ);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return kind == Kind.SOCKET ? "tcp://" + host + ":" + port : kind.name().toLowerCase() + ":" + path;
+    }
+}
@@ -0,0 +1,110 @@
+package dataviz.stream;
+
+import dataviz.data.CategoryDictionary;
+import dataviz.data.DataVersion;
+import dataviz.data.Extent;
+import dataviz.data.WindowView;
+
+/**
+ * The rows a {@link RingBuffer} held when the snapshot was taken. It reads
+ * the buffer's chunks in place: rows are never rewritten once added, and
+ * the window keeps its chunks reachable after the buffer drops them, so
+ * its contents cannot change.
+ */
+public final class StreamWindow implements WindowView {
+
+    private final RingBuffer buffer;
+    private final long firstRow;
+    private final int offset; // of row 0 in the first chunk
+    private final int size;
+    private final double[][] xs;
+    private final double[][] ys;
+    private final int[][] categories;
+    private final CategoryDictionary dictionary;
+    private final boolean xTime;
+    private final long version = DataVersion.next();
+    private volatile Extent extent;
+
+    StreamWindow(RingBuffer buffer, long firstRow, int offset, int size,
+                 double[][] xs, double[][] ys, int[][] categories,
+                 CategoryDictionary dictionary, boolean xTime) {
+        this.buffer = buffer;
+        this.firstRow = firstRow;
+        this.offset = offset;
+        this.size = size;
+        this.xs = xs;
+        this.ys = ys;
+        this.categories = categories;
+        this.dictionary = dictionary;
+        this.xTime = xTime;
+    }
+
+    @Override
+    public Object sequence() {
+        return buffer;
+    }
+
+    @Override
+    public long firstRow() {
+        return firstRow;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public double x(int row) {
+        int i = offset + row;
+        return xs[i >>> RingBuffer.CHUNK_SHIFT][i & RingBuffer.CHUNK_MASK];
+    }
+
+    @Override
+    public double y(int row) {
+        int i = offset + row;
+        return ys[i >>> RingBuffer.CHUNK_SHIFT][i & RingBuffer.CHUNK_MASK];
+    }
+
+    @Override
+    public int categoryId(int row) {
+        int i = offset + row;
+        return categories[i >>> RingBuffer.CHUNK_SHIFT][i & RingBuffer.CHUNK_MASK];
+    }
+
+    @Override
+    public String categoryName(int categoryId) {
+        return dictionary.name(categoryId);
+    }
+
+    @Override
+    public int categoryCount() {
+        return dictionary.size();
+    }
+
+    @Override
+    public boolean isXTime() {
+        return xTime;
+    }
+
+    @Override
+    public long version() {
+        return version;
+    }
+
+    @Override
+    public Extent extent() {
+        Extent result = extent;
+        if (result == null) {
+            result = Extent.of(this);
+            extent = result;
+        }
+        return result;
+    }
+
+    // The chunks this window reaches, shared with the buffer and other windows
+    @Override
+    public long estimatedBytes() {
+        return (long) xs.length * RingBuffer.CHUNK_SIZE * (2 * Double.BYTES + Integer.BYTES);
+    }
+}
@@ -0,0 +1,53 @@
+package dataviz.stream;
+
+import dataviz.io.CsvOptions;
+
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Drives a {@link StreamingSession} from a {@link SyntheticStreamProducer}
+ * without a UI. A render delay per frame stands in for the chart, so
+ * frame coalescing and backpressure can be watched:
+ * {@code StreamingHarness [rowsPerSecond] [fps] [renderMillis] [seconds]}.
+ */
+public final class StreamingHarness {
+
+    private StreamingHarness() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int rate = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        int fps = args.length > 1 ? Integer.parseInt(args[1]) : 30;
+        long renderMillis = args.length > 2 ? Long.parseLong(args[2]) : 20;
+        int seconds = args.length > 3 ? Integer.parseInt(args[3]) : 5;
+
+        ScheduledExecutorService renderer = Executors.newSingleThreadScheduledExecutor();
+        long[] lastFrameRows = new long[1];
+
+        try (SyntheticStreamProducer producer = new SyntheticStreamProducer(0, rate, 5);
+             StreamingSession session = new StreamingSession(
+                     StreamSource.socket("localhost", producer.port()),
+                     new CsvOptions().header(false), 100_000, 10.0, fps,
+                     new StreamingSession.FrameListener() {
+                         @Override
+                         public void onFrame(StreamWindow window, StreamingSession s) {
+                             lastFrameRows[0] = window.size();
+                             renderer.schedule(s::frameRendered, renderMillis, TimeUnit.MILLISECONDS);
+                         }
+                     })) {
+            session.start();
+            for (int second = 1; second <= seconds; second++) {
+                Thread.sleep(1000);
+                System.out.printf("t=%ds produced=%,d ingested=%,d skipped=%d frames=%d coalesced=%d "
+                                + "backpressure=%dms rows/frame=%,d%n",
+                        second, producer.rowsWritten(), session.rowsIngested(), session.rowsSkipped(),
+                        session.framesDelivered(), session.framesCoalesced(),
+                        session.backpressureMillis(), lastFrameRows[0]);
+            }
+        } finally {
+            renderer.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package dataviz.stream;
+
+import dataviz.io.CsvOptions;
+import dataviz.io.CsvStreamReader;
+
+import java.io.IOException;
+import java.nio.channels.ClosedByInterruptException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Live ingestion: one thread reads the source into a {@link RingBuffer},
+ * a ticker hands windows of it to the listener at a fixed frame rate. At most
+ * one frame is in flight: until the listener calls {@link #frameRendered()}
+ * ticks are coalesced away, and if rendering stays behind the ring buffer
+ * blocks the reader.
+ */
+public final class StreamingSession implements AutoCloseable {
+
+    private static final long TAIL_POLL_MILLIS = 50;
+
+    public interface FrameListener {
+        /**
+         * Called on the ticker thread; hand the window to the UI and call
+         * frameRendered() once drawn, or once drawing it failed: no later
+         * frame is delivered until then.
+         */
+        void onFrame(StreamWindow window, StreamingSession session);
+
+        default void onStopped(StreamingSession session, Exception error) {
+        }
+    }
+
+    private final StreamSource source;
+    private final CsvOptions options;
+    private final RingBuffer buffer;
+    private final int framesPerSecond;
+    private final FrameListener listener;
+
+    private final AtomicBoolean frameInFlight = new AtomicBoolean();
+    private final AtomicLong framesDelivered = new AtomicLong();
+    private final AtomicLong framesCoalesced = new AtomicLong();
+    private volatile boolean running;
+    private volatile CsvStreamReader reader;
+    private Thread readerThread;
+    private ScheduledExecutorService ticker;
+    private ReadableByteChannel channel;
+    private long lastFrameVersion = -1;
+
+    public StreamingSession(StreamSource source, CsvOptions options, int capacity, double window,
+                            int framesPerSecond, FrameListener listener) {
+        this.source = source;
+        this.options = options;
+        this.buffer = new RingBuffer(capacity, window, capacity);
+        this.framesPerSecond = Math.max(1, framesPerSecond);
+        this.listener = listener;
+    }
+
+    public synchronized void start() throws IOException {
+        if (running) return;
+        channel = source.open();
+        running = true;
+
+        readerThread = new Thread(this::readLoop, "stream-reader");
+        readerThread.setDaemon(true);
+        readerThread.start();
+
+        ticker = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "stream-frames");
+            t.setDaemon(true);
+            return t;
+        });
+        long period = 1_000_000L / framesPerSecond;
+        ticker.scheduleAtFixedRate(this::tick, period, period, TimeUnit.MICROSECONDS);
+    }
+
+    public void frameRendered() {
+        frameInFlight.set(false);
+    }
+
+    private void tick() {
+        long version = buffer.written();
+        if (version == lastFrameVersion) return;
+        if (!frameInFlight.compareAndSet(false, true)) {
+            framesCoalesced.incrementAndGet();
+            return;
+        }
+        lastFrameVersion = version;
+        framesDelivered.incrementAndGet();
+        try {
+            listener.onFrame(buffer.snapshot(), this);
+        } catch (RuntimeException e) {
+            // Drop this frame but keep ticking; an exception would cancel the schedule
+            frameInFlight.set(false);
+        }
+    }
+
+    private void readLoop() {
+        Exception error = null;
+        CsvStreamReader csv = new CsvStreamReader(options, buffer);
+        reader = csv;
+        try {
+            while (running) {
+                if (csv.readFrom(channel) < 0) {
+                    if (!source.follows()) break;
+                    rewindIfTruncated();
+                    Thread.sleep(TAIL_POLL_MILLIS);
+                }
+            }
+            csv.finish();
+        } catch (ClosedByInterruptException | InterruptedException e) {
+            // stopped
+        } catch (IOException e) {
+            if (running) error = e;
+        } finally {
+            running = false;
+            listener.onStopped(this, error);
+        }
+    }
+
+    // A tailed log that was truncated or rotated in place starts over
+    private void rewindIfTruncated() throws IOException {
+        if (channel instanceof FileChannel) {
+            FileChannel file = (FileChannel) channel;
+            if (file.size() < file.position()) {
+                file.position(0);
+            }
+        }
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    public long rowsIngested() {
+        CsvStreamReader csv = reader;
+        return csv == null ? 0 : csv.rows();
+    }
+
+    public long rowsSkipped() {
+        CsvStreamReader csv = reader;
+        return csv == null ? 0 : csv.skippedRows();
+    }
+
+    public long framesDelivered() {
+        return framesDelivered.get();
+    }
+
+    public long framesCoalesced() {
+        return framesCoalesced.get();
+    }
+
+    /** Time the reader spent blocked because rendering fell behind. */
+    public long backpressureMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(buffer.blockedNanos());
+    }
+
+    @Override
+    public synchronized void close() {
+        running = false;
+        buffer.close();
+        if (ticker != null) ticker.shutdownNow();
+        if (readerThread != null) readerThread.interrupt();
+        try {
+            if (channel != null) channel.close();
+        } catch (IOException e) {
+            // nothing left to release
+        }
+    }
+}
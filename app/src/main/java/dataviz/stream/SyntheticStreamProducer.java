@@ -0,0 +1,88 @@
+package dataviz.stream;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.SplittableRandom;
+
+/**
+ * Local CSV feed for exercising streaming mode: listens on a loopback port
+ * and writes {@code t,y,Category n} rows at a fixed rate to whoever
+ * connects, with t in seconds since the feed started.
+ */
+public final class SyntheticStreamProducer implements AutoCloseable {
+
+    private final ServerSocket server;
+    private final int rowsPerSecond;
+    private final int categories;
+    private final Thread thread;
+    private volatile boolean running = true;
+    private volatile long rowsWritten;
+
+    public SyntheticStreamProducer(int port, int rowsPerSecond, int categories) throws IOException {
+        this.server = new ServerSocket(port, 1, InetAddress.getLoopbackAddress());
+        this.rowsPerSecond = rowsPerSecond;
+        this.categories = Math.max(1, categories);
+        this.thread = new Thread(this::serve, "synthetic-producer");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    public int port() {
+        return server.getLocalPort();
+    }
+
+    public long rowsWritten() {
+        return rowsWritten;
+    }
+
+    private void serve() {
+        try (Socket client = server.accept(); OutputStream out = client.getOutputStream()) {
+            SplittableRandom random = new SplittableRandom(42);
+            StringBuilder batch = new StringBuilder();
+            long start = System.nanoTime();
+            long written = 0;
+            double level = 0;
+
+            while (running) {
+                // Catch up to where the rate says we should be, then sleep a tick
+                long due = (System.nanoTime() - start) * rowsPerSecond / 1_000_000_000L;
+                batch.setLength(0);
+                for (; written < due; written++) {
+                    double t = (double) written / rowsPerSecond;
+                    level += random.nextGaussian();
+                    double y = level + (random.nextInt(10_000) == 0 ? 500 : 0); // rare spikes
+                    batch.append(t).append(',').append(y)
+                            .append(",Category ").append(written % categories + 1).append('\n');
+                }
+                if (batch.length() > 0) {
+                    out.write(batch.toString().getBytes(StandardCharsets.US_ASCII));
+                    rowsWritten = written;
+                }
+                Thread.sleep(5);
+            }
+        } catch (IOException | InterruptedException e) {
+            // consumer went away or we were closed
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        running = false;
+        thread.interrupt();
+        server.close();
+    }
+
+    /** Runs a standalone feed: {@code SyntheticStreamProducer [port] [rowsPerSecond]}. */
+    public static void main(String[] args) throws Exception {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 9000;
+        int rate = args.length > 1 ? Integer.parseInt(args[1]) : 10_000;
+        try (SyntheticStreamProducer producer = new SyntheticStreamProducer(port, rate, 5)) {
+            System.out.println("Streaming " + rate + " rows/s on tcp://localhost:" + producer.port());
+            producer.thread.join();
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package dataviz.task;
+
+import dataviz.io.ProgressListener;
+
+import java.util.concurrent.Future;
+
+/**
+ * One piece of background work submitted to a {@link TaskScheduler}. The
+ * job is also the progress listener handed to the work, which is how the
+ * work learns it has been cancelled; progress from a cancelled job is not
+ * forwarded, so it cannot overwrite the progress of the job replacing it.
+ */
+public final class Job implements ProgressListener {
+
+    private final Object resource;
+    private final ProgressListener progress;
+    private volatile boolean cancelled;
+    private volatile Future<?> future;
+
+    Job(Object resource, ProgressListener progress) {
+        this.resource = resource;
+        this.progress = progress;
+    }
+
+    public Object resource() {
+        return resource;
+    }
+
+    @Override
+    public void progress(long bytesDone, long totalBytes) {
+        if (!cancelled) progress.progress(bytesDone, totalBytes);
+    }
+
+    @Override
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /** Asks the work to stop; its result, if it still produces one, is dropped. */
+    public void cancel() {
+        cancelled = true;
+        Future<?> f = future;
+        if (f != null) f.cancel(true);
+    }
+
+    void started(Future<?> future) {
+        this.future = future;
+        // Cancelled between submit and here
+        if (cancelled) future.cancel(true);
+    }
+}
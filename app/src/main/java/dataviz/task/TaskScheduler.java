@@ -0,0 +1,102 @@
+package dataviz.task;
+
+import dataviz.io.ProgressListener;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+
+/**
+ * Runs background work keyed by the resource it produces. Submitting work
+ * for a resource cancels whatever is still running for it, and only the
+ * newest job's result is delivered: cancellation is cooperative, through
+ * {@link ProgressListener#checkCancelled}, and results of cancelled jobs
+ * are discarded on the callback executor before they reach the caller.
+ *
+ * <p>I/O-bound work runs on virtual threads; CPU-bound work, including the
+ * parsing and generation the I/O jobs fan out to, shares one bounded
+ * fork-join pool available through {@link #cpu()}.
+ */
+public final class TaskScheduler {
+
+    public enum Kind { IO, CPU }
+
+    @FunctionalInterface
+    public interface Work<T> {
+        T run(ProgressListener progress) throws Exception;
+    }
+
+    private final ForkJoinPool cpu;
+    private final ExecutorService io = Executors.newVirtualThreadPerTaskExecutor();
+    private final Executor callbacks;
+    private final Map<Object, Job> active = new ConcurrentHashMap<>();
+
+    /** {@code callbacks} runs the success and failure handlers, e.g. {@code Platform::runLater}. */
+    public TaskScheduler(int cpuThreads, Executor callbacks) {
+        this.cpu = new ForkJoinPool(cpuThreads);
+        this.callbacks = callbacks;
+    }
+
+    public ForkJoinPool cpu() {
+        return cpu;
+    }
+
+    public ExecutorService io() {
+        return io;
+    }
+
+    public <T> Job submit(Object resource, Kind kind, ProgressListener progress, Work<T> work,
+                          Consumer<? super T> onSuccess, Consumer<? super Throwable> onFailure) {
+        Job job = new Job(resource, progress);
+        Job previous = active.put(resource, job);
+        if (previous != null) previous.cancel();
+
+        ExecutorService executor = kind == Kind.IO ? io : cpu;
+        job.started(executor.submit(() -> {
+            T result = null;
+            Throwable error = null;
+            try {
+                job.checkCancelled();
+                result = work.run(job);
+            } catch (Throwable e) {
+                error = e;
+            }
+            T value = result;
+            Throwable failure = error;
+            callbacks.execute(() -> {
+                active.remove(resource, job);
+                // Checked here so a cancel issued on the callback thread always wins
+                if (job.isCancelled()) return;
+                if (failure != null) {
+                    onFailure.accept(failure);
+                } else {
+                    onSuccess.accept(value);
+                }
+            });
+        }));
+        return job;
+    }
+
+    /** Cancels the running job for {@code resource}; returns false if there was none. */
+    public boolean cancel(Object resource) {
+        Job job = active.remove(resource);
+        if (job == null) return false;
+        job.cancel();
+        return true;
+    }
+
+    public boolean isActive(Object resource) {
+        return active.containsKey(resource);
+    }
+
+    public void shutdown() {
+        active.values().forEach(Job::cancel);
+        active.clear();
+        io.shutdownNow();
+        cpu.shutdownNow();
+    }
+}
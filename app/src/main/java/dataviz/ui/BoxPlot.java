@@ -0,0 +1,125 @@
+package dataviz.ui;
+
+import dataviz.analysis.Summary;
+import javafx.scene.layout.Region;
+import javafx.scene.shape.Circle;
+import javafx.scene.shape.Line;
+import javafx.scene.shape.Rectangle;
+import javafx.scene.text.Text;
+
+/**
+ * Horizontal box plot of a {@link Summary}: the box spans the quartiles with
+ * a line at the median, whiskers reach the furthest extreme within 1.5 IQR
+ * of the box, and extremes beyond that are drawn as points. The mean is a
+ * small circle. Quartiles come from the summary's sketch, so the box is as
+ * exact as its quantiles.
+ *
+ * <p>Shapes carry the style classes {@code box-plot-box},
+ * {@code box-plot-median}, {@code box-plot-whisker}, {@code box-plot-mean},
+ * {@code box-plot-extreme} and {@code box-plot-label}.
+ */
+public final class BoxPlot extends Region {
+
+    private static final double PADDING = 24;
+    private static final double BOX_HEIGHT = 36;
+
+    private final Rectangle box = new Rectangle();
+    private final Line median = new Line();
+    private final Line lowWhisker = new Line();
+    private final Line highWhisker = new Line();
+    private final Line lowCap = new Line();
+    private final Line highCap = new Line();
+    private final Circle mean = new Circle(4);
+    private final Circle lowExtreme = new Circle(3);
+    private final Circle highExtreme = new Circle(3);
+    private final Text[] labels = new Text[5]; // low whisker, q1, median, q3, high whisker
+    private Summary summary = Summary.EMPTY;
+
+    public BoxPlot() {
+        getStyleClass().add("box-plot");
+        box.getStyleClass().add("box-plot-box");
+        median.getStyleClass().add("box-plot-median");
+        for (Line line : new Line[] {lowWhisker, highWhisker, lowCap, highCap}) {
+            line.getStyleClass().add("box-plot-whisker");
+        }
+        mean.getStyleClass().add("box-plot-mean");
+        lowExtreme.getStyleClass().add("box-plot-extreme");
+        highExtreme.getStyleClass().add("box-plot-extreme");
+        getChildren().addAll(lowWhisker, highWhisker, lowCap, highCap, box, median, mean, lowExtreme, highExtreme);
+        for (int i = 0; i < labels.length; i++) {
+            labels[i] = new Text();
+            labels[i].getStyleClass().add("box-plot-label");
+            getChildren().add(labels[i]);
+        }
+        setMinHeight(BOX_HEIGHT + 3 * PADDING);
+        setPrefHeight(BOX_HEIGHT + 3 * PADDING);
+    }
+
+    public void setSummary(Summary summary) {
+        this.summary = summary;
+        requestLayout();
+    }
+
+    @Override
+    protected void layoutChildren() {
+        boolean visible = summary.count() > 0;
+        getChildren().forEach(child -> child.setVisible(visible));
+        if (!visible) return;
+
+        double q1 = summary.quantile(0.25);
+        double q3 = summary.quantile(0.75);
+        double iqr = q3 - q1;
+        double low = Math.max(summary.min(), q1 - 1.5 * iqr);
+        double high = Math.min(summary.max(), q3 + 1.5 * iqr);
+
+        double left = PADDING;
+        double width = Math.max(1, getWidth() - 2 * PADDING);
+        double range = summary.max() - summary.min();
+        double scale = range > 0 ? width / range : 0;
+        double top = PADDING;
+        double middle = top + BOX_HEIGHT / 2;
+        double bottom = top + BOX_HEIGHT;
+
+        double xLow = left + (low - summary.min()) * scale;
+        double xQ1 = left + (q1 - summary.min()) * scale;
+        double xMedian = left + (summary.median() - summary.min()) * scale;
+        double xQ3 = left + (q3 - summary.min()) * scale;
+        double xHigh = left + (high - summary.min()) * scale;
+
+        box.setX(xQ1);
+        box.setY(top);
+        box.setWidth(Math.max(1, xQ3 - xQ1));
+        box.setHeight(BOX_HEIGHT);
+        setLine(median, xMedian, top, xMedian, bottom);
+        setLine(lowWhisker, xLow, middle, xQ1, middle);
+        setLine(highWhisker, xQ3, middle, xHigh, middle);
+        setLine(lowCap, xLow, top + BOX_HEIGHT / 4, xLow, bottom - BOX_HEIGHT / 4);
+        setLine(highCap, xHigh, top + BOX_HEIGHT / 4, xHigh, bottom - BOX_HEIGHT / 4);
+        mean.setCenterX(left + (summary.mean() - summary.min()) * scale);
+        mean.setCenterY(middle);
+        lowExtreme.setCenterX(left);
+        lowExtreme.setCenterY(middle);
+        lowExtreme.setVisible(summary.min() < low);
+        highExtreme.setCenterX(left + range * scale);
+        highExtreme.setCenterY(middle);
+        highExtreme.setVisible(summary.max() > high);
+
+        // Alternate rows, so neighbouring labels do not overlap when the box is narrow
+        double[] values = {low, q1, summary.median(), q3, high};
+        double[] xs = {xLow, xQ1, xMedian, xQ3, xHigh};
+        for (int i = 0; i < labels.length; i++) {
+            Text label = labels[i];
+            label.setText(String.format("%.4g", values[i]));
+            double textWidth = label.getLayoutBounds().getWidth();
+            label.setX(Math.max(0, Math.min(getWidth() - textWidth, xs[i] - textWidth / 2)));
+            label.setY(bottom + (i % 2 == 0 ? 16 : 32));
+        }
+    }
+
+    private static void setLine(Line line, double x1, double y1, double x2, double y2) {
+        line.setStartX(x1);
+        line.setStartY(y1);
+        line.setEndX(x2);
+        line.setEndY(y2);
+    }
+}
@@ -0,0 +1,84 @@
+package dataviz.ui;
+
+import javafx.scene.chart.ValueAxis;
+import javafx.scene.chart.XYChart;
+import javafx.scene.input.MouseButton;
+import javafx.scene.input.MouseEvent;
+import javafx.scene.input.ScrollEvent;
+
+/**
+ * Mouse-wheel zoom and drag-to-pan along the x axis of an XY chart, with a
+ * double click to return to the full range. The handler only moves the axis
+ * bounds; re-rendering the visible range is left to the listener.
+ */
+public final class ChartZoomHandler {
+
+    private static final double ZOOM_STEP = 0.8;
+
+    public interface RangeListener {
+        void rangeChanged(double lower, double upper);
+
+        void rangeReset();
+    }
+
+    private final ValueAxis<Number> axis;
+    private final RangeListener listener;
+    private double dragStartX;
+    private double dragLower;
+    private double dragUpper;
+
+    private ChartZoomHandler(XYChart<Number, Number> chart, RangeListener listener) {
+        this.axis = (ValueAxis<Number>) chart.getXAxis();
+        this.listener = listener;
+    }
+
+    public static void install(XYChart<Number, Number> chart, RangeListener listener) {
+        ChartZoomHandler handler = new ChartZoomHandler(chart, listener);
+        chart.addEventHandler(ScrollEvent.SCROLL, handler::onScroll);
+        chart.addEventHandler(MouseEvent.MOUSE_PRESSED, handler::onPressed);
+        chart.addEventHandler(MouseEvent.MOUSE_DRAGGED, handler::onDragged);
+        chart.addEventHandler(MouseEvent.MOUSE_CLICKED, handler::onClicked);
+    }
+
+    private void onScroll(ScrollEvent event) {
+        if (event.getDeltaY() == 0 || axis.getWidth() <= 0) return;
+
+        double lower = axis.getLowerBound();
+        double upper = axis.getUpperBound();
+        double anchor = axis.getValueForDisplay(axis.sceneToLocal(event.getSceneX(), event.getSceneY()).getX()).doubleValue();
+        anchor = Math.max(lower, Math.min(upper, anchor));
+
+        double factor = event.getDeltaY() > 0 ? ZOOM_STEP : 1 / ZOOM_STEP;
+        setRange(anchor - (anchor - lower) * factor, anchor + (upper - anchor) * factor);
+        event.consume();
+    }
+
+    private void onPressed(MouseEvent event) {
+        if (event.getButton() != MouseButton.PRIMARY) return;
+        dragStartX = event.getSceneX();
+        dragLower = axis.getLowerBound();
+        dragUpper = axis.getUpperBound();
+    }
+
+    private void onDragged(MouseEvent event) {
+        if (!event.isPrimaryButtonDown() || axis.getWidth() <= 0) return;
+        double shift = (event.getSceneX() - dragStartX) * (dragUpper - dragLower) / axis.getWidth();
+        setRange(dragLower - shift, dragUpper - shift);
+        event.consume();
+    }
+
+    private void onClicked(MouseEvent event) {
+        if (event.getButton() == MouseButton.PRIMARY && event.getClickCount() == 2) {
+            axis.setAutoRanging(true);
+            listener.rangeReset();
+        }
+    }
+
+    private void setRange(double lower, double upper) {
+        if (!(upper > lower)) return;
+        axis.setAutoRanging(false);
+        axis.setLowerBound(lower);
+        axis.setUpperBound(upper);
+        listener.rangeChanged(lower, upper);
+    }
+}
@@ -0,0 +1,240 @@
+package dataviz.ui;
+
+import dataviz.analysis.CategoryStats;
+import dataviz.data.DataStore;
+import dataviz.data.DataView;
+import dataviz.metrics.Metrics;
+import dataviz.query.FilterExpression;
+import dataviz.sampling.RangeIndex;
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.Scene;
+import javafx.scene.control.Button;
+import javafx.scene.control.Label;
+import javafx.scene.control.Spinner;
+import javafx.scene.layout.BorderPane;
+import javafx.scene.layout.ColumnConstraints;
+import javafx.scene.layout.GridPane;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.RowConstraints;
+import javafx.stage.Stage;
+import javafx.stage.Window;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * A window of chart panels over one dataset, for wall displays that show
+ * many views of the same data at once. Every panel has its own chart kind,
+ * filter and visible range, and can be popped out into a window of its
+ * own; all of them read the same dataset, which is never modified once
+ * handed over, and share the main window's filtered views and derived-data
+ * cache through {@link Views}, so panels that agree on a filter or a width
+ * compute it once.
+ *
+ * <p>A new dataset refreshes the panels in parallel on the CPU pool, each
+ * down to detached chart series; the FX thread then only swaps all of them
+ * into their charts, in one batch. A panel whose own settings change is
+ * refreshed alone the same way.
+ */
+public final class Dashboard {
+
+    /** What the panels share with the main window. Called from the CPU pool. */
+    public interface Views {
+        DataView filter(DataView base, FilterExpression filter);
+
+        int[] downsample(DataView data, long version, int width);
+
+        /** Null when the data cannot be indexed. */
+        RangeIndex index(DataView data, long version);
+
+        int[] query(RangeIndex index, long version, double lower, double upper, int width);
+
+        CategoryStats categories(DataView data, long version);
+    }
+
+    private static final DashboardPanel.Kind[] DEFAULT_KINDS = {
+            DashboardPanel.Kind.LINE, DashboardPanel.Kind.SCATTER, DashboardPanel.Kind.BAR, DashboardPanel.Kind.PIE
+    };
+
+    private final Views views;
+    private final Executor cpu;
+    private final FxDispatcher fx;
+    private final Metrics metrics;
+    private final Stage stage = new Stage();
+    private final GridPane grid = new GridPane();
+    private final Spinner<Integer> columnsSpinner = new Spinner<>(1, 8, 2);
+    private final Label status = new Label();
+    private final List<DashboardPanel> panels = new ArrayList<>(); // docked and popped out, in creation order
+    private final Map<DashboardPanel, Stage> detached = new HashMap<>();
+
+    private DataView data = new DataStore();
+    private long version = -1;
+    private String name = "";
+    private Runnable onClosed = () -> { };
+
+    public Dashboard(Views views, Executor cpu, FxDispatcher fx, Metrics metrics) {
+        this.views = views;
+        this.cpu = cpu;
+        this.fx = fx;
+        this.metrics = metrics;
+
+        Button addBtn = new Button("Add Panel");
+        addBtn.getStyleClass().add("secondary-button");
+        addBtn.setOnAction(e -> addPanel(DEFAULT_KINDS[panels.size() % DEFAULT_KINDS.length]));
+        columnsSpinner.valueProperty().addListener((obs, old, value) -> layoutPanels());
+        status.getStyleClass().add("info-label");
+
+        HBox toolbar = new HBox(10, addBtn, new Label("Columns:"), columnsSpinner, status);
+        toolbar.setAlignment(Pos.CENTER_LEFT);
+        toolbar.setPadding(new Insets(6, 10, 6, 10));
+        grid.setHgap(8);
+        grid.setVgap(8);
+        grid.setPadding(new Insets(8));
+
+        BorderPane root = new BorderPane(grid);
+        root.setTop(toolbar);
+        root.getStyleClass().add("root-pane");
+        stage.setScene(new Scene(root, 1400, 900));
+        stage.setOnHidden(e -> {
+            new ArrayList<>(detached.values()).forEach(Stage::close);
+            onClosed.run();
+        });
+
+        for (DashboardPanel.Kind kind : DEFAULT_KINDS) {
+            addPanel(kind);
+        }
+    }
+
+    /** Shows the window, styled like {@code owner}'s scene. */
+    public void show(Window owner) {
+        stage.getScene().getStylesheets().setAll(owner.getScene().getStylesheets());
+        updateTitle();
+        stage.show();
+    }
+
+    public void close() {
+        stage.close();
+    }
+
+    /** Runs once the window has been closed, whether by {@link #close} or by the user. */
+    public void setOnClosed(Runnable onClosed) {
+        this.onClosed = onClosed;
+    }
+
+    /**
+     * FX thread: shows {@code newData}, which must not change while it is
+     * shown; appended rows come as a new snapshot or a new version. Nothing
+     * is recomputed if it is the dataset already shown, at the same version.
+     */
+    public void setData(DataView newData, String newName) {
+        long newVersion = newData.version();
+        name = newName;
+        updateTitle();
+        if (newData == data && newVersion == version) return;
+        data = newData;
+        version = newVersion;
+        refresh();
+    }
+
+    /** FX thread: prepares every panel again, e.g. after the downsampling method changed. */
+    public void refresh() {
+        DataView snapshot = data;
+        List<CompletableFuture<DashboardPanel.Frame>> frames = new ArrayList<>(panels.size());
+        for (DashboardPanel panel : panels) {
+            frames.add(prepare(panel, snapshot));
+        }
+        // One swap for all panels once the slowest is ready, so the wall changes as a whole
+        CompletableFuture.allOf(frames.toArray(new CompletableFuture<?>[0])).whenComplete((ignored, error) ->
+                fx.post(this, () -> {
+                    metrics.time("render.dashboard", () -> frames.forEach(frame -> frame.join().apply()));
+                    status.setText(String.format("%,d rows, %d panels", snapshot.size(), panels.size()));
+                }));
+    }
+
+    private void refresh(DashboardPanel panel) {
+        DataView snapshot = data;
+        prepare(panel, snapshot).thenAccept(frame -> fx.post(panel, frame::apply));
+    }
+
+    // Never completes exceptionally: a failure becomes a frame that reports it
+    private CompletableFuture<DashboardPanel.Frame> prepare(DashboardPanel panel, DataView snapshot) {
+        DashboardPanel.Request request = panel.request();
+        return CompletableFuture.supplyAsync(
+                () -> metrics.time("dashboard.panel", () -> panel.prepare(request, snapshot, views)), cpu)
+                .exceptionally(error -> panel.failed(request, error));
+    }
+
+    private void addPanel(DashboardPanel.Kind kind) {
+        DashboardPanel panel = new DashboardPanel(kind);
+        panel.setOnChange(() -> refresh(panel));
+        panel.setOnDetach(() -> detach(panel));
+        panel.setOnClose(() -> removePanel(panel));
+        panels.add(panel);
+        layoutPanels();
+        refresh(panel);
+    }
+
+    private void removePanel(DashboardPanel panel) {
+        panels.remove(panel);
+        Stage window = detached.remove(panel);
+        if (window != null) {
+            window.setOnHidden(null);
+            window.close();
+        }
+        layoutPanels();
+    }
+
+    // Moves the panel into a window of its own; closing that window docks it again
+    private void detach(DashboardPanel panel) {
+        if (detached.containsKey(panel)) return;
+        Stage window = new Stage();
+        detached.put(panel, window);
+        layoutPanels(); // takes the panel's node out of the grid
+        panel.setDetached(true);
+        window.setScene(new Scene(new BorderPane(panel.node()), 700, 500));
+        window.getScene().getStylesheets().setAll(stage.getScene().getStylesheets());
+        window.setTitle(stage.getTitle());
+        window.setOnHidden(e -> {
+            ((BorderPane) window.getScene().getRoot()).setCenter(null);
+            detached.remove(panel);
+            panel.setDetached(false);
+            layoutPanels();
+        });
+        window.show();
+    }
+
+    private void layoutPanels() {
+        List<DashboardPanel> docked = new ArrayList<>();
+        for (DashboardPanel panel : panels) {
+            if (!detached.containsKey(panel)) docked.add(panel);
+        }
+        int columns = Math.max(1, Math.min(columnsSpinner.getValue(), docked.size()));
+        int rows = (docked.size() + columns - 1) / columns;
+
+        grid.getChildren().clear();
+        grid.getColumnConstraints().clear();
+        grid.getRowConstraints().clear();
+        for (int c = 0; c < columns; c++) {
+            ColumnConstraints column = new ColumnConstraints();
+            column.setPercentWidth(100.0 / columns);
+            grid.getColumnConstraints().add(column);
+        }
+        for (int r = 0; r < rows; r++) {
+            RowConstraints row = new RowConstraints();
+            row.setPercentHeight(100.0 / rows);
+            grid.getRowConstraints().add(row);
+        }
+        for (int i = 0; i < docked.size(); i++) {
+            grid.add(docked.get(i).node(), i % columns, i / columns);
+        }
+    }
+
+    private void updateTitle() {
+        stage.setTitle(name.isEmpty() ? "Dashboard" : "Dashboard - " + name);
+    }
+}
@@ -0,0 +1,320 @@
+package dataviz.ui;
+
+import dataviz.analysis.CategoryStats;
+import dataviz.data.DataView;
+import dataviz.query.FilterExpression;
+import dataviz.sampling.RangeIndex;
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.Node;
+import javafx.scene.chart.AreaChart;
+import javafx.scene.chart.BarChart;
+import javafx.scene.chart.CategoryAxis;
+import javafx.scene.chart.Chart;
+import javafx.scene.chart.LineChart;
+import javafx.scene.chart.NumberAxis;
+import javafx.scene.chart.PieChart;
+import javafx.scene.chart.ScatterChart;
+import javafx.scene.chart.XYChart;
+import javafx.scene.control.Button;
+import javafx.scene.control.ComboBox;
+import javafx.scene.control.Label;
+import javafx.scene.control.TextField;
+import javafx.scene.control.Tooltip;
+import javafx.scene.layout.BorderPane;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.Priority;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One view of a {@link Dashboard}: a chart with its own kind, filter and
+ * visible x range over the dashboard's dataset. {@link #request} captures
+ * that state on the FX thread; {@link #prepare} then computes everything
+ * the chart shows on a background thread, down to detached series, so that
+ * {@link Frame#apply} only has to swap them into the chart.
+ */
+final class DashboardPanel {
+
+    enum Kind {
+        LINE("Line"), AREA("Area"), SCATTER("Scatter"), BAR("Bar"), PIE("Pie");
+
+        private final String label;
+
+        Kind(String label) {
+            this.label = label;
+        }
+
+        boolean isXY() {
+            return this == LINE || this == AREA || this == SCATTER;
+        }
+
+        @Override
+        public String toString() {
+            return label;
+        }
+    }
+
+    /** The panel's state when a refresh was asked for; immutable, so prepare can run anywhere. */
+    record Request(long generation, Kind kind, FilterExpression filter, double lower, double upper, int width,
+                   Indexed indexed) {
+    }
+
+    // An index with the version of the data it was built for
+    record Indexed(RangeIndex index, long version) {
+    }
+
+    private final BorderPane root = new BorderPane();
+    private final ComboBox<Kind> kindCombo = new ComboBox<>();
+    private final TextField filterField = new TextField();
+    private final Label status = new Label();
+    private final Button detachBtn = new Button("Pop Out");
+    private final Button closeBtn = new Button("Close");
+    private Chart chart;
+
+    private Kind kind;
+    private FilterExpression filter;
+    private double lower = Double.NaN; // NaN while the whole x range is shown
+    private double upper = Double.NaN;
+    private Indexed indexed;
+    private long generation; // frames of older requests are dropped
+    private Runnable onChange = () -> { };
+
+    DashboardPanel(Kind kind) {
+        kindCombo.getItems().addAll(Kind.values());
+        kindCombo.setValue(kind);
+        filterField.setPromptText("Filter, e.g. y > 0");
+        filterField.setTooltip(new Tooltip("Same syntax as the main filter; only this panel follows it"));
+        HBox.setHgrow(filterField, Priority.ALWAYS);
+        status.getStyleClass().add("info-label");
+
+        HBox header = new HBox(6, kindCombo, filterField, detachBtn, closeBtn);
+        header.setAlignment(Pos.CENTER_LEFT);
+        header.setPadding(new Insets(4));
+        root.setTop(header);
+        root.setBottom(status);
+        root.getStyleClass().add("dashboard-panel");
+
+        kindCombo.setOnAction(e -> setKind(kindCombo.getValue()));
+        filterField.setOnAction(e -> setFilter(filterField.getText()));
+        setKind(kind);
+    }
+
+    Node node() {
+        return root;
+    }
+
+    /** Runs on the FX thread whenever the panel needs to be prepared again. */
+    void setOnChange(Runnable onChange) {
+        this.onChange = onChange;
+    }
+
+    void setOnDetach(Runnable onDetach) {
+        detachBtn.setOnAction(e -> onDetach.run());
+    }
+
+    void setOnClose(Runnable onClose) {
+        closeBtn.setOnAction(e -> onClose.run());
+    }
+
+    void setDetached(boolean detached) {
+        detachBtn.setVisible(!detached);
+        detachBtn.setManaged(!detached);
+    }
+
+    private void setKind(Kind newKind) {
+        if (newKind == null || newKind == kind) return;
+        kind = newKind;
+        chart = createChart(newKind);
+        root.setCenter(chart);
+        lower = Double.NaN; // a new chart starts on the whole range
+        upper = Double.NaN;
+        onChange.run();
+    }
+
+    private void setFilter(String text) {
+        FilterExpression parsed;
+        try {
+            parsed = text.isBlank() ? null : FilterExpression.parse(text);
+        } catch (IllegalArgumentException e) {
+            status.setText(e.getMessage());
+            return;
+        }
+        filter = parsed;
+        onChange.run();
+    }
+
+    private Chart createChart(Kind kind) {
+        Chart created = switch (kind) {
+            case LINE -> {
+                LineChart<Number, Number> line = new LineChart<>(new TimeAxis(), new NumberAxis());
+                line.setCreateSymbols(false); // a wall of panels cannot afford a node per point
+                yield zoomable(line);
+            }
+            case AREA -> {
+                AreaChart<Number, Number> area = new AreaChart<>(new TimeAxis(), new NumberAxis());
+                area.setCreateSymbols(false);
+                yield zoomable(area);
+            }
+            case SCATTER -> zoomable(new ScatterChart<>(new TimeAxis(), new NumberAxis()));
+            case BAR -> {
+                BarChart<String, Number> bar = new BarChart<>(new CategoryAxis(), new NumberAxis());
+                bar.setLegendVisible(false);
+                yield bar;
+            }
+            case PIE -> new PieChart();
+        };
+        created.setAnimated(false);
+        created.getStyleClass().add("chart");
+        return created;
+    }
+
+    private XYChart<Number, Number> zoomable(XYChart<Number, Number> chart) {
+        ChartZoomHandler.install(chart, new ChartZoomHandler.RangeListener() {
+            @Override
+            public void rangeChanged(double newLower, double newUpper) {
+                lower = newLower;
+                upper = newUpper;
+                onChange.run();
+            }
+
+            @Override
+            public void rangeReset() {
+                lower = Double.NaN;
+                upper = Double.NaN;
+                onChange.run();
+            }
+        });
+        return chart;
+    }
+
+    /** FX thread: snapshots the panel's state; any frame of an earlier request is dropped from now on. */
+    Request request() {
+        return new Request(++generation, kind, filter, lower, upper, plotWidth(), indexed);
+    }
+
+    private int plotWidth() {
+        double width = chart instanceof XYChart<?, ?> xy ? xy.getXAxis().getWidth() : 0;
+        if (width <= 0) width = root.getWidth() - 60; // not laid out yet
+        return width > 0 ? (int) width : 400;
+    }
+
+    /**
+     * Any thread: the panel's chart contents for {@code base}. Reads
+     * nothing but the request, the data and the shared views.
+     */
+    Frame prepare(Request request, DataView base, Dashboard.Views views) {
+        DataView data = request.filter() == null ? base : views.filter(base, request.filter());
+        long version = data.version();
+        String text = request.filter() == null
+                ? String.format("%,d rows", data.size())
+                : String.format("%,d of %,d rows match %s", data.size(), base.size(), request.filter());
+
+        if (!request.kind().isXY()) {
+            CategoryStats stats = views.categories(data, version);
+            if (request.kind() == Kind.BAR) {
+                XYChart.Series<String, Number> bars = new XYChart.Series<>();
+                for (int i = 0; i < stats.size(); i++) {
+                    bars.getData().add(new XYChart.Data<>(stats.name(i), stats.sum(i)));
+                }
+                return new Frame(request, text, data.isXTime(), List.of(bars), null);
+            }
+            List<PieChart.Data> slices = new ArrayList<>(stats.size());
+            for (int i = 0; i < stats.size(); i++) {
+                slices.add(new PieChart.Data(stats.name(i), stats.absSum(i)));
+            }
+            return new Frame(request, text, data.isXTime(), slices, null);
+        }
+
+        int[] rows;
+        Indexed index = null;
+        if (Double.isNaN(request.lower())) {
+            rows = views.downsample(data, version, request.width());
+        } else {
+            // An index too large for the shared cache is still current while the data is
+            Indexed previous = request.indexed();
+            if (previous != null && previous.index().data() == data && previous.version() == version) {
+                index = previous;
+            } else {
+                RangeIndex built = views.index(data, version);
+                index = built != null ? new Indexed(built, version) : null;
+            }
+            rows = index != null
+                    ? views.query(index.index(), version, request.lower(), request.upper(), request.width())
+                    : views.downsample(data, version, request.width()); // zooming keeps the overview points
+        }
+        return new Frame(request, text, data.isXTime(), xySeries(request.kind(), data, rows), index);
+    }
+
+    /** Any thread: a frame that shows why the panel could not be prepared and leaves the chart as it was. */
+    Frame failed(Request request, Throwable error) {
+        Throwable cause = error.getCause() != null ? error.getCause() : error;
+        return new Frame(request, "Failed: " + cause.getMessage(), false, null, null);
+    }
+
+    private static List<XYChart.Series<Number, Number>> xySeries(Kind kind, DataView data, int[] rows) {
+        if (kind == Kind.SCATTER) {
+            // One series per category, as in the main scatter chart
+            List<XYChart.Series<Number, Number>> byCategory = new ArrayList<>();
+            for (int c = 0; c < data.categoryCount(); c++) byCategory.add(null);
+            for (int row : rows) {
+                int c = data.categoryId(row);
+                XYChart.Series<Number, Number> series = byCategory.get(c);
+                if (series == null) {
+                    series = new XYChart.Series<>();
+                    series.setName(data.categoryName(c));
+                    byCategory.set(c, series);
+                }
+                series.getData().add(new XYChart.Data<>(data.x(row), data.y(row)));
+            }
+            byCategory.removeIf(series -> series == null);
+            return byCategory;
+        }
+        boolean absY = kind == Kind.AREA;
+        List<XYChart.Data<Number, Number>> points = new ArrayList<>(rows.length);
+        for (int row : rows) {
+            points.add(new XYChart.Data<>(data.x(row), absY ? Math.abs(data.y(row)) : data.y(row)));
+        }
+        XYChart.Series<Number, Number> series = new XYChart.Series<>();
+        series.setName(data.seriesName(0));
+        series.getData().setAll(points);
+        return List.of(series);
+    }
+
+    /**
+     * A prepared panel: detached series or slices for the chart kind the
+     * request was made for. Nothing in it is attached to a scene until
+     * {@link #apply}.
+     */
+    final class Frame {
+        private final Request request;
+        private final String status;
+        private final boolean xTime;
+        private final List<?> content; // XY series or pie slices, null if preparing failed
+        private final Indexed index;
+
+        private Frame(Request request, String status, boolean xTime, List<?> content, Indexed index) {
+            this.request = request;
+            this.status = status;
+            this.xTime = xTime;
+            this.content = content;
+            this.index = index;
+        }
+
+        /** FX thread: swaps the content into the chart, unless the panel has been asked for again since. */
+        @SuppressWarnings("unchecked")
+        void apply() {
+            if (request.generation() != generation) return;
+            DashboardPanel.this.status.setText(status);
+            if (content == null) return;
+            if (index != null) indexed = index;
+            if (chart instanceof PieChart pie) {
+                pie.getData().setAll((List<PieChart.Data>) content);
+            } else if (chart instanceof XYChart<?, ?> xy) {
+                if (xy.getXAxis() instanceof TimeAxis axis) axis.setTime(xTime);
+                ((XYChart<Object, Object>) xy).getData().setAll((List<XYChart.Series<Object, Object>>) content);
+            }
+        }
+    }
+}
@@ -0,0 +1,344 @@
+package dataviz.ui;
+
+import dataviz.data.DataView;
+import dataviz.data.IndexSort;
+import dataviz.query.FilterExpression;
+import dataviz.query.FilteredView;
+import javafx.beans.property.ReadOnlyObjectWrapper;
+import javafx.collections.ObservableListBase;
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.control.ComboBox;
+import javafx.scene.control.Label;
+import javafx.scene.control.TableCell;
+import javafx.scene.control.TableColumn;
+import javafx.scene.control.TableView;
+import javafx.scene.layout.BorderPane;
+import javafx.scene.layout.HBox;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Table over every row of a dataset, with a column for each further series
+ * asked for besides y. The table's items are only view positions, so cells
+ * are materialised for the rows in the viewport and nothing else; the
+ * category filter offers the categories that occur in the dataset, found
+ * by the same background pass. Sorting and the filter produce a primitive
+ * permutation of row indices, computed on the given executor and handed to
+ * the FX thread through the dispatcher, where a newer one replaces it.
+ * Sorting uses the first column of the sort order. Paged datasets are
+ * always shown in file order, since a permutation would need heap for
+ * every row: their columns cannot be sorted, and the category filter is a
+ * {@link FilteredView} whose positions are found by walking its bitmap.
+ */
+public final class DataTable extends BorderPane {
+
+    private static final String ALL_CATEGORIES = "All categories";
+    private static final double ROW_HEIGHT = 24;
+
+    private final Executor executor;
+    private final FxDispatcher fx;
+    private final TableView<Integer> table = new TableView<>();
+    private final TableColumn<Integer, Number> rowColumn = new TableColumn<>("Row");
+    private final TableColumn<Integer, Number> xColumn = new TableColumn<>("X");
+    private final TableColumn<Integer, Number> yColumn = new TableColumn<>("Y");
+    private final TableColumn<Integer, String> categoryColumn = new TableColumn<>("Category");
+    private final ComboBox<String> categoryFilter = new ComboBox<>();
+    private final Label countLabel = new Label();
+    private final AtomicLong generation = new AtomicLong();
+    private final List<TableColumn<Integer, Number>> seriesColumns = new ArrayList<>();
+    private DataView data;
+    private int[] series = new int[0];
+    // What the cells read: the dataset and permutation of the last finished rebuild
+    private DataView shown;
+    private int[] rows; // view position to dataset row; null shows every row in order
+    private FilteredView walked; // paged dataset's filtered rows, used when rows is null
+    private int[] shownSeries = new int[0];
+    // Dataset and version the category filter was last listed from
+    private DataView listed;
+    private long listedVersion;
+    private boolean updatingCategories;
+
+    public DataTable(Executor executor, FxDispatcher fx) {
+        this.executor = executor;
+        this.fx = fx;
+        getStyleClass().add("data-table");
+
+        rowColumn.setCellValueFactory(cell -> new ReadOnlyObjectWrapper<>(row(cell.getValue())));
+        xColumn.setCellValueFactory(cell -> new ReadOnlyObjectWrapper<>(shown.x(row(cell.getValue()))));
+        yColumn.setCellValueFactory(cell -> new ReadOnlyObjectWrapper<>(shown.y(row(cell.getValue()))));
+        categoryColumn.setCellValueFactory(cell -> new ReadOnlyObjectWrapper<>(shown.category(row(cell.getValue()))));
+        // Epoch milliseconds read as timestamps, like the time axis
+        xColumn.setCellFactory(column -> new TableCell<>() {
+            @Override
+            protected void updateItem(Number value, boolean empty) {
+                super.updateItem(value, empty);
+                if (empty || value == null) {
+                    setText(null);
+                } else {
+                    setText(shown.isXTime() ? TimeAxis.formatTimestamp(value.doubleValue()) : value.toString());
+                }
+            }
+        });
+        table.getColumns().add(rowColumn);
+        table.getColumns().add(xColumn);
+        table.getColumns().add(yColumn);
+        table.getColumns().add(categoryColumn);
+
+        // A fixed height lets the table place rows without measuring them
+        table.setFixedCellSize(ROW_HEIGHT);
+        table.setColumnResizePolicy(TableView.CONSTRAINED_RESIZE_POLICY_FLEX_LAST_COLUMN);
+        table.setPlaceholder(new Label("No data"));
+        // The default policy sorts the items list itself; the permutation is rebuilt instead
+        table.setSortPolicy(t -> {
+            rebuild();
+            return true;
+        });
+
+        categoryFilter.getItems().add(ALL_CATEGORIES);
+        categoryFilter.setValue(ALL_CATEGORIES);
+        categoryFilter.setOnAction(e -> {
+            if (!updatingCategories) rebuild();
+        });
+
+        HBox toolbar = new HBox(10, new Label("Show:"), categoryFilter, countLabel);
+        toolbar.setAlignment(Pos.CENTER_LEFT);
+        toolbar.setPadding(new Insets(5));
+        setTop(toolbar);
+        setCenter(table);
+    }
+
+    /**
+     * Shows {@code data} with a column for each of its {@code series} after y,
+     * keeping the current sort and filter. Must be called on the FX thread.
+     */
+    public void setData(DataView data, int[] series) {
+        for (int s : series) {
+            if (s < 1 || s >= data.seriesCount()) {
+                throw new IllegalArgumentException("No further series " + s + " in a dataset with " + data.seriesCount());
+            }
+        }
+        this.data = data;
+        this.series = series.clone();
+        rebuild();
+    }
+
+    private int row(int position) {
+        int[] view = rows;
+        if (view != null) return view[position];
+        FilteredView filtered = walked;
+        return filtered == null ? position : filtered.sourceRow(position);
+    }
+
+    // A catalog's datasets share one dictionary, so only the names that occur in the rows are listed
+    private static List<String> presentCategories(DataView data) {
+        int size = data.size(); // before the count: the ids of these rows are already interned
+        boolean[] present = new boolean[data.categoryCount()];
+        for (int row = 0; row < size; row++) {
+            present[data.categoryId(row)] = true;
+        }
+        List<String> names = new ArrayList<>();
+        names.add(ALL_CATEGORIES);
+        for (int c = 0; c < present.length; c++) {
+            if (present[c]) names.add(data.categoryName(c));
+        }
+        return names;
+    }
+
+    private void updateCategories(List<String> names) {
+        String selected = categoryFilter.getValue();
+        if (names.equals(categoryFilter.getItems())) return;
+        updatingCategories = true;
+        categoryFilter.getItems().setAll(names);
+        categoryFilter.setValue(names.contains(selected) ? selected : ALL_CATEGORIES);
+        updatingCategories = false;
+        // The filtered category is gone: show every row again
+        if (!categoryFilter.getValue().equals(selected)) rebuild();
+    }
+
+    private void rebuild() {
+        DataView current = data;
+        if (current == null) return;
+
+        int[] columns = series;
+        long version = current.version();
+        boolean list = current != listed || version != listedVersion;
+        String categoryName = categoryFilter.getValue();
+        int category = categoryId(current, categoryName);
+        TableColumn<Integer, ?> sortColumn = table.getSortOrder().isEmpty() ? null : table.getSortOrder().get(0);
+        boolean descending = sortColumn != null && sortColumn.getSortType() == TableColumn.SortType.DESCENDING;
+
+        long stamp = generation.incrementAndGet();
+        executor.execute(() -> {
+            if (generation.get() != stamp) return; // superseded before it started
+            List<String> names = list ? presentCategories(current) : null;
+            int[] view = null;
+            FilteredView filtered = null;
+            if (!current.isPaged()) {
+                view = filter(current, category);
+                view = sort(current, view, sortColumn, descending);
+            } else if (category >= 0) {
+                filtered = new FilteredView(current, FilterExpression.category(categoryName).select(current));
+            }
+            int[] result = view;
+            FilteredView resultFiltered = filtered;
+            fx.post(this, () -> {
+                if (generation.get() != stamp) return;
+                show(current, result, resultFiltered, columns);
+                if (names != null) {
+                    listed = current;
+                    listedVersion = version;
+                    updateCategories(names);
+                }
+            });
+        });
+    }
+
+    private void show(DataView current, int[] view, FilteredView filtered, int[] columns) {
+        int size = view != null ? view.length : filtered != null ? filtered.size() : current.size();
+        shown = current;
+        rows = view;
+        walked = filtered;
+        if (!Arrays.equals(columns, shownSeries) || !namesMatch(current, columns)) {
+            showSeries(current, columns);
+        }
+        setSortable(!current.isPaged());
+        countLabel.setText(String.format("%,d of %,d rows%s", size, current.size(),
+                current.isPaged() ? " in file order (paged from disk; sorting needs every row in memory)" : ""));
+        // Same row count: redraw in place so the scroll position survives, e.g. while streaming
+        if (table.getItems() instanceof PositionList positions && positions.size() == size) {
+            table.refresh();
+        } else {
+            table.setItems(new PositionList(size));
+        }
+    }
+
+    // A paged dataset is never sorted, so its column headers offer no sort either
+    private void setSortable(boolean sortable) {
+        for (TableColumn<Integer, ?> column : table.getColumns()) {
+            column.setSortable(sortable);
+        }
+        if (!sortable && !table.getSortOrder().isEmpty()) table.getSortOrder().clear();
+    }
+
+    private boolean namesMatch(DataView current, int[] columns) {
+        for (int i = 0; i < columns.length; i++) {
+            if (!seriesColumns.get(i).getText().equals(current.seriesName(columns[i]))) return false;
+        }
+        return true;
+    }
+
+    // Series columns go after y, before the category; the series index is the column's user data
+    private void showSeries(DataView current, int[] columns) {
+        table.getColumns().removeAll(seriesColumns);
+        seriesColumns.clear();
+        for (int s : columns) {
+            TableColumn<Integer, Number> column = new TableColumn<>(current.seriesName(s));
+            column.setUserData(s);
+            column.setCellValueFactory(cell -> new ReadOnlyObjectWrapper<>(shown.value(s, row(cell.getValue()))));
+            seriesColumns.add(column);
+        }
+        table.getColumns().addAll(table.getColumns().indexOf(categoryColumn), seriesColumns);
+        shownSeries = columns;
+    }
+
+    private static int categoryId(DataView data, String name) {
+        if (name == null || ALL_CATEGORIES.equals(name)) return -1;
+        for (int c = 0; c < data.categoryCount(); c++) {
+            if (data.categoryName(c).equals(name)) return c;
+        }
+        return -1;
+    }
+
+    private static int[] filter(DataView data, int category) {
+        if (category < 0) return null;
+        int count = 0;
+        for (int row = 0; row < data.size(); row++) {
+            if (data.categoryId(row) == category) count++;
+        }
+        int[] result = new int[count];
+        int n = 0;
+        for (int row = 0; row < data.size() && n < count; row++) {
+            if (data.categoryId(row) == category) result[n++] = row;
+        }
+        return result;
+    }
+
+    private int[] sort(DataView data, int[] view, TableColumn<Integer, ?> column, boolean descending) {
+        if (column == null) return view;
+        if (column == rowColumn) {
+            // Rows are already in ascending order
+            if (!descending) return view;
+            int[] result = view != null ? view : identity(data.size());
+            reverse(result);
+            return result;
+        }
+
+        int[] result = view != null ? view : identity(data.size());
+        double[] keys = new double[result.length];
+        if (column == categoryColumn) {
+            double[] rank = categoryRanks(data);
+            for (int i = 0; i < keys.length; i++) keys[i] = rank[data.categoryId(result[i])];
+        } else if (column == xColumn) {
+            for (int i = 0; i < keys.length; i++) keys[i] = data.x(result[i]);
+        } else if (column.getUserData() instanceof Integer index) {
+            // A column of the previous dataset's series may still be in the sort order
+            if (index >= data.seriesCount()) return view;
+            for (int i = 0; i < keys.length; i++) keys[i] = data.value(index, result[i]);
+        } else {
+            for (int i = 0; i < keys.length; i++) keys[i] = data.y(result[i]);
+        }
+        IndexSort.sortRows(result, keys);
+        if (descending) reverse(result);
+        return result;
+    }
+
+    // Categories sort by name, so each id is replaced by its position in name order
+    private static double[] categoryRanks(DataView data) {
+        Integer[] ids = new Integer[data.categoryCount()];
+        for (int c = 0; c < ids.length; c++) ids[c] = c;
+        Arrays.sort(ids, Comparator.comparing(data::categoryName));
+        double[] rank = new double[ids.length];
+        for (int r = 0; r < ids.length; r++) rank[ids[r]] = r;
+        return rank;
+    }
+
+    private static int[] identity(int size) {
+        int[] result = new int[size];
+        for (int i = 0; i < size; i++) result[i] = i;
+        return result;
+    }
+
+    private static void reverse(int[] a) {
+        for (int i = 0, j = a.length - 1; i < j; i++, j--) {
+            int t = a[i];
+            a[i] = a[j];
+            a[j] = t;
+        }
+    }
+
+    // Items are just positions 0..size-1; the Integer for a position is only made when a cell asks
+    private static final class PositionList extends ObservableListBase<Integer> {
+        private final int size;
+
+        PositionList(int size) {
+            this.size = size;
+        }
+
+        @Override
+        public Integer get(int index) {
+            if (index < 0 || index >= size) throw new IndexOutOfBoundsException(index);
+            return index;
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
@@ -0,0 +1,239 @@
+package dataviz.ui;
+
+import dataviz.data.DataView;
+import dataviz.render.DensityRasterizer;
+import javafx.css.CssMetaData;
+import javafx.css.Styleable;
+import javafx.css.StyleableObjectProperty;
+import javafx.css.StyleableProperty;
+import javafx.css.converter.ColorConverter;
+import javafx.geometry.Bounds;
+import javafx.scene.Node;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.chart.XYChart;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.layout.Pane;
+import javafx.scene.paint.Color;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Canvas laid over the plot area of an XY chart that draws every row as a
+ * density heatmap instead of one scene-graph node per point. Rasterising
+ * runs on the given executor; only the finished pixel buffer is written on
+ * the FX thread, posted through the dispatcher so that a newer one replaces
+ * it. The chart keeps its axes, so the owner sets their bounds to the window
+ * passed to {@link #render}.
+ *
+ * <p>The colour ramp comes from CSS: {@code -dv-density-low-color} and
+ * {@code -dv-density-high-color} on the {@code density-layer} style class.
+ */
+public final class DensityLayer extends Pane {
+
+    private final XYChart<?, ?> chart;
+    private final Executor executor;
+    private final FxDispatcher fx;
+    private final Canvas canvas = new Canvas();
+    private final AtomicLong generation = new AtomicLong();
+    private Node plotBackground;
+    private Request request;
+
+    private final StyleableObjectProperty<Color> lowColor =
+            new SimpleStyleableColor(LOW_COLOR, "lowColor", Color.web("#2f80ed"));
+    private final StyleableObjectProperty<Color> highColor =
+            new SimpleStyleableColor(HIGH_COLOR, "highColor", Color.web("#eb5757"));
+
+    private record Request(DataView data, double xLower, double xUpper, double yLower, double yUpper,
+                           DensityRasterizer.Mode mode, boolean absY) {
+    }
+
+    public DensityLayer(XYChart<?, ?> chart, Executor executor, FxDispatcher fx) {
+        this.chart = chart;
+        this.executor = executor;
+        this.fx = fx;
+        getStyleClass().add("density-layer");
+        setMouseTransparent(true); // zoom and pan stay on the chart underneath
+        setManaged(true);
+        canvas.setManaged(false);
+        getChildren().add(canvas);
+
+        lowColor.addListener((obs, old, color) -> redraw());
+        highColor.addListener((obs, old, color) -> redraw());
+    }
+
+    /**
+     * Draws rows of {@code data} falling in the given window, replacing
+     * whatever was drawn before. Must be called on the FX thread.
+     */
+    public void render(DataView data, double xLower, double xUpper, double yLower, double yUpper,
+                       DensityRasterizer.Mode mode, boolean absY) {
+        request = new Request(data, xLower, xUpper, yLower, yUpper, mode, absY);
+        redraw();
+    }
+
+    /** Forgets the current drawing and blanks the canvas. */
+    public void clear() {
+        request = null;
+        generation.incrementAndGet();
+        canvas.getGraphicsContext2D().clearRect(0, 0, canvas.getWidth(), canvas.getHeight());
+    }
+
+    public boolean isActive() {
+        return request != null;
+    }
+
+    private void redraw() {
+        Request current = request;
+        int width = (int) canvas.getWidth();
+        int height = (int) canvas.getHeight();
+        if (current == null || width <= 0 || height <= 0) return;
+
+        long stamp = generation.incrementAndGet();
+        int low = toArgb(lowColor.get());
+        int high = toArgb(highColor.get());
+
+        executor.execute(() -> {
+            if (generation.get() != stamp) return; // superseded before it started
+            DensityRasterizer rasterizer = new DensityRasterizer(width, height);
+            int from = 0;
+            int to = current.data.size();
+            DensityRasterizer.Mode mode = current.mode;
+            if (current.data.extent().isXSorted()) {
+                // Only the visible rows, plus one either side so lines reach the edges
+                from = Math.max(0, lowerBound(current.data, current.xLower) - 1);
+                to = Math.min(to, lowerBound(current.data, Math.nextUp(current.xUpper)) + 1);
+            } else if (mode == DensityRasterizer.Mode.LINES) {
+                mode = DensityRasterizer.Mode.POINTS; // joining unsorted rows would scribble
+            }
+            rasterizer.accumulate(current.data, from, to, current.xLower, current.xUpper,
+                    current.yLower, current.yUpper, mode, current.absY);
+            int[] argb = rasterizer.colorize(low, high, null);
+
+            fx.post(this, () -> {
+                if (generation.get() != stamp || canvas.getWidth() != width || canvas.getHeight() != height) return;
+                canvas.getGraphicsContext2D().clearRect(0, 0, width, height);
+                canvas.getGraphicsContext2D().getPixelWriter()
+                        .setPixels(0, 0, width, height, PixelFormat.getIntArgbInstance(), argb, 0, width);
+            });
+        });
+    }
+
+    @Override
+    protected void layoutChildren() {
+        if (plotBackground == null) {
+            plotBackground = chart.lookup(".chart-plot-background");
+            if (plotBackground == null) return; // chart skin not created yet
+            plotBackground.boundsInParentProperty().addListener((obs, old, bounds) -> requestLayout());
+        }
+
+        // Cover exactly the plot background, which is where the axes map their bounds
+        Bounds plot = sceneToLocal(plotBackground.localToScene(plotBackground.getLayoutBounds()));
+        if (plot == null) return;
+        canvas.relocate(Math.round(plot.getMinX()), Math.round(plot.getMinY()));
+        double width = Math.floor(plot.getWidth());
+        double height = Math.floor(plot.getHeight());
+        if (width != canvas.getWidth() || height != canvas.getHeight()) {
+            canvas.setWidth(width);
+            canvas.setHeight(height);
+            redraw();
+        }
+    }
+
+    // First row whose x is not below the given value, for x-sorted data
+    private static int lowerBound(DataView data, double x) {
+        int lo = 0;
+        int hi = data.size();
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (data.x(mid) < x) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    private static int toArgb(Color color) {
+        return (int) Math.round(color.getOpacity() * 255) << 24
+                | (int) Math.round(color.getRed() * 255) << 16
+                | (int) Math.round(color.getGreen() * 255) << 8
+                | (int) Math.round(color.getBlue() * 255);
+    }
+
+    // ===== CSS =====
+
+    private static final CssMetaData<DensityLayer, Color> LOW_COLOR =
+            new CssMetaData<>("-dv-density-low-color", ColorConverter.getInstance(), Color.web("#2f80ed")) {
+                @Override
+                public boolean isSettable(DensityLayer layer) {
+                    return !layer.lowColor.isBound();
+                }
+
+                @Override
+                public StyleableProperty<Color> getStyleableProperty(DensityLayer layer) {
+                    return layer.lowColor;
+                }
+            };
+
+    private static final CssMetaData<DensityLayer, Color> HIGH_COLOR =
+            new CssMetaData<>("-dv-density-high-color", ColorConverter.getInstance(), Color.web("#eb5757")) {
+                @Override
+                public boolean isSettable(DensityLayer layer) {
+                    return !layer.highColor.isBound();
+                }
+
+                @Override
+                public StyleableProperty<Color> getStyleableProperty(DensityLayer layer) {
+                    return layer.highColor;
+                }
+            };
+
+    private static final List<CssMetaData<? extends Styleable, ?>> CSS_META_DATA;
+
+    static {
+        List<CssMetaData<? extends Styleable, ?>> metaData = new ArrayList<>(Pane.getClassCssMetaData());
+        metaData.add(LOW_COLOR);
+        metaData.add(HIGH_COLOR);
+        CSS_META_DATA = Collections.unmodifiableList(metaData);
+    }
+
+    public static List<CssMetaData<? extends Styleable, ?>> getClassCssMetaData() {
+        return CSS_META_DATA;
+    }
+
+    @Override
+    public List<CssMetaData<? extends Styleable, ?>> getCssMetaData() {
+        return CSS_META_DATA;
+    }
+
+    private final class SimpleStyleableColor extends StyleableObjectProperty<Color> {
+        private final CssMetaData<DensityLayer, Color> metaData;
+        private final String name;
+
+        SimpleStyleableColor(CssMetaData<DensityLayer, Color> metaData, String name, Color initial) {
+            super(initial);
+            this.metaData = metaData;
+            this.name = name;
+        }
+
+        @Override
+        public Object getBean() {
+            return DensityLayer.this;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public CssMetaData<? extends Styleable, Color> getCssMetaData() {
+            return metaData;
+        }
+    }
+}
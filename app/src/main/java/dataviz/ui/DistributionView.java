@@ -0,0 +1,114 @@
+package dataviz.ui;
+
+import dataviz.analysis.Histogram;
+import dataviz.analysis.Summary;
+import javafx.collections.ObservableList;
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.chart.BarChart;
+import javafx.scene.chart.CategoryAxis;
+import javafx.scene.chart.NumberAxis;
+import javafx.scene.chart.XYChart;
+import javafx.scene.control.ComboBox;
+import javafx.scene.control.Label;
+import javafx.scene.control.ScrollPane;
+import javafx.scene.control.Tooltip;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.Priority;
+import javafx.scene.layout.VBox;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Histogram of y with a {@link BoxPlot} underneath, both drawn from a
+ * {@link Summary}. The bin count is chosen in the view; changing it calls
+ * the bins listener so the owner can supply a summary again. When a new
+ * summary has the same bins as the shown one only the counts change, so
+ * the bars are kept rather than rebuilt.
+ */
+public final class DistributionView extends ScrollPane {
+
+    private static final String AUTO = "Auto";
+
+    private final BarChart<String, Number> chart;
+    private final XYChart.Series<String, Number> series = new XYChart.Series<>();
+    private final ComboBox<String> binsCombo = new ComboBox<>();
+    private final BoxPlot boxPlot = new BoxPlot();
+    private Runnable onBinsChanged = () -> { };
+
+    public DistributionView() {
+        CategoryAxis binAxis = new CategoryAxis();
+        binAxis.setLabel("y (bin lower edge)");
+        NumberAxis countAxis = new NumberAxis();
+        countAxis.setLabel("Rows");
+        chart = new BarChart<>(binAxis, countAxis);
+        chart.setTitle("Distribution of Y");
+        chart.getStyleClass().add("chart");
+        chart.setCategoryGap(0);
+        chart.setBarGap(0);
+        chart.setLegendVisible(false);
+        series.setName("Rows");
+        chart.getData().add(series);
+        VBox.setVgrow(chart, Priority.ALWAYS);
+
+        binsCombo.getItems().addAll(AUTO, "10", "20", "30", "60", "120");
+        binsCombo.setValue(AUTO);
+        binsCombo.setTooltip(new Tooltip("Auto uses the Freedman-Diaconis rule"));
+        binsCombo.setOnAction(e -> onBinsChanged.run());
+        HBox binsRow = new HBox(8, new Label("Bins:"), binsCombo);
+        binsRow.setAlignment(Pos.CENTER_LEFT);
+
+        VBox content = new VBox(8, binsRow, chart, boxPlot);
+        content.setPadding(new Insets(8));
+        setContent(content);
+        setFitToWidth(true);
+        setFitToHeight(true);
+    }
+
+    /** The histogram, for chart-wide settings such as animation and opacity. */
+    public BarChart<String, Number> chart() {
+        return chart;
+    }
+
+    public void setOnBinsChanged(Runnable onBinsChanged) {
+        this.onBinsChanged = onBinsChanged;
+    }
+
+    public void setSummary(Summary summary) {
+        String bins = binsCombo.getValue();
+        Histogram histogram = AUTO.equals(bins) ? summary.histogram() : summary.histogram(Integer.parseInt(bins));
+        List<String> labels = binLabels(histogram);
+
+        // Same bins as before: only the counts change, so the bars are kept
+        ObservableList<XYChart.Data<String, Number>> bars = series.getData();
+        boolean sameBins = bars.size() == labels.size();
+        for (int i = 0; sameBins && i < labels.size(); i++) {
+            sameBins = bars.get(i).getXValue().equals(labels.get(i));
+        }
+        if (sameBins) {
+            for (int i = 0; i < labels.size(); i++) {
+                bars.get(i).setYValue(histogram.count(i));
+            }
+        } else {
+            List<XYChart.Data<String, Number>> created = new ArrayList<>(labels.size());
+            for (int i = 0; i < labels.size(); i++) {
+                created.add(new XYChart.Data<>(labels.get(i), histogram.count(i)));
+            }
+            bars.setAll(created);
+        }
+        boxPlot.setSummary(summary);
+    }
+
+    // Lower edges with just enough decimals to tell neighbouring bins apart
+    private static List<String> binLabels(Histogram histogram) {
+        int decimals = histogram.binWidth() > 0
+                ? (int) Math.max(0, Math.min(12, 1 - Math.floor(Math.log10(histogram.binWidth()))))
+                : 4;
+        List<String> labels = new ArrayList<>(histogram.size());
+        for (int i = 0; i < histogram.size(); i++) {
+            labels.add(String.format("%." + decimals + "f", histogram.lower(i)));
+        }
+        return labels;
+    }
+}
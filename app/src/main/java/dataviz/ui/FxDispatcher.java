@@ -0,0 +1,79 @@
+package dataviz.ui;
+
+import dataviz.metrics.StageTimer;
+import javafx.animation.AnimationTimer;
+import javafx.application.Platform;
+
+import java.util.List;
+import java.util.concurrent.Executor;
+
+/**
+ * Funnels updates from background threads onto the FX thread, at most one
+ * batch per pulse. Updates posted under a key replace whatever is still
+ * pending under it, so progress, status text and chart frames coalesce to
+ * their latest value however often they are posted; {@link #execute} is for
+ * work that must run exactly once, such as task callbacks. Within a batch,
+ * updates run in the order they were last posted.
+ *
+ * <p>Only the first update after the queue drains costs a
+ * {@link Platform#runLater}, which starts a pulse timer; the timer applies
+ * one batch per pulse and stops once nothing is pending. Must be created on
+ * the FX thread. The coalescing itself is an {@link UpdateQueue}.
+ */
+public final class FxDispatcher implements Executor {
+
+    private final StageTimer batches;
+    private final UpdateQueue queue = new UpdateQueue();
+    private boolean running; // FX thread only
+    private final AnimationTimer timer = new AnimationTimer() {
+        @Override
+        public void handle(long now) {
+            runBatch();
+        }
+    };
+
+    /** {@code batches} records the FX time of every batch. */
+    public FxDispatcher(StageTimer batches) {
+        this.batches = batches;
+    }
+
+    /** Runs {@code update} on the FX thread in the next batch, unless a newer one is posted under {@code key}. */
+    public void post(Object key, Runnable update) {
+        if (queue.post(key, update)) Platform.runLater(this::start);
+    }
+
+    /** Runs {@code update} on the FX thread in the next batch; never coalesced. */
+    @Override
+    public void execute(Runnable update) {
+        post(new Object(), update);
+    }
+
+    private void start() {
+        if (!running) {
+            running = true;
+            timer.start();
+        }
+    }
+
+    private void runBatch() {
+        List<Runnable> batch = queue.drain();
+        if (batch.isEmpty()) {
+            // A post racing this gets its start() queued behind us and restarts the timer
+            running = false;
+            timer.stop();
+            return;
+        }
+
+        long start = System.nanoTime();
+        for (Runnable update : batch) {
+            try {
+                update.run();
+            } catch (RuntimeException e) {
+                // One failing update must not take the rest of the batch with it
+                Thread thread = Thread.currentThread();
+                thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+            }
+        }
+        batches.record(System.nanoTime() - start, -1);
+    }
+}
@@ -0,0 +1,63 @@
+package dataviz.ui;
+
+import dataviz.metrics.StageTimer;
+import javafx.animation.AnimationTimer;
+import javafx.scene.Scene;
+
+/**
+ * Records FX pulse timing for a scene: the interval between pulses, which
+ * grows whenever something holds up the FX thread, and the CSS and layout
+ * pass of each pulse. Only runs while started, because the timer itself
+ * keeps the scene pulsing at the full frame rate.
+ */
+public final class PulseMonitor {
+
+    private final Scene scene;
+    private final StageTimer interval;
+    private final StageTimer layout;
+    private long lastPulse;
+    private long layoutStart;
+
+    private final AnimationTimer timer = new AnimationTimer() {
+        @Override
+        public void handle(long now) {
+            if (lastPulse != 0) interval.record(now - lastPulse, -1);
+            lastPulse = now;
+        }
+    };
+    private final Runnable preLayout = this::layoutStarted;
+    private final Runnable postLayout = this::layoutFinished;
+    private boolean running;
+
+    public PulseMonitor(Scene scene, StageTimer interval, StageTimer layout) {
+        this.scene = scene;
+        this.interval = interval;
+        this.layout = layout;
+    }
+
+    public void start() {
+        if (running) return;
+        running = true;
+        lastPulse = 0;
+        layoutStart = 0;
+        scene.addPreLayoutPulseListener(preLayout);
+        scene.addPostLayoutPulseListener(postLayout);
+        timer.start();
+    }
+
+    public void stop() {
+        if (!running) return;
+        running = false;
+        timer.stop();
+        scene.removePreLayoutPulseListener(preLayout);
+        scene.removePostLayoutPulseListener(postLayout);
+    }
+
+    private void layoutStarted() {
+        layoutStart = System.nanoTime();
+    }
+
+    private void layoutFinished() {
+        if (layoutStart != 0) layout.record(System.nanoTime() - layoutStart, -1);
+    }
+}
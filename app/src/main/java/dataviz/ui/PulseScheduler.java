@@ -0,0 +1,64 @@
+package dataviz.ui;
+
+import javafx.animation.AnimationTimer;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Runs long scene-graph updates on the FX thread a slice at a time, within
+ * a fixed budget per pulse, so a large update never holds up a frame. Jobs
+ * are keyed by what they update: submitting a job under a key that still
+ * has one pending replaces the older job. Submitting only queues the job;
+ * every job runs from the pulse timer, so however many are submitted in a
+ * pulse they share its one budget.
+ */
+public final class PulseScheduler {
+
+    public interface Job {
+        /** Does work until {@code deadline} (System.nanoTime()); returns true when finished. */
+        boolean step(long deadline);
+    }
+
+    private final long budgetNanos;
+    private final Map<Object, Job> jobs = new LinkedHashMap<>();
+    private final AnimationTimer timer = new AnimationTimer() {
+        @Override
+        public void handle(long now) {
+            runSlice();
+        }
+    };
+    private boolean running;
+
+    public PulseScheduler(long budgetMillis) {
+        this.budgetNanos = budgetMillis * 1_000_000L;
+    }
+
+    public void submit(Object key, Job job) {
+        jobs.remove(key);
+        jobs.put(key, job);
+        if (!running) {
+            running = true;
+            timer.start();
+        }
+    }
+
+    public void cancel(Object key) {
+        jobs.remove(key);
+    }
+
+    private void runSlice() {
+        long deadline = System.nanoTime() + budgetNanos;
+        Iterator<Job> it = jobs.values().iterator();
+        while (it.hasNext() && System.nanoTime() < deadline) {
+            if (it.next().step(deadline)) {
+                it.remove();
+            }
+        }
+        if (jobs.isEmpty() && running) {
+            running = false;
+            timer.stop();
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package dataviz.ui;
+
+import javafx.collections.ObservableList;
+import javafx.scene.chart.XYChart;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntToDoubleFunction;
+
+/**
+ * Brings a series to a new list of points by reusing its existing
+ * {@link XYChart.Data} objects: values are overwritten in place, only the
+ * difference in length is added or removed. Works in slices so it can be
+ * spread over several pulses by {@link PulseScheduler}.
+ */
+public final class SeriesUpdate implements PulseScheduler.Job {
+
+    private static final int SLICE = 256;
+
+    private final XYChart.Series<Number, Number> series;
+    private final int count;
+    private final IntToDoubleFunction x;
+    private final IntToDoubleFunction y;
+    private int next;
+
+    public SeriesUpdate(XYChart.Series<Number, Number> series, int count,
+                        IntToDoubleFunction x, IntToDoubleFunction y) {
+        this.series = series;
+        this.count = count;
+        this.x = x;
+        this.y = y;
+    }
+
+    @Override
+    public boolean step(long deadline) {
+        ObservableList<XYChart.Data<Number, Number>> points = series.getData();
+
+        while (next < count) {
+            int end = Math.min(count, next + SLICE);
+            int reusable = Math.min(end, points.size());
+            for (int i = next; i < reusable; i++) {
+                XYChart.Data<Number, Number> point = points.get(i);
+                point.setXValue(x.applyAsDouble(i));
+                point.setYValue(y.applyAsDouble(i));
+            }
+            if (reusable < end) {
+                List<XYChart.Data<Number, Number>> added = new ArrayList<>(end - reusable);
+                for (int i = Math.max(next, reusable); i < end; i++) {
+                    added.add(new XYChart.Data<>(x.applyAsDouble(i), y.applyAsDouble(i)));
+                }
+                points.addAll(added);
+            }
+            next = end;
+            if (System.nanoTime() >= deadline) {
+                break;
+            }
+        }
+
+        if (next >= count && points.size() > count) {
+            points.remove(count, points.size());
+        }
+        return next >= count;
+    }
+}
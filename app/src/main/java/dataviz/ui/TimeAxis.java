@@ -0,0 +1,246 @@
+package dataviz.ui;
+
+import javafx.animation.KeyFrame;
+import javafx.animation.KeyValue;
+import javafx.animation.Timeline;
+import javafx.beans.property.DoubleProperty;
+import javafx.beans.property.SimpleDoubleProperty;
+import javafx.scene.chart.ValueAxis;
+import javafx.util.Duration;
+import javafx.util.StringConverter;
+
+import java.text.DecimalFormat;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Number axis that can show epoch milliseconds as time. While
+ * {@link #setTime time} is on, ticks fall on whole calendar units (seconds,
+ * minutes, hours, days, months, years, in UTC) spaced about
+ * {@code TICK_SPACING} pixels apart, labels are dates and times instead of
+ * numbers, and auto-ranging frames the data exactly. Otherwise it behaves
+ * like a {@link javafx.scene.chart.NumberAxis}: ticks on 1, 2 or 5 times a
+ * power of ten, bounds rounded out to a tick and zero kept in range, so one
+ * chart can show either kind of dataset. Either way the ticks follow the
+ * visible range, so zooming by setting the bounds needs no tick unit.
+ */
+public final class TimeAxis extends ValueAxis<Number> {
+
+    private static final long SECOND = 1_000L;
+    private static final long MINUTE = 60 * SECOND;
+    private static final long HOUR = 60 * MINUTE;
+    private static final long DAY = 24 * HOUR;
+    private static final long[] STEPS = {
+            1, 2, 5, 10, 20, 50, 100, 200, 500,
+            SECOND, 2 * SECOND, 5 * SECOND, 10 * SECOND, 15 * SECOND, 30 * SECOND,
+            MINUTE, 2 * MINUTE, 5 * MINUTE, 10 * MINUTE, 15 * MINUTE, 30 * MINUTE,
+            HOUR, 2 * HOUR, 3 * HOUR, 6 * HOUR, 12 * HOUR,
+            DAY, 2 * DAY, 7 * DAY, 14 * DAY
+    };
+    private static final int[] MONTH_STEPS = {1, 2, 3, 6, 12, 24, 60, 120, 240, 600, 1200};
+    private static final double TICK_SPACING = 100;
+    private static final int MAX_TICKS = 1000;
+    private static final Duration RANGE_ANIMATION = Duration.millis(700); // as NumberAxis
+    private static final DateTimeFormatter TIMESTAMP =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS").withZone(ZoneOffset.UTC);
+
+    // What autoRange hands to setRange and calculateTickValues
+    private record Range(double lower, double upper, double scale) {
+    }
+
+    private boolean time;
+    // Chosen with the ticks
+    private DateTimeFormatter tickFormat = TIMESTAMP;
+    private DecimalFormat numberFormat = new DecimalFormat("#,##0");
+    private double tickUnit; // 0 while the ticks are calendar units
+    private final Timeline rangeAnimation = new Timeline();
+    // The scale's setter is protected, so its animation goes through this property
+    private final DoubleProperty animatedScale = new SimpleDoubleProperty(this, "animatedScale");
+
+    public TimeAxis() {
+        animatedScale.addListener((obs, old, scale) -> setScale(scale.doubleValue()));
+    }
+
+    public boolean isTime() {
+        return time;
+    }
+
+    public void setTime(boolean time) {
+        if (this.time == time) return;
+        this.time = time;
+        setMinorTickVisible(!time);
+        invalidateRange();
+        requestAxisLayout();
+    }
+
+    /** Epoch milliseconds as a full UTC timestamp, for tables and tooltips. */
+    public static String formatTimestamp(double millis) {
+        return Double.isFinite(millis) ? TIMESTAMP.format(Instant.ofEpochMilli((long) millis)) : "";
+    }
+
+    @Override
+    protected Object autoRange(double minValue, double maxValue, double length, double labelSize) {
+        if (!time) {
+            // Epoch zero is decades away from any time data, so only numbers keep it in range
+            if (maxValue < 0) {
+                maxValue = 0;
+            } else if (minValue > 0) {
+                minValue = 0;
+            }
+        }
+        if (!(maxValue > minValue)) {
+            double padding = time ? SECOND : minValue == 0 ? 1 : Math.abs(minValue) * 0.01;
+            minValue -= padding;
+            maxValue += padding;
+        }
+        double lower = minValue;
+        double upper = maxValue;
+        if (!time) {
+            double unit = niceUnit(spacing(lower, upper, length));
+            lower = Math.floor(lower / unit) * unit;
+            upper = Math.ceil(upper / unit) * unit;
+        }
+        return new Range(lower, upper, calculateNewScale(length, lower, upper));
+    }
+
+    @Override
+    protected Object getRange() {
+        return new Range(getLowerBound(), getUpperBound(), getScale());
+    }
+
+    @Override
+    protected void setRange(Object range, boolean animate) {
+        // Only auto-ranging comes through here: zooming sets the bounds, and the axis follows them at once
+        Range r = (Range) range;
+        double oldLower = currentLowerBound.get();
+        double oldScale = getScale();
+        setLowerBound(r.lower());
+        setUpperBound(r.upper());
+        rangeAnimation.stop();
+        if (animate) {
+            rangeAnimation.getKeyFrames().setAll(
+                    new KeyFrame(Duration.ZERO,
+                            new KeyValue(currentLowerBound, oldLower), new KeyValue(animatedScale, oldScale)),
+                    new KeyFrame(RANGE_ANIMATION,
+                            new KeyValue(currentLowerBound, r.lower()), new KeyValue(animatedScale, r.scale())));
+            rangeAnimation.playFromStart();
+        } else {
+            currentLowerBound.set(r.lower());
+            setScale(r.scale());
+        }
+    }
+
+    @Override
+    protected List<Number> calculateTickValues(double length, Object range) {
+        Range r = (Range) range;
+        double lower = r.lower();
+        double upper = r.upper();
+        List<Number> ticks = new ArrayList<>();
+        if (!(upper > lower) || length <= 0) return ticks;
+
+        double spacing = spacing(lower, upper, length); // value between ticks
+        if (!time) {
+            tickUnit = niceUnit(spacing);
+            int decimals = Math.max(0, (int) -Math.floor(Math.log10(tickUnit)));
+            numberFormat = new DecimalFormat(decimals == 0 ? "#,##0" : "#,##0." + "0".repeat(decimals));
+            // Multiples of the unit, not sums of it, so the ticks do not drift
+            for (double i = Math.ceil(lower / tickUnit); ticks.size() < MAX_TICKS; i++) {
+                double t = i * tickUnit;
+                if (t > upper + tickUnit * 1e-9) break;
+                ticks.add(t);
+            }
+            return ticks;
+        }
+
+        tickUnit = 0;
+        if (spacing <= STEPS[STEPS.length - 1]) {
+            long step = STEPS[STEPS.length - 1];
+            for (long candidate : STEPS) {
+                if (candidate >= spacing) {
+                    step = candidate;
+                    break;
+                }
+            }
+            tickFormat = formatFor(step, upper - lower);
+            for (long t = Math.floorDiv((long) Math.ceil(lower) + step - 1, step) * step;
+                 t <= upper && ticks.size() < MAX_TICKS; t += step) {
+                ticks.add(t);
+            }
+        } else {
+            int months = MONTH_STEPS[MONTH_STEPS.length - 1];
+            for (int candidate : MONTH_STEPS) {
+                if (candidate * 30.4 * DAY >= spacing) {
+                    months = candidate;
+                    break;
+                }
+            }
+            tickFormat = DateTimeFormatter.ofPattern(months < 12 ? "yyyy-MM" : "yyyy").withZone(ZoneOffset.UTC);
+            ZonedDateTime start = Instant.ofEpochMilli((long) lower).atZone(ZoneOffset.UTC);
+            int index = Math.floorDiv(start.getYear() * 12 + start.getMonthValue() - 1, months) * months;
+            ZonedDateTime t = ZonedDateTime.of(Math.floorDiv(index, 12), Math.floorMod(index, 12) + 1, 1,
+                    0, 0, 0, 0, ZoneOffset.UTC);
+            while (ticks.size() < MAX_TICKS) {
+                long millis = t.toInstant().toEpochMilli();
+                if (millis > upper) break;
+                if (millis >= lower) ticks.add(millis);
+                t = t.plusMonths(months);
+            }
+        }
+        return ticks;
+    }
+
+    @Override
+    protected List<Number> calculateMinorTickMarks() {
+        List<Number> minor = new ArrayList<>();
+        if (time || !(tickUnit > 0)) return minor;
+        double lower = getLowerBound();
+        double upper = getUpperBound();
+        int count = Math.max(1, getMinorTickCount());
+        double minorUnit = tickUnit / count;
+        for (long i = (long) Math.floor(lower / tickUnit) * count; minor.size() < MAX_TICKS * count; i++) {
+            double t = i * minorUnit;
+            if (t > upper) break;
+            if (t > lower && Math.floorMod(i, count) != 0) minor.add(t); // the others are major ticks
+        }
+        return minor;
+    }
+
+    @Override
+    protected String getTickMarkLabel(Number value) {
+        if (time) return tickFormat.format(Instant.ofEpochMilli(value.longValue()));
+        StringConverter<Number> formatter = getTickLabelFormatter();
+        return formatter != null ? formatter.toString(value) : numberFormat.format(value.doubleValue());
+    }
+
+    // Value between ticks about TICK_SPACING pixels apart; two ticks across an axis not laid out yet
+    private static double spacing(double lower, double upper, double length) {
+        return (upper - lower) * (length > 0 ? Math.min(1, TICK_SPACING / length) : 0.5);
+    }
+
+    // The smallest of 1, 2 or 5 times a power of ten at least as large as the spacing
+    private static double niceUnit(double spacing) {
+        if (!(spacing > 0) || Double.isInfinite(spacing)) return 1;
+        double magnitude = Math.pow(10, Math.floor(Math.log10(spacing)));
+        double ratio = spacing / magnitude;
+        return (ratio <= 1 ? 1 : ratio <= 2 ? 2 : ratio <= 5 ? 5 : 10) * magnitude;
+    }
+
+    // Labels show the date only when the axis spans more than a day
+    private static DateTimeFormatter formatFor(long step, double span) {
+        String pattern;
+        if (step >= DAY) {
+            pattern = "yyyy-MM-dd";
+        } else if (step >= MINUTE) {
+            pattern = span > DAY ? "MM-dd HH:mm" : "HH:mm";
+        } else if (step >= SECOND) {
+            pattern = span > DAY ? "MM-dd HH:mm:ss" : "HH:mm:ss";
+        } else {
+            pattern = "HH:mm:ss.SSS";
+        }
+        return DateTimeFormatter.ofPattern(pattern).withZone(ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,50 @@
+package dataviz.ui;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The pending updates of an {@link FxDispatcher}, kept apart from the pulse
+ * timer that drains them. An update posted under a key replaces the one
+ * still pending under it and moves to the end, so a drained batch holds the
+ * latest update per key in the order they were last posted. Safe to post
+ * from any thread.
+ */
+final class UpdateQueue {
+
+    private final Map<Object, Runnable> pending = new LinkedHashMap<>();
+    private boolean scheduled; // guarded by pending
+
+    /**
+     * Queues {@code update} under {@code key}. Returns true for the first
+     * post after the queue was drained empty: the caller then arranges for
+     * {@link #drain} to be called.
+     */
+    boolean post(Object key, Runnable update) {
+        synchronized (pending) {
+            pending.remove(key); // re-inserted at the end, after anything it might depend on
+            pending.put(key, update);
+            boolean wake = !scheduled;
+            scheduled = true;
+            return wake;
+        }
+    }
+
+    /**
+     * Takes every pending update. An empty result means the queue was
+     * already empty; the next post then returns true again.
+     */
+    List<Runnable> drain() {
+        synchronized (pending) {
+            if (pending.isEmpty()) {
+                scheduled = false;
+                return List.of();
+            }
+            List<Runnable> batch = new ArrayList<>(pending.values());
+            pending.clear();
+            return batch;
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package dataviz.analysis;
+
+import dataviz.data.DataStore;
+import dataviz.data.DataView;
+import dataviz.stream.RingBuffer;
+import dataviz.stream.StreamWindow;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CategoryAggregatorTest {
+
+    @Test
+    void appendedRowsOfADatasetAreCounted() {
+        CategoryAggregator aggregator = new CategoryAggregator();
+        DataStore data = new DataStore();
+        Random random = new Random(1);
+        for (int round = 0; round < 5; round++) {
+            for (int i = 0; i < 10_000; i++) {
+                data.add(i, random.nextGaussian(), "c" + random.nextInt(3 + round));
+            }
+            assertMatchesRecompute(data, aggregator.update(data));
+        }
+    }
+
+    @Test
+    void slidingWindowsMatchAFullRecompute() {
+        CategoryAggregator aggregator = new CategoryAggregator();
+        // Not a multiple of the block size, so windows start and end mid-block
+        RingBuffer buffer = new RingBuffer(50_000, 0, Integer.MAX_VALUE);
+        Random random = new Random(2);
+        long x = 0;
+        for (int frame = 0; frame < 60; frame++) {
+            // From a few rows to several blocks per frame; new categories keep appearing
+            int appended = frame % 4 == 0 ? random.nextInt(30_000) : random.nextInt(500);
+            for (int i = 0; i < appended; i++) {
+                int category = buffer.dictionary().intern("c" + random.nextInt(2 + frame / 3));
+                buffer.add(x++, random.nextDouble() * 200 - 100, category);
+            }
+            StreamWindow window = buffer.snapshot();
+            assertMatchesRecompute(window, aggregator.update(window));
+        }
+    }
+
+    @Test
+    void anotherStreamStartsOver() {
+        CategoryAggregator aggregator = new CategoryAggregator();
+        RingBuffer first = new RingBuffer(20_000, 0, Integer.MAX_VALUE);
+        RingBuffer second = new RingBuffer(20_000, 0, Integer.MAX_VALUE);
+        int a = first.dictionary().intern("a");
+        int[] bc = {second.dictionary().intern("b"), second.dictionary().intern("c")};
+        for (int i = 0; i < 30_000; i++) {
+            first.add(i, 1, a);
+            second.add(i, -1, bc[i % 2]);
+        }
+        // Both sequences have blocks with the same indexes
+        assertMatchesRecompute(first.snapshot(), aggregator.update(first.snapshot()));
+        assertMatchesRecompute(second.snapshot(), aggregator.update(second.snapshot()));
+        assertMatchesRecompute(first.snapshot(), aggregator.update(first.snapshot()));
+    }
+
+    private static void assertMatchesRecompute(DataView data, CategoryStats stats) {
+        // Count, sum, absolute sum, min and max by category id, which is dictionary order
+        TreeMap<Integer, double[]> expected = new TreeMap<>();
+        for (int row = 0; row < data.size(); row++) {
+            double y = data.y(row);
+            double[] acc = expected.computeIfAbsent(data.categoryId(row),
+                    c -> new double[]{0, 0, 0, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY});
+            acc[0]++;
+            acc[1] += y;
+            acc[2] += Math.abs(y);
+            acc[3] = Math.min(acc[3], y);
+            acc[4] = Math.max(acc[4], y);
+        }
+
+        assertEquals(expected.size(), stats.size());
+        int i = 0;
+        for (var entry : expected.entrySet()) {
+            double[] acc = entry.getValue();
+            String name = data.categoryName(entry.getKey());
+            assertEquals(name, stats.name(i));
+            assertEquals((long) acc[0], stats.count(i), name);
+            // Blocks are summed separately, so only the rounding may differ
+            assertEquals(acc[1], stats.sum(i), 1e-9 * acc[2], name);
+            assertEquals(acc[2], stats.absSum(i), 1e-9 * acc[2], name);
+            assertEquals(acc[3], stats.min(i), name);
+            assertEquals(acc[4], stats.max(i), name);
+            i++;
+        }
+    }
+}
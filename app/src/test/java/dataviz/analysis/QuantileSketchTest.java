@@ -0,0 +1,90 @@
+package dataviz.analysis;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class QuantileSketchTest {
+
+    private static final int N = 1_000_000;
+    // Documented as about 1.7% at the default k; a little slack keeps fixed seeds from being fragile
+    private static final double MAX_RANK_ERROR = 0.025;
+
+    @Test
+    void rankErrorStaysWithinBound() {
+        QuantileSketch sketch = new QuantileSketch(11);
+        for (double value : shuffledRanks(new Random(1))) sketch.add(value);
+
+        assertEquals(N, sketch.count());
+        assertRankError(sketch.sorted());
+    }
+
+    @Test
+    void mergedChunksKeepTheBound() {
+        double[] values = shuffledRanks(new Random(2));
+        QuantileSketch merged = new QuantileSketch(12);
+        int chunk = N / 16;
+        for (int c = 0; c < 16; c++) {
+            QuantileSketch part = new QuantileSketch(100 + c);
+            for (int i = c * chunk; i < (c + 1) * chunk; i++) part.add(values[i]);
+            merged.merge(part);
+        }
+
+        assertEquals(N, merged.count());
+        assertRankError(merged.sorted());
+    }
+
+    @Test
+    void keepsItsSizeBounded() {
+        QuantileSketch sketch = new QuantileSketch(13);
+        for (double value : shuffledRanks(new Random(3))) sketch.add(value);
+
+        // About 3k items whatever the input size
+        assertTrue(sketch.sorted().estimatedBytes() < 10L * QuantileSketch.DEFAULT_K * (Double.BYTES + Long.BYTES));
+    }
+
+    @Test
+    void smallInputsAreExact() {
+        QuantileSketch sketch = new QuantileSketch(14);
+        for (int i = 1; i <= 100; i++) sketch.add(i);
+        sketch.add(Double.NaN);
+
+        QuantileSketch.Sorted sorted = sketch.sorted();
+        assertEquals(100, sketch.count());
+        assertEquals(1, sorted.quantile(0));
+        assertEquals(50, sorted.quantile(0.5));
+        assertEquals(100, sorted.quantile(1));
+    }
+
+    @Test
+    void emptySketchHasNoQuantiles() {
+        QuantileSketch.Sorted sorted = new QuantileSketch(15).sorted();
+
+        assertTrue(sorted.isEmpty());
+        assertTrue(Double.isNaN(sorted.quantile(0.5)));
+    }
+
+    // 0 .. N-1 in random order, so a value is its own rank
+    private static double[] shuffledRanks(Random random) {
+        double[] values = new double[N];
+        for (int i = 0; i < N; i++) values[i] = i;
+        for (int i = N - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            double t = values[i];
+            values[i] = values[j];
+            values[j] = t;
+        }
+        return values;
+    }
+
+    private static void assertRankError(QuantileSketch.Sorted sorted) {
+        for (int percent = 1; percent < 100; percent++) {
+            double q = percent / 100.0;
+            double rank = sorted.quantile(q) / N;
+            assertEquals(q, rank, MAX_RANK_ERROR, "quantile " + q);
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package dataviz.cache;
+
+import dataviz.data.CategoryDictionary;
+import dataviz.data.DataStore;
+import dataviz.io.CsvOptions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class ColumnCacheTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void mappedCategoriesUseTheCallersDictionary() throws IOException {
+        Path source = source();
+        CategoryDictionary parsed = new CategoryDictionary();
+        parsed.intern("unused");
+        DataStore data = new DataStore(parsed);
+        data.add(1, 10, "b");
+        data.add(2, 20, "a");
+        data.add(3, 30, "b");
+        ColumnCache cache = new ColumnCache(new CsvOptions());
+        cache.write(source, ColumnCache.SourceStamp.of(source), data, 0);
+
+        // A later session whose dictionary already knows other categories, in another order
+        CategoryDictionary shared = new CategoryDictionary();
+        int a = shared.intern("a");
+        shared.intern("c");
+        MappedDataView mapped = cache.open(source, shared);
+
+        assertNotNull(mapped);
+        assertSame(shared, mapped.dictionary());
+        assertEquals(a, mapped.categoryId(1));
+        assertEquals(shared.idOf("b"), mapped.categoryId(0));
+        assertEquals(mapped.categoryId(0), mapped.categoryId(2));
+        assertEquals("b", mapped.categoryName(mapped.categoryId(2)));
+        assertEquals(-1, shared.idOf("unused")); // no row uses it
+        assertEquals(20, mapped.y(1));
+    }
+
+    @Test
+    void unchangedIdsAreReadAsStored() throws IOException {
+        Path source = source();
+        CategoryDictionary dictionary = new CategoryDictionary();
+        DataStore data = new DataStore(dictionary);
+        data.add(1, 10, "a");
+        data.add(2, 20, "b");
+        ColumnCache cache = new ColumnCache(new CsvOptions());
+        cache.write(source, ColumnCache.SourceStamp.of(source), data, 0);
+
+        MappedDataView mapped = cache.open(source, dictionary);
+
+        assertEquals(data.categoryId(0), mapped.categoryId(0));
+        assertEquals(data.categoryId(1), mapped.categoryId(1));
+        assertEquals(2, dictionary.size());
+    }
+
+    @Test
+    void staleSidecarIsNotOpened() throws IOException {
+        Path source = source();
+        DataStore data = new DataStore();
+        data.add(1, 10, "a");
+        ColumnCache cache = new ColumnCache(new CsvOptions());
+        cache.write(source, ColumnCache.SourceStamp.of(source), data, 0);
+
+        Files.writeString(source, "x,y,category\n1,10,a\n2,20,b\n");
+
+        assertNull(cache.open(source, new CategoryDictionary()));
+    }
+
+    @Test
+    void sameSizeAndMtimeWithOtherContentIsStale() throws IOException {
+        Path source = source();
+        DataStore data = new DataStore();
+        data.add(1, 10, "a");
+        ColumnCache cache = new ColumnCache(new CsvOptions());
+        cache.write(source, ColumnCache.SourceStamp.of(source), data, 0);
+
+        FileTime modified = Files.getLastModifiedTime(source);
+        Files.writeString(source, "x,y,category\n1,90,a\n");
+        Files.setLastModifiedTime(source, modified);
+
+        assertNull(cache.open(source, new CategoryDictionary()));
+    }
+
+    @Test
+    void extraSeriesAreCachedWithTheirNames() throws IOException {
+        Path source = source();
+        CategoryDictionary dictionary = new CategoryDictionary();
+        DataStore data = new DataStore(dictionary, 3);
+        data.setSeriesName(0, "price");
+        data.setSeriesName(1, "volume");
+        data.setSeriesName(2, "spread");
+        for (int i = 0; i < 1_000; i++) {
+            data.add(i, new double[]{i * 2, i * 3, i % 7 == 0 ? Double.NaN : -i}, dictionary.intern("c" + i % 4));
+        }
+        CsvOptions options = new CsvOptions().seriesColumns(3, 4);
+        ColumnCache cache = new ColumnCache(options);
+        cache.write(source, ColumnCache.SourceStamp.of(source), data, 5);
+
+        MappedDataView mapped = cache.open(source, dictionary);
+
+        assertNotNull(mapped);
+        assertEquals(3, mapped.seriesCount());
+        assertEquals("volume", mapped.seriesName(1));
+        assertEquals(5, mapped.skippedRows());
+        for (int i = 0; i < data.size(); i++) {
+            assertEquals(data.x(i), mapped.x(i));
+            assertEquals(data.y(i), mapped.y(i));
+            for (int s = 0; s < 3; s++) {
+                assertEquals(data.value(s, i), mapped.value(s, i));
+            }
+            assertEquals(data.categoryId(i), mapped.categoryId(i));
+        }
+        // Read with one series fewer, the same file is parsed again
+        assertNull(new ColumnCache(new CsvOptions().seriesColumns(3)).open(source, dictionary));
+    }
+
+    @Test
+    void damagedDictionaryIsDiscarded() throws IOException {
+        Path source = source();
+        DataStore data = new DataStore();
+        data.add(1, 10, "abcdef");
+        ColumnCache cache = new ColumnCache(new CsvOptions());
+        cache.write(source, ColumnCache.SourceStamp.of(source), data, 0);
+
+        Path sidecar = ColumnCache.sidecarFor(source);
+        byte[] bytes = Files.readAllBytes(sidecar);
+        String text = new String(bytes, StandardCharsets.ISO_8859_1);
+        bytes[text.indexOf("abcdef")] = 'x';
+        Files.write(sidecar, bytes);
+
+        assertNull(cache.open(source, new CategoryDictionary()));
+        assertFalse(Files.exists(sidecar));
+    }
+
+    @Test
+    void damagedColumnsAreDiscarded() throws IOException {
+        Path source = source();
+        DataStore data = new DataStore(new CategoryDictionary(), 2);
+        for (int i = 0; i < 10_000; i++) {
+            data.add(i, new double[]{i * 0.5, -i}, data.dictionary().intern("c" + i % 3));
+        }
+        CsvOptions options = new CsvOptions().seriesColumns(3);
+        ColumnCache cache = new ColumnCache(options);
+        Path sidecar = ColumnCache.sidecarFor(source);
+        cache.write(source, ColumnCache.SourceStamp.of(source), data, 0);
+        byte[] written = Files.readAllBytes(sidecar);
+        // The x, series and category columns, then five checksums padded to 24 bytes, end the file
+        int columns = written.length - 24 - 10_000 * (3 * Double.BYTES + Integer.BYTES);
+
+        // One bit of x, of each series and of the categories in turn
+        for (int offset : new int[] {columns + 3, columns + 80_000 + 17, columns + 160_000 + 79_999,
+                columns + 240_000 + 20_000}) {
+            byte[] bytes = written.clone();
+            bytes[offset] ^= 1;
+            Files.write(sidecar, bytes);
+
+            assertNull(cache.open(source, new CategoryDictionary()), "flipped byte " + offset);
+            assertFalse(Files.exists(sidecar));
+        }
+        Files.write(sidecar, written);
+        assertNotNull(cache.open(source, new CategoryDictionary()));
+    }
+
+    private Path source() throws IOException {
+        Path source = dir.resolve("data.csv");
+        Files.writeString(source, "x,y,category\n1,10,a\n");
+        return source;
+    }
+}
@@ -0,0 +1,84 @@
+package dataviz.cache;
+
+import dataviz.data.DataStore;
+import dataviz.query.FilterExpression;
+import dataviz.query.FilteredView;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class DerivedCacheTest {
+
+    @Test
+    void keptValuesAreServedWithoutComputingAgain() {
+        DerivedCache cache = new DerivedCache(1_000);
+        AtomicInteger computed = new AtomicInteger();
+        DerivedCache.Key key = DerivedCache.Key.of(1, "lod", 800);
+
+        int[] first = cache.get(key, () -> rows(computed, 10), rows -> DerivedCache.intArrayBytes(rows.length));
+        int[] second = cache.get(key, () -> rows(computed, 10), rows -> DerivedCache.intArrayBytes(rows.length));
+
+        assertSame(first, second);
+        assertEquals(1, computed.get());
+        assertEquals(1, cache.hits());
+        assertEquals(1, cache.misses());
+        // Another width or range is another entry
+        cache.get(DerivedCache.Key.of(1, "lod", 400), () -> rows(computed, 10), rows -> 56);
+        cache.get(new DerivedCache.Key(1, "lod", 800, 0, 5), () -> rows(computed, 10), rows -> 56);
+        assertEquals(3, computed.get());
+        assertEquals(3, cache.size());
+    }
+
+    @Test
+    void leastRecentlyUsedEntriesGoOnceOverBudget() {
+        DerivedCache cache = new DerivedCache(300);
+        for (long version = 1; version <= 3; version++) {
+            cache.get(DerivedCache.Key.of(version, "rows"), () -> "v", value -> 100);
+        }
+        cache.get(DerivedCache.Key.of(1, "rows"), () -> "again", value -> 100); // now the most recent
+        cache.get(DerivedCache.Key.of(4, "rows"), () -> "v", value -> 150);
+
+        // Versions 2 and 3 make room for 4; 1 was used since
+        assertEquals(2, cache.size());
+        assertEquals(250, cache.residentBytes());
+        assertEquals("v", cache.get(DerivedCache.Key.of(1, "rows"), () -> "computed", value -> 100));
+        assertEquals("computed", cache.get(DerivedCache.Key.of(3, "rows"), () -> "computed", value -> 100));
+    }
+
+    @Test
+    void valuesLargerThanTheBudgetAreReturnedButNotKept() {
+        DerivedCache cache = new DerivedCache(100);
+        cache.get(DerivedCache.Key.of(1, "small"), () -> "small", value -> 50);
+        assertEquals("large", cache.get(DerivedCache.Key.of(2, "large"), () -> "large", value -> 101));
+
+        assertEquals(1, cache.size());
+        assertEquals(50, cache.residentBytes());
+    }
+
+    @Test
+    void mutationsAndViewsGetVersionsOfTheirOwn() {
+        DataStore data = new DataStore();
+        data.add(1, 1, "a");
+        long before = data.version();
+        assertEquals(before, data.version());
+
+        data.add(2, 2, "b");
+        assertNotEquals(before, data.version());
+
+        FilteredView view = new FilteredView(data, FilterExpression.parse("x > 0").select(data));
+        long viewVersion = view.version();
+        assertNotEquals(data.version(), viewVersion);
+        assertEquals(viewVersion, view.version());
+        data.add(3, 3, "c");
+        assertNotEquals(viewVersion, view.version());
+    }
+
+    private static int[] rows(AtomicInteger computed, int length) {
+        computed.incrementAndGet();
+        return new int[length];
+    }
+}
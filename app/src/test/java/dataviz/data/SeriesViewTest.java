@@ -0,0 +1,29 @@
+package dataviz.data;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SeriesViewTest {
+
+    @Test
+    void showsTheChosenSeriesAsItsOnlyOne() {
+        DataStore data = new DataStore(new CategoryDictionary(), 3);
+        data.setSeriesName(0, "y");
+        data.setSeriesName(1, "temperature");
+        data.setSeriesName(2, "pressure");
+        for (int i = 0; i < 10; i++) {
+            data.add(i, new double[] {i, i * 10.0, i * 100.0}, 0);
+        }
+        SeriesView view = new SeriesView(data, 2);
+
+        assertEquals(1, view.seriesCount());
+        assertEquals("pressure", view.seriesName(0));
+        assertEquals(700.0, view.y(7));
+        assertEquals(700.0, view.value(0, 7));
+        assertThrows(IndexOutOfBoundsException.class, () -> view.seriesName(1));
+        assertThrows(IndexOutOfBoundsException.class, () -> view.value(2, 7));
+        assertThrows(IllegalArgumentException.class, () -> new SeriesView(data, 3));
+    }
+}
@@ -0,0 +1,85 @@
+package dataviz.generate;
+
+import dataviz.data.DataStore;
+import dataviz.io.ProgressListener;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+class DataGeneratorTest {
+
+    private static final ForkJoinPool ONE = new ForkJoinPool(1);
+    private static final ForkJoinPool MANY = new ForkJoinPool(8);
+
+    // Three full chunks and a partial one
+    private static final int ROWS = 3 * DataStore.CHUNK_ROWS + 12_345;
+
+    @AfterAll
+    static void shutDown() {
+        ONE.shutdown();
+        MANY.shutdown();
+    }
+
+    @Test
+    void sameSeedGivesTheSameColumnsAtAnyThreadCount() {
+        DataGenerator generator = new DataGenerator(Profile.SINUSOIDAL, 42, 5);
+        DataStore first = generator.generate(ROWS, ONE, ProgressListener.NONE);
+        DataStore again = generator.generate(ROWS, ONE, ProgressListener.NONE);
+        DataStore parallel = generator.generate(ROWS, MANY, ProgressListener.NONE);
+        assertSameRows(first, again);
+        assertSameRows(first, parallel);
+    }
+
+    @Test
+    void differentSeedsGiveDifferentValues() {
+        DataStore a = new DataGenerator(Profile.RANDOM, 1, 3).generate(ROWS, MANY, ProgressListener.NONE);
+        DataStore b = new DataGenerator(Profile.RANDOM, 2, 3).generate(ROWS, MANY, ProgressListener.NONE);
+        int same = 0;
+        for (int row = 0; row < ROWS; row++) {
+            if (a.y(row) == b.y(row)) same++;
+        }
+        assertEquals(0, same, "rows with equal y");
+    }
+
+    @Test
+    void everyRowIsWrittenOnceByTheChunkThatOwnsIt() {
+        int categories = 7;
+        DataStore store = new DataGenerator(Profile.LINEAR, 99, categories).generate(ROWS, MANY, ProgressListener.NONE);
+        assertEquals(ROWS, store.size());
+
+        // Replay each chunk on its own; a gap or an overlap at a boundary would leave a row unmatched
+        for (int start = 0, chunk = 0; start < ROWS; start += DataStore.CHUNK_ROWS, chunk++) {
+            SplittableRandom random = new SplittableRandom(DataGenerator.chunkSeed(99, chunk));
+            int end = Math.min(ROWS, start + DataStore.CHUNK_ROWS);
+            for (int row = start; row < end; row++) {
+                assertEquals(row, store.x(row), "x at row " + row);
+                assertEquals(Profile.LINEAR.y(row, random), store.y(row), "y at row " + row);
+                assertEquals("Category " + (row % categories + 1), store.categoryName(store.categoryId(row)),
+                        "category at row " + row);
+            }
+        }
+    }
+
+    @Test
+    void neighbouringChunksDrawDifferentStreams() {
+        DataStore store = new DataGenerator(Profile.RANDOM, 7, 1).generate(ROWS, MANY, ProgressListener.NONE);
+        for (int start = DataStore.CHUNK_ROWS; start < ROWS; start += DataStore.CHUNK_ROWS) {
+            assertNotEquals(store.y(0), store.y(start), "first y of the chunk at " + start);
+        }
+    }
+
+    private static void assertSameRows(DataStore expected, DataStore actual) {
+        assertEquals(expected.size(), actual.size(), "size");
+        for (int row = 0; row < expected.size(); row++) {
+            assertEquals(expected.x(row), actual.x(row), "x at row " + row);
+            assertEquals(expected.y(row), actual.y(row), "y at row " + row);
+            assertEquals(expected.categoryName(expected.categoryId(row)),
+                    actual.categoryName(actual.categoryId(row)), "category at row " + row);
+        }
+    }
+}
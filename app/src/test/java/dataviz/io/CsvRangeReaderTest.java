@@ -0,0 +1,125 @@
+package dataviz.io;
+
+import dataviz.data.CategoryDictionary;
+import dataviz.data.DataStore;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CsvRangeReaderTest {
+
+    @TempDir
+    Path dir;
+    private CsvResult result; // of the last load
+
+    @Test
+    void readsPlainRowsAfterTheHeader() throws IOException {
+        DataStore data = load("x,y,category\n1,10,a\n2,20,b\n3,30,a\n", new CsvOptions());
+
+        assertEquals(3, data.size());
+        assertEquals(2, data.x(1));
+        assertEquals(30, data.y(2));
+        assertEquals("a", data.categoryName(data.categoryId(0)));
+        assertEquals("b", data.categoryName(data.categoryId(1)));
+        assertEquals(data.categoryId(0), data.categoryId(2));
+    }
+
+    @Test
+    void readsQuotedFieldsWithDoubledQuotes() throws IOException {
+        DataStore data = load("x,y,category\n1,\"10\",\"say \"\"hi\"\"\"\n\"2\" , 20 ,\" padded \"\n",
+                new CsvOptions());
+
+        assertEquals(2, data.size());
+        assertEquals(10, data.y(0));
+        assertEquals("say \"hi\"", data.categoryName(data.categoryId(0)));
+        assertEquals(2, data.x(1));
+        assertEquals(20, data.y(1));
+        assertEquals(" padded ", data.categoryName(data.categoryId(1)));
+    }
+
+    @Test
+    void emptyCategoryGetsTheDefaultAndEmptyValuesSkipTheRow() throws IOException {
+        DataStore data = load("x,y,category\n1,10,\n2,,b\n,30,c\n\n4,40,d\n", new CsvOptions());
+
+        assertEquals(2, data.size());
+        assertEquals("Data", data.categoryName(data.categoryId(0)));
+        assertEquals(4, data.x(1));
+        assertEquals(2, result.skippedRows()); // the blank line is not a skipped row
+    }
+
+    @Test
+    void handlesCrlfLineEndings() throws IOException {
+        DataStore data = load("x,y,category\r\n1,10,a\r\n2,20,b\r\n", new CsvOptions());
+
+        assertEquals(2, data.size());
+        assertEquals(20, data.y(1));
+        assertEquals("a", data.categoryName(data.categoryId(0)));
+        assertEquals("b", data.categoryName(data.categoryId(1)));
+    }
+
+    @Test
+    void readsTabSeparatedFields() throws IOException {
+        DataStore data = load("x\ty\tcategory\n1\t10\ta b\n2\t20\tc\n", new CsvOptions().delimiter('\t'));
+
+        assertEquals(2, data.size());
+        assertEquals(10, data.y(0));
+        assertEquals("a b", data.categoryName(data.categoryId(0)));
+        assertEquals(2, data.x(1));
+    }
+
+    @Test
+    void emptyTabSeparatedFieldsKeepTheirColumns() throws IOException {
+        CsvOptions options = new CsvOptions().delimiter('\t').header(false).seriesColumns(3);
+        DataStore data = load("1\t10\t\t5\n2\t20\t\t\n\t30\ta\t6\n", options);
+
+        assertEquals(2, data.size());
+        assertEquals("Data", data.categoryName(data.categoryId(0)));
+        assertEquals(5, data.value(1, 0));
+        assertTrue(Double.isNaN(data.value(1, 1)));
+        assertEquals(1, result.skippedRows());
+    }
+
+    @Test
+    void spaceSeparatedFieldsAreNotTrimmedAway() throws IOException {
+        DataStore data = load("1 10  5\n", new CsvOptions().delimiter(' ').header(false).seriesColumns(3));
+
+        assertEquals(1, data.size());
+        assertEquals("Data", data.categoryName(data.categoryId(0)));
+        assertEquals(5, data.value(1, 0));
+    }
+
+    @Test
+    void quotedFieldsMayContainTheDelimiter() throws IOException {
+        DataStore csv = load("1,10,\"a,b\"\n2,20,\"\"\n", new CsvOptions().header(false));
+        assertEquals("a,b", csv.categoryName(csv.categoryId(0)));
+        assertEquals("Data", csv.categoryName(csv.categoryId(1)));
+
+        DataStore tsv = load("1\t10\t\"a\tb\"\t7\n", new CsvOptions().delimiter('\t').header(false).seriesColumns(3));
+        assertEquals("a\tb", tsv.categoryName(tsv.categoryId(0)));
+        assertEquals(7, tsv.value(1, 0));
+    }
+
+    @Test
+    void lastLineNeedsNoLineBreak() throws IOException {
+        DataStore data = load("1,10,a\n2,20,b", new CsvOptions().header(false));
+
+        assertEquals(2, data.size());
+        assertEquals("b", data.categoryName(data.categoryId(1)));
+        assertTrue(data.extent().isXSorted());
+    }
+
+    private DataStore load(String content, CsvOptions options) throws IOException {
+        Path file = dir.resolve("data.csv");
+        Files.writeString(file, content, StandardCharsets.UTF_8);
+        DataStore data = new DataStore(new CategoryDictionary(), options.seriesCount());
+        result = new CsvParser(options).parse(file, data, ProgressListener.NONE);
+        return data;
+    }
+}
@@ -0,0 +1,85 @@
+package dataviz.io;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DoubleParserTest {
+
+    private final DoubleParser parser = new DoubleParser();
+
+    @Test
+    void edgeCasesMatchParseDouble() {
+        String[] inputs = {
+                "0", "-0", "+0", "0.0", "1", "-1", "+5", "0.1", "0.3", ".5", "5.", "123.456", "1e10", "1E-10",
+                "2.5e+3", "9007199254740993", "123456789012345678901234567890", "0.000000000000000000001",
+                "1.7976931348623157e308", "1.8e308", "4.9e-324", "2.4e-324", "2.2250738585072014E-308",
+                "2.2250738585072011e-308", "1e-400", "-1e-400", "1e400", "7.2057594037927933e16",
+                "9.007199254740993e15", "1.00000000000000011102230246251565404236316680908203125",
+                "NaN", "Infinity", "-Infinity"
+        };
+        for (String input : inputs) {
+            assertRoundTrip(input);
+        }
+    }
+
+    @Test
+    void shortestReprOfRandomDoublesRoundTrips() {
+        Random random = new Random(42);
+        for (int i = 0; i < 200_000; i++) {
+            double value = Double.longBitsToDouble(random.nextLong());
+            if (!Double.isFinite(value)) continue;
+            assertRoundTrip(Double.toString(value));
+        }
+    }
+
+    @Test
+    void randomDecimalsMatchParseDouble() {
+        Random random = new Random(7);
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 200_000; i++) {
+            text.setLength(0);
+            if (random.nextBoolean()) text.append('-');
+            int digits = 1 + random.nextInt(25);
+            int point = random.nextInt(digits + 1);
+            for (int d = 0; d < digits; d++) {
+                if (d == point) text.append('.');
+                text.append((char) ('0' + random.nextInt(10)));
+            }
+            if (random.nextBoolean()) text.append('e').append(random.nextInt(640) - 330);
+            assertRoundTrip(text.toString());
+        }
+    }
+
+    @Test
+    void parsesOnlyTheGivenRange() {
+        byte[] bytes = "x,12.5,y".getBytes(StandardCharsets.US_ASCII);
+        assertEquals(12.5, parser.parse(ByteBuffer.wrap(bytes), 2, 6));
+        assertTrue(parser.valid());
+    }
+
+    @Test
+    void rejectsMalformedNumbers() {
+        for (String input : new String[]{"", "-", ".", "abc", "1.2.3", "1e", "1e+", "--1", "1x", "1 2", "e5"}) {
+            parse(input);
+            assertFalse(parser.valid(), input);
+        }
+    }
+
+    private double parse(String text) {
+        byte[] bytes = text.getBytes(StandardCharsets.US_ASCII);
+        return parser.parse(ByteBuffer.wrap(bytes), 0, bytes.length);
+    }
+
+    private void assertRoundTrip(String text) {
+        double actual = parse(text);
+        assertTrue(parser.valid(), text);
+        assertEquals(Double.doubleToRawLongBits(Double.parseDouble(text)), Double.doubleToRawLongBits(actual), text);
+    }
+}
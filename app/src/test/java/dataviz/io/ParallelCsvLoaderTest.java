@@ -0,0 +1,114 @@
+package dataviz.io;
+
+import dataviz.data.CategoryDictionary;
+import dataviz.data.DataStore;
+import dataviz.data.RowSink;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ParallelCsvLoaderTest {
+
+    private static final ForkJoinPool POOL = new ForkJoinPool(4);
+
+    @TempDir
+    Path dir;
+
+    @AfterAll
+    static void shutDown() {
+        POOL.shutdown();
+    }
+
+    @Test
+    void chunksFillTheTargetInFileOrder() throws IOException {
+        Path file = write(700_000, 0, new Random(1));
+        assertMatchesSequentialParse(file, new CsvOptions());
+    }
+
+    @Test
+    void skippedLinesLeaveNoGaps() throws IOException {
+        // Malformed lines throughout, so every chunk's rows after the first move down
+        Path file = write(700_000, 50, new Random(2));
+        assertMatchesSequentialParse(file, new CsvOptions());
+    }
+
+    @Test
+    void extraSeriesMoveWithTheirRows() throws IOException {
+        Path file = write(700_000, 200, new Random(3));
+        assertMatchesSequentialParse(file, new CsvOptions().seriesColumns(3));
+    }
+
+    @Test
+    void aFileTooLargeForTheSinkIsRefusedBeforeAnyRowIsAdded() throws IOException {
+        Path file = write(100_000, 0, new Random(4));
+        DataStore store = new DataStore();
+        RowSink sink = new RowSink() {
+            @Override
+            public void add(double x, double y, int categoryId) {
+                store.add(x, y, categoryId);
+            }
+
+            @Override
+            public long remainingRows() {
+                return 50_000;
+            }
+
+            @Override
+            public CategoryDictionary dictionary() {
+                return store.dictionary();
+            }
+        };
+
+        assertThrows(IllegalArgumentException.class,
+                () -> new ParallelCsvLoader(new CsvOptions(), POOL).loadInOrder(file, sink, 1L << 20, ProgressListener.NONE));
+        assertEquals(0, store.size());
+    }
+
+    private void assertMatchesSequentialParse(Path file, CsvOptions options) throws IOException {
+        assertTrue(Files.size(file) > 16L << 20, "file too small to be split");
+
+        DataStore expected = new DataStore(new CategoryDictionary(), options.seriesCount());
+        CsvResult sequential = new CsvParser(options).parse(file, expected, ProgressListener.NONE);
+        DataStore actual = new DataStore(new CategoryDictionary(), options.seriesCount());
+        CsvResult parallel = new ParallelCsvLoader(options, POOL).load(file, actual, ProgressListener.NONE);
+
+        assertEquals(sequential.rows(), parallel.rows());
+        assertEquals(sequential.skippedRows(), parallel.skippedRows());
+        assertEquals(expected.size(), actual.size());
+        assertEquals(expected.categoryCount(), actual.categoryCount());
+        for (int row = 0; row < expected.size(); row++) {
+            assertEquals(expected.x(row), actual.x(row), "x of row " + row);
+            for (int s = 0; s < expected.seriesCount(); s++) {
+                assertEquals(expected.value(s, row), actual.value(s, row), "series " + s + " of row " + row);
+            }
+            // Ids too, as both intern the categories in file order
+            assertEquals(expected.categoryId(row), actual.categoryId(row), "category of row " + row);
+        }
+        assertEquals(expected.extent().isXSorted(), actual.extent().isXSorted());
+    }
+
+    // A header, then rows of x, y, category and a second value; one line in badEvery has no y
+    private Path write(int rows, int badEvery, Random random) throws IOException {
+        Path file = dir.resolve("data.csv");
+        try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            out.write("x,y,category,z\n");
+            for (int i = 0; i < rows; i++) {
+                String y = badEvery > 0 && random.nextInt(badEvery) == 0 ? "n/a" : Double.toString(random.nextGaussian());
+                out.write(i + "," + y + ",category " + random.nextInt(40) + "," + random.nextDouble() + "\n");
+            }
+        }
+        return file;
+    }
+}
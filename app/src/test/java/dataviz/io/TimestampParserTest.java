@@ -0,0 +1,135 @@
+package dataviz.io;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TimestampParserTest {
+
+    private final TimestampParser parser = new TimestampParser();
+
+    @Test
+    void datesAndTimesWithoutAnOffsetAreUtc() {
+        assertParses("2024-03-01", "2024-03-01T00:00:00Z");
+        assertParses("2024-03-01T12:30", "2024-03-01T12:30:00Z");
+        assertParses("2024-03-01 12:30:15", "2024-03-01T12:30:15Z");
+        assertParses("2024-03-01 12:30:15.250", "2024-03-01T12:30:15.250Z");
+        assertParses("1969-12-31T23:59:59.999", "1969-12-31T23:59:59.999Z");
+        assertParses("1600-01-01", "1600-01-01T00:00:00Z");
+    }
+
+    @Test
+    void offsetsAreAppliedInEveryForm() {
+        assertParses("2024-03-01T12:30Z", "2024-03-01T12:30:00Z");
+        assertParses("2024-03-01T12:30:00z", "2024-03-01T12:30:00Z");
+        assertParses("2024-03-01T12:30:00+05:30", "2024-03-01T07:00:00Z");
+        assertParses("2024-03-01T12:30:00+0530", "2024-03-01T07:00:00Z");
+        assertParses("2024-03-01T12:30:00-0800", "2024-03-01T20:30:00Z");
+        assertParses("2024-03-01T12:30:00-08:00", "2024-03-01T20:30:00Z");
+        assertParses("2024-03-01T12:30:00-08", "2024-03-01T20:30:00Z");
+        // The offset carries the instant into the next and the previous day
+        assertParses("2024-12-31T23:30:00-01:00", "2025-01-01T00:30:00Z");
+        assertParses("2024-01-01T00:15:00.500+00:30", "2023-12-31T23:45:00.500Z");
+    }
+
+    @Test
+    void fractionsFinerThanAMillisecondAreTruncated() {
+        assertParses("2024-03-01T12:30:15.1", "2024-03-01T12:30:15.100Z");
+        assertParses("2024-03-01T12:30:15.12", "2024-03-01T12:30:15.120Z");
+        assertParses("2024-03-01T12:30:15.123456", "2024-03-01T12:30:15.123Z");
+        assertParses("2024-03-01T12:30:15.999999999", "2024-03-01T12:30:15.999Z");
+        assertParses("2024-03-01T12:30:15,5Z", "2024-03-01T12:30:15.500Z");
+        assertParses("2024-03-01T12:30:15.123456789+02:00", "2024-03-01T10:30:15.123Z");
+    }
+
+    @Test
+    void leapDaysFollowTheGregorianRules() {
+        assertParses("2024-02-29", "2024-02-29T00:00:00Z");
+        assertParses("2000-02-29T23:59:59", "2000-02-29T23:59:59Z");
+        for (String input : new String[]{"2023-02-29", "1900-02-29", "2100-02-29", "2024-02-30"}) {
+            parse(input);
+            assertFalse(parser.valid(), input);
+        }
+    }
+
+    @Test
+    void rejectsInvalidDatesAndTimes() {
+        String[] inputs = {
+                "", "2024-13-01", "2024-00-10", "2024-04-31", "2024-01-00", "2024-1-01",
+                "2024/01/01", "2024-01-01X12:00", "2024-01-01T24:00", "2024-01-01T12:60",
+                "2024-01-01T12:30:60", "2024-01-01T12", "2024-01-01T12:30:", "2024-01-01T12:30:15.",
+                "2024-01-01T12:30+19:00", "2024-01-01T12:30+05:60", "2024-01-01T12:30+5",
+                "2024-01-01T12:30Zjunk", "2024-01-01 ", "12a", "-", "1234567890123456789"
+        };
+        for (String input : inputs) {
+            parse(input);
+            assertFalse(parser.valid(), input);
+        }
+    }
+
+    @Test
+    void plainIntegersAreEpochMillis() {
+        assertEquals(1_709_296_215_250L, parse("1709296215250"));
+        assertTrue(parser.valid());
+        assertEquals(-86_400_000L, parse("-86400000"));
+        assertTrue(parser.valid());
+        assertEquals(42L, parse("+42"));
+        assertTrue(parser.valid());
+    }
+
+    @Test
+    void randomInstantsMatchJavaTime() {
+        Random random = new Random(11);
+        DateTimeFormatter[] formats = {
+                DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ssXXX"),
+                DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSSSSSxx"),
+                DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSSSSSSSSXXX"),
+                DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mmX")
+        };
+        for (int i = 0; i < 50_000; i++) {
+            long seconds = random.nextLong(-5_000_000_000L, 10_000_000_000L);
+            Instant instant = Instant.ofEpochSecond(seconds, random.nextInt(1_000_000_000));
+            // Whole quarter hours, which every pattern above can print
+            ZoneOffset offset = ZoneOffset.ofTotalSeconds(15 * 60 * random.nextInt(-12 * 4, 14 * 4 + 1));
+            DateTimeFormatter format = formats[random.nextInt(formats.length)];
+            String text = OffsetDateTime.ofInstant(instant, offset).format(format);
+
+            OffsetDateTime printed = OffsetDateTime.parse(text, format);
+            long expected = printed.toInstant().truncatedTo(ChronoUnit.MILLIS).toEpochMilli();
+            assertEquals(expected, parse(text), text);
+            assertTrue(parser.valid(), text);
+        }
+    }
+
+    @Test
+    void daysFromCivilMatchesEpochDay() {
+        for (LocalDate date = LocalDate.of(1599, 12, 1); date.getYear() < 2401; date = date.plusDays(1)) {
+            assertEquals(date.toEpochDay(),
+                    TimestampParser.daysFromCivil(date.getYear(), date.getMonthValue(), date.getDayOfMonth()),
+                    date.toString());
+        }
+    }
+
+    private long parse(String text) {
+        byte[] bytes = text.getBytes(StandardCharsets.US_ASCII);
+        return parser.parse(ByteBuffer.wrap(bytes), 0, bytes.length);
+    }
+
+    private void assertParses(String text, String expectedInstant) {
+        long actual = parse(text);
+        assertTrue(parser.valid(), text);
+        assertEquals(Instant.parse(expectedInstant).toEpochMilli(), actual, text);
+    }
+}
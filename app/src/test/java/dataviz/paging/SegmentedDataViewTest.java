@@ -0,0 +1,151 @@
+package dataviz.paging;
+
+import dataviz.data.CategoryDictionary;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SegmentedDataViewTest {
+
+    private static final int PAGE_BYTES = SegmentedDataView.PAGE_ROWS * Double.BYTES;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void rowsReadBackAcrossSegmentBoundaries() throws IOException {
+        PageCache cache = new PageCache(64L << 20);
+        // The last page of the first segment is full, the last page of the second is not
+        int rows = SegmentedDataView.SEGMENT_ROWS + SegmentedDataView.PAGE_ROWS + 123;
+        try (SegmentedDataView view = write(cache, rows, 2)) {
+            assertEquals(rows, view.size());
+            assertEquals(2, view.seriesCount());
+            assertEquals("y2", view.seriesName(1));
+            for (int row : new int[] {0, SegmentedDataView.PAGE_ROWS - 1, SegmentedDataView.PAGE_ROWS,
+                    SegmentedDataView.SEGMENT_ROWS - 1, SegmentedDataView.SEGMENT_ROWS, rows - 1}) {
+                assertRow(view, row);
+            }
+            for (int row = 0; row < rows; row += 997) {
+                assertRow(view, row);
+            }
+            assertEquals(0, view.extent().minX());
+            assertEquals(rows - 1, view.extent().maxX());
+            assertTrue(view.extent().isXSorted());
+        }
+    }
+
+    @Test
+    void aFullScanStaysWithinTheBudget() throws IOException {
+        PageCache cache = new PageCache(3L * PAGE_BYTES);
+        int pages = 40;
+        try (SegmentedDataView view = write(cache, pages * SegmentedDataView.PAGE_ROWS, 1)) {
+            double sum = 0;
+            for (int row = 0; row < view.size(); row++) {
+                sum += view.x(row);
+                assertTrue(cache.residentBytes() <= cache.budgetBytes(), "over budget at row " + row);
+            }
+            assertEquals((double) view.size() * (view.size() - 1) / 2, sum);
+            assertEquals(pages, cache.misses());
+            assertEquals(pages - 3, cache.evictions());
+            assertEquals(3L * PAGE_BYTES, cache.residentBytes());
+        }
+        assertEquals(0, cache.residentBytes());
+    }
+
+    @Test
+    void theClockSparesPagesUsedSinceItsLastSweep() throws IOException {
+        PageCache cache = new PageCache(3L * PAGE_BYTES);
+        try (SegmentedDataView view = write(cache, 5 * SegmentedDataView.PAGE_ROWS, 1)) {
+            for (int page = 0; page < 4; page++) {
+                view.x(page * SegmentedDataView.PAGE_ROWS); // page 0 goes, and the sweep clears the others
+            }
+            view.x(SegmentedDataView.PAGE_ROWS); // page 1 is used again
+            view.x(4 * SegmentedDataView.PAGE_ROWS); // so page 2 goes instead
+            assertEquals(5, cache.misses());
+
+            view.x(SegmentedDataView.PAGE_ROWS + 1);
+            view.x(3 * SegmentedDataView.PAGE_ROWS + 1);
+            view.x(4 * SegmentedDataView.PAGE_ROWS + 1);
+            assertEquals(5, cache.misses());
+            view.x(2 * SegmentedDataView.PAGE_ROWS);
+            assertEquals(6, cache.misses());
+        }
+    }
+
+    @Test
+    void datasetsShareOneBudget() throws IOException {
+        PageCache cache = new PageCache(4L * PAGE_BYTES);
+        try (SegmentedDataView first = write(cache, 4 * SegmentedDataView.PAGE_ROWS, 1);
+             SegmentedDataView second = write(cache, 4 * SegmentedDataView.PAGE_ROWS, 1)) {
+            for (int page = 0; page < 4; page++) {
+                first.x(page * SegmentedDataView.PAGE_ROWS);
+                second.x(page * SegmentedDataView.PAGE_ROWS);
+            }
+            assertEquals(4L * PAGE_BYTES, cache.residentBytes());
+
+            first.close();
+            assertTrue(cache.residentBytes() < 4L * PAGE_BYTES);
+            assertEquals(3.0 * SegmentedDataView.PAGE_ROWS, second.x(3 * SegmentedDataView.PAGE_ROWS));
+        }
+    }
+
+    @Test
+    void closingDeletesTheSegmentFiles() throws IOException {
+        PageCache cache = new PageCache(16L << 20);
+        SegmentWriter unfinished = writer(cache, 1);
+        unfinished.add(1, 1, 0);
+        Path abandoned = unfinished.directory();
+        unfinished.close();
+        assertFalse(Files.exists(abandoned));
+
+        SegmentWriter writer = writer(cache, 1);
+        writer.add(1, 1, 0);
+        SegmentedDataView view = writer.finish();
+        assertThrows(IllegalStateException.class, () -> writer.add(2, 2, 0));
+        assertTrue(Files.exists(writer.directory()));
+        view.close();
+        assertFalse(Files.exists(writer.directory()));
+    }
+
+    @Test
+    void writersCountDownToTheRowLimit() throws IOException {
+        try (SegmentWriter writer = writer(new PageCache(16L << 20), 1)) {
+            writer.add(1, 1, 0);
+            assertEquals(SegmentWriter.MAX_ROWS - 1, writer.remainingRows());
+            assertEquals(0, SegmentWriter.MAX_ROWS % SegmentedDataView.SEGMENT_ROWS);
+        }
+    }
+
+    private static void assertRow(SegmentedDataView view, int row) {
+        assertEquals(row, view.x(row), "x of row " + row);
+        assertEquals(-row, view.y(row), "y of row " + row);
+        if (view.seriesCount() > 1) assertEquals(row * 0.5, view.value(1, row), "series 1 of row " + row);
+        assertEquals("c" + row % 5, view.category(row), "category of row " + row);
+    }
+
+    // x is the row, y its negation, a second series half the row, categories c0 to c4 in turn
+    private SegmentedDataView write(PageCache cache, int rows, int seriesCount) throws IOException {
+        SegmentWriter writer = writer(cache, seriesCount);
+        int[] ids = new int[5];
+        for (int c = 0; c < ids.length; c++) ids[c] = writer.dictionary().intern("c" + c);
+        double[] values = new double[seriesCount];
+        for (int row = 0; row < rows; row++) {
+            values[0] = -row;
+            if (seriesCount > 1) values[1] = row * 0.5;
+            writer.add(row, values, ids[row % 5]);
+        }
+        return writer.finish();
+    }
+
+    private SegmentWriter writer(PageCache cache, int seriesCount) throws IOException {
+        return new SegmentWriter(dir, new CategoryDictionary(), seriesCount, cache);
+    }
+}
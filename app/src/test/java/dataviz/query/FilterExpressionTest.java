@@ -0,0 +1,109 @@
+package dataviz.query;
+
+import dataviz.data.DataStore;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.function.IntPredicate;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class FilterExpressionTest {
+
+    @Test
+    void andBindsTighterThanOrAndNotTighterThanBoth() {
+        assertEquals("(x > 1.0 || (x < 0.0 && y > 2.0))",
+                FilterExpression.parse("x > 1 || x < 0 && y > 2").toString());
+        assertEquals("((x > 1.0 || x < 0.0) && y > 2.0)",
+                FilterExpression.parse("(x > 1 || x < 0) && y > 2").toString());
+        assertEquals("(!(x > 1.0) && y <= 2.0)",
+                FilterExpression.parse("!x > 1 && y <= 2").toString());
+        assertEquals("!(x > 1.0 && y <= 2.0)",
+                FilterExpression.parse("!(x > 1 && y <= 2)").toString());
+    }
+
+    @Test
+    void spellingsOfTheSameFilterAreOneCacheKey() {
+        FilterExpression a = FilterExpression.parse("x>1e2&&category==\"a \\\"b\\\"\"");
+        FilterExpression b = FilterExpression.parse("  x > 100.0  &&  category == \"a \\\"b\\\"\" ");
+
+        assertEquals("(x > 100.0 && category == \"a \\\"b\\\"\")", a.toString());
+        assertEquals(a, b);
+        assertEquals(a.hashCode(), b.hashCode());
+        assertNotEquals(a, FilterExpression.parse("x >= 100 && category == \"a \\\"b\\\"\""));
+        assertEquals("!(category in [\"a\", \"b\"])",
+                FilterExpression.parse("!category in [\"a\",\"b\"]").toString());
+        assertEquals("y in [-1.0, 1.0]", FilterExpression.parse("y in [-1, 1]").toString());
+    }
+
+    @Test
+    void aCategoryFilterNeedsNoQuoting() {
+        assertEquals(FilterExpression.parse("category == \"a \\\"b\\\"\""), FilterExpression.category("a \"b\""));
+    }
+
+    @Test
+    void errorsPointAtTheOffendingCharacter() {
+        assertError("Unknown column 'z' at position 10", "x > 1 && z < 2");
+        assertError("Expected a number at position 5", "x > abc");
+        assertError("Expected ')' at position 7", "(x > 1");
+        assertError("Unexpected ')' at position 6", "x > 1)");
+        assertError("Expected a quoted category name at position 13", "category == a");
+        assertError("Expected x, y or category at position 1", "");
+    }
+
+    @Test
+    void selectionsMatchARowByRowEvaluation() {
+        // Over one parallel scan block, with NaN in both columns
+        DataStore data = new DataStore();
+        Random random = new Random(1);
+        for (int i = 0; i < 200_000; i++) {
+            double x = random.nextInt(50) == 0 ? Double.NaN : random.nextDouble() * 10;
+            double y = random.nextInt(50) == 0 ? Double.NaN : random.nextGaussian();
+            data.add(x, y, "c" + random.nextInt(4));
+        }
+
+        assertSelects(data, "x >= 5", row -> data.x(row) >= 5);
+        assertSelects(data, "y != 0.5", row -> !Double.isNaN(data.y(row)) && data.y(row) != 0.5);
+        assertSelects(data, "x in [2, 3] || category in [\"c1\", \"c3\"]",
+                row -> data.x(row) >= 2 && data.x(row) <= 3 || category(data, row) % 2 == 1);
+        assertSelects(data, "category != \"c0\" && y < 0",
+                row -> category(data, row) != 0 && data.y(row) < 0);
+    }
+
+    @Test
+    void negationLeavesOutTheNaNRowsOfTheColumnsItCompares() {
+        DataStore data = new DataStore();
+        data.add(1, Double.NaN, "a");
+        data.add(Double.NaN, 1, "a");
+        data.add(1, 1, "b");
+        data.add(9, 9, "b");
+
+        assertArrayEquals(new int[] {1, 2}, FilterExpression.parse("!(y > 5)").select(data).rows());
+        assertArrayEquals(new int[] {0, 2}, FilterExpression.parse("!(x > 5)").select(data).rows());
+        assertArrayEquals(new int[] {2}, FilterExpression.parse("!(x > 5 || y > 5)").select(data).rows());
+        assertArrayEquals(new int[] {2, 3}, FilterExpression.parse("!(category == \"a\")").select(data).rows());
+        assertArrayEquals(new int[] {3}, FilterExpression.parse("!!(y > 5)").select(data).rows());
+    }
+
+    private static void assertSelects(DataStore data, String filter, IntPredicate expected) {
+        Selection selection = FilterExpression.parse(filter).select(data);
+        int count = 0;
+        for (int row = 0; row < data.size(); row++) {
+            assertEquals(expected.test(row), selection.contains(row), filter + " at row " + row);
+            if (expected.test(row)) count++;
+        }
+        assertEquals(count, selection.cardinality(), filter);
+    }
+
+    private static int category(DataStore data, int row) {
+        return data.categoryName(data.categoryId(row)).charAt(1) - '0';
+    }
+
+    private static void assertError(String message, String filter) {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> FilterExpression.parse(filter));
+        assertEquals(message, e.getMessage());
+    }
+}
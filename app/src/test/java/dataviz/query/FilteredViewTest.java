@@ -0,0 +1,78 @@
+package dataviz.query;
+
+import dataviz.data.CategoryDictionary;
+import dataviz.data.DataStore;
+import dataviz.paging.PageCache;
+import dataviz.paging.SegmentWriter;
+import dataviz.paging.SegmentedDataView;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FilteredViewTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void rowsReadThroughToTheSelectedSourceRows() {
+        DataStore data = new DataStore(new CategoryDictionary(), 2);
+        for (int i = 0; i < 1_000; i++) {
+            data.add(i, new double[] {i * 2.0, -i}, data.dictionary().intern(i % 7 == 0 ? "seven" : "other"));
+        }
+        FilteredView view = new FilteredView(data, FilterExpression.parse("category == \"seven\"").select(data));
+
+        assertEquals(143, view.size());
+        for (int row = 0; row < view.size(); row++) {
+            int source = row * 7;
+            assertEquals(source, view.sourceRow(row));
+            assertEquals(source, view.x(row));
+            assertEquals(source * 2.0, view.y(row));
+            assertEquals(-source, view.value(1, row));
+            assertEquals("seven", view.categoryName(view.categoryId(row)));
+        }
+        assertEquals(data.seriesCount(), view.seriesCount());
+        assertEquals(0, view.extent().minX());
+        assertEquals(994, view.extent().maxX());
+    }
+
+    @Test
+    void pagedSourcesAreWalkedWithoutARowArray() throws IOException {
+        SegmentWriter writer = new SegmentWriter(dir, new CategoryDictionary(), 1, new PageCache(16L << 20));
+        Random random = new Random(1);
+        // Runs of selected and unselected rows longer and shorter than a rank block
+        boolean selected = false;
+        for (int i = 0; i < 300_000; i++) {
+            if (random.nextInt(i < 100_000 ? 3_000 : 20) == 0) selected = !selected;
+            writer.add(i, selected ? 1 : 0, 0);
+        }
+        try (SegmentedDataView data = writer.finish()) {
+            Selection selection = FilterExpression.parse("y > 0").select(data);
+            FilteredView view = new FilteredView(data, selection);
+
+            int[] expected = selection.rows();
+            assertEquals(expected.length, view.size());
+            for (int row = 0; row < view.size(); row++) {
+                assertEquals(expected[row], view.sourceRow(row));
+                assertEquals(expected[row], view.x(row));
+            }
+            assertThrows(IndexOutOfBoundsException.class, () -> view.sourceRow(expected.length));
+            // The rank index is an int per 1024 rows, far less than an int per selected row
+            assertTrue(view.estimatedBytes() < selection.estimatedBytes() + data.size() / 100);
+        }
+    }
+
+    @Test
+    void selectionMustBeForTheSameRows() {
+        DataStore data = new DataStore();
+        data.add(1, 1, "a");
+        assertThrows(IllegalArgumentException.class, () -> new FilteredView(data, Selection.all(2)));
+    }
+}
@@ -0,0 +1,51 @@
+package dataviz.query;
+
+import dataviz.data.DataStore;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SelectionCacheTest {
+
+    @Test
+    void viewsAreKeptWithinTheByteBudget() {
+        DataStore data = new DataStore();
+        for (int i = 0; i < 100_000; i++) {
+            data.add(i, i % 10, "c");
+        }
+        // Each view holds a 12.5 KB bitmap and an int per selected row
+        long oneView = new FilteredView(data, FilterExpression.parse("y < 1").select(data)).estimatedBytes();
+        SelectionCache cache = new SelectionCache(16, 3 * oneView);
+
+        FilteredView first = cache.get(FilterExpression.parse("y < 1"), data);
+        assertSame(first, cache.get(FilterExpression.parse("y<1"), data));
+        // Views of the same size: the fourth pushes out the least recently used
+        for (int y = 1; y <= 3; y++) {
+            cache.get(FilterExpression.parse("y == " + y), data);
+        }
+        assertEquals(3, cache.size());
+        assertTrue(cache.residentBytes() <= 3 * oneView);
+        assertNotSame(first, cache.get(FilterExpression.parse("y < 1"), data));
+
+        // Larger than the whole budget: returned, not kept
+        cache.get(FilterExpression.parse("y >= 0"), data);
+        assertTrue(cache.residentBytes() <= 3 * oneView);
+    }
+
+    @Test
+    void anotherDatasetEmptiesTheCache() {
+        DataStore first = new DataStore();
+        DataStore second = new DataStore();
+        first.add(1, 1, "a");
+        second.add(1, 1, "a");
+        SelectionCache cache = new SelectionCache(4, 1L << 20);
+
+        cache.get(FilterExpression.parse("x > 0"), first);
+        cache.get(FilterExpression.parse("x > 1"), first);
+        cache.get(FilterExpression.parse("x > 0"), second);
+        assertEquals(1, cache.size());
+    }
+}
@@ -0,0 +1,58 @@
+package dataviz.query;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+class SelectionTest {
+
+    @Test
+    void complementsStopAtTheLastRow() {
+        for (int size : new int[] {1, 63, 64, 65, 130, 192}) {
+            assertEquals(size, Selection.all(size).cardinality(), "all of " + size);
+            assertEquals(0, Selection.all(size).not().cardinality(), "not all of " + size);
+            assertArrayEquals(IntStream.range(0, size).toArray(), Selection.none(size).not().rows(), "not none of " + size);
+        }
+    }
+
+    @Test
+    void combinationsMatchSetOperations() {
+        int size = 1_000;
+        Random random = new Random(1);
+        boolean[] a = new boolean[size];
+        boolean[] b = new boolean[size];
+        for (int row = 0; row < size; row++) {
+            a[row] = random.nextBoolean();
+            b[row] = random.nextInt(3) == 0;
+        }
+        Selection left = selection(a);
+        Selection right = selection(b);
+
+        Selection and = left.and(right);
+        Selection or = left.or(right);
+        Selection not = left.not();
+        for (int row = 0; row < size; row++) {
+            assertEquals(a[row] && b[row], and.contains(row));
+            assertEquals(a[row] || b[row], or.contains(row));
+            assertEquals(!a[row], not.contains(row));
+        }
+        assertEquals(size, left.cardinality() + not.cardinality());
+        assertEquals(size, left.or(not).cardinality());
+        assertEquals(0, left.and(not).cardinality());
+        assertFalse(Arrays.stream(or.not().rows()).anyMatch(row -> row >= size));
+    }
+
+    private static Selection selection(boolean[] rows) {
+        long[] words = new long[Selection.wordCount(rows.length)];
+        for (int row = 0; row < rows.length; row++) {
+            if (rows[row]) words[row >>> 6] |= 1L << row;
+        }
+        return new Selection(rows.length, words);
+    }
+}
@@ -0,0 +1,153 @@
+package dataviz.sampling;
+
+import dataviz.data.DataStore;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LodPyramidTest {
+
+    private static final int ROWS = 100_000;
+
+    @Test
+    void wholeRangeKeepsEveryBucketExtreme() {
+        DataStore data = sorted(ROWS, new Random(1));
+        LodPyramid index = LodPyramid.build(data);
+
+        int width = 500;
+        int[] rows = index.query(0, ROWS - 1, width);
+
+        assertTrue(rows.length <= index.maxPoints(width));
+        assertInXOrder(data, rows);
+        // The global extremes survive any amount of downsampling
+        assertTrue(contains(rows, argMin(data)));
+        assertTrue(contains(rows, argMax(data)));
+    }
+
+    @Test
+    void narrowRangeReturnsEveryRowPlusOneBeyondEachEnd() {
+        DataStore data = sorted(ROWS, new Random(2));
+        LodPyramid index = LodPyramid.build(data);
+
+        int[] rows = index.query(1000, 1099, 500);
+
+        int[] expected = new int[102];
+        for (int i = 0; i < expected.length; i++) expected[i] = 999 + i;
+        assertArrayEquals(expected, rows);
+    }
+
+    @Test
+    void unsortedDataIsAnsweredInXOrder() {
+        Random random = new Random(3);
+        List<Integer> xs = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) xs.add(i);
+        Collections.shuffle(xs, random);
+        DataStore shuffled = new DataStore();
+        DataStore sorted = new DataStore();
+        double[] ys = new double[ROWS];
+        for (int i = 0; i < ROWS; i++) ys[i] = random.nextGaussian();
+        for (int x : xs) shuffled.add(x, ys[x], 0);
+        for (int x = 0; x < ROWS; x++) sorted.add(x, ys[x], 0);
+
+        int[] fromShuffled = LodPyramid.build(shuffled).query(5_000, 60_000, 300);
+        int[] fromSorted = LodPyramid.build(sorted).query(5_000, 60_000, 300);
+
+        assertInXOrder(shuffled, fromShuffled);
+        assertEquals(fromSorted.length, fromShuffled.length);
+        for (int i = 0; i < fromSorted.length; i++) {
+            assertEquals(sorted.x(fromSorted[i]), shuffled.x(fromShuffled[i]));
+        }
+    }
+
+    @Test
+    void bucketMeansMatchTheRows() {
+        DataStore data = sorted(ROWS, new Random(4));
+        LodPyramid index = LodPyramid.build(data);
+
+        for (int level = 0; level < 4; level++) {
+            int bucketRows = LodPyramid.BASE_ROWS << level;
+            int rank = 3 * bucketRows + 5;
+            double sum = 0;
+            for (int row = 3 * bucketRows; row < 4 * bucketRows; row++) sum += data.y(row);
+            assertEquals(sum / bucketRows, index.mean(level, rank), 1e-9);
+        }
+    }
+
+    @Test
+    void rangePastTheDataReturnsOnlyTheNeighbour() {
+        LodPyramid index = LodPyramid.build(sorted(1000, new Random(5)));
+
+        assertArrayEquals(new int[]{999}, index.query(5_000, 6_000, 100)); // so a line reaches into view
+        assertArrayEquals(new int[]{0}, index.query(-600, -500, 100));
+    }
+
+    @Test
+    void rowsWithoutAnXAreLeftOutOfRangeQueries() {
+        // Increasing x with a NaN every so often, which must not pass for sorted data
+        Random random = new Random(6);
+        DataStore data = new DataStore();
+        for (int i = 0; i < ROWS; i++) {
+            data.add(random.nextInt(20) == 0 ? Double.NaN : i, random.nextGaussian(), 0);
+        }
+        assertFalse(data.extent().isXSorted());
+        LodPyramid index = LodPyramid.build(data);
+
+        int[] rows = index.query(40_000, 40_099, 500);
+        List<Integer> expected = new ArrayList<>();
+        int before = 39_999;
+        while (Double.isNaN(data.x(before))) before--;
+        int after = 40_100;
+        while (Double.isNaN(data.x(after))) after++;
+        expected.add(before);
+        for (int row = 40_000; row < 40_100; row++) {
+            if (!Double.isNaN(data.x(row))) expected.add(row);
+        }
+        expected.add(after);
+        assertEquals(expected, Arrays.stream(rows).boxed().toList());
+
+        int[] wide = index.query(1_000, 90_000, 300);
+        assertInXOrder(data, wide);
+        assertTrue(Arrays.stream(wide).noneMatch(row -> Double.isNaN(data.x(row))), "row without an x returned");
+    }
+
+    private static DataStore sorted(int rows, Random random) {
+        DataStore data = new DataStore();
+        double y = 0;
+        for (int i = 0; i < rows; i++) {
+            y += random.nextGaussian();
+            data.add(i, y, 0);
+        }
+        return data;
+    }
+
+    private static void assertInXOrder(DataStore data, int[] rows) {
+        for (int i = 1; i < rows.length; i++) {
+            assertTrue(data.x(rows[i - 1]) <= data.x(rows[i]), "rows out of x order at " + i);
+        }
+    }
+
+    private static int argMin(DataStore data) {
+        int best = 0;
+        for (int i = 1; i < data.size(); i++) if (data.y(i) < data.y(best)) best = i;
+        return best;
+    }
+
+    private static int argMax(DataStore data) {
+        int best = 0;
+        for (int i = 1; i < data.size(); i++) if (data.y(i) > data.y(best)) best = i;
+        return best;
+    }
+
+    private static boolean contains(int[] rows, int row) {
+        return Arrays.stream(rows).anyMatch(r -> r == row);
+    }
+}
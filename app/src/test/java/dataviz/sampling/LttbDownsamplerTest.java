@@ -0,0 +1,61 @@
+package dataviz.sampling;
+
+import dataviz.data.DataStore;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LttbDownsamplerTest {
+
+    private final LttbDownsampler sampler = new LttbDownsampler();
+
+    @Test
+    void keepsOneRowPerBucketBetweenTheEnds() {
+        DataStore data = new DataStore();
+        Random random = new Random(1);
+        for (int i = 0; i < 100_000; i++) {
+            data.add(i, random.nextGaussian(), "a");
+        }
+        int width = 200;
+        int[] out = new int[sampler.maxPoints(width)];
+        int count = sampler.downsample(data, 10_000, 90_000, width, out);
+
+        assertEquals(sampler.maxPoints(width), count);
+        assertEquals(10_000, out[0]);
+        assertEquals(89_999, out[count - 1]);
+        double bucketSize = (double) (80_000 - 2) / (count - 2);
+        for (int bucket = 0; bucket < count - 2; bucket++) {
+            int row = out[bucket + 1];
+            assertTrue(row >= 10_000 + (int) (bucket * bucketSize) + 1, "bucket " + bucket);
+            assertTrue(row < 10_000 + (int) ((bucket + 1) * bucketSize) + 1, "bucket " + bucket);
+        }
+    }
+
+    @Test
+    void anIsolatedSpikeIsKept() {
+        DataStore data = new DataStore();
+        for (int i = 0; i < 50_000; i++) {
+            data.add(i, i == 31_337 ? 1_000 : Math.sin(i / 500.0), "a");
+        }
+        int[] rows = sampler.downsample(data, 100);
+        assertTrue(Arrays.stream(rows).anyMatch(row -> row == 31_337));
+    }
+
+    @Test
+    void gapsOfNaNArePassedOver() {
+        DataStore data = new DataStore();
+        for (int i = 0; i < 50_000; i++) {
+            data.add(i, i >= 10_000 && i < 20_000 ? Double.NaN : i == 40_000 ? 500 : 0, "a");
+        }
+        int[] rows = sampler.downsample(data, 100);
+        assertEquals(sampler.maxPoints(100), rows.length);
+        assertTrue(Arrays.stream(rows).anyMatch(row -> row == 40_000));
+        for (int i = 1; i < rows.length; i++) {
+            assertTrue(rows[i - 1] < rows[i]);
+        }
+    }
+}
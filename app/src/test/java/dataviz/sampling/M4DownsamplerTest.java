@@ -0,0 +1,129 @@
+package dataviz.sampling;
+
+import dataviz.data.DataStore;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class M4DownsamplerTest {
+
+    private final M4Downsampler sampler = new M4Downsampler();
+
+    @Test
+    void eachPixelColumnKeepsItsFirstLastMinAndMaxRows() {
+        DataStore data = walk(100_000, 0, new Random(1));
+        assertMatchesBruteForce(data, 0, data.size(), 300);
+    }
+
+    @Test
+    void aRangeIsSplitOverItsOwnXSpan() {
+        DataStore data = walk(100_000, 0, new Random(2));
+        assertMatchesBruteForce(data, 20_000, 70_000, 250);
+    }
+
+    @Test
+    void gapsOfNaNDoNotHideTheExtremes() {
+        DataStore data = walk(100_000, 40, new Random(3));
+        assertMatchesBruteForce(data, 0, data.size(), 300);
+
+        // A column starting with NaN y must still find its spike
+        DataStore gap = new DataStore();
+        for (int i = 0; i < 1_000; i++) {
+            gap.add(i, i % 100 < 5 ? Double.NaN : i % 100 == 50 ? 1e6 : 0, "a");
+        }
+        int[] rows = sampler.downsample(gap, 10);
+        for (int spike = 50; spike < 1_000; spike += 100) {
+            int row = spike;
+            assertTrue(Arrays.stream(rows).anyMatch(r -> r == row), "spike at row " + spike);
+        }
+    }
+
+    @Test
+    void columnsOfOnlyNaNKeepTheirFirstAndLastRows() {
+        DataStore data = new DataStore();
+        for (int i = 0; i < 1_000; i++) {
+            data.add(i, i < 500 ? Double.NaN : i, "a");
+        }
+        int[] rows = sampler.downsample(data, 2);
+        assertArrayEquals(new int[] {0, 499, 500, 999}, rows);
+    }
+
+    @Test
+    void aSingleXValueIsOneColumn() {
+        DataStore data = new DataStore();
+        Random random = new Random(4);
+        for (int i = 0; i < 10_000; i++) {
+            data.add(7, random.nextGaussian(), "a");
+        }
+        data.set(1234, 7, 50, 0);
+        data.set(4321, 7, -50, 0);
+
+        assertArrayEquals(new int[] {0, 1234, 4321, 9_999}, sampler.downsample(data, 100));
+    }
+
+    @Test
+    void smallRangesAreKeptWhole() {
+        DataStore data = walk(1_000, 0, new Random(5));
+        int[] out = new int[sampler.maxPoints(300)];
+        int count = sampler.downsample(data, 100, 900, 300, out);
+        assertEquals(800, count);
+        for (int i = 0; i < count; i++) assertEquals(100 + i, out[i]);
+    }
+
+    private void assertMatchesBruteForce(DataStore data, int from, int to, int width) {
+        int[] out = new int[sampler.maxPoints(width)];
+        int count = sampler.downsample(data, from, to, width, out);
+
+        double minX = from == 0 && to == data.size() ? data.extent().minX() : data.x(from);
+        double maxX = from == 0 && to == data.size() ? data.extent().maxX() : data.x(to - 1);
+        int[] first = new int[width];
+        int[] last = new int[width];
+        int[] min = new int[width];
+        int[] max = new int[width];
+        Arrays.fill(first, -1);
+        Arrays.fill(min, -1);
+        Arrays.fill(max, -1);
+        for (int i = from; i < to; i++) {
+            int column = Math.min(width - 1, (int) ((data.x(i) - minX) * (width / (maxX - minX))));
+            if (first[column] < 0) first[column] = i;
+            last[column] = i;
+            double y = data.y(i);
+            if (Double.isNaN(y)) continue;
+            if (min[column] < 0 || y < data.y(min[column])) min[column] = i;
+            if (max[column] < 0 || y > data.y(max[column])) max[column] = i;
+        }
+        TreeSet<Integer> expected = new TreeSet<>();
+        for (int column = 0; column < width; column++) {
+            if (first[column] < 0) continue;
+            expected.add(first[column]);
+            expected.add(last[column]);
+            if (min[column] >= 0) {
+                expected.add(min[column]);
+                expected.add(max[column]);
+            }
+        }
+
+        assertArrayEquals(expected.stream().mapToInt(Integer::intValue).toArray(), Arrays.copyOf(out, count));
+    }
+
+    // Sorted x with uneven steps and a random walk in y; runs of NaN y one row in nanEvery
+    private static DataStore walk(int rows, int nanEvery, Random random) {
+        DataStore data = new DataStore();
+        double x = 0;
+        double y = 0;
+        int nanRun = 0;
+        for (int i = 0; i < rows; i++) {
+            x += random.nextDouble();
+            y += random.nextGaussian();
+            if (nanEvery > 0 && random.nextInt(nanEvery) == 0) nanRun = 1 + random.nextInt(200);
+            data.add(x, nanRun-- > 0 ? Double.NaN : y, "a");
+        }
+        return data;
+    }
+}
@@ -0,0 +1,26 @@
+package dataviz.sampling;
+
+import dataviz.data.DataStore;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class StrideDownsamplerTest {
+
+    @Test
+    void keepsEveryNthRowWithinTheWidth() {
+        DataStore data = new DataStore();
+        for (int i = 0; i < 10_001; i++) {
+            data.add(i, i, "a");
+        }
+        StrideDownsampler sampler = new StrideDownsampler();
+        int[] out = new int[sampler.maxPoints(100)];
+        int count = sampler.downsample(data, 1, 10_001, 100, out);
+
+        assertEquals(100, count);
+        for (int i = 0; i < count; i++) {
+            assertEquals(1 + 100 * i, out[i]);
+        }
+        assertEquals(50, sampler.downsample(data, 0, 50, 100, out));
+    }
+}
@@ -0,0 +1,180 @@
+package dataviz.sampling;
+
+import dataviz.data.DataStore;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TimeRollupTest {
+
+    private static final long START = LocalDate.of(1969, 12, 29).atStartOfDay(ZoneOffset.UTC).toInstant().toEpochMilli();
+
+    @Test
+    void bucketsMatchABruteForceGrouping() {
+        DataStore data = series(200_000, 250, new Random(1), false);
+        assertMatchesGrouping(data, TimeRollup.build(data));
+    }
+
+    @Test
+    void unsortedRowsGroupAsIfSorted() {
+        DataStore data = series(100_000, 900, new Random(2), true);
+        assertFalse(data.extent().isXSorted());
+        assertMatchesGrouping(data, TimeRollup.build(data));
+    }
+
+    @Test
+    void dayBucketsStartAtUtcMidnight() {
+        DataStore data = series(200_000, 10_000, new Random(3), false);
+        TimeRollup rollup = TimeRollup.build(data);
+
+        LocalDate first = LocalDate.of(1969, 12, 29);
+        for (int b = 0; b < rollup.bucketCount(TimeRollup.Unit.DAY); b++) {
+            long expected = first.plusDays(b).atStartOfDay(ZoneOffset.UTC).toInstant().toEpochMilli();
+            assertEquals(expected, rollup.bucketStart(TimeRollup.Unit.DAY, b));
+        }
+    }
+
+    @Test
+    void levelsTooSparseToHelpAreNotKept() {
+        // One row every 10 s: seconds would hold under one row per bucket
+        DataStore data = series(50_000, 10_000, new Random(4), false);
+        TimeRollup rollup = TimeRollup.build(data);
+
+        assertFalse(rollup.units().contains(TimeRollup.Unit.SECOND));
+        assertTrue(rollup.units().contains(TimeRollup.Unit.MINUTE));
+        assertThrows(IllegalArgumentException.class, () -> rollup.bucketCount(TimeRollup.Unit.SECOND));
+    }
+
+    @Test
+    void queriesKeepTheExtremesOfTheRangeInXOrder() {
+        DataStore data = series(300_000, 100, new Random(5), true);
+        TimeRollup rollup = TimeRollup.build(data);
+
+        double lower = START + 3_600_000.0;
+        double upper = START + 6 * 3_600_000.0;
+        int[] rows = rollup.query(lower, upper, 400);
+
+        assertTrue(rows.length <= 2 * 400 + 2);
+        for (int i = 1; i < rows.length; i++) {
+            assertTrue(data.x(rows[i - 1]) <= data.x(rows[i]), "rows out of x order at " + i);
+        }
+        double min = Double.POSITIVE_INFINITY;
+        double max = Double.NEGATIVE_INFINITY;
+        for (int row = 0; row < data.size(); row++) {
+            if (data.x(row) < lower || data.x(row) > upper || Double.isNaN(data.y(row))) continue;
+            min = Math.min(min, data.y(row));
+            max = Math.max(max, data.y(row));
+        }
+        // Rows just outside the range may come along, but the range's own extremes must
+        double rangeMin = min;
+        double rangeMax = max;
+        assertTrue(Arrays.stream(rows).anyMatch(row -> data.y(row) == rangeMin));
+        assertTrue(Arrays.stream(rows).anyMatch(row -> data.y(row) == rangeMax));
+    }
+
+    @Test
+    void narrowRangeReturnsEveryRowPlusOneBeyondEachEnd() {
+        DataStore data = series(10_000, 1_000, new Random(6), false);
+        TimeRollup rollup = TimeRollup.build(data);
+
+        int[] rows = rollup.query(data.x(500), data.x(549), 100);
+
+        int[] expected = new int[52];
+        for (int i = 0; i < expected.length; i++) expected[i] = 499 + i;
+        assertEquals(Arrays.toString(expected), Arrays.toString(rows));
+    }
+
+    @Test
+    void rowsWithoutAnXAreLeftOutOfRangeQueries() {
+        DataStore data = series(10_000, 1_000, new Random(7), false);
+        for (int row = 0; row < data.size(); row += 13) data.set(row, Double.NaN, data.y(row), 0);
+        assertFalse(data.extent().isXSorted());
+        TimeRollup rollup = TimeRollup.build(data);
+
+        int[] rows = rollup.query(data.x(501), data.x(549), 100);
+
+        // Every row in range, and the nearest row with an x either side
+        StringBuilder expected = new StringBuilder("[500");
+        for (int row = 501; row < 550; row++) {
+            if (!Double.isNaN(data.x(row))) expected.append(", ").append(row);
+        }
+        expected.append(", 550]");
+        assertEquals(expected.toString(), Arrays.toString(rows));
+    }
+
+    private static void assertMatchesGrouping(DataStore data, TimeRollup rollup) {
+        assertFalse(rollup.units().isEmpty());
+        for (TimeRollup.Unit unit : rollup.units()) {
+            TreeMap<Long, double[]> groups = group(data, unit.millis());
+            assertEquals(groups.size(), rollup.bucketCount(unit), unit.toString());
+            int b = 0;
+            for (Map.Entry<Long, double[]> group : groups.entrySet()) {
+                double[] stats = group.getValue();
+                String where = unit + " bucket " + b;
+                assertEquals(group.getKey() * unit.millis(), rollup.bucketStart(unit, b), where);
+                assertEquals((int) stats[0], rollup.count(unit, b), where);
+                if (stats[0] > 0) {
+                    assertEquals(stats[2], rollup.min(unit, b), where);
+                    assertEquals(stats[3], rollup.max(unit, b), where);
+                    assertEquals(stats[1] / stats[0], rollup.mean(unit, b), 1e-9, where);
+                } else {
+                    assertTrue(Double.isNaN(rollup.mean(unit, b)), where);
+                }
+                b++;
+            }
+        }
+    }
+
+    // Count, sum, min and max of the non-NaN y per bucket key
+    private static TreeMap<Long, double[]> group(DataStore data, long millis) {
+        TreeMap<Long, double[]> groups = new TreeMap<>();
+        for (int row = 0; row < data.size(); row++) {
+            long key = Math.floorDiv((long) data.x(row), millis);
+            double[] stats = groups.computeIfAbsent(key,
+                    k -> new double[]{0, 0, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY});
+            double y = data.y(row);
+            if (Double.isNaN(y)) continue;
+            stats[0]++;
+            stats[1] += y;
+            stats[2] = Math.min(stats[2], y);
+            stats[3] = Math.max(stats[3], y);
+        }
+        return groups;
+    }
+
+    // Rows about meanStepMillis apart from just before the epoch, with an occasional NaN y
+    private static DataStore series(int rows, long meanStepMillis, Random random, boolean shuffle) {
+        double[] xs = new double[rows];
+        long x = START;
+        for (int i = 0; i < rows; i++) {
+            x += random.nextLong(1, 2 * meanStepMillis);
+            xs[i] = x;
+        }
+        if (shuffle) {
+            for (int i = rows - 1; i > 0; i--) {
+                int j = random.nextInt(i + 1);
+                double swap = xs[i];
+                xs[i] = xs[j];
+                xs[j] = swap;
+            }
+        }
+        DataStore data = new DataStore();
+        data.setXTime(true);
+        double y = 0;
+        for (int i = 0; i < rows; i++) {
+            y += random.nextGaussian();
+            data.add(xs[i], random.nextInt(100) == 0 ? Double.NaN : y, 0);
+        }
+        return data;
+    }
+}
@@ -0,0 +1,122 @@
+package dataviz.stream;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RingBufferTest {
+
+    @Test
+    void keepsTheNewestRowsAcrossWraparound() {
+        // Not a multiple of the chunk size, so the window starts mid-chunk
+        RingBuffer buffer = new RingBuffer(10_000, 0, Integer.MAX_VALUE);
+        int a = buffer.dictionary().intern("a");
+        int b = buffer.dictionary().intern("b");
+        for (int i = 0; i < 123_457; i++) {
+            buffer.add(i, -i, i % 3 == 0 ? a : b);
+        }
+
+        StreamWindow window = buffer.snapshot();
+        assertEquals(123_457, buffer.written());
+        assertEquals(10_000, window.size());
+        assertEquals(123_457 - 10_000, window.firstRow());
+        for (int row = 0; row < window.size(); row++) {
+            long i = window.firstRow() + row;
+            assertEquals(i, window.x(row));
+            assertEquals(-i, window.y(row));
+            assertEquals(i % 3 == 0 ? a : b, window.categoryId(row));
+        }
+        assertEquals(123_457 - 10_000, window.extent().minX());
+        assertEquals(123_456, window.extent().maxX());
+        assertTrue(window.extent().isXSorted());
+    }
+
+    @Test
+    void snapshotsDoNotChangeAsTheBufferMovesOn() {
+        RingBuffer buffer = new RingBuffer(5_000, 0, Integer.MAX_VALUE);
+        for (int i = 0; i < 7_000; i++) {
+            buffer.add(i, i * 2, 0);
+        }
+        StreamWindow before = buffer.snapshot();
+
+        // Far enough that every slot the window read from holds a newer chunk
+        for (int i = 7_000; i < 50_000; i++) {
+            buffer.add(i, -1, 0);
+        }
+        StreamWindow after = buffer.snapshot();
+
+        assertEquals(2_000, before.firstRow());
+        for (int row = 0; row < before.size(); row++) {
+            assertEquals(2_000 + row, before.x(row));
+            assertEquals(2 * (2_000 + row), before.y(row));
+        }
+        assertSame(before.sequence(), after.sequence());
+        assertEquals(45_000, after.firstRow());
+        assertNotEquals(before.version(), after.version());
+    }
+
+    @Test
+    void dropsRowsThatFallBehindTheWindow() {
+        RingBuffer buffer = new RingBuffer(10_000, 100, Integer.MAX_VALUE);
+        for (int i = 0; i < 1_000; i++) {
+            buffer.add(i * 0.5, i, 0);
+        }
+
+        StreamWindow window = buffer.snapshot();
+        // x from 499.5 back to 399.5 is within 100 of the newest row
+        assertEquals(201, window.size());
+        assertEquals(399.5, window.x(0));
+        assertEquals(499.5, window.x(window.size() - 1));
+    }
+
+    @Test
+    void blocksTheProducerUntilASnapshotDrainsThePendingRows() throws InterruptedException {
+        RingBuffer buffer = new RingBuffer(1_000, 0, 100);
+        Thread producer = new Thread(() -> {
+            for (int i = 0; i < 250; i++) {
+                buffer.add(i, i, 0);
+            }
+        });
+        producer.start();
+
+        awaitBlocked(producer, buffer, 100);
+        assertEquals(100, buffer.snapshot().size());
+        awaitBlocked(producer, buffer, 200);
+
+        buffer.snapshot();
+        producer.join(TimeUnit.SECONDS.toMillis(10));
+        assertEquals(250, buffer.written());
+        assertTrue(buffer.blockedNanos() > 0);
+    }
+
+    @Test
+    void closingReleasesABlockedProducerForGood() throws InterruptedException {
+        RingBuffer buffer = new RingBuffer(1_000, 0, 10);
+        Thread producer = new Thread(() -> {
+            for (int i = 0; i < 500; i++) {
+                buffer.add(i, i, 0);
+            }
+        });
+        producer.start();
+        awaitBlocked(producer, buffer, 10);
+
+        buffer.close();
+        producer.join(TimeUnit.SECONDS.toMillis(10));
+        assertEquals(500, buffer.written());
+        assertEquals(500, buffer.snapshot().size());
+    }
+
+    // Waits until the producer has added exactly written rows and parked on the drained condition
+    private static void awaitBlocked(Thread producer, RingBuffer buffer, long written) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (buffer.written() != written || producer.getState() != Thread.State.TIMED_WAITING) {
+            assertTrue(producer.isAlive() && System.nanoTime() < deadline, "producer never blocked");
+            Thread.sleep(1);
+        }
+    }
+}
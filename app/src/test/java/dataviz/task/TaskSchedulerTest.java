@@ -0,0 +1,134 @@
+package dataviz.task;
+
+import dataviz.io.ProgressListener;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TaskSchedulerTest {
+
+    // Callbacks wait here until the test runs them, as they would wait for the FX thread
+    private final BlockingQueue<Runnable> callbacks = new LinkedBlockingQueue<>();
+    private final TaskScheduler scheduler = new TaskScheduler(2, callbacks::add);
+    private final List<Object> delivered = new ArrayList<>();
+
+    @AfterEach
+    void shutDown() {
+        scheduler.shutdown();
+    }
+
+    @Test
+    void aSupersededJobSeesItIsCancelledAndItsResultIsDropped() throws Exception {
+        AtomicBoolean sawCancel = new AtomicBoolean();
+        for (TaskScheduler.Kind kind : TaskScheduler.Kind.values()) {
+            Object resource = "chart " + kind;
+            delivered.clear();
+            sawCancel.set(false);
+            CountDownLatch running = new CountDownLatch(1);
+            Job first = scheduler.submit(resource, kind, ProgressListener.NONE, progress -> {
+                running.countDown();
+                sawCancel.set(awaitCancel(progress));
+                return "old";
+            }, delivered::add, delivered::add);
+            assertTrue(running.await(10, TimeUnit.SECONDS), "first job started");
+
+            Job second = scheduler.submit(resource, kind, ProgressListener.NONE, progress -> "new",
+                    delivered::add, delivered::add);
+            runCallbacks(2);
+
+            assertTrue(first.isCancelled(), kind + ": first job cancelled");
+            assertFalse(second.isCancelled(), kind + ": second job cancelled");
+            assertTrue(sawCancel.get(), kind + ": work observed the cancel");
+            assertEquals(List.of("new"), delivered, kind + ": delivered results");
+            assertFalse(scheduler.isActive(resource), kind + ": still active");
+        }
+    }
+
+    @Test
+    void progressOfACancelledJobIsNotForwarded() throws Exception {
+        List<Long> reported = new ArrayList<>();
+        CountDownLatch running = new CountDownLatch(1);
+        scheduler.submit("load", TaskScheduler.Kind.IO, (done, total) -> reported.add(done), progress -> {
+            progress.progress(1, 2);
+            running.countDown();
+            awaitCancel(progress);
+            progress.progress(2, 2);
+            progress.checkCancelled();
+            return "done";
+        }, delivered::add, delivered::add);
+        assertTrue(running.await(10, TimeUnit.SECONDS), "job started");
+        assertTrue(scheduler.cancel("load"));
+        runCallbacks(1);
+
+        assertEquals(List.of(1L), reported, "forwarded progress");
+        assertEquals(List.of(), delivered, "delivered results");
+    }
+
+    @Test
+    void aCancelIssuedBeforeTheCallbackRunsWins() throws Exception {
+        scheduler.submit("stats", TaskScheduler.Kind.CPU, ProgressListener.NONE, progress -> 42,
+                delivered::add, delivered::add);
+        Runnable callback = callbacks.poll(10, TimeUnit.SECONDS);
+        assertNotNull(callback, "callback posted");
+
+        assertTrue(scheduler.cancel("stats"));
+        callback.run();
+        assertEquals(List.of(), delivered, "delivered results");
+    }
+
+    @Test
+    void aFailingJobReportsItsError() throws Exception {
+        IOException failure = new IOException("disk gone");
+        scheduler.submit("load", TaskScheduler.Kind.IO, ProgressListener.NONE, progress -> {
+            throw failure;
+        }, result -> delivered.add("success " + result), delivered::add);
+        runCallbacks(1);
+
+        assertEquals(List.of(failure), delivered, "delivered results");
+        assertFalse(scheduler.isActive("load"), "still active");
+    }
+
+    @Test
+    void jobsForDifferentResourcesDoNotCancelEachOther() throws Exception {
+        Job a = scheduler.submit("a", TaskScheduler.Kind.CPU, ProgressListener.NONE, progress -> "a",
+                delivered::add, delivered::add);
+        Job b = scheduler.submit("b", TaskScheduler.Kind.CPU, ProgressListener.NONE, progress -> "b",
+                delivered::add, delivered::add);
+        runCallbacks(2);
+
+        assertFalse(a.isCancelled(), "a cancelled");
+        assertFalse(b.isCancelled(), "b cancelled");
+        assertEquals(2, delivered.size(), "delivered " + delivered);
+        assertTrue(delivered.containsAll(List.of("a", "b")), "delivered " + delivered);
+    }
+
+    private void runCallbacks(int count) throws InterruptedException {
+        for (int i = 0; i < count; i++) {
+            Runnable callback = callbacks.poll(10, TimeUnit.SECONDS);
+            assertNotNull(callback, "callback " + i + " of " + count + " posted");
+            callback.run();
+        }
+    }
+
+    // Spins rather than blocks, so the interrupt that comes with a cancel does not end the work early
+    private static boolean awaitCancel(ProgressListener progress) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!progress.isCancelled() && System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+        return progress.isCancelled();
+    }
+}
@@ -0,0 +1,94 @@
+package dataviz.ui;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UpdateQueueTest {
+
+    private final UpdateQueue queue = new UpdateQueue();
+    private final List<String> ran = new ArrayList<>();
+
+    @Test
+    void theLastPostUnderAKeyWinsAndMovesToTheEnd() {
+        queue.post("progress", record("progress 10%"));
+        queue.post("status", record("status loading"));
+        queue.post("progress", record("progress 50%"));
+        queue.post("chart", record("chart frame 1"));
+        queue.post("progress", record("progress 90%"));
+        queue.post("chart", record("chart frame 2"));
+
+        runBatch();
+        assertEquals(List.of("status loading", "progress 90%", "chart frame 2"), ran);
+    }
+
+    @Test
+    void updatesUnderTheirOwnKeysRunInPostOrder() {
+        for (int i = 0; i < 5; i++) {
+            queue.post(new Object(), record("callback " + i));
+        }
+        runBatch();
+        assertEquals(List.of("callback 0", "callback 1", "callback 2", "callback 3", "callback 4"), ran);
+    }
+
+    @Test
+    void onlyTheFirstPostAfterTheQueueDrainsAsksForABatch() {
+        assertTrue(queue.post("a", record("a")), "first post");
+        assertFalse(queue.post("b", record("b")), "second post");
+
+        runBatch();
+        // Drained but not yet seen empty: the running timer picks the next post up
+        assertFalse(queue.post("a", record("a again")), "post while the timer runs");
+        runBatch();
+
+        assertTrue(queue.drain().isEmpty(), "drained");
+        assertTrue(queue.post("c", record("c")), "post after the timer stopped");
+        runBatch();
+        assertEquals(List.of("a", "b", "a again", "c"), ran);
+    }
+
+    @Test
+    void postsFromManyThreadsLeaveOneUpdatePerKey() throws InterruptedException {
+        int threads = 8;
+        int keys = 100;
+        AtomicInteger wakes = new AtomicInteger();
+        CountDownLatch go = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        for (int t = 0; t < threads; t++) {
+            pool.execute(() -> {
+                try {
+                    go.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                for (int i = 0; i < 10_000; i++) {
+                    if (queue.post(i % keys, () -> { })) wakes.incrementAndGet();
+                }
+            });
+        }
+        go.countDown();
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(30, TimeUnit.SECONDS), "posters finished");
+
+        assertEquals(1, wakes.get(), "batches asked for");
+        assertEquals(keys, queue.drain().size(), "pending updates");
+    }
+
+    private Runnable record(String name) {
+        return () -> ran.add(name);
+    }
+
+    private void runBatch() {
+        queue.drain().forEach(Runnable::run);
+    }
+}
@@ -0,0 +1,36 @@
+package dataviz.bench;
+
+import dataviz.analysis.CategoryAggregator;
+import dataviz.analysis.CategoryStats;
+import dataviz.data.DataStore;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The per-category pass behind the bar and pie charts. A fresh aggregator
+ * per call measures the full scan rather than the cached result.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class AggregationBenchmark {
+
+    @Param({"10000", "1000000", "10000000"})
+    public int rows;
+
+    private DataStore data;
+
+    @Setup(Level.Trial)
+    public void generate() {
+        data = Datasets.generate(rows);
+    }
+
+    @Benchmark
+    public CategoryStats fullScan() {
+        return new CategoryAggregator().update(data);
+    }
+}
@@ -0,0 +1,48 @@
+package dataviz.bench;
+
+import dataviz.data.DataStore;
+import dataviz.generate.DataGenerator;
+import dataviz.generate.Profile;
+import dataviz.io.ProgressListener;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Inputs shared by the benchmarks. Everything is generated from a fixed
+ * seed, so runs on different days measure the same rows.
+ */
+final class Datasets {
+
+    static final long SEED = 42;
+    static final int CATEGORIES = 5;
+
+    private Datasets() {
+    }
+
+    static DataStore generate(int rows) {
+        return new DataGenerator(Profile.LARGE_DATASET, SEED, CATEGORIES)
+                .generate(rows, ForkJoinPool.commonPool(), ProgressListener.NONE);
+    }
+
+    /** Writes the rows as x,y,category with a header line to a temporary file. */
+    static Path writeCsv(DataStore data) throws IOException {
+        Path file = Files.createTempFile("dataviz-bench-", ".csv");
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write("x,y,category\n");
+            for (int i = 0; i < data.size(); i++) {
+                writer.write(Double.toString(data.x(i)));
+                writer.write(',');
+                writer.write(Double.toString(data.y(i)));
+                writer.write(',');
+                writer.write(data.category(i));
+                writer.write('\n');
+            }
+        }
+        return file;
+    }
+}
@@ -0,0 +1,66 @@
+package dataviz.bench;
+
+import dataviz.data.DataStore;
+import dataviz.sampling.Downsampler;
+import dataviz.sampling.LodPyramid;
+import dataviz.sampling.LttbDownsampler;
+import dataviz.sampling.M4Downsampler;
+import dataviz.sampling.StrideDownsampler;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reducing the full dataset to a chart's pixel width, and serving a zoomed
+ * window from the level-of-detail pyramid.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class DownsampleBenchmark {
+
+    private static final int WIDTH = 1000;
+
+    @Param({"10000", "1000000", "10000000"})
+    public int rows;
+
+    @Param({"M4", "LTTB", "STRIDE"})
+    public String sampler;
+
+    private DataStore data;
+    private Downsampler downsampler;
+    private LodPyramid pyramid;
+    private int[] out;
+    private double zoomLower;
+    private double zoomUpper;
+
+    @Setup(Level.Trial)
+    public void prepare() {
+        data = Datasets.generate(rows);
+        switch (sampler) {
+            case "LTTB" -> downsampler = new LttbDownsampler();
+            case "STRIDE" -> downsampler = new StrideDownsampler();
+            default -> downsampler = new M4Downsampler();
+        }
+        pyramid = LodPyramid.build(data);
+        out = new int[Math.max(downsampler.maxPoints(WIDTH), pyramid.maxPoints(WIDTH))];
+
+        // A tenth of the range, off-centre
+        double span = data.extent().maxX() - data.extent().minX();
+        zoomLower = data.extent().minX() + span * 0.3;
+        zoomUpper = zoomLower + span * 0.1;
+    }
+
+    @Benchmark
+    public int downsample() {
+        return downsampler.downsample(data, 0, data.size(), WIDTH, out);
+    }
+
+    @Benchmark
+    public int pyramidZoomQuery() {
+        return pyramid.query(zoomLower, zoomUpper, WIDTH, out);
+    }
+}
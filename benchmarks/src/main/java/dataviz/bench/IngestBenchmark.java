@@ -0,0 +1,57 @@
+package dataviz.bench;
+
+import dataviz.data.DataStore;
+import dataviz.io.CsvOptions;
+import dataviz.io.CsvParser;
+import dataviz.io.ParallelCsvLoader;
+import dataviz.io.ProgressListener;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CSV ingest as the Load CSV button runs it, and the sequential parser it
+ * falls back to for small files.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class IngestBenchmark {
+
+    @Param({"10000", "1000000", "10000000"})
+    public int rows;
+
+    private Path file;
+    private final CsvOptions options = new CsvOptions().header(true).columns(0, 1, 2);
+
+    @Setup(Level.Trial)
+    public void writeFile() throws IOException {
+        file = Datasets.writeCsv(Datasets.generate(rows));
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteFile() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public DataStore parallelLoad() throws IOException {
+        DataStore target = new DataStore();
+        new ParallelCsvLoader(options, ForkJoinPool.commonPool()).load(file, target, ProgressListener.NONE);
+        return target;
+    }
+
+    @Benchmark
+    public DataStore sequentialParse() throws IOException {
+        DataStore target = new DataStore();
+        new CsvParser(options).parse(file, target, ProgressListener.NONE);
+        return target;
+    }
+}
@@ -0,0 +1,41 @@
+package dataviz.bench;
+
+import dataviz.analysis.DataPreview;
+import dataviz.analysis.Summary;
+import dataviz.analysis.SummaryEngine;
+import dataviz.data.DataStore;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Building the preview panel's text, which runs with every chart update.
+ * The distribution summary it describes is computed once up front; its
+ * pass is measured by {@link SummaryBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class PreviewBenchmark {
+
+    @Param({"10000", "1000000", "10000000"})
+    public int rows;
+
+    private DataStore data;
+    private Summary summary;
+
+    @Setup(Level.Trial)
+    public void generate() {
+        data = Datasets.generate(rows);
+        summary = SummaryEngine.summarize(data, ForkJoinPool.commonPool());
+    }
+
+    @Benchmark
+    public String preview() {
+        return DataPreview.summary(data, data.estimatedBytes(), summary);
+    }
+}
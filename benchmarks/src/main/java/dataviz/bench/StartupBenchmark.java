@@ -0,0 +1,122 @@
+package dataviz.bench;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cold-start times of the application: each run launches it in a fresh JVM,
+ * exactly as the {@code cds} profile trains and runs it, and reads the
+ * milliseconds from JVM start to the first frame and to the first chart
+ * that it prints with {@code -Ddataviz.startup.exit=true}. Runs once without
+ * and, if the profile's training run has written one, once with the
+ * application class-data archive. Not a JMH benchmark: every sample needs
+ * a JVM of its own, started without the harness on its class path.
+ * Needs a display; {@code StartupBenchmark [runs] [appTargetDir]}, after
+ * {@code mvn -B -Pcds package}.
+ */
+public final class StartupBenchmark {
+
+    private static final String[] MILESTONES = {"first-frame", "first-chart"};
+    private static final long TIMEOUT_SECONDS = 120;
+
+    private StartupBenchmark() {
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int runs = args.length > 0 ? Integer.parseInt(args[0]) : 10;
+        Path target = Path.of(args.length > 1 ? args[1] : "app/target");
+        Path jar = appJar(target);
+        Path archive = target.resolve("app-cds.jsa");
+
+        report("default CDS", runs, jar, target, null);
+        if (Files.exists(archive)) {
+            report("app CDS", runs, jar, target, archive);
+        } else {
+            System.out.println("No " + archive + "; train one with mvn -pl app -Pcds exec:exec@cds-train");
+        }
+    }
+
+    private static void report(String label, int runs, Path jar, Path target, Path archive)
+            throws IOException, InterruptedException {
+        long[][] millis = new long[MILESTONES.length][runs];
+        for (int run = 0; run < runs; run++) {
+            long[] sample = launch(jar, target, archive);
+            for (int m = 0; m < MILESTONES.length; m++) {
+                millis[m][run] = sample[m];
+            }
+        }
+        for (int m = 0; m < MILESTONES.length; m++) {
+            long[] sorted = millis[m].clone();
+            Arrays.sort(sorted);
+            System.out.printf("%-12s %-12s min %5d ms  median %5d ms  max %5d ms  (%d runs)%n", label,
+                    MILESTONES[m], sorted[0], sorted[sorted.length / 2], sorted[sorted.length - 1], runs);
+        }
+    }
+
+    // Milliseconds from JVM start to each milestone, as the application reports them
+    private static long[] launch(Path jar, Path target, Path archive) throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        if (archive != null) command.add("-XX:SharedArchiveFile=" + archive);
+        command.addAll(List.of("-Ddataviz.startup.exit=true",
+                "--module-path", target.resolve("lib").toString(), "--add-modules", "javafx.controls",
+                "-cp", jar.toString(), "Main"));
+
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+        // A run that hangs, e.g. without a display, is killed, which ends the output below
+        Thread watchdog = Thread.ofVirtual().start(() -> {
+            try {
+                if (!process.waitFor(TIMEOUT_SECONDS, TimeUnit.SECONDS)) process.destroyForcibly();
+            } catch (InterruptedException e) {
+                // the run ended in time
+            }
+        });
+        long[] sample = new long[MILESTONES.length];
+        Arrays.fill(sample, -1);
+        Deque<String> tail = new ArrayDeque<>(); // shown if the run fails
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (tail.size() == 20) tail.removeFirst();
+                tail.addLast(line);
+                // "startup first-chart 655 ms"
+                String[] parts = line.split(" ");
+                if (parts.length == 4 && parts[0].equals("startup")) {
+                    int m = Arrays.asList(MILESTONES).indexOf(parts[1]);
+                    if (m >= 0) sample[m] = Long.parseLong(parts[2]);
+                }
+            }
+        } finally {
+            process.waitFor();
+            watchdog.interrupt();
+        }
+        for (long millis : sample) {
+            if (millis < 0) {
+                throw new IllegalStateException("The application did not report its startup:\n"
+                        + String.join("\n", tail));
+            }
+        }
+        return sample;
+    }
+
+    private static Path appJar(Path target) throws IOException {
+        try (DirectoryStream<Path> jars = Files.newDirectoryStream(target, "app-*.jar")) {
+            for (Path jar : jars) {
+                return jar;
+            }
+        }
+        throw new IllegalStateException("No application jar in " + target + "; run mvn -B -Pcds package first");
+    }
+}
@@ -0,0 +1,38 @@
+package dataviz.bench;
+
+import dataviz.analysis.Summary;
+import dataviz.analysis.SummaryEngine;
+import dataviz.data.DataStore;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The distribution pass behind the Distribution tab and the preview panel:
+ * moments, fine histogram and quantile sketch in one fork-join pass.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class SummaryBenchmark {
+
+    @Param({"10000", "1000000", "10000000"})
+    public int rows;
+
+    private DataStore data;
+
+    @Setup(Level.Trial)
+    public void generate() {
+        data = Datasets.generate(rows);
+        data.extent(); // cached by the store, as it is by the time the charts ask
+    }
+
+    @Benchmark
+    public Summary parallelPass() {
+        return SummaryEngine.summarize(data, ForkJoinPool.commonPool());
+    }
+}
@@ -0,0 +1,87 @@
+package dataviz.bench;
+
+import dataviz.data.DataStore;
+import dataviz.io.CsvOptions;
+import dataviz.io.ParallelCsvLoader;
+import dataviz.io.ProgressListener;
+import dataviz.sampling.TimeRollup;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A month of one-second samples with ISO-8601 timestamps: loading it,
+ * building the calendar rollup, and serving views from a month down to a
+ * minute at a chart's pixel width.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class TimeSeriesBenchmark {
+
+    private static final int WIDTH = 1000;
+    private static final int ROWS = 30 * 24 * 3600;
+    private static final long START = Instant.parse("2024-01-01T00:00:00Z").toEpochMilli();
+
+    @Param({"2592000", "86400", "3600", "60"})
+    public long viewSeconds;
+
+    private Path file;
+    private DataStore data;
+    private TimeRollup rollup;
+    private final CsvOptions options = new CsvOptions().columns(0, 1, 2);
+
+    @Setup(Level.Trial)
+    public void prepare() throws IOException {
+        file = Files.createTempFile("dataviz-bench-", ".csv");
+        SplittableRandom random = new SplittableRandom(Datasets.SEED);
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write("time,value,category\n");
+            for (int i = 0; i < ROWS; i++) {
+                writer.write(Instant.ofEpochMilli(START + i * 1000L).toString());
+                writer.write(',');
+                writer.write(Double.toString(Math.sin(i / 3600.0) + random.nextDouble() * 0.1));
+                writer.write(",c");
+                writer.write(Integer.toString(i % Datasets.CATEGORIES));
+                writer.write('\n');
+            }
+        }
+        data = load();
+        rollup = TimeRollup.build(data);
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteFile() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public DataStore load() throws IOException {
+        DataStore target = new DataStore();
+        new ParallelCsvLoader(options, ForkJoinPool.commonPool()).load(file, target, ProgressListener.NONE);
+        return target;
+    }
+
+    @Benchmark
+    public TimeRollup buildRollup() {
+        return TimeRollup.build(data);
+    }
+
+    // A window of viewSeconds ending 70% of the way into the month; load and buildRollup ignore it
+    @Benchmark
+    public int[] query() {
+        double upper = START + ROWS * 1000.0 * 0.7;
+        return rollup.query(upper - viewSeconds * 1000.0, upper, WIDTH);
+    }
+}